@@ -42,9 +42,12 @@ public enum ThreadName {
   WAL_SYNC("WAL-Sync"),
   WAL_DELETE("WAL-Delete"),
   WAL_RECOVER("WAL-Recover"),
+  TSFILE_RECOVER("TsFile-Recover"),
+  WAL_PREALLOCATE("WAL-Preallocate"),
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync"),
   QUERY_SERVICE("Query"),
+  CHUNK_PREFETCH_SERVICE("Chunk-Prefetch"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   TTL_CHECK_SERVICE("TTL-CHECK"),
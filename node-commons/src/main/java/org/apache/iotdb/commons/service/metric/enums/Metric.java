@@ -41,6 +41,9 @@ public enum Metric {
   DATA_WRITTEN,
   DATA_READ,
   COMPACTION_TASK_COUNT,
+  COMPACTION_THROUGHPUT_LIMIT,
+  COMPACTION_MEMORY_COST,
+  COMPACTION_MEMORY_CORRECTION_RATIO,
   PROCESS_CPU_LOAD,
   PROCESS_CPU_TIME,
   PROCESS_MAX_MEM,
@@ -93,12 +96,14 @@ public enum Metric {
   WAL_NODE_NUM,
   WAL_NODE_INFO,
   WAL_BUFFER,
+  WAL_RECOVER,
   PENDING_FLUSH_TASK,
   WAL_COST,
   FLUSH_COST,
   FLUSH_SUB_TASK_COST,
   FLUSHING_MEM_TABLE_STATUS,
   DATA_REGION_MEM_COST,
+  PRIMITIVE_ARRAY_POOL,
   SCHEMA_REGION,
   SCHEMA_ENGINE,
   SESSION_IDLE_TIME;
@@ -43,6 +43,7 @@ import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -57,6 +58,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -185,6 +187,12 @@ public class IoTDBConfig {
   /** Duration a wal flush operation will wait before calling fsync. Unit: millisecond */
   private volatile long fsyncWalDelayInMs = 3;
 
+  /**
+   * Whether to group commit wal in SYNC mode. The entries arrived during an fsync are fsynced
+   * together as soon as this fsync ends, instead of waiting for fsyncWalDelayInMs.
+   */
+  private volatile boolean enableWalGroupCommit = true;
+
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 16 * 1024 * 1024;
 
@@ -194,6 +202,21 @@ public class IoTDBConfig {
   /** Blocking queue capacity of each wal buffer */
   private int walBufferQueueCapacity = 50;
 
+  /**
+   * Number of preallocated .wal files kept by each wal node, 0 means the .wal files are created
+   * when rolling and deleted when outdated
+   */
+  private int walPreallocatedFilesNum = 0;
+
+  /** Compression of the blocks written into .wal files, UNCOMPRESSED means no compression */
+  private volatile CompressionType walCompressionType = CompressionType.UNCOMPRESSED;
+
+  /**
+   * How many threads can concurrently replay wal nodes and recover unsealed TsFiles when starting.
+   * When <= 0, use CPU core number.
+   */
+  private int walRecoverThreadCount = Runtime.getRuntime().availableProcessors();
+
   /** Size threshold of each wal file. Unit: byte */
   private volatile long walFileSizeThresholdInByte = 10 * 1024 * 1024L;
 
@@ -284,6 +307,12 @@ public class IoTDBConfig {
     IoTDBConstant.DEFAULT_BASE_DIR + File.separator + IoTDBConstant.DATA_FOLDER_NAME
   };
 
+  /**
+   * Data directories whose sealed TsFiles are read through memory-mapped inputs. Each of them
+   * should also be one of the dataDirs. Empty means sealed TsFiles are always read by FileChannel.
+   */
+  private String[] mmapReadDataDirs = {};
+
   private String loadTsFileDir =
       dataDirs[0] + File.separator + IoTDBConstant.LOAD_TSFILE_FOLDER_NAME;
 
@@ -313,6 +342,12 @@ public class IoTDBConfig {
   /** How many threads can concurrently flush. When <= 0, use CPU core number. */
   private int flushThreadCount = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads sort and encode the series of one flushing memtable in parallel. When <= 0,
+   * use CPU core number.
+   */
+  private int flushEncodingThreadCount = 1;
+
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int queryThreadCount = Runtime.getRuntime().availableProcessors();
 
@@ -321,6 +356,31 @@ public class IoTDBConfig {
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
+  /**
+   * How many following chunks of a sequence series scan are read ahead into the chunk cache. When
+   * <= 0, chunks are not read ahead.
+   */
+  private int chunkPrefetchNum = 0;
+
+  /** How many threads can concurrently read ahead chunks. When <= 0, use 1. */
+  private int chunkPrefetchThreadCount = 1;
+
+  /**
+   * Whether the chunk cache keeps the compressed data of chunks in direct memory instead of the
+   * heap. If true, allocateMemoryForChunkCache only holds the memory of the decoded page cache, and
+   * the rest is moved to operators and data exchange.
+   */
+  private boolean enableOffHeapChunkCache = false;
+
+  /** Max bytes of direct memory used by the off-heap chunk cache. */
+  private long offHeapChunkCacheSizeInByte = 1024 * 1024 * 1024L;
+
+  /**
+   * Proportion of allocateMemoryForChunkCache used to cache the decoded pages of chunks, the rest
+   * is used by the chunk cache in the heap. When <= 0, the decoded pages are not cached.
+   */
+  private double decodedPageCacheProportion = 0;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int windowEvaluationThreadCount = Runtime.getRuntime().availableProcessors();
 
@@ -387,6 +447,12 @@ public class IoTDBConfig {
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 100000;
 
+  /**
+   * Whether the inserts of different devices in one data region are executed in parallel. If
+   * false, all the inserts of a data region are serialized.
+   */
+  private boolean enableConcurrentMemTable = false;
+
   /** Enable inner space compaction for sequence files */
   private boolean enableSeqSpaceCompaction = true;
 
@@ -433,6 +499,15 @@ public class IoTDBConfig {
   /** The target tsfile size in compaction, 1 GB by default */
   private long targetCompactionFileSize = 1073741824L;
 
+  /** The target size of level 1 tsfiles in leveled inner sequence compaction, 256 MB by default */
+  private long leveledCompactionBaseFileSize = 268435456L;
+
+  /** The ratio of the target sizes of adjacent levels in leveled inner sequence compaction */
+  private int leveledCompactionSizeRatio = 3;
+
+  /** The max number of tsfiles of each level in a time partition in leveled compaction */
+  private int leveledCompactionMaxFileNumPerLevel = 8;
+
   /** The target chunk size in compaction. */
   private long targetChunkSize = 1048576L;
 
@@ -484,6 +559,28 @@ public class IoTDBConfig {
    */
   private int subCompactionTaskNum = 4;
 
+  /**
+   * Whether to compact the devices with fewer series than the sub compaction threads in parallel in
+   * cross space compaction. Each device is compacted into a buffer by a sub compaction thread, and
+   * the buffers are appended into the target files in the order of devices.
+   */
+  private boolean enableDeviceParallelCrossCompaction = false;
+
+  /**
+   * The memory size of the buffer of a device compacted in parallel, the buffer is spilled into a
+   * temporary file if it exceeds this size.
+   */
+  private long deviceParallelCompactionBufferSizeInByte = 16 * 1024 * 1024L;
+
+  /**
+   * Whether to correct the estimated memory cost of cross space compaction by the ratio of actual
+   * to estimated memory cost of the finished tasks in the same database.
+   */
+  private boolean enableCompactionMemoryFeedback = false;
+
+  /** The lower bound of the correction ratio, which limits how much an estimation is reduced. */
+  private double compactionMemoryFeedbackMinRatio = 0.5;
+
   private boolean enableCompactionValidation = true;
 
   /** The size of candidate compaction task queue. */
@@ -653,6 +750,39 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /** The limit of compaction read throughput per second, 0 means unlimited */
+  private int compactionReadThroughputMbPerSec = 0;
+
+  /**
+   * Whether to adjust the compaction read and write throughput by the pressure of flush, wal and
+   * query. The configured throughput works as the upper bound of the adjusted one.
+   */
+  private boolean enableAdaptiveCompactionThroughput = false;
+
+  /** Compaction is throttled when more memtables than this are waiting to be flushed */
+  private int compactionThrottleFlushQueueThreshold = 2;
+
+  /** Compaction is throttled when the p99 latency of wal fsync exceeds this */
+  private long compactionThrottleWalFsyncLatencyInMs = 100;
+
+  /** Compaction is throttled when the p99 latency of fetching query results exceeds this */
+  private long compactionThrottleQueryLatencyInMs = 1000;
+
+  /**
+   * Databases whose cold data is re-encoded and recompressed by the cold storage profile when the
+   * fast performer compacts it
+   */
+  private Set<String> coldStorageDatabases = Collections.emptySet();
+
+  /** Data older than this is cold. The unit is ms. */
+  private long coldStorageAgeInMs = 30 * 24 * 3600 * 1000L;
+
+  /** Compressor of the series rewritten by the cold storage profile */
+  private CompressionType coldStorageCompressor = CompressionType.ZSTD;
+
+  /** Encoding of the FLOAT and DOUBLE series rewritten by the cold storage profile */
+  private TSEncoding coldStorageFloatEncoding = TSEncoding.GORILLA;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -729,6 +859,12 @@ public class IoTDBConfig {
   /** The default value of primitive array size in array pool */
   private int primitiveArraySize = 64;
 
+  /**
+   * Max number of pooled primitive arrays of each data type cached by each thread, which are moved
+   * from and to the shared array pool in batches. 0 means no thread cache.
+   */
+  private int primitiveArrayMagazineCapacity = 16;
+
   /** Time partition interval in milliseconds */
   private long timePartitionInterval = 604_800_000;
 
@@ -1158,6 +1294,9 @@ public class IoTDBConfig {
       for (int i = 0; i < dataDirs.length; i++) {
         dataDirs[i] = addDataHomeDir(dataDirs[i]);
       }
+      for (int i = 0; i < mmapReadDataDirs.length; i++) {
+        mmapReadDataDirs[i] = addDataHomeDir(mmapReadDataDirs[i]);
+      }
     }
   }
 
@@ -1254,6 +1393,14 @@ public class IoTDBConfig {
     setLoadTsFileDir(dataDirs[0] + File.separator + IoTDBConstant.LOAD_TSFILE_FOLDER_NAME);
   }
 
+  public String[] getMmapReadDataDirs() {
+    return mmapReadDataDirs;
+  }
+
+  public void setMmapReadDataDirs(String[] mmapReadDataDirs) {
+    this.mmapReadDataDirs = mmapReadDataDirs;
+  }
+
   public String getRpcAddress() {
     return rpcAddress;
   }
@@ -1464,6 +1611,14 @@ public class IoTDBConfig {
     this.flushThreadCount = flushThreadCount;
   }
 
+  public int getFlushEncodingThreadCount() {
+    return flushEncodingThreadCount;
+  }
+
+  public void setFlushEncodingThreadCount(int flushEncodingThreadCount) {
+    this.flushEncodingThreadCount = flushEncodingThreadCount;
+  }
+
   public int getQueryThreadCount() {
     return queryThreadCount;
   }
@@ -1472,6 +1627,46 @@ public class IoTDBConfig {
     this.queryThreadCount = queryThreadCount;
   }
 
+  public int getChunkPrefetchNum() {
+    return chunkPrefetchNum;
+  }
+
+  public void setChunkPrefetchNum(int chunkPrefetchNum) {
+    this.chunkPrefetchNum = chunkPrefetchNum;
+  }
+
+  public int getChunkPrefetchThreadCount() {
+    return chunkPrefetchThreadCount;
+  }
+
+  public void setChunkPrefetchThreadCount(int chunkPrefetchThreadCount) {
+    this.chunkPrefetchThreadCount = chunkPrefetchThreadCount;
+  }
+
+  public boolean isEnableOffHeapChunkCache() {
+    return enableOffHeapChunkCache;
+  }
+
+  public void setEnableOffHeapChunkCache(boolean enableOffHeapChunkCache) {
+    this.enableOffHeapChunkCache = enableOffHeapChunkCache;
+  }
+
+  public long getOffHeapChunkCacheSizeInByte() {
+    return offHeapChunkCacheSizeInByte;
+  }
+
+  public void setOffHeapChunkCacheSizeInByte(long offHeapChunkCacheSizeInByte) {
+    this.offHeapChunkCacheSizeInByte = offHeapChunkCacheSizeInByte;
+  }
+
+  public double getDecodedPageCacheProportion() {
+    return decodedPageCacheProportion;
+  }
+
+  public void setDecodedPageCacheProportion(double decodedPageCacheProportion) {
+    this.decodedPageCacheProportion = decodedPageCacheProportion;
+  }
+
   public void setDegreeOfParallelism(int degreeOfParallelism) {
     this.degreeOfParallelism = degreeOfParallelism;
   }
@@ -1659,6 +1854,14 @@ public class IoTDBConfig {
     this.fsyncWalDelayInMs = fsyncWalDelayInMs;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
   public int getWalBufferSize() {
     return walBufferSize;
   }
@@ -1683,6 +1886,30 @@ public class IoTDBConfig {
     this.walBufferQueueCapacity = walBufferQueueCapacity;
   }
 
+  public int getWalPreallocatedFilesNum() {
+    return walPreallocatedFilesNum;
+  }
+
+  public void setWalPreallocatedFilesNum(int walPreallocatedFilesNum) {
+    this.walPreallocatedFilesNum = walPreallocatedFilesNum;
+  }
+
+  public CompressionType getWalCompressionType() {
+    return walCompressionType;
+  }
+
+  public void setWalCompressionType(CompressionType walCompressionType) {
+    this.walCompressionType = walCompressionType;
+  }
+
+  public int getWalRecoverThreadCount() {
+    return walRecoverThreadCount;
+  }
+
+  public void setWalRecoverThreadCount(int walRecoverThreadCount) {
+    this.walRecoverThreadCount = walRecoverThreadCount;
+  }
+
   public long getWalFileSizeThresholdInByte() {
     return walFileSizeThresholdInByte;
   }
@@ -1886,6 +2113,78 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public int getCompactionReadThroughputMbPerSec() {
+    return compactionReadThroughputMbPerSec;
+  }
+
+  public void setCompactionReadThroughputMbPerSec(int compactionReadThroughputMbPerSec) {
+    this.compactionReadThroughputMbPerSec = compactionReadThroughputMbPerSec;
+  }
+
+  public boolean isEnableAdaptiveCompactionThroughput() {
+    return enableAdaptiveCompactionThroughput;
+  }
+
+  public void setEnableAdaptiveCompactionThroughput(boolean enableAdaptiveCompactionThroughput) {
+    this.enableAdaptiveCompactionThroughput = enableAdaptiveCompactionThroughput;
+  }
+
+  public int getCompactionThrottleFlushQueueThreshold() {
+    return compactionThrottleFlushQueueThreshold;
+  }
+
+  public void setCompactionThrottleFlushQueueThreshold(int compactionThrottleFlushQueueThreshold) {
+    this.compactionThrottleFlushQueueThreshold = compactionThrottleFlushQueueThreshold;
+  }
+
+  public long getCompactionThrottleWalFsyncLatencyInMs() {
+    return compactionThrottleWalFsyncLatencyInMs;
+  }
+
+  public void setCompactionThrottleWalFsyncLatencyInMs(long compactionThrottleWalFsyncLatencyInMs) {
+    this.compactionThrottleWalFsyncLatencyInMs = compactionThrottleWalFsyncLatencyInMs;
+  }
+
+  public long getCompactionThrottleQueryLatencyInMs() {
+    return compactionThrottleQueryLatencyInMs;
+  }
+
+  public void setCompactionThrottleQueryLatencyInMs(long compactionThrottleQueryLatencyInMs) {
+    this.compactionThrottleQueryLatencyInMs = compactionThrottleQueryLatencyInMs;
+  }
+
+  public Set<String> getColdStorageDatabases() {
+    return coldStorageDatabases;
+  }
+
+  public void setColdStorageDatabases(Set<String> coldStorageDatabases) {
+    this.coldStorageDatabases = coldStorageDatabases;
+  }
+
+  public long getColdStorageAgeInMs() {
+    return coldStorageAgeInMs;
+  }
+
+  public void setColdStorageAgeInMs(long coldStorageAgeInMs) {
+    this.coldStorageAgeInMs = coldStorageAgeInMs;
+  }
+
+  public CompressionType getColdStorageCompressor() {
+    return coldStorageCompressor;
+  }
+
+  public void setColdStorageCompressor(CompressionType coldStorageCompressor) {
+    this.coldStorageCompressor = coldStorageCompressor;
+  }
+
+  public TSEncoding getColdStorageFloatEncoding() {
+    return coldStorageFloatEncoding;
+  }
+
+  public void setColdStorageFloatEncoding(TSEncoding coldStorageFloatEncoding) {
+    this.coldStorageFloatEncoding = coldStorageFloatEncoding;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -1966,6 +2265,14 @@ public class IoTDBConfig {
     this.avgSeriesPointNumberThreshold = avgSeriesPointNumberThreshold;
   }
 
+  public boolean isEnableConcurrentMemTable() {
+    return enableConcurrentMemTable;
+  }
+
+  public void setEnableConcurrentMemTable(boolean enableConcurrentMemTable) {
+    this.enableConcurrentMemTable = enableConcurrentMemTable;
+  }
+
   public long getCrossCompactionFileSelectionTimeBudget() {
     return crossCompactionFileSelectionTimeBudget;
   }
@@ -2464,6 +2771,14 @@ public class IoTDBConfig {
     this.primitiveArraySize = primitiveArraySize;
   }
 
+  public int getPrimitiveArrayMagazineCapacity() {
+    return primitiveArrayMagazineCapacity;
+  }
+
+  public void setPrimitiveArrayMagazineCapacity(int primitiveArrayMagazineCapacity) {
+    this.primitiveArrayMagazineCapacity = primitiveArrayMagazineCapacity;
+  }
+
   public long getStartUpNanosecond() {
     return startUpNanosecond;
   }
@@ -2715,6 +3030,30 @@ public class IoTDBConfig {
     this.targetCompactionFileSize = targetCompactionFileSize;
   }
 
+  public long getLeveledCompactionBaseFileSize() {
+    return leveledCompactionBaseFileSize;
+  }
+
+  public void setLeveledCompactionBaseFileSize(long leveledCompactionBaseFileSize) {
+    this.leveledCompactionBaseFileSize = leveledCompactionBaseFileSize;
+  }
+
+  public int getLeveledCompactionSizeRatio() {
+    return leveledCompactionSizeRatio;
+  }
+
+  public void setLeveledCompactionSizeRatio(int leveledCompactionSizeRatio) {
+    this.leveledCompactionSizeRatio = leveledCompactionSizeRatio;
+  }
+
+  public int getLeveledCompactionMaxFileNumPerLevel() {
+    return leveledCompactionMaxFileNumPerLevel;
+  }
+
+  public void setLeveledCompactionMaxFileNumPerLevel(int leveledCompactionMaxFileNumPerLevel) {
+    this.leveledCompactionMaxFileNumPerLevel = leveledCompactionMaxFileNumPerLevel;
+  }
+
   public long getTargetChunkSize() {
     return targetChunkSize;
   }
@@ -2811,6 +3150,39 @@ public class IoTDBConfig {
     this.subCompactionTaskNum = subCompactionTaskNum;
   }
 
+  public boolean isEnableDeviceParallelCrossCompaction() {
+    return enableDeviceParallelCrossCompaction;
+  }
+
+  public void setEnableDeviceParallelCrossCompaction(boolean enableDeviceParallelCrossCompaction) {
+    this.enableDeviceParallelCrossCompaction = enableDeviceParallelCrossCompaction;
+  }
+
+  public long getDeviceParallelCompactionBufferSizeInByte() {
+    return deviceParallelCompactionBufferSizeInByte;
+  }
+
+  public void setDeviceParallelCompactionBufferSizeInByte(
+      long deviceParallelCompactionBufferSizeInByte) {
+    this.deviceParallelCompactionBufferSizeInByte = deviceParallelCompactionBufferSizeInByte;
+  }
+
+  public boolean isEnableCompactionMemoryFeedback() {
+    return enableCompactionMemoryFeedback;
+  }
+
+  public void setEnableCompactionMemoryFeedback(boolean enableCompactionMemoryFeedback) {
+    this.enableCompactionMemoryFeedback = enableCompactionMemoryFeedback;
+  }
+
+  public double getCompactionMemoryFeedbackMinRatio() {
+    return compactionMemoryFeedbackMinRatio;
+  }
+
+  public void setCompactionMemoryFeedbackMinRatio(double compactionMemoryFeedbackMinRatio) {
+    this.compactionMemoryFeedbackMinRatio = compactionMemoryFeedbackMinRatio;
+  }
+
   public String getDeviceIDTransformationMethod() {
     return deviceIDTransformationMethod;
   }
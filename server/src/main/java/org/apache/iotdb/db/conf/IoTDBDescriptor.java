@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.conf.CommonConfig;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.BadNodeUrlException;
+import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.utils.NodeUrlUtils;
 import org.apache.iotdb.confignode.rpc.thrift.TCQConfig;
@@ -40,6 +41,7 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.metrics.IoTDBInternalLocalReporter;
 import org.apache.iotdb.db.utils.DateTimeUtils;
+import org.apache.iotdb.db.utils.SchemaUtils;
 import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
 import org.apache.iotdb.db.wal.WALManager;
 import org.apache.iotdb.db.wal.utils.WALMode;
@@ -52,6 +54,7 @@ import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.NodeType;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -66,8 +69,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.HashSet;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 public class IoTDBDescriptor {
 
@@ -352,6 +357,11 @@ public class IoTDBDescriptor {
 
     conf.setDataDirs(properties.getProperty("dn_data_dirs", conf.getDataDirs()[0]).split(","));
 
+    String mmapReadDataDirs = properties.getProperty("dn_mmap_read_data_dirs", "").trim();
+    if (!mmapReadDataDirs.isEmpty()) {
+      conf.setMmapReadDataDirs(mmapReadDataDirs.split(","));
+    }
+
     conf.setConsensusDir(properties.getProperty("dn_consensus_dir", conf.getConsensusDir()));
 
     int mlogBufferSize =
@@ -410,6 +420,12 @@ public class IoTDBDescriptor {
                 "avg_series_point_number_threshold",
                 Integer.toString(conf.getAvgSeriesPointNumberThreshold()))));
 
+    conf.setEnableConcurrentMemTable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_concurrent_memtable",
+                Boolean.toString(conf.isEnableConcurrentMemTable()))));
+
     conf.setCheckPeriodWhenInsertBlocked(
         Integer.parseInt(
             properties.getProperty(
@@ -500,6 +516,30 @@ public class IoTDBDescriptor {
     subtaskNum = subtaskNum <= 0 ? 1 : subtaskNum;
     conf.setSubCompactionTaskNum(subtaskNum);
 
+    conf.setEnableDeviceParallelCrossCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_device_parallel_cross_compaction",
+                Boolean.toString(conf.isEnableDeviceParallelCrossCompaction()))));
+
+    conf.setDeviceParallelCompactionBufferSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "device_parallel_compaction_buffer_size_in_byte",
+                Long.toString(conf.getDeviceParallelCompactionBufferSizeInByte()))));
+
+    conf.setEnableCompactionMemoryFeedback(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compaction_memory_feedback",
+                Boolean.toString(conf.isEnableCompactionMemoryFeedback()))));
+
+    conf.setCompactionMemoryFeedbackMinRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_memory_feedback_min_ratio",
+                Double.toString(conf.getCompactionMemoryFeedbackMinRatio()))));
+
     conf.setQueryTimeoutThreshold(
         Long.parseLong(
             properties.getProperty(
@@ -529,6 +569,16 @@ public class IoTDBDescriptor {
       conf.setFlushThreadCount(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setFlushEncodingThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_thread_count",
+                Integer.toString(conf.getFlushEncodingThreadCount()))));
+
+    if (conf.getFlushEncodingThreadCount() <= 0) {
+      conf.setFlushEncodingThreadCount(Runtime.getRuntime().availableProcessors());
+    }
+
     // start: index parameter setting
     conf.setIndexRootFolder(properties.getProperty("index_root_dir", conf.getIndexRootFolder()));
 
@@ -579,6 +629,59 @@ public class IoTDBDescriptor {
       conf.setMaxAllowedConcurrentQueries(1000);
     }
 
+    conf.setChunkPrefetchNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_num", Integer.toString(conf.getChunkPrefetchNum()))));
+
+    conf.setChunkPrefetchThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_thread_count",
+                Integer.toString(conf.getChunkPrefetchThreadCount()))));
+
+    if (conf.getChunkPrefetchThreadCount() <= 0) {
+      conf.setChunkPrefetchThreadCount(1);
+    }
+
+    conf.setEnableOffHeapChunkCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_off_heap_chunk_cache",
+                Boolean.toString(conf.isEnableOffHeapChunkCache()))));
+
+    conf.setOffHeapChunkCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "off_heap_chunk_cache_size_in_byte",
+                Long.toString(conf.getOffHeapChunkCacheSizeInByte()))));
+
+    conf.setDecodedPageCacheProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "decoded_page_cache_proportion",
+                Double.toString(conf.getDecodedPageCacheProportion()))));
+
+    if (conf.getDecodedPageCacheProportion() >= 1) {
+      conf.setDecodedPageCacheProportion(0);
+    }
+
+    // the chunks are cached off heap, only the decoded pages are cached in the memory for chunk
+    // cache, we need to move the rest of it to other parts
+    if (conf.isMetaDataCacheEnable() && conf.isEnableOffHeapChunkCache()) {
+      long memoryForDecodedPageCache =
+          (long)
+              (conf.getAllocateMemoryForChunkCache()
+                  * Math.max(conf.getDecodedPageCacheProportion(), 0));
+      long released = conf.getAllocateMemoryForChunkCache() - memoryForDecodedPageCache;
+      conf.setAllocateMemoryForChunkCache(memoryForDecodedPageCache);
+      long partForDataExchange = released / 2;
+      long partForOperators = released - partForDataExchange;
+      conf.setAllocateMemoryForDataExchange(
+          conf.getAllocateMemoryForDataExchange() + partForDataExchange);
+      conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
+    }
+
     conf.setmRemoteSchemaCacheSize(
         Integer.parseInt(
             properties
@@ -620,6 +723,21 @@ public class IoTDBDescriptor {
         Long.parseLong(
             properties.getProperty(
                 "target_compaction_file_size", Long.toString(conf.getTargetCompactionFileSize()))));
+    conf.setLeveledCompactionBaseFileSize(
+        Long.parseLong(
+            properties.getProperty(
+                "leveled_compaction_base_file_size",
+                Long.toString(conf.getLeveledCompactionBaseFileSize()))));
+    conf.setLeveledCompactionSizeRatio(
+        Integer.parseInt(
+            properties.getProperty(
+                "leveled_compaction_size_ratio",
+                Integer.toString(conf.getLeveledCompactionSizeRatio()))));
+    conf.setLeveledCompactionMaxFileNumPerLevel(
+        Integer.parseInt(
+            properties.getProperty(
+                "leveled_compaction_max_file_num_per_level",
+                Integer.toString(conf.getLeveledCompactionMaxFileNumPerLevel()))));
     conf.setTargetChunkSize(
         Long.parseLong(
             properties.getProperty("target_chunk_size", Long.toString(conf.getTargetChunkSize()))));
@@ -658,6 +776,62 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compaction_write_throughput_mb_per_sec",
                 Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
+    conf.setCompactionReadThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_read_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionReadThroughputMbPerSec()))));
+    conf.setEnableAdaptiveCompactionThroughput(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_compaction_throughput",
+                Boolean.toString(conf.isEnableAdaptiveCompactionThroughput()))));
+    conf.setCompactionThrottleFlushQueueThreshold(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_throttle_flush_queue_threshold",
+                Integer.toString(conf.getCompactionThrottleFlushQueueThreshold()))));
+    conf.setCompactionThrottleWalFsyncLatencyInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_wal_fsync_latency_in_ms",
+                Long.toString(conf.getCompactionThrottleWalFsyncLatencyInMs()))));
+    conf.setCompactionThrottleQueryLatencyInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_query_latency_in_ms",
+                Long.toString(conf.getCompactionThrottleQueryLatencyInMs()))));
+    String coldStorageDatabases = properties.getProperty("cold_storage_databases", "").trim();
+    if (!coldStorageDatabases.isEmpty()) {
+      Set<String> databases = new HashSet<>();
+      for (String database : coldStorageDatabases.split(",")) {
+        if (!database.trim().isEmpty()) {
+          databases.add(database.trim());
+        }
+      }
+      conf.setColdStorageDatabases(databases);
+    }
+    conf.setColdStorageAgeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "cold_storage_age_in_ms", Long.toString(conf.getColdStorageAgeInMs()))));
+    conf.setColdStorageCompressor(
+        CompressionType.valueOf(
+            properties.getProperty(
+                "cold_storage_compressor", conf.getColdStorageCompressor().toString())));
+    TSEncoding coldStorageFloatEncoding =
+        TSEncoding.valueOf(
+            properties.getProperty(
+                "cold_storage_float_encoding", conf.getColdStorageFloatEncoding().toString()));
+    try {
+      // the encoding is applied to both FLOAT and DOUBLE series
+      SchemaUtils.checkDataTypeWithEncoding(TSDataType.FLOAT, coldStorageFloatEncoding);
+      SchemaUtils.checkDataTypeWithEncoding(TSDataType.DOUBLE, coldStorageFloatEncoding);
+    } catch (MetadataException e) {
+      throw new IllegalArgumentException(
+          "cold_storage_float_encoding should support FLOAT and DOUBLE, " + e.getMessage(), e);
+    }
+    conf.setColdStorageFloatEncoding(coldStorageFloatEncoding);
 
     conf.setEnableCompactionValidation(
         Boolean.parseBoolean(
@@ -774,6 +948,15 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "primitive_array_size", String.valueOf(conf.getPrimitiveArraySize())))));
 
+    int primitiveArrayMagazineCapacity =
+        Integer.parseInt(
+            properties.getProperty(
+                "primitive_array_magazine_capacity",
+                String.valueOf(conf.getPrimitiveArrayMagazineCapacity())));
+    if (primitiveArrayMagazineCapacity >= 0) {
+      conf.setPrimitiveArrayMagazineCapacity(primitiveArrayMagazineCapacity);
+    }
+
     conf.setThriftMaxFrameSize(
         Integer.parseInt(
             properties.getProperty(
@@ -1058,6 +1241,28 @@ public class IoTDBDescriptor {
       conf.setWalBufferQueueCapacity(walBufferQueueCapacity);
     }
 
+    int walPreallocatedFilesNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_preallocated_files_num", Integer.toString(conf.getWalPreallocatedFilesNum())));
+    if (walPreallocatedFilesNum >= 0) {
+      conf.setWalPreallocatedFilesNum(walPreallocatedFilesNum);
+    }
+
+    conf.setWalCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty("wal_compression_type", conf.getWalCompressionType().toString())
+                .trim()));
+
+    conf.setWalRecoverThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_recover_thread_count", Integer.toString(conf.getWalRecoverThreadCount()))));
+    if (conf.getWalRecoverThreadCount() <= 0) {
+      conf.setWalRecoverThreadCount(Runtime.getRuntime().availableProcessors());
+    }
+
     loadWALHotModifiedProps(properties);
   }
 
@@ -1070,6 +1275,11 @@ public class IoTDBDescriptor {
       conf.setFsyncWalDelayInMs(fsyncWalDelayInMs);
     }
 
+    conf.setEnableWalGroupCommit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+
     long walFileSizeThreshold =
         Long.parseLong(
             properties.getProperty(
@@ -1442,6 +1652,12 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "merge_write_throughput_mb_per_sec",
                   Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
+      // update compaction_read_throughput_mb_per_sec
+      conf.setCompactionReadThroughputMbPerSec(
+          Integer.parseInt(
+              properties.getProperty(
+                  "compaction_read_throughput_mb_per_sec",
+                  Integer.toString(conf.getCompactionReadThroughputMbPerSec()))));
       // update insert-tablet-plan's row limit for select-into
       conf.setSelectIntoInsertTabletPlanRowLimit(
           Integer.parseInt(
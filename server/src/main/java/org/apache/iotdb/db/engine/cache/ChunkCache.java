@@ -19,10 +19,13 @@
 
 package org.apache.iotdb.db.engine.cache;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -33,11 +36,19 @@ import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.iotdb.db.mpp.metric.SeriesScanCostMetricSet.READ_CHUNK_ALL;
@@ -45,60 +56,145 @@ import static org.apache.iotdb.db.mpp.metric.SeriesScanCostMetricSet.READ_CHUNK_
 
 /**
  * This class is used to cache <code>Chunk</code> of <code>ChunkMetaData</code> in IoTDB. The
- * caching strategy is LRU.
+ * caching strategy is LRU. If the off-heap chunk cache is enabled, the data of chunks are cached by
+ * {@link OffHeapChunkCache} in direct memory instead.
  */
 public class ChunkCache {
 
   private static final Logger logger = LoggerFactory.getLogger(ChunkCache.class);
   private static final Logger DEBUG_LOGGER = LoggerFactory.getLogger("QUERY_DEBUG");
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
-  private static final long MEMORY_THRESHOLD_IN_CHUNK_CACHE =
-      config.getAllocateMemoryForChunkCache();
   private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
+  private static final boolean OFF_HEAP_ENABLE = CACHE_ENABLE && config.isEnableOffHeapChunkCache();
+  private static final long MEMORY_THRESHOLD_IN_CHUNK_CACHE =
+      OFF_HEAP_ENABLE
+          ? config.getOffHeapChunkCacheSizeInByte()
+          : (long)
+              (config.getAllocateMemoryForChunkCache()
+                  * (1 - Math.max(config.getDecodedPageCacheProportion(), 0)));
+  private static final boolean PREFETCH_ENABLE = CACHE_ENABLE && config.getChunkPrefetchNum() > 0;
+
+  /**
+   * At most this proportion of the cache can be occupied by prefetched chunks which have not been
+   * read by any query, so that read-ahead never evicts most of the hot chunks.
+   */
+  private static final long MAX_PREFETCHED_MEMORY = MEMORY_THRESHOLD_IN_CHUNK_CACHE / 4;
 
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
+  /** null if the chunks are cached off heap */
   private final LoadingCache<ChunkMetadata, Chunk> lruCache;
 
+  /** null if the chunks are cached in the heap */
+  private final OffHeapChunkCache offHeapCache;
+
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
+  /** null if chunk prefetch is disabled */
+  private final ExecutorService prefetchPool;
+
+  /** chunks which are submitted to prefetchPool but have not been put into the cache yet */
+  private final Set<ChunkMetadata> prefetchingChunks = ConcurrentHashMap.newKeySet();
+
+  /** prefetched chunks in the cache which have not been read, and their weights */
+  private final Map<ChunkMetadata, Long> prefetchedChunkWeights = new ConcurrentHashMap<>();
+
+  private final AtomicLong prefetchedMemory = new AtomicLong(0);
+
   private ChunkCache() {
     if (CACHE_ENABLE) {
-      logger.info("ChunkCache size = {}", MEMORY_THRESHOLD_IN_CHUNK_CACHE);
+      logger.info(
+          "ChunkCache size = {}, off heap = {}", MEMORY_THRESHOLD_IN_CHUNK_CACHE, OFF_HEAP_ENABLE);
     }
-    lruCache =
-        Caffeine.newBuilder()
-            .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
-            .weigher(
-                (Weigher<ChunkMetadata, Chunk>)
-                    (chunkMetadata, chunk) ->
-                        (int)
-                            (RamUsageEstimator.NUM_BYTES_OBJECT_REF
-                                + RamUsageEstimator.sizeOf(chunk)))
-            .recordStats()
-            .build(
-                chunkMetadata -> {
-                  long startTime = System.nanoTime();
-                  try {
-                    TsFileSequenceReader reader =
-                        FileReaderManager.getInstance()
-                            .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
-                    return reader.readMemChunk(chunkMetadata);
-                  } catch (IOException e) {
-                    logger.error("Something wrong happened in reading {}", chunkMetadata, e);
-                    throw e;
-                  } finally {
-                    QUERY_METRICS.recordSeriesScanCost(
-                        READ_CHUNK_FILE, System.nanoTime() - startTime);
-                  }
-                });
+    if (OFF_HEAP_ENABLE) {
+      lruCache = null;
+      offHeapCache =
+          new OffHeapChunkCache(MEMORY_THRESHOLD_IN_CHUNK_CACHE, this::releasePrefetchedChunk);
+    } else {
+      lruCache =
+          Caffeine.newBuilder()
+              .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
+              .weigher((Weigher<ChunkMetadata, Chunk>) (chunkMetadata, chunk) -> weigh(chunk))
+              .removalListener(
+                  (ChunkMetadata chunkMetadata, Chunk chunk, RemovalCause cause) ->
+                      releasePrefetchedChunk(chunkMetadata))
+              .recordStats()
+              .build(this::loadChunk);
+      offHeapCache = null;
+    }
+
+    prefetchPool =
+        PREFETCH_ENABLE
+            ? IoTDBThreadPoolFactory.newFixedThreadPool(
+                config.getChunkPrefetchThreadCount(),
+                ThreadName.CHUNK_PREFETCH_SERVICE.getName())
+            : null;
 
     // add metrics
     MetricService.getInstance().addMetricSet(new ChunkCacheMetrics(this));
   }
 
+  private static int weigh(Chunk chunk) {
+    return (int) (RamUsageEstimator.NUM_BYTES_OBJECT_REF + RamUsageEstimator.sizeOf(chunk));
+  }
+
+  private Chunk loadChunk(ChunkMetadata chunkMetadata) throws IOException {
+    long startTime = System.nanoTime();
+    try {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance()
+              .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
+      return reader.readMemChunk(chunkMetadata);
+    } catch (IOException e) {
+      logger.error("Something wrong happened in reading {}", chunkMetadata, e);
+      throw e;
+    } finally {
+      QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_FILE, System.nanoTime() - startTime);
+    }
+  }
+
+  private Chunk getFromOffHeapCache(ChunkMetadata chunkMetadata) throws IOException {
+    Chunk chunk = offHeapCache.getIfPresent(chunkMetadata);
+    if (chunk == null) {
+      chunk = loadChunk(chunkMetadata);
+      offHeapCache.put(chunkMetadata, chunk);
+    }
+    return chunk;
+  }
+
+  private Chunk getIfPresent(ChunkMetadata chunkMetadata) {
+    return offHeapCache == null
+        ? lruCache.getIfPresent(chunkMetadata)
+        : offHeapCache.getIfPresent(chunkMetadata);
+  }
+
+  private void put(ChunkMetadata chunkMetadata, Chunk chunk) {
+    if (offHeapCache == null) {
+      lruCache.put(chunkMetadata, chunk);
+    } else {
+      offHeapCache.put(chunkMetadata, chunk);
+    }
+  }
+
+  /** @return false if the chunk is already in the cache or can not be cached */
+  private boolean putIfAbsent(ChunkMetadata chunkMetadata, Chunk chunk) {
+    return offHeapCache == null
+        ? lruCache.asMap().putIfAbsent(chunkMetadata, chunk) == null
+        : offHeapCache.putIfAbsent(chunkMetadata, chunk);
+  }
+
+  private boolean contains(ChunkMetadata chunkMetadata) {
+    return offHeapCache == null
+        ? lruCache.asMap().containsKey(chunkMetadata)
+        : offHeapCache.contains(chunkMetadata);
+  }
+
+  private CacheStats stats() {
+    return offHeapCache == null ? lruCache.stats() : offHeapCache.stats();
+  }
+
   public double getHitRate() {
-    return lruCache.stats().hitRate() * 100;
+    return stats().hitRate() * 100;
   }
 
   public static ChunkCache getInstance() {
@@ -117,35 +213,190 @@ public class ChunkCache {
             FileReaderManager.getInstance()
                 .get(chunkMetaData.getFilePath(), chunkMetaData.isClosed());
         Chunk chunk = reader.readMemChunk(chunkMetaData);
-        return new Chunk(
-            chunk.getHeader(),
-            chunk.getData().duplicate(),
-            chunkMetaData.getDeleteIntervalList(),
-            chunkMetaData.getStatistics());
+        return chunk.copy(chunkMetaData.getDeleteIntervalList(), chunkMetaData.getStatistics());
       }
 
-      Chunk chunk = lruCache.get(chunkMetaData);
+      Chunk chunk =
+          offHeapCache == null ? lruCache.get(chunkMetaData) : getFromOffHeapCache(chunkMetaData);
+      if (PREFETCH_ENABLE) {
+        releasePrefetchedChunk(chunkMetaData);
+      }
 
       if (debug) {
         DEBUG_LOGGER.info("get chunk from cache whose meta data is: {}", chunkMetaData);
       }
 
-      return new Chunk(
-          chunk.getHeader(),
-          chunk.getData().duplicate(),
-          chunkMetaData.getDeleteIntervalList(),
-          chunkMetaData.getStatistics());
+      return chunk.copy(chunkMetaData.getDeleteIntervalList(), chunkMetaData.getStatistics());
     } finally {
       QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_ALL, System.nanoTime() - startTime);
     }
   }
 
+  /**
+   * Get the chunks of the given chunk metadata list, which all belong to one TsFile, such as the
+   * time chunk and value chunks of an aligned chunk. The chunks missing in the cache are read by
+   * {@link TsFileSequenceReader#readChunks}, so that adjacent chunks are read by one I/O instead of
+   * one I/O per chunk.
+   *
+   * @param chunkMetadataList chunk metadata of the same TsFile, null elements are allowed
+   * @return chunks in the same order as the given chunk metadata list, null for null metadata
+   */
+  public List<Chunk> get(List<ChunkMetadata> chunkMetadataList, boolean debug) throws IOException {
+    long startTime = System.nanoTime();
+    try {
+      Chunk[] chunks = new Chunk[chunkMetadataList.size()];
+      List<ChunkMetadata> missedChunkMetadataList = new ArrayList<>();
+      for (int i = 0; i < chunks.length; i++) {
+        ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+        if (chunkMetadata == null) {
+          continue;
+        }
+        chunks[i] = CACHE_ENABLE ? getIfPresent(chunkMetadata) : null;
+        if (chunks[i] == null) {
+          missedChunkMetadataList.add(chunkMetadata);
+        } else if (PREFETCH_ENABLE) {
+          releasePrefetchedChunk(chunkMetadata);
+        }
+      }
+
+      if (!missedChunkMetadataList.isEmpty()) {
+        List<Chunk> missedChunks = readChunks(missedChunkMetadataList);
+        for (int i = 0, j = 0; i < chunks.length; i++) {
+          if (chunks[i] == null && chunkMetadataList.get(i) != null) {
+            chunks[i] = missedChunks.get(j++);
+            if (CACHE_ENABLE) {
+              put(chunkMetadataList.get(i), chunks[i]);
+            }
+          }
+        }
+      }
+
+      if (debug) {
+        DEBUG_LOGGER.info("get chunks from cache whose meta data are: {}", chunkMetadataList);
+      }
+
+      List<Chunk> result = new ArrayList<>(chunks.length);
+      for (int i = 0; i < chunks.length; i++) {
+        ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+        result.add(
+            chunkMetadata == null
+                ? null
+                : chunks[i].copy(
+                    chunkMetadata.getDeleteIntervalList(), chunkMetadata.getStatistics()));
+      }
+      return result;
+    } finally {
+      QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_ALL, System.nanoTime() - startTime);
+    }
+  }
+
+  private List<Chunk> readChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    long startTime = System.nanoTime();
+    ChunkMetadata firstChunkMetadata = chunkMetadataList.get(0);
+    try {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance()
+              .get(firstChunkMetadata.getFilePath(), firstChunkMetadata.isClosed());
+      return reader.readChunks(chunkMetadataList);
+    } catch (IOException e) {
+      logger.error("Something wrong happened in reading {}", chunkMetadataList, e);
+      throw e;
+    } finally {
+      QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_FILE, System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Read the given chunks into the cache asynchronously, so that the I/O of the following chunks of
+   * a scan overlaps with the decoding of the current ones. The chunks are read together, and those
+   * close to each other are merged into one read. Chunks of unsealed files and
+   * chunks already in the cache are ignored. Prefetching is skipped when too much memory of the
+   * cache is held by prefetched chunks that no query has read yet.
+   *
+   * @param resource the TsFile of the chunks, which is read locked while reading the chunks so that
+   *     compaction can't delete it in the meantime
+   * @param chunkMetadataList chunks to prefetch, in the order that they will be read
+   */
+  public void prefetch(TsFileResource resource, List<ChunkMetadata> chunkMetadataList) {
+    if (!PREFETCH_ENABLE || prefetchedMemory.get() >= MAX_PREFETCHED_MEMORY) {
+      return;
+    }
+    List<ChunkMetadata> chunksToPrefetch = new ArrayList<>();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata.isClosed()
+          && !contains(chunkMetadata)
+          && prefetchingChunks.add(chunkMetadata)) {
+        chunksToPrefetch.add(chunkMetadata);
+      }
+    }
+    if (chunksToPrefetch.isEmpty()) {
+      return;
+    }
+    chunksToPrefetch.sort(
+        (o1, o2) -> Long.compare(o1.getOffsetOfChunkHeader(), o2.getOffsetOfChunkHeader()));
+    prefetchPool.submit(() -> prefetchChunksOfFile(resource, chunksToPrefetch));
+  }
+
+  private void prefetchChunksOfFile(
+      TsFileResource resource, List<ChunkMetadata> chunkMetadataList) {
+    long startTime = System.nanoTime();
+    String filePath = resource.getTsFilePath();
+    resource.readLock();
+    try {
+      if (resource.isDeleted() || prefetchedMemory.get() >= MAX_PREFETCHED_MEMORY) {
+        return;
+      }
+      // the file may have been released by the query, do not open a reader no one will close
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().getAndReferenceIfReferenced(filePath);
+      if (reader == null) {
+        return;
+      }
+      List<Chunk> chunks;
+      try {
+        chunks =
+            reader.readMemChunks(
+                chunkMetadataList, TsFileSequenceReader.DEFAULT_MAX_COALESCED_READ_SIZE);
+      } finally {
+        FileReaderManager.getInstance().releaseReferencedReader(filePath);
+      }
+      for (int i = 0; i < chunks.size(); i++) {
+        ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+        Chunk chunk = chunks.get(i);
+        long weight = offHeapCache == null ? weigh(chunk) : OffHeapChunkCache.weigh(chunk);
+        // account before putting, so that the removal listener always finds the weight
+        if (prefetchedChunkWeights.putIfAbsent(chunkMetadata, weight) != null) {
+          continue;
+        }
+        prefetchedMemory.addAndGet(weight);
+        if (!putIfAbsent(chunkMetadata, chunk)) {
+          // loaded by a query in the meantime, or no free memory off heap
+          releasePrefetchedChunk(chunkMetadata);
+        }
+      }
+    } catch (IOException e) {
+      // prefetch is best effort, the chunks will be read again by the query if needed
+      logger.warn("Failed to prefetch {} chunks of {}", chunkMetadataList.size(), filePath, e);
+    } finally {
+      resource.readUnlock();
+      chunkMetadataList.forEach(prefetchingChunks::remove);
+      QUERY_METRICS.recordSeriesScanCost(READ_CHUNK_FILE, System.nanoTime() - startTime);
+    }
+  }
+
+  private void releasePrefetchedChunk(ChunkMetadata chunkMetadata) {
+    Long weight = prefetchedChunkWeights.remove(chunkMetadata);
+    if (weight != null) {
+      prefetchedMemory.addAndGet(-weight);
+    }
+  }
+
   public double calculateChunkHitRatio() {
-    return lruCache.stats().hitRate();
+    return stats().hitRate();
   }
 
   public long getEvictionCount() {
-    return lruCache.stats().evictionCount();
+    return stats().evictionCount();
   }
 
   public long getMaxMemory() {
@@ -153,26 +404,39 @@ public class ChunkCache {
   }
 
   public double getAverageLoadPenalty() {
-    return lruCache.stats().averageLoadPenalty();
+    return stats().averageLoadPenalty();
   }
 
   public long getAverageSize() {
     return entryAverageSize.get();
   }
 
+  /** @return direct memory used by the off-heap chunk cache, 0 if it is disabled */
+  public long getOffHeapUsedMemory() {
+    return offHeapCache == null ? 0 : offHeapCache.getUsedMemory();
+  }
+
   /** clear LRUCache. */
   public void clear() {
-    lruCache.invalidateAll();
-    lruCache.cleanUp();
+    if (offHeapCache == null) {
+      lruCache.invalidateAll();
+      lruCache.cleanUp();
+    } else {
+      offHeapCache.invalidateAll();
+    }
   }
 
   public void remove(ChunkMetadata chunkMetaData) {
-    lruCache.invalidate(chunkMetaData);
+    if (offHeapCache == null) {
+      lruCache.invalidate(chunkMetaData);
+    } else {
+      offHeapCache.invalidate(chunkMetaData);
+    }
   }
 
   @TestOnly
   public boolean isEmpty() {
-    return lruCache.asMap().isEmpty();
+    return offHeapCache == null ? lruCache.asMap().isEmpty() : offHeapCache.isEmpty();
   }
 
   /** singleton pattern. */
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.reader.IChunkPageCache;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * This class is used to cache the decoded pages of non-aligned chunks, which is the second tier of
+ * {@link ChunkCache}. A hit skips both uncompressing and decoding the page, and the filter of the
+ * query is applied to the cached rows. The caching strategy is W-TinyLFU, so that the pages read
+ * once by a large scan do not evict the pages read repeatedly.
+ */
+public class DecodedPageCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(DecodedPageCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  // if the chunks are cached off heap, the memory for chunk cache only holds the decoded pages
+  private static final long MEMORY_THRESHOLD_IN_DECODED_PAGE_CACHE =
+      config.isEnableOffHeapChunkCache()
+          ? config.getAllocateMemoryForChunkCache()
+          : (long)
+              (config.getAllocateMemoryForChunkCache() * config.getDecodedPageCacheProportion());
+  private static final boolean CACHE_ENABLE =
+      config.isMetaDataCacheEnable() && MEMORY_THRESHOLD_IN_DECODED_PAGE_CACHE > 0;
+
+  /** null if the decoded pages are not cached */
+  private final Cache<DecodedPageCacheKey, TsBlock> lruCache;
+
+  private DecodedPageCache() {
+    if (CACHE_ENABLE) {
+      logger.info("DecodedPageCache size = {}", MEMORY_THRESHOLD_IN_DECODED_PAGE_CACHE);
+      lruCache =
+          Caffeine.newBuilder()
+              .maximumWeight(MEMORY_THRESHOLD_IN_DECODED_PAGE_CACHE)
+              .weigher(
+                  (Weigher<DecodedPageCacheKey, TsBlock>)
+                      (key, page) ->
+                          (int)
+                              (RamUsageEstimator.shallowSizeOf(key)
+                                  + page.getRetainedSizeInBytes()))
+              .recordStats()
+              .build();
+    } else {
+      lruCache = null;
+    }
+  }
+
+  public static DecodedPageCache getInstance() {
+    return DecodedPageCacheHolder.INSTANCE;
+  }
+
+  /**
+   * @return the decoded pages of the chunk, null if the decoded pages are not cached or the chunk
+   *     is not sealed
+   */
+  public IChunkPageCache getPageCacheOfChunk(ChunkMetadata chunkMetadata) {
+    if (lruCache == null || !chunkMetadata.isClosed()) {
+      return null;
+    }
+    return new IChunkPageCache() {
+      @Override
+      public TsBlock get(int pageIndex) {
+        return lruCache.getIfPresent(new DecodedPageCacheKey(chunkMetadata, pageIndex));
+      }
+
+      @Override
+      public void put(int pageIndex, TsBlock decodedPage) {
+        lruCache.put(new DecodedPageCacheKey(chunkMetadata, pageIndex), decodedPage);
+      }
+    };
+  }
+
+  public double calculatePageHitRatio() {
+    return lruCache == null ? 0 : lruCache.stats().hitRate();
+  }
+
+  public long getMaxMemory() {
+    return MEMORY_THRESHOLD_IN_DECODED_PAGE_CACHE;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    if (lruCache != null) {
+      lruCache.invalidateAll();
+      lruCache.cleanUp();
+    }
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache == null || lruCache.asMap().isEmpty();
+  }
+
+  private static class DecodedPageCacheKey {
+
+    private final ChunkMetadata chunkMetadata;
+    private final int pageIndex;
+
+    private DecodedPageCacheKey(ChunkMetadata chunkMetadata, int pageIndex) {
+      this.chunkMetadata = chunkMetadata;
+      this.pageIndex = pageIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      DecodedPageCacheKey that = (DecodedPageCacheKey) o;
+      return pageIndex == that.pageIndex && chunkMetadata.equals(that.chunkMetadata);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(chunkMetadata, pageIndex);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class DecodedPageCacheHolder {
+
+    private static final DecodedPageCache INSTANCE = new DecodedPageCache();
+  }
+}
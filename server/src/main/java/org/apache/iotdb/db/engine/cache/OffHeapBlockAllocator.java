@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates fixed size blocks of direct memory. The direct memory is allocated as slabs when
+ * needed and is only returned to the system by {@link #close()}, so that freeing blocks does not
+ * depend on the GC.
+ *
+ * <p>A piece of data is stored in several blocks which are not necessarily adjacent, so there is no
+ * external fragmentation, and the internal fragmentation is less than one block per piece.
+ */
+public class OffHeapBlockAllocator {
+
+  public static final int BLOCK_SIZE = 4 * 1024;
+
+  private static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+
+  private final int blockNumPerSlab;
+
+  private final int maxBlockNum;
+
+  private final ByteBuffer[] slabs;
+
+  /** number of slabs which have been allocated */
+  private int slabNum = 0;
+
+  /** number of blocks in the allocated slabs */
+  private int slabBlockNum = 0;
+
+  /** a stack of the free blocks in the allocated slabs */
+  private final int[] freeBlocks;
+
+  private int freeBlockNum = 0;
+
+  public OffHeapBlockAllocator(long capacity) {
+    this(capacity, DEFAULT_SLAB_SIZE);
+  }
+
+  OffHeapBlockAllocator(long capacity, int slabSize) {
+    this.blockNumPerSlab = slabSize / BLOCK_SIZE;
+    this.maxBlockNum = (int) Math.min(capacity / BLOCK_SIZE, Integer.MAX_VALUE);
+    this.slabs = new ByteBuffer[(maxBlockNum + blockNumPerSlab - 1) / blockNumPerSlab];
+    this.freeBlocks = new int[maxBlockNum];
+  }
+
+  public static int getBlockNum(int size) {
+    return (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+  }
+
+  /**
+   * Allocate blocks for the given size of data.
+   *
+   * @return ids of the blocks, null if there is no enough free memory
+   */
+  public synchronized int[] allocate(int size) {
+    int blockNum = getBlockNum(size);
+    while (freeBlockNum < blockNum && slabNum < slabs.length) {
+      allocateSlab();
+    }
+    if (freeBlockNum < blockNum) {
+      return null;
+    }
+    int[] blocks = new int[blockNum];
+    freeBlockNum -= blockNum;
+    System.arraycopy(freeBlocks, freeBlockNum, blocks, 0, blockNum);
+    return blocks;
+  }
+
+  private void allocateSlab() {
+    int firstBlock = slabNum * blockNumPerSlab;
+    int blockNum = Math.min(blockNumPerSlab, maxBlockNum - firstBlock);
+    slabs[slabNum++] = ByteBuffer.allocateDirect(blockNum * BLOCK_SIZE);
+    slabBlockNum += blockNum;
+    // push in reverse order, so that the blocks are allocated in ascending order
+    for (int block = firstBlock + blockNum - 1; block >= firstBlock; block--) {
+      freeBlocks[freeBlockNum++] = block;
+    }
+  }
+
+  public synchronized void free(int[] blocks) {
+    System.arraycopy(blocks, 0, freeBlocks, freeBlockNum, blocks.length);
+    freeBlockNum += blocks.length;
+  }
+
+  /** Copy the remaining bytes of the source into the blocks, the source is not modified. */
+  public void write(int[] blocks, ByteBuffer source) {
+    ByteBuffer input = source.duplicate();
+    for (int block : blocks) {
+      int length = Math.min(BLOCK_SIZE, input.remaining());
+      ByteBuffer output = getBlock(block);
+      input.limit(input.position() + length);
+      output.put(input);
+      input.limit(source.limit());
+    }
+  }
+
+  /** Copy the first length bytes of the blocks into the destination. */
+  public void read(int[] blocks, int length, byte[] destination) {
+    int offset = 0;
+    for (int block : blocks) {
+      int blockLength = Math.min(BLOCK_SIZE, length - offset);
+      getBlock(block).get(destination, offset, blockLength);
+      offset += blockLength;
+    }
+  }
+
+  private ByteBuffer getBlock(int block) {
+    ByteBuffer slab = slabs[block / blockNumPerSlab].duplicate();
+    int position = (block % blockNumPerSlab) * BLOCK_SIZE;
+    slab.limit(position + BLOCK_SIZE);
+    slab.position(position);
+    return slab;
+  }
+
+  public long getCapacity() {
+    return (long) maxBlockNum * BLOCK_SIZE;
+  }
+
+  /** @return memory of the allocated blocks in bytes */
+  public synchronized long getUsedMemory() {
+    return (long) (slabBlockNum - freeBlockNum) * BLOCK_SIZE;
+  }
+
+  /** Release all the direct memory, the allocator should not be used after closing. */
+  public synchronized void close() {
+    for (int i = 0; i < slabNum; i++) {
+      PlatformDependent.freeDirectBuffer(slabs[i]);
+      slabs[i] = null;
+    }
+    slabNum = 0;
+    slabBlockNum = 0;
+    freeBlockNum = 0;
+  }
+}
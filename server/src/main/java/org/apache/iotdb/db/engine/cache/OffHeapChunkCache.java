@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A cache of the compressed data of chunks in direct memory, which is used by {@link ChunkCache}
+ * when the off-heap chunk cache is enabled. Only the keys, the chunk headers and the block ids are
+ * kept in the heap, so the size of the cache does not increase the GC pressure.
+ *
+ * <p>The eviction is done by Caffeine (W-TinyLFU) with the weights of the allocated blocks. The
+ * blocks of an evicted chunk are freed after all the queries copying the chunk have finished, and a
+ * hit copies the data into a heap buffer, so that the returned chunk is never affected by eviction.
+ */
+public class OffHeapChunkCache {
+
+  /** how many coldest chunks are evicted at a time when there is no enough free memory */
+  private static final int EVICTION_BATCH_SIZE = 16;
+
+  private final OffHeapBlockAllocator allocator;
+
+  private final Cache<ChunkMetadata, OffHeapChunk> cache;
+
+  /**
+   * @param capacity max bytes of direct memory
+   * @param removalListener called after a chunk is removed from the cache for any reason
+   */
+  public OffHeapChunkCache(long capacity, Consumer<ChunkMetadata> removalListener) {
+    this.allocator = new OffHeapBlockAllocator(capacity);
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(allocator.getCapacity())
+            .weigher(
+                (Weigher<ChunkMetadata, OffHeapChunk>) (chunkMetadata, chunk) -> chunk.weight())
+            // free the blocks in the caller thread, so that they can be allocated again at once
+            .executor(Runnable::run)
+            .removalListener(
+                (ChunkMetadata chunkMetadata, OffHeapChunk chunk, RemovalCause cause) -> {
+                  if (chunk != null) {
+                    chunk.release();
+                  }
+                  removalListener.accept(chunkMetadata);
+                })
+            .recordStats()
+            .build();
+  }
+
+  /** @return weight of the chunk in the cache */
+  public static long weigh(Chunk chunk) {
+    return (long) OffHeapBlockAllocator.getBlockNum(chunk.getData().remaining())
+        * OffHeapBlockAllocator.BLOCK_SIZE;
+  }
+
+  /**
+   * @return a chunk whose data is copied from the cache into the heap, null if the chunk is not in
+   *     the cache
+   */
+  public Chunk getIfPresent(ChunkMetadata chunkMetadata) {
+    OffHeapChunk offHeapChunk = cache.getIfPresent(chunkMetadata);
+    if (offHeapChunk == null || !offHeapChunk.retain()) {
+      return null;
+    }
+    try {
+      byte[] data = new byte[offHeapChunk.dataSize];
+      allocator.read(offHeapChunk.blocks, offHeapChunk.dataSize, data);
+      Chunk chunk = new Chunk(offHeapChunk.header, ByteBuffer.wrap(data), null, null);
+      chunk.setZstdDictionaries(offHeapChunk.zstdDictionaries);
+      return chunk;
+    } finally {
+      offHeapChunk.release();
+    }
+  }
+
+  public boolean contains(ChunkMetadata chunkMetadata) {
+    return cache.asMap().containsKey(chunkMetadata);
+  }
+
+  /**
+   * Copy the data of the chunk into the cache, the chunk is not cached if there is no enough free
+   * memory after evicting some chunks.
+   */
+  public void put(ChunkMetadata chunkMetadata, Chunk chunk) {
+    OffHeapChunk offHeapChunk = copyToOffHeap(chunk);
+    if (offHeapChunk != null) {
+      cache.put(chunkMetadata, offHeapChunk);
+    }
+  }
+
+  /** @return false if the chunk is already in the cache or can not be cached */
+  public boolean putIfAbsent(ChunkMetadata chunkMetadata, Chunk chunk) {
+    OffHeapChunk offHeapChunk = copyToOffHeap(chunk);
+    if (offHeapChunk == null) {
+      return false;
+    }
+    if (cache.asMap().putIfAbsent(chunkMetadata, offHeapChunk) != null) {
+      offHeapChunk.release();
+      return false;
+    }
+    return true;
+  }
+
+  private OffHeapChunk copyToOffHeap(Chunk chunk) {
+    ByteBuffer data = chunk.getData();
+    int[] blocks = allocator.allocate(data.remaining());
+    if (blocks == null) {
+      evictColdest(data.remaining());
+      blocks = allocator.allocate(data.remaining());
+      if (blocks == null) {
+        return null;
+      }
+    }
+    allocator.write(blocks, data);
+    return new OffHeapChunk(
+        chunk.getHeader(), chunk.getZstdDictionaries(), blocks, data.remaining());
+  }
+
+  /**
+   * Caffeine only evicts entries when the total weight exceeds the maximum, but a new chunk has to
+   * be allocated before being put. So the coldest chunks are evicted ahead when the memory is used
+   * up, the blocks being copied by queries are freed a little later.
+   */
+  private void evictColdest(int size) {
+    Policy.Eviction<ChunkMetadata, OffHeapChunk> eviction = cache.policy().eviction().orElse(null);
+    if (eviction == null) {
+      return;
+    }
+    long required =
+        (long) OffHeapBlockAllocator.getBlockNum(size) * OffHeapBlockAllocator.BLOCK_SIZE;
+    long released = 0;
+    while (released < required) {
+      Set<ChunkMetadata> coldest = eviction.coldest(EVICTION_BATCH_SIZE).keySet();
+      if (coldest.isEmpty()) {
+        return;
+      }
+      for (ChunkMetadata chunkMetadata : coldest) {
+        OffHeapChunk offHeapChunk = cache.asMap().remove(chunkMetadata);
+        if (offHeapChunk != null) {
+          released += offHeapChunk.weight();
+        }
+      }
+    }
+  }
+
+  public void invalidate(ChunkMetadata chunkMetadata) {
+    cache.invalidate(chunkMetadata);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+    cache.cleanUp();
+  }
+
+  public boolean isEmpty() {
+    return cache.asMap().isEmpty();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long getCapacity() {
+    return allocator.getCapacity();
+  }
+
+  /** @return direct memory held by the cached chunks and the evicted chunks being copied */
+  public long getUsedMemory() {
+    return allocator.getUsedMemory();
+  }
+
+  private class OffHeapChunk {
+
+    private final ChunkHeader header;
+    private final ZstdDictionaries zstdDictionaries;
+    private final int[] blocks;
+    private final int dataSize;
+
+    /** one reference for the cache and one for each query copying the data */
+    private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+    private OffHeapChunk(
+        ChunkHeader header, ZstdDictionaries zstdDictionaries, int[] blocks, int dataSize) {
+      this.header = header;
+      this.zstdDictionaries = zstdDictionaries;
+      this.blocks = blocks;
+      this.dataSize = dataSize;
+    }
+
+    private int weight() {
+      return blocks.length * OffHeapBlockAllocator.BLOCK_SIZE;
+    }
+
+    /** @return false if the blocks have been freed */
+    private boolean retain() {
+      int count;
+      do {
+        count = referenceCount.get();
+        if (count == 0) {
+          return false;
+        }
+      } while (!referenceCount.compareAndSet(count, count + 1));
+      return true;
+    }
+
+    private void release() {
+      if (referenceCount.decrementAndGet() == 0) {
+        allocator.free(blocks);
+      }
+    }
+  }
+}
@@ -21,17 +21,21 @@ package org.apache.iotdb.db.engine.compaction.execute.performer.impl;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.TsFileMetricManager;
 import org.apache.iotdb.db.engine.compaction.execute.performer.ICrossCompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.execute.performer.ISeqCompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.execute.performer.IUnseqCompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionDeviceSubTask;
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionPerformerSubTask;
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionTaskSummary;
+import org.apache.iotdb.db.engine.compaction.execute.utils.ColdStorageProfile;
 import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastCrossCompactionBufferWriter;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastCrossCompactionWriter;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastInnerCompactionWriter;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
@@ -73,6 +77,8 @@ public class FastCompactionPerformer
   private static final int subTaskNum =
       IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
 
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
   public Map<TsFileResource, TsFileSequenceReader> readerCacheMap = new ConcurrentHashMap<>();
 
   private FastCompactionTaskSummary subTaskSummary;
@@ -85,6 +91,14 @@ public class FastCompactionPerformer
 
   private long tempFileSize = 0L;
 
+  // peak size of the chunk metadata held in memory by the target files
+  private long chunkMetadataPeakMemoryCost = 0L;
+
+  private ColdStorageProfile coldStorageProfile;
+
+  // devices compacted in parallel by sub tasks, which are waiting to be appended into target files
+  private final List<FastCompactionDeviceSubTask> deviceSubTasks = new ArrayList<>();
+
   public FastCompactionPerformer(
       List<TsFileResource> seqFiles,
       List<TsFileResource> unseqFiles,
@@ -104,6 +118,16 @@ public class FastCompactionPerformer
     this.isCrossCompaction = isCrossCompaction;
   }
 
+  /**
+   * @return the memory of the buffers of the devices compacted in parallel by a cross space
+   *     compaction task, which is not included in the estimated memory cost of the task
+   */
+  public static long getDeviceParallelBufferMemoryCost() {
+    return subTaskNum > 1 && config.isEnableDeviceParallelCrossCompaction()
+        ? subTaskNum * config.getDeviceParallelCompactionBufferSizeInByte()
+        : 0L;
+  }
+
   @Override
   public void perform()
       throws IOException, MetadataException, StorageEngineException, InterruptedException {
@@ -115,11 +139,34 @@ public class FastCompactionPerformer
             isCrossCompaction
                 ? new FastCrossCompactionWriter(targetFiles, seqFiles, readerCacheMap)
                 : new FastInnerCompactionWriter(targetFiles.get(0))) {
+      List<TsFileResource> sourceFiles = new ArrayList<>(seqFiles);
+      sourceFiles.addAll(unseqFiles);
+      coldStorageProfile = ColdStorageProfile.getProfile(sourceFiles);
+      if (coldStorageProfile != null) {
+        LOGGER.info(
+            "[Compaction] rewrite cold data into {} with compressor {} and float encoding {}",
+            targetFiles,
+            coldStorageProfile.getCompressor(),
+            coldStorageProfile.getFloatEncoding());
+        compactionWriter.setColdStorageProfile(coldStorageProfile);
+      }
+      boolean isDeviceParallel =
+          isCrossCompaction && subTaskNum > 1 && config.isEnableDeviceParallelCrossCompaction();
       while (deviceIterator.hasNextDevice()) {
         checkThreadInterrupted();
         Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
         String device = deviceInfo.left;
         boolean isAligned = deviceInfo.right;
+        if (isDeviceParallel) {
+          if (addDeviceSubTask(device, isAligned, deviceIterator)) {
+            if (deviceSubTasks.size() >= subTaskNum) {
+              compactDeviceSubTasks(compactionWriter);
+            }
+            continue;
+          }
+          // devices are appended into the target files in order
+          compactDeviceSubTasks(compactionWriter);
+        }
         // sort the resources by the start time of current device from old to new, and remove
         // resource that does not contain the current device. Notice: when the level of time index
         // is file, there will be a false positive judgment problem, that is, the device does not
@@ -139,22 +186,22 @@ public class FastCompactionPerformer
 
         compactionWriter.endChunkGroup();
         // check whether to flush chunk metadata or not
-        compactionWriter.checkAndMayFlushChunkMetadata();
-        // Add temp file metrics
-        long currentTempFileSize = compactionWriter.getWriterSize();
-        TsFileMetricManager.getInstance()
-            .addCompactionTempFileSize(
-                !isCrossCompaction, !seqFiles.isEmpty(), currentTempFileSize - tempFileSize);
-        tempFileSize = currentTempFileSize;
+        checkAndMayFlushChunkMetadata(compactionWriter);
+        updateTempFileSize(compactionWriter);
         sortedSourceFiles.clear();
       }
+      compactDeviceSubTasks(compactionWriter);
       compactionWriter.endFile();
+      // the chunk metadata of the target files is held in memory along with the sub tasks
+      subTaskSummary.updatePeakMemoryCost(
+          subTaskSummary.getPeakMemoryCost() + chunkMetadataPeakMemoryCost);
       CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
     } catch (Exception e) {
       throw new RuntimeException(e);
     } finally {
       // readers of source files have been closed in MultiTsFileDeviceIterator
       // clean cache
+      closeDeviceSubTasks();
       sortedSourceFiles = null;
       readerCacheMap = null;
       modificationCache = null;
@@ -165,6 +212,135 @@ public class FastCompactionPerformer
     }
   }
 
+  private void checkAndMayFlushChunkMetadata(AbstractCompactionWriter compactionWriter)
+      throws IOException {
+    chunkMetadataPeakMemoryCost =
+        Math.max(chunkMetadataPeakMemoryCost, compactionWriter.getChunkMetadataSize());
+    compactionWriter.checkAndMayFlushChunkMetadata();
+  }
+
+  private void updateTempFileSize(AbstractCompactionWriter compactionWriter) throws IOException {
+    // Add temp file metrics
+    long currentTempFileSize = compactionWriter.getWriterSize();
+    TsFileMetricManager.getInstance()
+        .addCompactionTempFileSize(
+            !isCrossCompaction, !seqFiles.isEmpty(), currentTempFileSize - tempFileSize);
+    tempFileSize = currentTempFileSize;
+  }
+
+  /**
+   * Submit a sub task to compact the whole device into a buffer if the device is aligned or has
+   * fewer series than sub tasks, in which case it can't make use of all the sub tasks alone.
+   *
+   * @return false if the device should be compacted by splitting its series into sub tasks
+   */
+  private boolean addDeviceSubTask(
+      String device, boolean isAligned, MultiTsFileDeviceIterator deviceIterator)
+      throws IOException, IllegalPathException {
+    Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap;
+    List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+    if (isAligned) {
+      timeseriesMetadataOffsetMap = new HashMap<>();
+      getAlignedSeriesSchemaAndMetadataOffset(
+          deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
+    } else {
+      timeseriesMetadataOffsetMap = deviceIterator.getTimeseriesMetadataOffsetOfCurrentDevice();
+      if (timeseriesMetadataOffsetMap.size() >= subTaskNum) {
+        return false;
+      }
+    }
+
+    List<TsFileResource> deviceSourceFiles = new ArrayList<>(seqFiles);
+    deviceSourceFiles.addAll(unseqFiles);
+    deviceSourceFiles.removeIf(x -> !x.mayContainsDevice(device));
+    deviceSourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device)));
+
+    FastCrossCompactionBufferWriter bufferWriter =
+        new FastCrossCompactionBufferWriter(
+            targetFiles,
+            seqFiles,
+            readerCacheMap,
+            deviceSubTasks.size(),
+            config.getDeviceParallelCompactionBufferSizeInByte());
+    bufferWriter.setColdStorageProfile(coldStorageProfile);
+    FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
+    FastCompactionPerformerSubTask seriesSubTask =
+        isAligned
+            ? new FastCompactionPerformerSubTask(
+                bufferWriter,
+                timeseriesMetadataOffsetMap,
+                readerCacheMap,
+                modificationCache,
+                deviceSourceFiles,
+                measurementSchemas,
+                device,
+                taskSummary)
+            : new FastCompactionPerformerSubTask(
+                bufferWriter,
+                timeseriesMetadataOffsetMap,
+                readerCacheMap,
+                modificationCache,
+                deviceSourceFiles,
+                new ArrayList<>(timeseriesMetadataOffsetMap.keySet()),
+                device,
+                taskSummary,
+                0);
+    deviceSubTasks.add(
+        new FastCompactionDeviceSubTask(
+            bufferWriter, seriesSubTask, device, isAligned, taskSummary));
+    return true;
+  }
+
+  /**
+   * Compact the devices of the sub tasks in parallel, and append their buffers into the target
+   * files in the order of devices.
+   */
+  private void compactDeviceSubTasks(AbstractCompactionWriter compactionWriter)
+      throws IOException, InterruptedException {
+    if (deviceSubTasks.isEmpty()) {
+      return;
+    }
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+      // the sub tasks run at the same time, so their memory costs are added up
+      long concurrentMemoryCost = 0L;
+      for (FastCompactionDeviceSubTask deviceSubTask : deviceSubTasks) {
+        futures.add(CompactionTaskManager.getInstance().submitSubTask(deviceSubTask));
+      }
+      for (int i = 0; i < deviceSubTasks.size(); i++) {
+        try {
+          futures.get(i).get();
+        } catch (ExecutionException e) {
+          LOGGER.error("[Compaction] SubCompactionTask meet errors ", e);
+          throw new IOException(e);
+        }
+        FastCompactionDeviceSubTask deviceSubTask = deviceSubTasks.get(i);
+        compactionWriter.startChunkGroup(deviceSubTask.getDeviceId(), deviceSubTask.isAligned());
+        ((FastCrossCompactionWriter) compactionWriter)
+            .flushChunkGroupBuffer(deviceSubTask.getBufferWriter());
+        compactionWriter.endChunkGroup();
+        checkAndMayFlushChunkMetadata(compactionWriter);
+        updateTempFileSize(compactionWriter);
+        subTaskSummary.increase(deviceSubTask.getSummary());
+        concurrentMemoryCost += deviceSubTask.getSummary().getPeakMemoryCost();
+      }
+      subTaskSummary.updatePeakMemoryCost(concurrentMemoryCost);
+    } finally {
+      // stop the remaining sub tasks if any of them fails, before their buffers are closed
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      closeDeviceSubTasks();
+    }
+  }
+
+  private void closeDeviceSubTasks() throws IOException {
+    for (FastCompactionDeviceSubTask deviceSubTask : deviceSubTasks) {
+      deviceSubTask.getBufferWriter().close();
+    }
+    deviceSubTasks.clear();
+  }
+
   private void compactAlignedSeries(
       String deviceId,
       MultiTsFileDeviceIterator deviceIterator,
@@ -174,7 +350,28 @@ public class FastCompactionPerformer
     Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap =
         new HashMap<>();
     List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+    getAlignedSeriesSchemaAndMetadataOffset(
+        deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
 
+    FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
+    new FastCompactionPerformerSubTask(
+            fastCrossCompactionWriter,
+            timeseriesMetadataOffsetMap,
+            readerCacheMap,
+            modificationCache,
+            sortedSourceFiles,
+            measurementSchemas,
+            deviceId,
+            taskSummary)
+        .call();
+    subTaskSummary.increase(taskSummary);
+  }
+
+  private void getAlignedSeriesSchemaAndMetadataOffset(
+      MultiTsFileDeviceIterator deviceIterator,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas)
+      throws IOException, IllegalPathException {
     // Get all value measurements and their schemas of the current device. Also get start offset and
     // end offset of each timeseries metadata, in order to facilitate the reading of chunkMetadata
     // directly by this offset later. Instead of deserializing chunk metadata later, we need to
@@ -189,19 +386,6 @@ public class FastCompactionPerformer
       }
       timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
     }
-
-    FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
-    new FastCompactionPerformerSubTask(
-            fastCrossCompactionWriter,
-            timeseriesMetadataOffsetMap,
-            readerCacheMap,
-            modificationCache,
-            sortedSourceFiles,
-            measurementSchemas,
-            deviceId,
-            taskSummary)
-        .call();
-    subTaskSummary.increase(taskSummary);
   }
 
   private void compactNonAlignedSeries(
@@ -252,15 +436,19 @@ public class FastCompactionPerformer
     }
 
     // wait for all sub tasks to finish
+    long concurrentMemoryCost = 0L;
     for (int i = 0; i < subTaskNums; i++) {
       try {
         futures.get(i).get();
         subTaskSummary.increase(taskSummaryList.get(i));
+        concurrentMemoryCost += taskSummaryList.get(i).getPeakMemoryCost();
       } catch (ExecutionException e) {
         LOGGER.error("[Compaction] SubCompactionTask meet errors ", e);
         throw new IOException(e);
       }
     }
+    // the sub tasks run at the same time, so their memory costs are added up
+    subTaskSummary.updatePeakMemoryCost(concurrentMemoryCost);
   }
 
   @Override
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogAnalyzer;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogger;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.TsFileIdentifier;
+import org.apache.iotdb.db.engine.compaction.execute.utils.writer.ChunkGroupBuffer;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
@@ -192,6 +193,24 @@ public class CompactionRecoverTask {
         targetResource = new TsFileResource(targetFile);
       }
 
+      // the buffers of the devices compacted in parallel are spilled next to the tmp target file
+      File spillTargetFile = tmpTargetFile;
+      if (spillTargetFile == null && targetFile != null) {
+        spillTargetFile = new File(targetFile.getParentFile(), targetFileIdentifier.getFilename());
+      }
+      if (spillTargetFile != null) {
+        try {
+          ChunkGroupBuffer.deleteSpillFiles(spillTargetFile);
+        } catch (IOException e) {
+          LOGGER.error(
+              "{} [Compaction][Recover] failed to delete the spilled buffers of {}",
+              fullStorageGroupName,
+              spillTargetFile,
+              e);
+          return false;
+        }
+      }
+
       if (targetResource != null && !targetResource.remove()) {
         // failed to remove tmp target tsfile
         // system should not carry out the subsequent compaction in case of data redundant
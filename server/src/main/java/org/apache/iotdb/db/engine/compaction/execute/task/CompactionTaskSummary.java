@@ -32,6 +32,8 @@ public class CompactionTaskSummary {
   protected int deserializePageCount = 0;
   protected int mergedChunkNum = 0;
   protected long processPointNum = 0;
+  // the peak memory cost of the source data loaded at the same time, 0 if it is not measured
+  protected long peakMemoryCost = 0;
 
   public CompactionTaskSummary() {}
 
@@ -94,6 +96,10 @@ public class CompactionTaskSummary {
     this.mergedChunkNum += increment;
   }
 
+  public void updatePeakMemoryCost(long memoryCost) {
+    this.peakMemoryCost = Math.max(peakMemoryCost, memoryCost);
+  }
+
   public void setDirectlyFlushChunkNum(int directlyFlushChunkNum) {
     this.directlyFlushChunkNum = directlyFlushChunkNum;
   }
@@ -126,6 +132,10 @@ public class CompactionTaskSummary {
     return processPointNum;
   }
 
+  public long getPeakMemoryCost() {
+    return peakMemoryCost;
+  }
+
   enum Status {
     NOT_STARTED,
     STARTED,
@@ -140,12 +150,13 @@ public class CompactionTaskSummary {
     return String.format(
         "Task start time: %s, total process chunk num: %d, "
             + "directly flush chunk num: %d, merge chunk num: %d, deserialize chunk num: %d,"
-            + " total process point num: %d",
+            + " total process point num: %d, peak memory cost: %d",
         startTimeInStr,
         processChunkNum,
         directlyFlushChunkNum,
         mergedChunkNum,
         deserializeChunkCount,
-        processPointNum);
+        processPointNum,
+        peakMemoryCost);
   }
 }
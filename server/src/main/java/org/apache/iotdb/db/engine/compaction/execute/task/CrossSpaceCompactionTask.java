@@ -28,6 +28,8 @@ import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompacti
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.engine.compaction.execute.utils.writer.ChunkGroupBuffer;
+import org.apache.iotdb.db.engine.compaction.selector.estimator.CompactionMemoryFeedback;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -64,6 +66,8 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
   protected double selectedSeqFileSize = 0;
   protected double selectedUnseqFileSize = 0;
   protected long memoryCost = 0L;
+  // the estimated memory cost corrected by the actual memory cost of finished tasks
+  protected long reservedMemoryCost = 0L;
 
   public CrossSpaceCompactionTask(
       long timePartition,
@@ -97,8 +101,20 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
 
   @Override
   public void doCompaction() {
+    // the buffers of the devices compacted in parallel are not included in the estimation
+    long bufferMemoryCost =
+        performer instanceof FastCompactionPerformer
+            ? FastCompactionPerformer.getDeviceParallelBufferMemoryCost()
+            : 0L;
+    // the correction never raises the reserved memory above the memory for compaction, otherwise
+    // the task waits for the memory forever
+    reservedMemoryCost =
+        Math.min(
+            CompactionMemoryFeedback.getInstance().correct(storageGroupName, memoryCost)
+                + bufferMemoryCost,
+            Math.max(memoryCost, SystemInfo.getInstance().getMemorySizeForCompaction()));
     try {
-      SystemInfo.getInstance().addCompactionMemoryCost(memoryCost);
+      SystemInfo.getInstance().addCompactionMemoryCost(reservedMemoryCost);
     } catch (InterruptedException e) {
       LOGGER.error("Interrupted when allocating memory for compaction", e);
       return;
@@ -158,6 +174,8 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         performer.setTargetFiles(targetTsfileResourceList);
         performer.setSummary(summary);
         performer.perform();
+        CompactionMemoryFeedback.getInstance()
+            .record(storageGroupName, memoryCost, summary.getPeakMemoryCost());
 
         CompactionUtils.moveTargetFile(
             targetTsfileResourceList, false, storageGroupName + "-" + dataRegionId);
@@ -260,6 +278,7 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         Thread.interrupted();
       }
 
+      deleteSpillFiles();
       // handle exception
       CompactionExceptionHandler.handleException(
           storageGroupName + "-" + dataRegionId,
@@ -272,11 +291,30 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
           false,
           true);
     } finally {
-      SystemInfo.getInstance().resetCompactionMemoryCost(memoryCost);
+      SystemInfo.getInstance().resetCompactionMemoryCost(reservedMemoryCost);
       releaseAllLock();
     }
   }
 
+  /** Delete the buffers of the devices compacted in parallel that are spilled into files. */
+  private void deleteSpillFiles() {
+    if (targetTsfileResourceList == null) {
+      return;
+    }
+    for (TsFileResource targetResource : targetTsfileResourceList) {
+      try {
+        ChunkGroupBuffer.deleteSpillFiles(targetResource.getTsFile());
+      } catch (IOException e) {
+        LOGGER.warn(
+            "{}-{} [Compaction] Failed to delete the spilled buffers of {}",
+            storageGroupName,
+            dataRegionId,
+            targetResource,
+            e);
+      }
+    }
+  }
+
   @Override
   public boolean equalsOtherTask(AbstractCompactionTask otherTask) {
     if (!(otherTask instanceof CrossSpaceCompactionTask)) {
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.execute.task.subtask;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastCrossCompactionBufferWriter;
+import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Sub task to compact all the series of one device into a {@link FastCrossCompactionBufferWriter},
+ * so that the devices of a cross space compaction can be compacted in parallel.
+ */
+public class FastCompactionDeviceSubTask implements Callable<Void> {
+
+  private final FastCrossCompactionBufferWriter bufferWriter;
+
+  // sub task with id 0 of the buffer writer, which compacts all the series of the device
+  private final FastCompactionPerformerSubTask seriesSubTask;
+
+  private final String deviceId;
+
+  private final boolean isAligned;
+
+  private final FastCompactionTaskSummary summary;
+
+  public FastCompactionDeviceSubTask(
+      FastCrossCompactionBufferWriter bufferWriter,
+      FastCompactionPerformerSubTask seriesSubTask,
+      String deviceId,
+      boolean isAligned,
+      FastCompactionTaskSummary summary) {
+    this.bufferWriter = bufferWriter;
+    this.seriesSubTask = seriesSubTask;
+    this.deviceId = deviceId;
+    this.isAligned = isAligned;
+    this.summary = summary;
+  }
+
+  @Override
+  public Void call()
+      throws IOException, PageException, WriteProcessException, IllegalPathException {
+    bufferWriter.startChunkGroup(deviceId, isAligned);
+    seriesSubTask.call();
+    bufferWriter.endChunkGroup();
+    return null;
+  }
+
+  public FastCrossCompactionBufferWriter getBufferWriter() {
+    return bufferWriter;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public boolean isAligned() {
+    return isAligned;
+  }
+
+  public FastCompactionTaskSummary getSummary() {
+    return summary;
+  }
+}
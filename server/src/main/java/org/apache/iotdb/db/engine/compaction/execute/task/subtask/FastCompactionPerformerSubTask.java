@@ -140,6 +140,10 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
               summary);
       seriesCompactionExecutor.execute();
     }
+    // the chunk writer buffers the points to write while the chunks and pages are loaded
+    summary.updatePeakMemoryCost(
+        summary.getPeakMemoryCost()
+            + compactionWriter.getAndResetChunkWriterPeakMemoryCost(subTaskId));
     return null;
   }
 }
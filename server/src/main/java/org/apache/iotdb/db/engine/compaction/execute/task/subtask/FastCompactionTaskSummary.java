@@ -43,6 +43,7 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
     this.directlyFlushChunkNum += summary.directlyFlushChunkNum;
     this.mergedChunkNum += summary.mergedChunkNum;
     this.deserializeChunkCount += summary.deserializeChunkCount;
+    this.peakMemoryCost = Math.max(peakMemoryCost, summary.peakMemoryCost);
   }
 
   @Override
@@ -51,13 +52,14 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
         "CHUNK_NONE_OVERLAP num is %d, CHUNK_NONE_OVERLAP_BUT_DESERIALIZE num is %d,"
             + " CHUNK_OVERLAP_OR_MODIFIED num is %d, PAGE_NONE_OVERLAP num is %d,"
             + " PAGE_NONE_OVERLAP_BUT_DESERIALIZE num is %d, PAGE_OVERLAP_OR_MODIFIED num is %d,"
-            + " PAGE_FAKE_OVERLAP num is %d.",
+            + " PAGE_FAKE_OVERLAP num is %d, peak memory cost is %d.",
         CHUNK_NONE_OVERLAP,
         CHUNK_NONE_OVERLAP_BUT_DESERIALIZE,
         CHUNK_OVERLAP_OR_MODIFIED,
         PAGE_NONE_OVERLAP,
         PAGE_NONE_OVERLAP_BUT_DESERIALIZE,
         PAGE_OVERLAP_OR_MODIFIED,
-        PAGE_FAKE_OVERLAP);
+        PAGE_FAKE_OVERLAP,
+        peakMemoryCost);
   }
 }
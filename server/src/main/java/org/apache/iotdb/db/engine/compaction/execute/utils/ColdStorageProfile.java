@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.execute.utils;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.DateTimeUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The encoding and compressor to rewrite cold data with. Compaction usually copies chunks and pages
+ * as they are, so the data keeps the fast encoding and compressor chosen at ingestion. For the
+ * databases in {@code cold_storage_databases}, when all the source files of a compaction task are
+ * older than {@code cold_storage_age_in_ms}, the target files are written with this profile
+ * instead, which costs more compaction CPU but saves disk space and I/O of the data rarely read.
+ */
+public class ColdStorageProfile {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final CompressionType compressor;
+  private final TSEncoding floatEncoding;
+
+  public ColdStorageProfile(CompressionType compressor, TSEncoding floatEncoding) {
+    this.compressor = compressor;
+    this.floatEncoding = floatEncoding;
+  }
+
+  /**
+   * @return the configured profile if all the source files are cold data of a database in {@code
+   *     cold_storage_databases}, otherwise null
+   */
+  public static ColdStorageProfile getProfile(List<TsFileResource> sourceFiles) {
+    if (config.getColdStorageDatabases().isEmpty()
+        || sourceFiles.isEmpty()
+        || config.getColdStorageAgeInMs() >= System.currentTimeMillis()) {
+      // the last condition also avoids the overflow of converting the age to us or ns
+      return null;
+    }
+    // the directory of a tsfile is {database}/{dataRegionId}/{timePartition}
+    String database =
+        sourceFiles.get(0).getTsFile().getParentFile().getParentFile().getParentFile().getName();
+    if (!config.getColdStorageDatabases().contains(database)) {
+      return null;
+    }
+    long coldTimeBound =
+        DateTimeUtils.currentTime()
+            - DateTimeUtils.convertMilliTimeWithPrecision(
+                config.getColdStorageAgeInMs(), config.getTimestampPrecision());
+    for (TsFileResource sourceFile : sourceFiles) {
+      if (sourceFile.getFileEndTime() >= coldTimeBound) {
+        return null;
+      }
+    }
+    return new ColdStorageProfile(
+        config.getColdStorageCompressor(), config.getColdStorageFloatEncoding());
+  }
+
+  /** @return the schema to rewrite the series with */
+  public IMeasurementSchema apply(IMeasurementSchema schema) {
+    TSEncoding encoding = schema.getEncodingType();
+    if (schema.getType() == TSDataType.FLOAT || schema.getType() == TSDataType.DOUBLE) {
+      encoding = floatEncoding;
+    }
+    return new MeasurementSchema(
+        schema.getMeasurementId(), schema.getType(), encoding, compressor, schema.getProps());
+  }
+
+  public List<IMeasurementSchema> apply(List<IMeasurementSchema> schemas) {
+    List<IMeasurementSchema> result = new ArrayList<>(schemas.size());
+    for (IMeasurementSchema schema : schemas) {
+      result.add(apply(schema));
+    }
+    return result;
+  }
+
+  public CompressionType getCompressor() {
+    return compressor;
+  }
+
+  public TSEncoding getFloatEncoding() {
+    return floatEncoding;
+  }
+}
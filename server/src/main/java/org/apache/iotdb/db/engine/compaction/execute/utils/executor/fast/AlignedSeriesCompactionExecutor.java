@@ -34,7 +34,6 @@ import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
-import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -287,23 +286,18 @@ public class AlignedSeriesCompactionExecutor extends SeriesCompactionExecutor {
     updateSummary(chunkMetadataElement, ChunkStatus.READ_IN);
     AlignedChunkMetadata alignedChunkMetadata =
         (AlignedChunkMetadata) chunkMetadataElement.chunkMetadata;
-    chunkMetadataElement.chunk =
-        readerCacheMap
-            .get(chunkMetadataElement.fileElement.resource)
-            .readMemChunk((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
-    List<Chunk> valueChunks = new ArrayList<>();
-    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-      if (valueChunkMetadata == null) {
-        // value chunk has been deleted completely
-        valueChunks.add(null);
-        continue;
-      }
-      valueChunks.add(
-          readerCacheMap
-              .get(chunkMetadataElement.fileElement.resource)
-              .readMemChunk((ChunkMetadata) valueChunkMetadata));
+    // read the time chunk and value chunks together, value chunks which have been deleted
+    // completely are null
+    List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
+    chunkMetadataList.add(alignedChunkMetadata.getTimeChunkMetadata());
+    chunkMetadataList.addAll(alignedChunkMetadata.getValueChunkMetadataList());
+    List<Chunk> chunks =
+        readerCacheMap.get(chunkMetadataElement.fileElement.resource).readChunks(chunkMetadataList);
+    for (Chunk chunk : chunks) {
+      afterReadChunk(chunk);
     }
-    chunkMetadataElement.valueChunks = valueChunks;
+    chunkMetadataElement.chunk = chunks.get(0);
+    chunkMetadataElement.valueChunks = new ArrayList<>(chunks.subList(1, chunks.size()));
   }
 
   /**
@@ -187,6 +187,7 @@ public class NonAlignedSeriesCompactionExecutor extends SeriesCompactionExecutor
         readerCacheMap
             .get(chunkMetadataElement.fileElement.resource)
             .readMemChunk((ChunkMetadata) chunkMetadataElement.chunkMetadata);
+    afterReadChunk(chunkMetadataElement.chunk);
 
     if (!hasStartMeasurement) {
       // for nonAligned sensors, only after getting chunkMetadatas can we create schema to start
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.reader.PointPriorityReader;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -35,8 +36,11 @@ import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 
+import com.google.common.util.concurrent.RateLimiter;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -92,6 +96,13 @@ public abstract class SeriesCompactionExecutor {
 
   protected boolean isAligned;
 
+  private final RateLimiter readRateLimiter =
+      CompactionTaskManager.getInstance().getMergeReadRateLimiter();
+
+  // memory cost of the chunks which have been read and the pages which have been deserialized but
+  // not compacted yet
+  private long loadedMemoryCost = 0L;
+
   protected SeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
@@ -195,6 +206,7 @@ public abstract class SeriesCompactionExecutor {
       // flush chunk successfully, then remove this chunk
       updateSummary(chunkMetadataElement, ChunkStatus.DIRECTORY_FLUSH);
       checkShouldRemoveFile(chunkMetadataElement);
+      loadedMemoryCost = 0L;
     } else {
       // unsealed chunk is not large enough or chunk.endTime > file.endTime, then deserialize chunk
       summary.CHUNK_NONE_OVERLAP_BUT_DESERIALIZE += 1;
@@ -208,6 +220,30 @@ public abstract class SeriesCompactionExecutor {
 
   abstract void readChunk(ChunkMetadataElement chunkMetadataElement) throws IOException;
 
+  /**
+   * Record the memory cost of the chunk and wait by the compaction read throughput limit after
+   * reading the chunk from disk.
+   */
+  protected void afterReadChunk(Chunk chunk) {
+    if (chunk != null) {
+      long chunkSize =
+          (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
+      recordLoadedMemoryCost(chunkSize);
+      CompactionTaskManager.mergeRateLimiterAcquire(readRateLimiter, chunkSize);
+    }
+  }
+
+  /** Deserialize the page into the point priority reader and record the memory cost of it. */
+  private void deserializePageIntoPointPriorityReader(PageElement pageElement) throws IOException {
+    pointPriorityReader.addNewPage(pageElement);
+    recordLoadedMemoryCost(pageElement.getUncompressedSize());
+  }
+
+  private void recordLoadedMemoryCost(long memoryCost) {
+    loadedMemoryCost += memoryCost;
+    summary.updatePeakMemoryCost(loadedMemoryCost);
+  }
+
   /** Deserialize files into chunk metadatas and put them into the chunk metadata queue. */
   abstract void deserializeFileIntoChunkMetadataQueue(List<FileElement> fileElements)
       throws IOException, IllegalPathException;
@@ -232,7 +268,7 @@ public abstract class SeriesCompactionExecutor {
       if (isPageOverlap || modifiedStatus == ModifiedStatus.PARTIAL_DELETED) {
         // has overlap or modified pages, then deserialize it
         summary.PAGE_OVERLAP_OR_MODIFIED += 1;
-        pointPriorityReader.addNewPage(firstPageElement);
+        deserializePageIntoPointPriorityReader(firstPageElement);
         compactWithOverlapPages();
       } else {
         // has none overlap or modified pages, flush it to chunk writer directly
@@ -240,12 +276,17 @@ public abstract class SeriesCompactionExecutor {
         compactWithNonOverlapPage(firstPageElement);
       }
     }
+    // all the chunks read and the pages deserialized have been compacted
+    loadedMemoryCost = 0L;
   }
 
   private void compactWithNonOverlapPage(PageElement pageElement)
       throws PageException, IOException, WriteProcessException, IllegalPathException {
     boolean success;
-    if (isAligned) {
+    if (!pageElement.canFlushCompressedPages()) {
+      // the page has to be compressed again with the configured dictionaries
+      success = false;
+    } else if (isAligned) {
       success =
           compactionWriter.flushAlignedPage(
               pageElement.pageData,
@@ -264,7 +305,7 @@ public abstract class SeriesCompactionExecutor {
     } else {
       // unsealed page is not large enough or page.endTime > file.endTime, then deserialze it
       summary.PAGE_NONE_OVERLAP_BUT_DESERIALIZE += 1;
-      pointPriorityReader.addNewPage(pageElement);
+      deserializePageIntoPointPriorityReader(pageElement);
 
       // write data points of the current page into chunk writer
       TimeValuePair point;
@@ -338,7 +379,7 @@ public abstract class SeriesCompactionExecutor {
       if (isNextPageOverlap || nextPageModifiedStatus == ModifiedStatus.PARTIAL_DELETED) {
         // next page is overlapped or modified, then deserialize it
         summary.PAGE_OVERLAP_OR_MODIFIED++;
-        pointPriorityReader.addNewPage(nextPageElement);
+        deserializePageIntoPointPriorityReader(nextPageElement);
       } else {
         // has none overlap or modified pages, flush it to chunk writer directly
         summary.PAGE_FAKE_OVERLAP += 1;
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element;
 
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
@@ -26,6 +28,7 @@ import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 public class PageElement {
@@ -89,6 +92,58 @@ public class PageElement {
     this.isLastPage = isLastPage;
   }
 
+  /**
+   * The compressed pages are written into the target file with the configured ZSTD dictionaries,
+   * so they can not be flushed directly if they are compressed with a dictionary of the source file
+   * which is not the configured one with the same id.
+   *
+   * @return true if the compressed pages can be flushed into the target file directly
+   */
+  public boolean canFlushCompressedPages() {
+    ZstdDictionaries zstdDictionaries =
+        iChunkReader instanceof AlignedChunkReader
+            ? ((AlignedChunkReader) iChunkReader).getZstdDictionaries()
+            : ((ChunkReader) iChunkReader).getZstdDictionaries();
+    if (zstdDictionaries == null) {
+      // the source file is unsealed, its pages are compressed with the configured dictionaries
+      return true;
+    }
+    if (!isCompressedWithConfiguredDictionary(zstdDictionaries, pageData)) {
+      return false;
+    }
+    if (valuePageDatas != null) {
+      for (ByteBuffer valuePageData : valuePageDatas) {
+        if (valuePageData != null
+            && !isCompressedWithConfiguredDictionary(zstdDictionaries, valuePageData)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCompressedWithConfiguredDictionary(
+      ZstdDictionaries zstdDictionaries, ByteBuffer compressedPageData) {
+    long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfFrame(compressedPageData);
+    return dictionaryId == 0
+        || Arrays.equals(
+            zstdDictionaries.getDictionary(dictionaryId),
+            ZstdDictionaryManager.getInstance().getDictionary(dictionaryId));
+  }
+
+  /** @return the size of the page after it is uncompressed, including all its value pages */
+  public long getUncompressedSize() {
+    long uncompressedSize = pageHeader.getUncompressedSize();
+    if (valuePageHeaders != null) {
+      for (PageHeader valuePageHeader : valuePageHeaders) {
+        if (valuePageHeader != null) {
+          uncompressedSize += valuePageHeader.getUncompressedSize();
+        }
+      }
+    }
+    return uncompressedSize;
+  }
+
   public void deserializePage() throws IOException {
     if (iChunkReader instanceof AlignedChunkReader) {
       this.batchData =
@@ -66,6 +66,8 @@ public class AlignedSeriesCompactionExecutor {
   private final CompactionTaskSummary summary;
   private final RateLimiter rateLimiter =
       CompactionTaskManager.getInstance().getMergeWriteRateLimiter();
+  private final RateLimiter readRateLimiter =
+      CompactionTaskManager.getInstance().getMergeReadRateLimiter();
 
   private final long chunkSizeThreshold =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
@@ -145,6 +147,8 @@ public class AlignedSeriesCompactionExecutor {
             readerIterator.nextReader();
         summary.increaseProcessChunkNum(nextAlignedChunkInfo.getNotNullChunkNum());
         summary.increaseProcessPointNum(nextAlignedChunkInfo.getTotalPointNum());
+        CompactionTaskManager.mergeRateLimiterAcquire(
+            readRateLimiter, nextAlignedChunkInfo.getTotalSize());
         CompactionMetricsManager.getInstance().recordReadInfo(nextAlignedChunkInfo.getTotalSize());
         compactOneAlignedChunk(
             nextAlignedChunkInfo.getReader(), nextAlignedChunkInfo.getNotNullChunkNum());
@@ -60,6 +60,8 @@ public class SingleSeriesCompactionExecutor {
   private ChunkMetadata cachedChunkMetadata;
   private RateLimiter compactionRateLimiter =
       CompactionTaskManager.getInstance().getMergeWriteRateLimiter();
+  private final RateLimiter readRateLimiter =
+      CompactionTaskManager.getInstance().getMergeReadRateLimiter();
   // record the min time and max time to update the target resource
   private long minStartTimestamp = Long.MAX_VALUE;
   private long maxEndTimestamp = Long.MIN_VALUE;
@@ -128,10 +130,9 @@ public class SingleSeriesCompactionExecutor {
         if (this.chunkWriter == null) {
           constructChunkWriterFromReadChunk(currentChunk);
         }
-        CompactionMetricsManager.getInstance()
-            .recordReadInfo(
-                (long) currentChunk.getHeader().getSerializedSize()
-                    + currentChunk.getHeader().getDataSize());
+        long chunkSize = getChunkSize(currentChunk);
+        CompactionTaskManager.mergeRateLimiterAcquire(readRateLimiter, chunkSize);
+        CompactionMetricsManager.getInstance().recordReadInfo(chunkSize);
 
         // if this chunk is modified, deserialize it into points
         if (chunkMetadata.getDeleteIntervalList() != null) {
@@ -139,7 +140,6 @@ public class SingleSeriesCompactionExecutor {
           continue;
         }
 
-        long chunkSize = getChunkSize(currentChunk);
         long chunkPointNum = currentChunk.getChunkStatistic().getCount();
         // we process this chunk in three different way according to the size of it
         if (chunkSize >= targetChunkSize || chunkPointNum >= targetChunkPointNum) {
@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
@@ -32,6 +33,7 @@ import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.RateLimiter;
 
 import java.io.IOException;
 import java.util.HashSet;
@@ -46,6 +48,9 @@ public class SeriesDataBlockReader implements IDataBlockReader {
 
   private boolean hasCachedBatchData = false;
 
+  private final RateLimiter readRateLimiter =
+      CompactionTaskManager.getInstance().getMergeReadRateLimiter();
+
   public SeriesDataBlockReader(
       PartialPath seriesPath,
       Set<String> allSensors,
@@ -168,6 +173,9 @@ public class SeriesDataBlockReader implements IDataBlockReader {
     while (seriesScanUtil.hasNextPage()) {
       tsBlock = seriesScanUtil.nextPage();
       if (!isEmpty(tsBlock)) {
+        // pages are read through the query engine, so they are limited by the deserialized size
+        CompactionTaskManager.mergeRateLimiterAcquire(
+            readRateLimiter, tsBlock.getRetainedSizeInBytes());
         return true;
       }
     }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.engine.compaction.execute.utils.writer;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.execute.utils.ColdStorageProfile;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.schedule.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.schedule.constant.ProcessChunkType;
@@ -62,6 +63,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   // The index of the array corresponds to subTaskId.
   protected int[] chunkPointNumArray = new int[subTaskNum];
 
+  // Each sub task has the peak memory cost of its chunk writer before sealing a chunk.
+  // The index of the array corresponds to subTaskId.
+  private final long[] chunkWriterPeakMemoryCost = new long[subTaskNum];
+
   // used to control the target chunk size
   protected long targetChunkSize = IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
 
@@ -98,6 +103,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   protected String[] measurementId = new String[subTaskNum];
 
+  // if not null, the series are encoded and compressed by this profile, so that chunks and pages
+  // can't be flushed to target files directly
+  protected ColdStorageProfile coldStorageProfile;
+
   public abstract void startChunkGroup(String deviceId, boolean isAlign) throws IOException;
 
   public abstract void endChunkGroup() throws IOException;
@@ -105,6 +114,9 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   public void startMeasurement(List<IMeasurementSchema> measurementSchemaList, int subTaskId) {
     lastCheckIndex = 0;
     lastTime[subTaskId] = Long.MIN_VALUE;
+    if (coldStorageProfile != null) {
+      measurementSchemaList = coldStorageProfile.apply(measurementSchemaList);
+    }
     if (isAlign) {
       chunkWriters[subTaskId] = new AlignedChunkWriterImpl(measurementSchemaList);
       measurementId[subTaskId] = "";
@@ -116,6 +128,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   public abstract void endMeasurement(int subTaskId) throws IOException;
 
+  public void setColdStorageProfile(ColdStorageProfile coldStorageProfile) {
+    this.coldStorageProfile = coldStorageProfile;
+  }
+
   public abstract void write(TimeValuePair timeValuePair, int subTaskId) throws IOException;
 
   public abstract void write(TimeColumn timestamps, Column[] columns, int subTaskId, int batchSize)
@@ -125,6 +141,9 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   public abstract long getWriterSize() throws IOException;
 
+  /** @return the size of the chunk metadata held in memory by the target files */
+  public abstract long getChunkMetadataSize();
+
   /**
    * Update startTime and endTime of the current device in each target resources, and check whether
    * to flush chunk metadatas or not.
@@ -164,8 +183,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   protected void sealChunk(TsFileIOWriter targetWriter, IChunkWriter iChunkWriter, int subTaskId)
       throws IOException {
-    CompactionTaskManager.mergeRateLimiterAcquire(
-        compactionRateLimiter, iChunkWriter.estimateMaxSeriesMemSize());
+    long chunkWriterMemoryCost = iChunkWriter.estimateMaxSeriesMemSize();
+    chunkWriterPeakMemoryCost[subTaskId] =
+        Math.max(chunkWriterPeakMemoryCost[subTaskId], chunkWriterMemoryCost);
+    CompactionTaskManager.mergeRateLimiterAcquire(compactionRateLimiter, chunkWriterMemoryCost);
     synchronized (targetWriter) {
       iChunkWriter.writeToFileWriter(targetWriter);
     }
@@ -308,6 +329,16 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
     }
   }
 
+  /**
+   * Get the peak memory cost of the chunk writer of the sub task since the last call, and reset it
+   * for the next device.
+   */
+  public long getAndResetChunkWriterPeakMemoryCost(int subTaskId) {
+    long peakMemoryCost = chunkWriterPeakMemoryCost[subTaskId];
+    chunkWriterPeakMemoryCost[subTaskId] = 0L;
+    return peakMemoryCost;
+  }
+
   protected long getChunkSize(Chunk chunk) {
     return chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
   }
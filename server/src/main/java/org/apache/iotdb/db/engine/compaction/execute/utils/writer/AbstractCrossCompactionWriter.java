@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -66,9 +67,25 @@ public abstract class AbstractCrossCompactionWriter extends AbstractCompactionWr
   protected AbstractCrossCompactionWriter(
       List<TsFileResource> targetResources, List<TsFileResource> seqFileResources)
       throws IOException {
+    this(createTargetFileWriters(targetResources), targetResources, seqFileResources);
+  }
+
+  /** @param targetFileWriters writers of the target files, or of the buffers of them */
+  protected AbstractCrossCompactionWriter(
+      List<TsFileIOWriter> targetFileWriters,
+      List<TsFileResource> targetResources,
+      List<TsFileResource> seqFileResources) {
     currentDeviceEndTime = new long[seqFileResources.size()];
     isEmptyFile = new boolean[seqFileResources.size()];
     isDeviceExistedInTargetFiles = new boolean[targetResources.size()];
+    this.targetFileWriters.addAll(targetFileWriters);
+    Arrays.fill(isEmptyFile, true);
+    this.seqTsFileResources = seqFileResources;
+    this.targetResources = targetResources;
+  }
+
+  private static List<TsFileIOWriter> createTargetFileWriters(List<TsFileResource> targetResources)
+      throws IOException {
     long memorySizeForEachWriter =
         (long)
             (SystemInfo.getInstance().getMemorySizeForCompaction()
@@ -76,14 +93,13 @@ public abstract class AbstractCrossCompactionWriter extends AbstractCompactionWr
                 * IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSizeProportion()
                 / targetResources.size());
     boolean enableMemoryControl = IoTDBDescriptor.getInstance().getConfig().isEnableMemControl();
-    for (int i = 0; i < targetResources.size(); i++) {
-      this.targetFileWriters.add(
+    List<TsFileIOWriter> targetFileWriters = new ArrayList<>();
+    for (TsFileResource targetResource : targetResources) {
+      targetFileWriters.add(
           new TsFileIOWriter(
-              targetResources.get(i).getTsFile(), enableMemoryControl, memorySizeForEachWriter));
-      isEmptyFile[i] = true;
+              targetResource.getTsFile(), enableMemoryControl, memorySizeForEachWriter));
     }
-    this.seqTsFileResources = seqFileResources;
-    this.targetResources = targetResources;
+    return targetFileWriters;
   }
 
   @Override
@@ -102,8 +118,7 @@ public abstract class AbstractCrossCompactionWriter extends AbstractCompactionWr
     for (int i = 0; i < seqTsFileResources.size(); i++) {
       TsFileIOWriter targetFileWriter = targetFileWriters.get(i);
       if (isDeviceExistedInTargetFiles[i]) {
-        // update resource
-        CompactionUtils.updateResource(targetResources.get(i), targetFileWriter, deviceId);
+        updateTargetResource(i);
         targetFileWriter.endChunkGroup();
       } else {
         targetFileWriter.truncate(targetFileWriter.getPos() - chunkGroupHeaderSize);
@@ -113,6 +128,12 @@ public abstract class AbstractCrossCompactionWriter extends AbstractCompactionWr
     seqFileIndexArray = null;
   }
 
+  /** Update the time index of the target resource by the current device written into it. */
+  protected void updateTargetResource(int fileIndex) {
+    CompactionUtils.updateResource(
+        targetResources.get(fileIndex), targetFileWriters.get(fileIndex), deviceId);
+  }
+
   @Override
   public void endMeasurement(int subTaskId) throws IOException {
     sealChunk(
@@ -241,5 +262,14 @@ public abstract class AbstractCrossCompactionWriter extends AbstractCompactionWr
     return totalSize;
   }
 
+  @Override
+  public long getChunkMetadataSize() {
+    long totalSize = 0;
+    for (TsFileIOWriter writer : targetFileWriters) {
+      totalSize += writer.getCurrentChunkMetadataSize();
+    }
+    return totalSize;
+  }
+
   protected abstract TsFileSequenceReader getFileReader(TsFileResource resource) throws IOException;
 }
@@ -112,4 +112,9 @@ public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWr
   public long getWriterSize() throws IOException {
     return fileWriter.getPos();
   }
+
+  @Override
+  public long getChunkMetadataSize() {
+    return fileWriter.getCurrentChunkMetadataSize();
+  }
 }
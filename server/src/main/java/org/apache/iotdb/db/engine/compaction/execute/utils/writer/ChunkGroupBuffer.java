@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.execute.utils.writer;
+
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.writer.TsFileOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A TsFileOutput which keeps the chunk group of a device compacted by a sub task, until it is
+ * copied into the target file. The data is kept in memory, and spilled into a temporary file in
+ * the directory of the target file once it exceeds the memory budget. The temporary file is named
+ * after the target file and the index of the sub task, so that the files left by an aborted task or
+ * a crash can be found by {@link #deleteSpillFiles}.
+ */
+public class ChunkGroupBuffer extends OutputStream implements TsFileOutput {
+  private static final String SPILL_FILE_SUFFIX = ".buffer";
+
+  private final File targetFile;
+  private final int subTaskIndex;
+  private final long memoryBudget;
+
+  private PublicBAOS memoryBuffer = new PublicBAOS();
+  private File spillFile;
+  private FileOutputStream spillStream;
+  private BufferedOutputStream bufferedSpillStream;
+  private long position = 0;
+
+  public ChunkGroupBuffer(File targetFile, int subTaskIndex, long memoryBudget) {
+    this.targetFile = targetFile;
+    this.subTaskIndex = subTaskIndex;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /** Delete the spilled files of the sub tasks writing into the target file. */
+  public static void deleteSpillFiles(File targetFile) throws IOException {
+    File directory = targetFile.getParentFile();
+    if (directory == null) {
+      return;
+    }
+    String prefix = targetFile.getName() + ".";
+    File[] spillFiles =
+        directory.listFiles(
+            (dir, name) ->
+                name.startsWith(prefix)
+                    && name.endsWith(SPILL_FILE_SUFFIX)
+                    && name.substring(prefix.length(), name.length() - SPILL_FILE_SUFFIX.length())
+                        .matches("\\d+"));
+    if (spillFiles == null) {
+      return;
+    }
+    for (File spillFile : spillFiles) {
+      Files.deleteIfExists(spillFile.toPath());
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    checkAndMaySpill(1);
+    if (spillFile != null) {
+      bufferedSpillStream.write(b);
+    } else {
+      memoryBuffer.write(b);
+    }
+    position++;
+  }
+
+  @Override
+  public void write(byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte b) throws IOException {
+    write((int) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    checkAndMaySpill(len);
+    if (spillFile != null) {
+      bufferedSpillStream.write(b, off, len);
+    } else {
+      memoryBuffer.write(b, off, len);
+    }
+    position += len;
+  }
+
+  @Override
+  public void write(ByteBuffer b) throws IOException {
+    if (b.hasArray()) {
+      write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+    } else {
+      byte[] bytes = new byte[b.remaining()];
+      b.duplicate().get(bytes);
+      write(bytes);
+    }
+  }
+
+  private void checkAndMaySpill(int len) throws IOException {
+    if (spillFile != null || memoryBuffer.size() + (long) len <= memoryBudget) {
+      return;
+    }
+    // a file left by a crash is overwritten
+    spillFile =
+        new File(
+            targetFile.getParentFile(),
+            targetFile.getName() + "." + subTaskIndex + SPILL_FILE_SUFFIX);
+    spillStream = new FileOutputStream(spillFile);
+    bufferedSpillStream = new BufferedOutputStream(spillStream);
+    memoryBuffer.writeTo(bufferedSpillStream);
+    memoryBuffer = null;
+  }
+
+  /**
+   * @param offset the start position of the data to read
+   * @return a stream of the data from the given position to the end, which should be closed by
+   *     the caller
+   */
+  public InputStream getInputStream(long offset) throws IOException {
+    if (spillFile == null) {
+      return new ByteArrayInputStream(
+          memoryBuffer.getBuf(), (int) offset, memoryBuffer.size() - (int) offset);
+    }
+    bufferedSpillStream.flush();
+    FileChannel channel = FileChannel.open(spillFile.toPath(), StandardOpenOption.READ);
+    channel.position(offset);
+    return new BufferedInputStream(Channels.newInputStream(channel));
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  /** Close the buffer and delete the spilled file. */
+  @Override
+  public void close() throws IOException {
+    memoryBuffer = null;
+    if (spillFile != null) {
+      bufferedSpillStream.close();
+      Files.deleteIfExists(spillFile.toPath());
+    }
+  }
+
+  @Override
+  public OutputStream wrapAsStream() {
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (spillFile != null) {
+      bufferedSpillStream.flush();
+    }
+  }
+
+  @Override
+  public void truncate(long size) throws IOException {
+    if (spillFile != null) {
+      bufferedSpillStream.flush();
+      spillStream.getChannel().truncate(size);
+    } else {
+      memoryBuffer.truncate((int) size);
+    }
+    position = size;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.execute.utils.writer;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of one device in cross space compaction, which splits the data into the buffers of the
+ * target files in the same way as {@link FastCrossCompactionWriter}. It makes the devices be
+ * compacted by different sub tasks in parallel, and the buffers are appended into the target files
+ * by {@link FastCrossCompactionWriter#flushChunkGroupBuffer} in the order of devices.
+ */
+public class FastCrossCompactionBufferWriter extends FastCrossCompactionWriter {
+  private final List<ChunkGroupBuffer> buffers;
+
+  public FastCrossCompactionBufferWriter(
+      List<TsFileResource> targetResources,
+      List<TsFileResource> seqSourceResources,
+      Map<TsFileResource, TsFileSequenceReader> readerMap,
+      int subTaskIndex,
+      long bufferSize)
+      throws IOException {
+    this(
+        createBuffers(targetResources, subTaskIndex, bufferSize),
+        targetResources,
+        seqSourceResources,
+        readerMap);
+  }
+
+  private FastCrossCompactionBufferWriter(
+      List<ChunkGroupBuffer> buffers,
+      List<TsFileResource> targetResources,
+      List<TsFileResource> seqSourceResources,
+      Map<TsFileResource, TsFileSequenceReader> readerMap)
+      throws IOException {
+    super(createBufferWriters(buffers), targetResources, seqSourceResources, readerMap);
+    this.buffers = buffers;
+  }
+
+  private static List<ChunkGroupBuffer> createBuffers(
+      List<TsFileResource> targetResources, int subTaskIndex, long bufferSize) {
+    List<ChunkGroupBuffer> buffers = new ArrayList<>();
+    for (TsFileResource targetResource : targetResources) {
+      buffers.add(
+          new ChunkGroupBuffer(
+              targetResource.getTsFile(), subTaskIndex, bufferSize / targetResources.size()));
+    }
+    return buffers;
+  }
+
+  private static List<TsFileIOWriter> createBufferWriters(List<ChunkGroupBuffer> buffers)
+      throws IOException {
+    List<TsFileIOWriter> bufferWriters = new ArrayList<>();
+    for (ChunkGroupBuffer buffer : buffers) {
+      bufferWriters.add(new TsFileIOWriter(buffer));
+    }
+    return bufferWriters;
+  }
+
+  /**
+   * The target resources are updated when the buffers are appended into the target files, so that
+   * they are not modified by sub tasks concurrently.
+   */
+  @Override
+  protected void updateTargetResource(int fileIndex) {
+    // do nothing
+  }
+
+  /**
+   * Write the chunks of the device in the buffer of a target file into the writer of the target
+   * file.
+   *
+   * @return false if the device has no data in the target file
+   */
+  public boolean writeChunkGroupTo(int fileIndex, TsFileIOWriter targetFileWriter)
+      throws IOException {
+    TsFileIOWriter bufferWriter = targetFileWriters.get(fileIndex);
+    List<ChunkGroupMetadata> chunkGroupMetadataList = bufferWriter.getChunkGroupMetadataList();
+    if (chunkGroupMetadataList.isEmpty()) {
+      return false;
+    }
+    List<ChunkMetadata> chunkMetadataList = chunkGroupMetadataList.get(0).getChunkMetadataList();
+    long sourceOffset = chunkMetadataList.get(0).getOffsetOfChunkHeader();
+    try (InputStream chunkData = buffers.get(fileIndex).getInputStream(sourceOffset)) {
+      targetFileWriter.writeSerializedChunks(
+          chunkMetadataList, sourceOffset, chunkData, bufferWriter.getZstdDictionaries());
+    }
+    return true;
+  }
+
+  @Override
+  public void endFile() {
+    throw new UnsupportedOperationException(
+        "The buffers should be appended into the target files instead");
+  }
+}
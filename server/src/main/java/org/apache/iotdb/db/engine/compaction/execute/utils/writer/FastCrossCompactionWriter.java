@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -48,6 +49,15 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
     this.readerMap = readerMap;
   }
 
+  protected FastCrossCompactionWriter(
+      List<TsFileIOWriter> targetFileWriters,
+      List<TsFileResource> targetResources,
+      List<TsFileResource> seqSourceResources,
+      Map<TsFileResource, TsFileSequenceReader> readerMap) {
+    super(targetFileWriters, targetResources, seqSourceResources);
+    this.readerMap = readerMap;
+  }
+
   @Override
   public void write(TimeColumn timestamps, Column[] columns, int subTaskId, int batchSize)
       throws IOException {
@@ -59,6 +69,20 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
     return readerMap.get(resource);
   }
 
+  /**
+   * Append the current device compacted into the buffer writer by a sub task into the target files.
+   * It should be called between startChunkGroup and endChunkGroup.
+   */
+  public void flushChunkGroupBuffer(FastCrossCompactionBufferWriter bufferWriter)
+      throws IOException {
+    for (int i = 0; i < targetFileWriters.size(); i++) {
+      if (bufferWriter.writeChunkGroupTo(i, targetFileWriters.get(i))) {
+        isDeviceExistedInTargetFiles[i] = true;
+        isEmptyFile[i] = false;
+      }
+    }
+  }
+
   /**
    * Flush nonAligned chunk to tsfile directly. Return whether the chunk is flushed to tsfile
    * successfully or not. Return false if the unsealed chunk is too small or the end time of chunk
@@ -67,6 +91,9 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
   @Override
   public boolean flushNonAlignedChunk(Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId)
       throws IOException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     checkTimeAndMayFlushChunkToCurrentFile(chunkMetadata.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
     if (!checkIsChunkSatisfied(chunkMetadata, fileIndex, subTaskId)) {
@@ -98,6 +125,9 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
       List<IChunkMetadata> valueChunkMetadatas,
       int subTaskId)
       throws IOException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     checkTimeAndMayFlushChunkToCurrentFile(timeChunkMetadata.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
     if (!checkIsChunkSatisfied(timeChunkMetadata, fileIndex, subTaskId)) {
@@ -133,6 +163,9 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
       List<PageHeader> valuePageHeaders,
       int subTaskId)
       throws IOException, PageException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     checkTimeAndMayFlushChunkToCurrentFile(timePageHeader.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
     if (!checkIsPageSatisfied(timePageHeader, fileIndex, subTaskId)) {
@@ -166,6 +199,9 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
   public boolean flushNonAlignedPage(
       ByteBuffer compressedPageData, PageHeader pageHeader, int subTaskId)
       throws IOException, PageException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     checkTimeAndMayFlushChunkToCurrentFile(pageHeader.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
     if (!checkIsPageSatisfied(pageHeader, fileIndex, subTaskId)) {
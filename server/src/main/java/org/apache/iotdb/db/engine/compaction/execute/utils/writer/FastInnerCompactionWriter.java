@@ -53,6 +53,9 @@ public class FastInnerCompactionWriter extends AbstractInnerCompactionWriter {
   @Override
   public boolean flushNonAlignedChunk(Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId)
       throws IOException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     if (chunkPointNumArray[subTaskId] != 0
         && chunkWriters[subTaskId].checkIsChunkSizeOverThreshold(
             targetChunkSize, targetChunkPointNum, false)) {
@@ -84,6 +87,9 @@ public class FastInnerCompactionWriter extends AbstractInnerCompactionWriter {
       List<IChunkMetadata> valueChunkMetadatas,
       int subTaskId)
       throws IOException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     if (chunkPointNumArray[subTaskId] != 0
         && chunkWriters[subTaskId].checkIsChunkSizeOverThreshold(
             targetChunkSize, targetChunkPointNum, false)) {
@@ -116,6 +122,9 @@ public class FastInnerCompactionWriter extends AbstractInnerCompactionWriter {
       List<PageHeader> valuePageHeaders,
       int subTaskId)
       throws IOException, PageException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     boolean isUnsealedPageOverThreshold =
         chunkWriters[subTaskId].checkIsUnsealedPageOverThreshold(
             pageSizeLowerBoundInCompaction, pagePointNumLowerBoundInCompaction, true);
@@ -149,6 +158,9 @@ public class FastInnerCompactionWriter extends AbstractInnerCompactionWriter {
    */
   public boolean flushNonAlignedPage(
       ByteBuffer compressedPageData, PageHeader pageHeader, int subTaskId) throws PageException {
+    if (coldStorageProfile != null) {
+      return false;
+    }
     boolean isUnsealedPageOverThreshold =
         chunkWriters[subTaskId].checkIsUnsealedPageOverThreshold(
             pageSizeLowerBoundInCompaction, pagePointNumLowerBoundInCompaction, true);
@@ -77,8 +77,6 @@ public class CompactionTaskManager implements IService {
       storageGroupTasks = new ConcurrentHashMap<>();
   private final AtomicInteger finishedTaskNum = new AtomicInteger(0);
 
-  private final RateLimiter mergeWriteRateLimiter = RateLimiter.create(Double.MAX_VALUE);
-
   private volatile boolean init = false;
 
   public static CompactionTaskManager getInstance() {
@@ -244,23 +242,16 @@ public class CompactionTaskManager implements IService {
   }
 
   public RateLimiter getMergeWriteRateLimiter() {
-    setWriteMergeRate(
-        IoTDBDescriptor.getInstance().getConfig().getCompactionWriteThroughputMbPerSec());
-    return mergeWriteRateLimiter;
+    return CompactionThrottler.getInstance().getWriteRateLimiter();
   }
 
-  private void setWriteMergeRate(final double throughoutMbPerSec) {
-    double throughout = throughoutMbPerSec * 1024.0 * 1024.0;
-    // if throughout = 0, disable rate limiting
-    if (throughout == 0) {
-      throughout = Double.MAX_VALUE;
-    }
-    if (mergeWriteRateLimiter.getRate() != throughout) {
-      mergeWriteRateLimiter.setRate(throughout);
-    }
+  public RateLimiter getMergeReadRateLimiter() {
+    return CompactionThrottler.getInstance().getReadRateLimiter();
   }
+
   /** wait by throughoutMbPerSec limit to avoid continuous Write Or Read */
   public static void mergeRateLimiterAcquire(RateLimiter limiter, long bytesLength) {
+    CompactionThrottler.getInstance().adjustIfNeeded();
     while (bytesLength >= Integer.MAX_VALUE) {
       limiter.acquire(Integer.MAX_VALUE);
       bytesLength -= Integer.MAX_VALUE;
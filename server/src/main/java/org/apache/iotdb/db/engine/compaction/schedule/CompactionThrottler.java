@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.schedule;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.FlushManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * This class owns the rate limiters of compaction writing and reading, whose limits are the
+ * configured throughput by default. When adaptive throughput is enabled, the limits are adjusted at
+ * most once per {@link #ADJUST_INTERVAL_IN_MS} by the pressure of foreground work. If the flush
+ * queue, the p99 latency of wal fsync or the p99 latency of fetching query results exceeds its
+ * threshold, the limits are halved, otherwise they are raised by a tenth of the configured
+ * throughput. The configured throughput is always the upper bound, and unlimited throughput is not
+ * adjusted. If the read throughput is unlimited, adaptive mode bounds it by {@link
+ * #READ_TO_WRITE_THROUGHPUT_RATIO} times the configured write throughput, so that reading also
+ * backs off under pressure.
+ */
+public class CompactionThrottler {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final double MB = 1024.0 * 1024.0;
+  static final long ADJUST_INTERVAL_IN_MS = 1000;
+  /** the adjusted limit never goes below this ratio of the configured throughput */
+  static final double MIN_THROUGHPUT_RATIO = 0.05;
+  /** ratio of the configured throughput to raise the limit each time */
+  static final double INCREASE_RATIO = 0.1;
+  /**
+   * ratio of the derived read ceiling to the write throughput, reading covers the overlapped and
+   * deleted data which is not written again
+   */
+  static final int READ_TO_WRITE_THROUGHPUT_RATIO = 2;
+
+  private static final int LATENCY_WINDOW_SIZE = 1024;
+
+  /** number of memtables waiting to be flushed */
+  private final LongSupplier flushQueueSize;
+
+  private final RateLimiter writeRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  private final RateLimiter readRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  private final LatencyWindow walFsyncLatency = new LatencyWindow(LATENCY_WINDOW_SIZE);
+  private final LatencyWindow queryLatency = new LatencyWindow(LATENCY_WINDOW_SIZE);
+  private final AtomicLong lastAdjustTime = new AtomicLong(0);
+
+  CompactionThrottler(LongSupplier flushQueueSize) {
+    this.flushQueueSize = flushQueueSize;
+  }
+
+  public static CompactionThrottler getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  public RateLimiter getWriteRateLimiter() {
+    adjustIfNeeded();
+    return writeRateLimiter;
+  }
+
+  public RateLimiter getReadRateLimiter() {
+    adjustIfNeeded();
+    return readRateLimiter;
+  }
+
+  public void recordWalFsyncLatency(long costTimeInNanos) {
+    if (config.isEnableAdaptiveCompactionThroughput()) {
+      walFsyncLatency.add(costTimeInNanos);
+    }
+  }
+
+  public void recordQueryLatency(long costTimeInNanos) {
+    if (config.isEnableAdaptiveCompactionThroughput()) {
+      queryLatency.add(costTimeInNanos);
+    }
+  }
+
+  /** Adjust the limits if they haven't been adjusted in the last interval. */
+  public void adjustIfNeeded() {
+    long currentTime = System.currentTimeMillis();
+    long lastTime = lastAdjustTime.get();
+    if (currentTime - lastTime >= ADJUST_INTERVAL_IN_MS
+        && lastAdjustTime.compareAndSet(lastTime, currentTime)) {
+      adjust();
+    }
+  }
+
+  @TestOnly
+  void adjust() {
+    boolean underPressure = isUnderPressure();
+    adjust(writeRateLimiter, config.getCompactionWriteThroughputMbPerSec(), underPressure);
+    adjust(readRateLimiter, getReadThroughputCeilingMbPerSec(), underPressure);
+  }
+
+  /** @return the upper bound of the read limit in MB/s, 0 means unlimited */
+  private int getReadThroughputCeilingMbPerSec() {
+    int readMbPerSec = config.getCompactionReadThroughputMbPerSec();
+    int writeMbPerSec = config.getCompactionWriteThroughputMbPerSec();
+    if (readMbPerSec > 0 || !config.isEnableAdaptiveCompactionThroughput() || writeMbPerSec <= 0) {
+      return readMbPerSec;
+    }
+    return (int) Math.min((long) writeMbPerSec * READ_TO_WRITE_THROUGHPUT_RATIO, Integer.MAX_VALUE);
+  }
+
+  private boolean isUnderPressure() {
+    // consume both windows, so that stale samples don't affect the next adjustment
+    long walFsyncP99 = walFsyncLatency.consumeP99();
+    long queryP99 = queryLatency.consumeP99();
+    return flushQueueSize.getAsLong() > config.getCompactionThrottleFlushQueueThreshold()
+        || walFsyncP99
+            > TimeUnit.MILLISECONDS.toNanos(config.getCompactionThrottleWalFsyncLatencyInMs())
+        || queryP99 > TimeUnit.MILLISECONDS.toNanos(config.getCompactionThrottleQueryLatencyInMs());
+  }
+
+  private void adjust(RateLimiter limiter, int maxMbPerSec, boolean underPressure) {
+    double rate;
+    if (maxMbPerSec <= 0) {
+      rate = Double.MAX_VALUE;
+    } else if (!config.isEnableAdaptiveCompactionThroughput()) {
+      rate = maxMbPerSec * MB;
+    } else {
+      double maxRate = maxMbPerSec * MB;
+      double currentRate = Math.min(limiter.getRate(), maxRate);
+      rate =
+          underPressure
+              ? Math.max(currentRate / 2, maxRate * MIN_THROUGHPUT_RATIO)
+              : Math.min(currentRate + maxRate * INCREASE_RATIO, maxRate);
+    }
+    if (limiter.getRate() != rate) {
+      limiter.setRate(rate);
+    }
+  }
+
+  /** @return the current write limit in MB/s, 0 means unlimited */
+  public double getWriteThroughputMbPerSec() {
+    return toMbPerSec(writeRateLimiter.getRate());
+  }
+
+  /** @return the current read limit in MB/s, 0 means unlimited */
+  public double getReadThroughputMbPerSec() {
+    return toMbPerSec(readRateLimiter.getRate());
+  }
+
+  private static double toMbPerSec(double rate) {
+    return rate == Double.MAX_VALUE ? 0 : rate / MB;
+  }
+
+  /** Lock-free ring buffer of the latest latency samples. */
+  private static class LatencyWindow {
+    private final AtomicLongArray samples;
+    private final AtomicLong addedNum = new AtomicLong(0);
+    /** number of samples added before the last consumption, only accessed by the adjuster */
+    private long consumedNum = 0;
+
+    LatencyWindow(int size) {
+      samples = new AtomicLongArray(size);
+    }
+
+    void add(long latency) {
+      samples.set((int) (addedNum.getAndIncrement() % samples.length()), latency);
+    }
+
+    /** @return p99 of the samples added since the last call, 0 if there is no such sample */
+    long consumeP99() {
+      long endNum = addedNum.get();
+      int size = (int) Math.min(endNum - consumedNum, samples.length());
+      consumedNum = endNum;
+      if (size <= 0) {
+        return 0;
+      }
+      long[] latest = new long[size];
+      for (int i = 0; i < size; i++) {
+        latest[i] = samples.get((int) ((endNum - 1 - i) % samples.length()));
+      }
+      Arrays.sort(latest);
+      return latest[(int) Math.ceil(size * 0.99) - 1];
+    }
+  }
+
+  private static class InstanceHolder {
+    private static final CompactionThrottler INSTANCE =
+        new CompactionThrottler(() -> FlushManager.getInstance().getNumberOfPendingTasks());
+
+    private InstanceHolder() {}
+  }
+}
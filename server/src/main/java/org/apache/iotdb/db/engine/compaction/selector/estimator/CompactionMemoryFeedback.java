@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.estimator;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class corrects the memory cost estimated by {@link AbstractCrossSpaceEstimator} with the
+ * actual memory cost of the finished cross space compaction tasks, which is measured by the fast
+ * performer as the chunks loaded and the pages deserialized by the sub tasks, the pages buffered in
+ * their chunk writers and the chunk metadata held by the target files. For each database, the ratio
+ * of actual to estimated memory cost is kept as an exponential moving average. A ratio above 1 is
+ * applied at once because the estimation is too optimistic, while a ratio below 1 is applied only
+ * after {@link #MIN_SAMPLE_NUM} tasks and never goes below {@code
+ * compaction_memory_feedback_min_ratio}, so that the selector packs more files into a task only
+ * when the estimation is known to be pessimistic.
+ */
+public class CompactionMemoryFeedback {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  /** weight of the newest ratio in the moving average */
+  static final double SMOOTHING_FACTOR = 0.2;
+  /** number of finished tasks of a database before its estimations are reduced */
+  static final int MIN_SAMPLE_NUM = 5;
+
+  private final Map<String, Correction> corrections = new ConcurrentHashMap<>();
+
+  CompactionMemoryFeedback() {}
+
+  public static CompactionMemoryFeedback getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * @return the estimated memory cost corrected by the ratio of the database, or the estimation
+   *     itself if the feedback is disabled
+   */
+  public long correct(String database, long estimatedMemoryCost) {
+    if (!config.isEnableCompactionMemoryFeedback()) {
+      return estimatedMemoryCost;
+    }
+    // the cast saturates at Long.MAX_VALUE
+    return (long) (estimatedMemoryCost * getCorrectionRatio(database));
+  }
+
+  public double getCorrectionRatio(String database) {
+    Correction correction = corrections.get(database);
+    return correction == null
+        ? 1.0
+        : correction.getRatio(config.getCompactionMemoryFeedbackMinRatio());
+  }
+
+  /** Record the estimated and actual memory cost of a finished task of the database. */
+  public void record(String database, long estimatedMemoryCost, long actualMemoryCost) {
+    if (estimatedMemoryCost <= 0 || actualMemoryCost <= 0) {
+      return;
+    }
+    corrections
+        .computeIfAbsent(database, k -> new Correction())
+        .update((double) actualMemoryCost / estimatedMemoryCost);
+    CompactionMetricsManager.getInstance()
+        .recordMemoryCost(
+            database, estimatedMemoryCost, actualMemoryCost, getCorrectionRatio(database));
+  }
+
+  @TestOnly
+  public void clear() {
+    corrections.clear();
+  }
+
+  private static class Correction {
+    private double averageRatio = 1.0;
+    private int sampleNum = 0;
+
+    synchronized void update(double ratio) {
+      averageRatio =
+          sampleNum == 0 ? ratio : SMOOTHING_FACTOR * ratio + (1 - SMOOTHING_FACTOR) * averageRatio;
+      sampleNum++;
+    }
+
+    synchronized double getRatio(double minRatio) {
+      if (sampleNum < MIN_SAMPLE_NUM) {
+        return Math.max(averageRatio, 1.0);
+      }
+      return Math.max(averageRatio, minRatio);
+    }
+  }
+
+  private static class InstanceHolder {
+    private static final CompactionMemoryFeedback INSTANCE = new CompactionMemoryFeedback();
+  }
+}
@@ -37,7 +37,6 @@ public class InplaceCompactionEstimator extends AbstractCrossSpaceEstimator {
   private static final String LOG_FILE_COST = "Memory cost of file {} is {}";
 
   private boolean tightEstimate;
-  private long maxSeqFileCost;
 
   // the number of timeseries being compacted at the same time
   private final int concurrentSeriesNum =
@@ -51,7 +50,6 @@ public class InplaceCompactionEstimator extends AbstractCrossSpaceEstimator {
 
   public InplaceCompactionEstimator() {
     this.tightEstimate = false;
-    this.maxSeqFileCost = 0;
   }
 
   @Override
@@ -70,7 +68,10 @@ public class InplaceCompactionEstimator extends AbstractCrossSpaceEstimator {
       IFileQueryMemMeasurement unseqMeasurement,
       IFileQueryMemMeasurement seqMeasurement)
       throws IOException {
+    // the estimation only depends on the files of the task, so that it can be corrected by the
+    // actual memory cost of the finished tasks in CompactionMemoryFeedback
     long cost = 0;
+    long maxSeqFileCost = 0;
     Long fileCost = unseqMeasurement.measure(unseqResource);
     cost += fileCost;
 
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.selector.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LeveledCompactionSelector keeps the sequence files of a time partition in levels, and the level
+ * of a file is its inner compaction count. Files of level L are compacted into a file of level L +
+ * 1, whose target size is {@code leveled_compaction_base_file_size * leveled_compaction_size_ratio
+ * ^ L}, bounded by {@code target_compaction_file_size}. Files that reach {@code
+ * target_compaction_file_size} are never compacted again.
+ *
+ * <p>For each level, the selector traverses the consecutive closed files from old to new, and
+ * submits a task once the selected files reach the target size of the next level. Besides, if a
+ * level still holds more than {@code leveled_compaction_max_file_num_per_level} files, the left
+ * batches are compacted from old to new even if they are smaller than the target size, so that the
+ * number of files a query reads in a time partition is bounded by the number of levels.
+ */
+public class LeveledCompactionSelector implements IInnerSeqSpaceSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  protected String storageGroupName;
+  protected String dataRegionId;
+  protected long timePartition;
+  protected TsFileManager tsFileManager;
+  protected boolean hasNextTimePartition;
+
+  public LeveledCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager) {
+    this.storageGroupName = storageGroupName;
+    this.dataRegionId = dataRegionId;
+    this.timePartition = timePartition;
+    this.tsFileManager = tsFileManager;
+    hasNextTimePartition = tsFileManager.hasNextTimePartition(timePartition, true);
+  }
+
+  @Override
+  public List<List<TsFileResource>> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    try {
+      List<List<TsFileResource>> taskList = new ArrayList<>();
+      int maxLevel = -1;
+      for (TsFileResource resource : tsFileResources) {
+        maxLevel = Math.max(maxLevel, getLevel(resource));
+      }
+      for (int level = 0; level <= maxLevel; level++) {
+        if (!selectLevelTask(level, tsFileResources, taskList)) {
+          break;
+        }
+      }
+      return taskList;
+    } catch (Exception e) {
+      LOGGER.error("Exception occurs while selecting files", e);
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Select the tasks of one level into the task list.
+   *
+   * @return false if the candidate task queue is full and the search should stop
+   */
+  private boolean selectLevelTask(
+      int level, List<TsFileResource> tsFileResources, List<List<TsFileResource>> taskList) {
+    long nextLevelTargetSize = getLevelTargetSize(level + 1);
+    // number of files of this level which can be compacted, the files of the selected tasks leave
+    // this level as the target files are of the next level
+    int fileNum = 0;
+    // batches smaller than the target size, from old to new
+    List<List<TsFileResource>> smallBatches = new ArrayList<>();
+    List<TsFileResource> batch = new ArrayList<>();
+    long batchSize = 0L;
+    for (TsFileResource resource : tsFileResources) {
+      if (getLevel(resource) != level
+          || resource.getStatus() != TsFileResourceStatus.CLOSED
+          || resource.getTsFileSize() >= config.getTargetCompactionFileSize()) {
+        // only consecutive files can be compacted together
+        addSmallBatch(smallBatches, batch);
+        batch = new ArrayList<>();
+        batchSize = 0L;
+        continue;
+      }
+      fileNum++;
+      batch.add(resource);
+      batchSize += resource.getTsFileSize();
+      if (batchSize >= nextLevelTargetSize
+          || batch.size() >= config.getMaxInnerCompactionCandidateFileNum()) {
+        if (batch.size() > 1) {
+          if (!addOneTask(taskList, batch)) {
+            return false;
+          }
+          fileNum -= batch.size();
+        }
+        batch = new ArrayList<>();
+        batchSize = 0L;
+      }
+    }
+    addSmallBatch(smallBatches, batch);
+
+    // bound the number of files of this level, and compact all the files of a time partition which
+    // doesn't receive data any more
+    for (List<TsFileResource> smallBatch : smallBatches) {
+      if (fileNum <= config.getLeveledCompactionMaxFileNumPerLevel() && !hasNextTimePartition) {
+        break;
+      }
+      if (!addOneTask(taskList, smallBatch)) {
+        return false;
+      }
+      fileNum -= smallBatch.size();
+    }
+    return true;
+  }
+
+  private void addSmallBatch(List<List<TsFileResource>> smallBatches, List<TsFileResource> batch) {
+    if (batch.size() > 1) {
+      smallBatches.add(batch);
+    }
+  }
+
+  private boolean addOneTask(List<List<TsFileResource>> taskList, List<TsFileResource> batch) {
+    if (CompactionTaskManager.getInstance().getCompactionCandidateTaskCount() + taskList.size()
+        < config.getCandidateCompactionTaskQueueSize()) {
+      LOGGER.debug(
+          "{}-{} [Compaction] select {} files of level {} in time partition {}",
+          storageGroupName,
+          dataRegionId,
+          batch.size(),
+          getLevel(batch.get(0)),
+          timePartition);
+      taskList.add(new ArrayList<>(batch));
+      return true;
+    }
+    return false;
+  }
+
+  /** @return the target size of the files of the given level, which is at least 1 */
+  public static long getLevelTargetSize(int level) {
+    long targetSize = config.getLeveledCompactionBaseFileSize();
+    for (int i = 1; i < level && targetSize < config.getTargetCompactionFileSize(); i++) {
+      targetSize *= config.getLeveledCompactionSizeRatio();
+    }
+    return Math.max(Math.min(targetSize, config.getTargetCompactionFileSize()), 1);
+  }
+
+  private static int getLevel(TsFileResource resource) {
+    try {
+      return TsFileNameGenerator.getTsFileName(resource.getTsFile().getName())
+          .getInnerCompactionCnt();
+    } catch (IOException e) {
+      // files with illegal names are never selected
+      return -1;
+    }
+  }
+}
@@ -21,10 +21,13 @@ package org.apache.iotdb.db.engine.compaction.selector.impl;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.execute.performer.constant.CrossCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.selector.ICompactionSelector;
 import org.apache.iotdb.db.engine.compaction.selector.ICrossSpaceSelector;
 import org.apache.iotdb.db.engine.compaction.selector.estimator.AbstractCompactionEstimator;
+import org.apache.iotdb.db.engine.compaction.selector.estimator.CompactionMemoryFeedback;
 import org.apache.iotdb.db.engine.compaction.selector.utils.CrossCompactionTaskResource;
 import org.apache.iotdb.db.engine.compaction.selector.utils.CrossSpaceCompactionCandidate;
 import org.apache.iotdb.db.engine.compaction.selector.utils.CrossSpaceCompactionCandidate.CrossCompactionTaskResourceSplit;
@@ -70,11 +73,19 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
     this.dataRegionId = dataRegionId;
     this.timePartition = timePartition;
     this.tsFileManager = tsFileManager;
+    // the buffers of the devices compacted in parallel are reserved besides the estimation
+    long bufferMemoryCost =
+        config.getCrossCompactionPerformer() == CrossCompactionPerformer.FAST
+            ? FastCompactionPerformer.getDeviceParallelBufferMemoryCost()
+            : 0L;
     this.memoryBudget =
-        (long)
-            ((double) SystemInfo.getInstance().getMemorySizeForCompaction()
-                / IoTDBDescriptor.getInstance().getConfig().getCompactionThreadCount()
-                * config.getUsableCompactionMemoryProportion());
+        Math.max(
+            0L,
+            (long)
+                    ((double) SystemInfo.getInstance().getMemorySizeForCompaction()
+                        / IoTDBDescriptor.getInstance().getConfig().getCompactionThreadCount()
+                        * config.getUsableCompactionMemoryProportion())
+                - bufferMemoryCost);
     this.maxCrossCompactionFileNum =
         IoTDBDescriptor.getInstance().getConfig().getMaxCrossCompactionCandidateFileNum();
     this.maxCrossCompactionFileSize =
@@ -200,7 +211,9 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
     }
     if (taskResource.getTotalFileNums() + 1 + seqFiles.size() <= maxCrossCompactionFileNum
         && taskResource.getTotalFileSize() + totalFileSize <= maxCrossCompactionFileSize
-        && taskResource.getTotalMemoryCost() + memoryCost < memoryBudget) {
+        && CompactionMemoryFeedback.getInstance()
+                .correct(logicalStorageGroupName, taskResource.getTotalMemoryCost() + memoryCost)
+            < memoryBudget) {
       return true;
     }
     return false;
@@ -48,11 +48,17 @@ import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
  * encoding -> write to disk (io task)
+ *
+ * <p>If flush_encoding_thread_count is larger than 1, the series are sorted and encoded by that
+ * many sub tasks in parallel, and the encoding task passes the futures of the encoded chunks to the
+ * io task in the original order, so the chunk groups are still written in device order.
  */
 public class MemTableFlushTask {
 
@@ -76,7 +82,13 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  /** number of series sorted and encoded in parallel, 1 if they are encoded one by one */
+  private final int encodingThreadNum = config.getFlushEncodingThreadCount();
+
+  private final Semaphore encodingPermits = new Semaphore(encodingThreadNum);
+
+  private final AtomicLong sortTime = new AtomicLong(0L);
+  private final AtomicLong memSerializeTime = new AtomicLong(0L);
   private volatile long ioTime = 0L;
 
   /**
@@ -127,11 +139,10 @@ public class MemTableFlushTask {
               ? 0
               : memTable.memSize()
                   / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+                  * (config.getIoTaskQueueSizeForFlushing() + encodingThreadNum - 1);
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
-    long sortTime = 0;
 
     // for map do not use get(key) to iterate
     Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
@@ -148,30 +159,23 @@ public class MemTableFlushTask {
       List<String> seriesInOrder = new ArrayList<>(value.keySet());
       seriesInOrder.sort((String::compareTo));
       for (String seriesId : seriesInOrder) {
-        long startTime = System.currentTimeMillis();
         IWritableMemChunk series = value.get(seriesId);
         if (series.count() == 0) {
           continue;
         }
-        /*
-         * sort task (first task of flush pipeline)
-         */
-        series.sortTvListForFlush();
-        long subTaskTime = System.currentTimeMillis() - startTime;
-        sortTime += subTaskTime;
-        WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
+        if (encodingThreadNum == 1) {
+          /*
+           * sort task (first task of flush pipeline), which is executed by the encoding sub tasks
+           * if they are in parallel
+           */
+          sortSeries(series);
+        }
         encodingTaskQueue.put(series);
       }
 
       encodingTaskQueue.put(new EndChunkGroupIoTask());
     }
     encodingTaskQueue.put(new TaskEnd());
-    LOGGER.debug(
-        "Database {} memtable flushing into file {}: data sort time cost {} ms.",
-        storageGroup,
-        writer.getFile().getName(),
-        sortTime);
-    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime);
 
     try {
       encodingTaskFuture.get();
@@ -179,6 +183,12 @@ public class MemTableFlushTask {
       ioTaskFuture.cancel(true);
       throw e;
     }
+    LOGGER.debug(
+        "Database {} memtable flushing into file {}: data sort time cost {} ms.",
+        storageGroup,
+        writer.getFile().getName(),
+        sortTime.get());
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime.get());
 
     ioTaskFuture.get();
 
@@ -196,7 +206,9 @@ public class MemTableFlushTask {
       if (estimatedTemporaryMemSize != 0) {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      // the encoding time is the sum of the parallel sub tasks
+      SystemInfo.getInstance()
+          .setEncodingFasterThanIo(ioTime >= memSerializeTime.get() / encodingThreadNum);
     }
 
     MetricService.getInstance()
@@ -215,6 +227,49 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
+  private void sortSeries(IWritableMemChunk series) {
+    long startTime = System.currentTimeMillis();
+    series.sortTvListForFlush();
+    long subTaskTime = System.currentTimeMillis() - startTime;
+    sortTime.addAndGet(subTaskTime);
+    WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
+  }
+
+  private IChunkWriter encodeSeries(IWritableMemChunk writableMemChunk) {
+    long starTime = System.currentTimeMillis();
+    IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+    writableMemChunk.encode(seriesWriter);
+    seriesWriter.sealCurrentPage();
+    seriesWriter.clearPageWriter();
+    long subTaskTime = System.currentTimeMillis() - starTime;
+    WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+    memSerializeTime.addAndGet(subTaskTime);
+    return seriesWriter;
+  }
+
+  /**
+   * Submit a sub task to sort and encode the series, which waits if there are already
+   * encodingThreadNum sub tasks running.
+   */
+  private Future<IChunkWriter> submitEncodingSubTask(IWritableMemChunk writableMemChunk)
+      throws InterruptedException {
+    encodingPermits.acquire();
+    try {
+      return SUB_TASK_POOL_MANAGER.submit(
+          () -> {
+            try {
+              sortSeries(writableMemChunk);
+              return encodeSeries(writableMemChunk);
+            } finally {
+              encodingPermits.release();
+            }
+          });
+    } catch (RuntimeException e) {
+      encodingPermits.release();
+      throw e;
+    }
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
@@ -252,26 +307,28 @@ public class MemTableFlushTask {
               }
             } else if (task instanceof TaskEnd) {
               break;
+            } else if (encodingThreadNum > 1) {
+              try {
+                ioTaskQueue.put(submitEncodingSubTask((IWritableMemChunk) task));
+              } catch (InterruptedException e) {
+                LOGGER.error("Put task into ioTaskQueue Interrupted");
+                Thread.currentThread().interrupt();
+              }
             } else {
-              long starTime = System.currentTimeMillis();
-              IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
+              IChunkWriter seriesWriter = encodeSeries((IWritableMemChunk) task);
               try {
                 ioTaskQueue.put(seriesWriter);
               } catch (InterruptedException e) {
                 LOGGER.error("Put task into ioTaskQueue Interrupted");
                 Thread.currentThread().interrupt();
               }
-              long subTaskTime = System.currentTimeMillis() - starTime;
-              WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
-              memSerializeTime += subTaskTime;
             }
           }
           try {
             ioTaskQueue.put(new TaskEnd());
+            // wait for the encoding sub tasks
+            encodingPermits.acquire(encodingThreadNum);
+            encodingPermits.release(encodingThreadNum);
           } catch (InterruptedException e) {
             LOGGER.error("Put task into ioTaskQueue Interrupted");
             Thread.currentThread().interrupt();
@@ -299,8 +356,9 @@ public class MemTableFlushTask {
               "Database {}, flushing memtable {} into disk: Encoding data cost " + "{} ms.",
               storageGroup,
               writer.getFile().getName(),
-              memSerializeTime);
-          WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime);
+              memSerializeTime.get());
+          WRITING_METRICS.recordFlushCost(
+              WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime.get());
         }
       };
 
@@ -321,6 +379,23 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
             break;
           }
+          if (ioMessage instanceof Future) {
+            // wait for the chunk encoded by a parallel sub task
+            try {
+              ioMessage = ((Future<?>) ioMessage).get();
+            } catch (InterruptedException e) {
+              LOGGER.error("wait for the encoding sub task Interrupted");
+              Thread.currentThread().interrupt();
+              break;
+            } catch (ExecutionException e) {
+              LOGGER.error(
+                  "Database {} memtable {}, encoding sub task meets error.",
+                  storageGroup,
+                  memTable,
+                  e);
+              throw new FlushRunTimeException(e);
+            }
+          }
           long starTime = System.currentTimeMillis();
           try {
             if (ioMessage instanceof StartFlushGroupIOTask) {
@@ -55,6 +55,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -75,23 +77,23 @@ public abstract class AbstractMemTable implements IMemTable {
    */
   protected boolean disableMemControl = true;
 
-  private boolean shouldFlush = false;
+  private volatile boolean shouldFlush = false;
   private volatile FlushStatus flushStatus = FlushStatus.WORKING;
   private final int avgSeriesPointNumThreshold =
       IoTDBDescriptor.getInstance().getConfig().getAvgSeriesPointNumberThreshold();
   /** memory size of data points, including TEXT values */
-  private long memSize = 0;
+  private final AtomicLong memSize = new AtomicLong();
   /**
    * memory usage of all TVLists memory usage regardless of whether these TVLists are full,
    * including TEXT values
    */
-  private long tvListRamCost = 0;
+  private final AtomicLong tvListRamCost = new AtomicLong();
 
-  private int seriesNumber = 0;
+  private final AtomicInteger seriesNumber = new AtomicInteger();
 
-  private long totalPointsNum = 0;
+  private final AtomicLong totalPointsNum = new AtomicLong();
 
-  private long totalPointsNumThreshold = 0;
+  private final AtomicLong totalPointsNumThreshold = new AtomicLong();
 
   private long maxPlanIndex = Long.MIN_VALUE;
 
@@ -104,7 +106,12 @@ public abstract class AbstractMemTable implements IMemTable {
   private static final String METRIC_POINT_IN = "pointsIn";
 
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    // the inserts of different devices may write into the memtable at the same time, and the
+    // inserts of one device are serialized by the device lock of the data region
+    this.memTableMap =
+        IoTDBDescriptor.getInstance().getConfig().isEnableConcurrentMemTable()
+            ? new ConcurrentHashMap<>()
+            : new HashMap<>();
   }
 
   public AbstractMemTable(Map<IDeviceID, IWritableMemChunkGroup> memTableMap) {
@@ -129,8 +136,8 @@ public abstract class AbstractMemTable implements IMemTable {
         memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup());
     for (IMeasurementSchema schema : schemaList) {
       if (schema != null && !memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -142,15 +149,16 @@ public abstract class AbstractMemTable implements IMemTable {
         memTableMap.computeIfAbsent(
             deviceId,
             k -> {
-              seriesNumber += schemaList.size();
-              totalPointsNumThreshold += ((long) avgSeriesPointNumThreshold) * schemaList.size();
+              seriesNumber.addAndGet(schemaList.size());
+              totalPointsNumThreshold.addAndGet(
+                  ((long) avgSeriesPointNumThreshold) * schemaList.size());
               return new AlignedWritableMemChunkGroup(
                   schemaList.stream().filter(Objects::nonNull).collect(Collectors.toList()));
             });
     for (IMeasurementSchema schema : schemaList) {
       if (schema != null && !memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -186,7 +194,7 @@ public abstract class AbstractMemTable implements IMemTable {
       schemaList.add(schema);
       dataTypes.add(schema.getType());
     }
-    memSize += MemUtils.getRecordsSize(dataTypes, values, disableMemControl);
+    memSize.addAndGet(MemUtils.getRecordsSize(dataTypes, values, disableMemControl));
     write(insertRowNode.getDeviceID(), schemaList, insertRowNode.getTime(), values);
 
     int pointsInserted =
@@ -194,7 +202,7 @@ public abstract class AbstractMemTable implements IMemTable {
             - insertRowNode.getFailedMeasurementNumber()
             - nullPointsNumber;
 
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     MetricService.getInstance()
         .count(
@@ -229,11 +237,11 @@ public abstract class AbstractMemTable implements IMemTable {
     if (schemaList.isEmpty()) {
       return;
     }
-    memSize += MemUtils.getAlignedRecordsSize(dataTypes, values, disableMemControl);
+    memSize.addAndGet(MemUtils.getAlignedRecordsSize(dataTypes, values, disableMemControl));
     writeAlignedRow(insertRowNode.getDeviceID(), schemaList, insertRowNode.getTime(), values);
     int pointsInserted =
         insertRowNode.getMeasurements().length - insertRowNode.getFailedMeasurementNumber();
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     MetricService.getInstance()
         .count(
@@ -249,11 +257,11 @@ public abstract class AbstractMemTable implements IMemTable {
       throws WriteProcessException {
     try {
       write(insertTabletNode, start, end);
-      memSize += MemUtils.getTabletSize(insertTabletNode, start, end, disableMemControl);
+      memSize.addAndGet(MemUtils.getTabletSize(insertTabletNode, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletNode.getDataTypes().length - insertTabletNode.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       MetricService.getInstance()
           .count(
               pointsInserted,
@@ -271,11 +279,12 @@ public abstract class AbstractMemTable implements IMemTable {
       throws WriteProcessException {
     try {
       writeAlignedTablet(insertTabletNode, start, end);
-      memSize += MemUtils.getAlignedTabletSize(insertTabletNode, start, end, disableMemControl);
+      memSize.addAndGet(
+          MemUtils.getAlignedTabletSize(insertTabletNode, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletNode.getDataTypes().length - insertTabletNode.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       MetricService.getInstance()
           .count(
               pointsInserted,
@@ -388,12 +397,12 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public int getSeriesNumber() {
-    return seriesNumber;
+    return seriesNumber.get();
   }
 
   @Override
   public long getTotalPointsNum() {
-    return totalPointsNum;
+    return totalPointsNum.get();
   }
 
   @Override
@@ -407,25 +416,26 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public long memSize() {
-    return memSize;
+    return memSize.get();
   }
 
   @Override
   public boolean reachTotalPointNumThreshold() {
-    if (totalPointsNum == 0) {
+    long pointsNum = totalPointsNum.get();
+    if (pointsNum == 0) {
       return false;
     }
-    return totalPointsNum >= totalPointsNumThreshold;
+    return pointsNum >= totalPointsNumThreshold.get();
   }
 
   @Override
   public void clear() {
     memTableMap.clear();
-    memSize = 0;
-    seriesNumber = 0;
-    totalPointsNum = 0;
-    totalPointsNumThreshold = 0;
-    tvListRamCost = 0;
+    memSize.set(0);
+    seriesNumber.set(0);
+    totalPointsNum.set(0);
+    totalPointsNumThreshold.set(0);
+    tvListRamCost.set(0);
     maxPlanIndex = 0;
     minPlanIndex = 0;
   }
@@ -489,7 +499,8 @@ public abstract class AbstractMemTable implements IMemTable {
       PartialPath devicePath,
       long startTimestamp,
       long endTimestamp) {
-    totalPointsNum -= memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp);
+    totalPointsNum.addAndGet(
+        -memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp));
     if (memChunkGroup.getMemChunkMap().isEmpty()) {
       memTableMap.remove(deviceIDFactory.getDeviceID(devicePath));
     }
@@ -497,27 +508,27 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public void addTVListRamCost(long cost) {
-    this.tvListRamCost += cost;
+    this.tvListRamCost.addAndGet(cost);
   }
 
   @Override
   public void releaseTVListRamCost(long cost) {
-    this.tvListRamCost -= cost;
+    this.tvListRamCost.addAndGet(-cost);
   }
 
   @Override
   public long getTVListsRamCost() {
-    return tvListRamCost;
+    return tvListRamCost.get();
   }
 
   @Override
   public void addTextDataSize(long textDataSize) {
-    this.memSize += textDataSize;
+    this.memSize.addAndGet(textDataSize);
   }
 
   @Override
   public void releaseTextDataSize(long textDataSize) {
-    this.memSize -= textDataSize;
+    this.memSize.addAndGet(-textDataSize);
   }
 
   @Override
@@ -589,11 +600,11 @@ public abstract class AbstractMemTable implements IMemTable {
     if (isSignalMemTable()) {
       return;
     }
-    buffer.putInt(seriesNumber);
-    buffer.putLong(memSize);
-    buffer.putLong(tvListRamCost);
-    buffer.putLong(totalPointsNum);
-    buffer.putLong(totalPointsNumThreshold);
+    buffer.putInt(seriesNumber.get());
+    buffer.putLong(memSize.get());
+    buffer.putLong(tvListRamCost.get());
+    buffer.putLong(totalPointsNum.get());
+    buffer.putLong(totalPointsNumThreshold.get());
     buffer.putLong(maxPlanIndex);
     buffer.putLong(minPlanIndex);
 
@@ -608,11 +619,11 @@ public abstract class AbstractMemTable implements IMemTable {
   }
 
   public void deserialize(DataInputStream stream) throws IOException {
-    seriesNumber = stream.readInt();
-    memSize = stream.readLong();
-    tvListRamCost = stream.readLong();
-    totalPointsNum = stream.readLong();
-    totalPointsNumThreshold = stream.readLong();
+    seriesNumber.set(stream.readInt());
+    memSize.set(stream.readLong());
+    tvListRamCost.set(stream.readLong());
+    totalPointsNum.set(stream.readLong());
+    totalPointsNumThreshold.set(stream.readLong());
     maxPlanIndex = stream.readLong();
     minPlanIndex = stream.readLong();
 
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -112,6 +113,18 @@ public interface IWritableMemChunk extends WALEntryValue {
    */
   TVList getSortedTvListForQuery(List<IMeasurementSchema> schemaList);
 
+  /**
+   * served for non-vector query requests without copying the tv list.
+   *
+   * <p>if tv list hasn't been sorted and has no reference, sort it in place, otherwise the rows are
+   * read in the order of a sorted index, because the list may be read by other queries
+   *
+   * <p>This interface should be synchronized for concurrent with sortTvListForFlush and delete
+   *
+   * @return a snapshot of the tv list in time order
+   */
+  SortedTVListView getSortedTvListViewForQuery();
+
   /**
    * served for flush requests. The logic is just same as getSortedTVListForQuery, but without add
    * reference count
@@ -18,10 +18,13 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
@@ -34,6 +37,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -41,12 +45,32 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   private IMeasurementSchema schema;
   private TVList list;
+
+  /**
+   * statistics of all the rows, which are maintained at insert time while the rows are inserted in
+   * time order. It is null after an out-of-order insertion or a deletion.
+   */
+  private Statistics<? extends Serializable> statistics;
+
+  /**
+   * the float and double values in the statistics are rounded with this precision like the ones
+   * read by queries if the series is encoded by RLE or TS_2DIFF, otherwise it is -1
+   */
+  private int statisticsFloatPrecision = -1;
+
+  /** index of the unsorted list in time order, null if it is not built or out of date */
+  private int[] sortedIndex;
+
   private static final String UNSUPPORTED_TYPE = "Unsupported data type:";
   private static final Logger LOGGER = LoggerFactory.getLogger(WritableMemChunk.class);
 
   public WritableMemChunk(IMeasurementSchema schema) {
     this.schema = schema;
     this.list = TVList.newList(schema.getType());
+    this.statistics = Statistics.getStatsByType(schema.getType());
+    if (SortedTVListView.isRounded(schema.getType(), schema.getEncodingType())) {
+      this.statisticsFloatPrecision = MathUtils.getFloatPrecision(schema.getProps());
+    }
   }
 
   private WritableMemChunk() {}
@@ -129,32 +153,50 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void putLong(long t, long v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, v);
+    }
     list.putLong(t, v);
   }
 
   @Override
   public void putInt(long t, int v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, v);
+    }
     list.putInt(t, v);
   }
 
   @Override
   public void putFloat(long t, float v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, roundForStatistics(v));
+    }
     list.putFloat(t, v);
   }
 
   @Override
   public void putDouble(long t, double v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, roundForStatistics(v));
+    }
     list.putDouble(t, v);
   }
 
   @Override
   public boolean putBinaryWithFlushCheck(long t, Binary v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, v);
+    }
     list.putBinary(t, v);
     return list.reachMaxChunkSizeThreshold();
   }
 
   @Override
   public void putBoolean(long t, boolean v) {
+    if (isInsertedInOrder(t)) {
+      statistics.update(t, v);
+    }
     list.putBoolean(t, v);
   }
 
@@ -165,33 +207,63 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void putLongs(long[] t, long[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], v[i]);
+      }
+    }
     list.putLongs(t, v, bitMap, start, end);
   }
 
   @Override
   public void putInts(long[] t, int[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], v[i]);
+      }
+    }
     list.putInts(t, v, bitMap, start, end);
   }
 
   @Override
   public void putFloats(long[] t, float[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], roundForStatistics(v[i]));
+      }
+    }
     list.putFloats(t, v, bitMap, start, end);
   }
 
   @Override
   public void putDoubles(long[] t, double[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], roundForStatistics(v[i]));
+      }
+    }
     list.putDoubles(t, v, bitMap, start, end);
   }
 
   @Override
   public boolean putBinariesWithFlushCheck(
       long[] t, Binary[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], v[i]);
+      }
+    }
     list.putBinaries(t, v, bitMap, start, end);
     return list.reachMaxChunkSizeThreshold();
   }
 
   @Override
   public void putBooleans(long[] t, boolean[] v, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end && statistics != null; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && isInsertedInOrder(t[i])) {
+        statistics.update(t[i], v[i]);
+      }
+    }
     list.putBooleans(t, v, bitMap, start, end);
   }
 
@@ -201,6 +273,35 @@ public class WritableMemChunk implements IWritableMemChunk {
     throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + schema.getType());
   }
 
+  /**
+   * Check whether the point is inserted after all the existing points in time order, otherwise the
+   * statistics are not maintained any more.
+   */
+  private boolean isInsertedInOrder(long time) {
+    if (statistics == null) {
+      return false;
+    }
+    if (!statistics.isEmpty() && time <= statistics.getEndTime()) {
+      statistics = null;
+      return false;
+    }
+    return true;
+  }
+
+  private float roundForStatistics(float value) {
+    if (statisticsFloatPrecision < 0 || Float.isNaN(value)) {
+      return value;
+    }
+    return MathUtils.roundWithGivenPrecision(value, statisticsFloatPrecision);
+  }
+
+  private double roundForStatistics(double value) {
+    if (statisticsFloatPrecision < 0 || Double.isNaN(value)) {
+      return value;
+    }
+    return MathUtils.roundWithGivenPrecision(value, statisticsFloatPrecision);
+  }
+
   @Override
   public synchronized TVList getSortedTvListForQuery() {
     sortTVList();
@@ -214,10 +315,26 @@ public class WritableMemChunk implements IWritableMemChunk {
     throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + list.getDataType());
   }
 
+  @Override
+  public synchronized SortedTVListView getSortedTvListViewForQuery() {
+    if (!list.isSorted()) {
+      if (list.getReferenceCount() == 0) {
+        list.sort();
+      } else if (sortedIndex == null || sortedIndex.length != list.rowCount()) {
+        // the list may be read by other queries, so the rows are sorted by an index instead
+        sortedIndex = SortedTVListView.buildSortedIndex(list);
+      }
+    }
+    list.increaseReferenceCount();
+    return new SortedTVListView(
+        list, list.isSorted() ? null : sortedIndex, statistics, statisticsFloatPrecision);
+  }
+
   private void sortTVList() {
     // check reference count
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
       list = list.clone();
+      sortedIndex = null;
     }
 
     if (!list.isSorted()) {
@@ -255,6 +372,9 @@ public class WritableMemChunk implements IWritableMemChunk {
     if (list.rowCount() == 0) {
       return Long.MAX_VALUE;
     }
+    if (statistics != null) {
+      return statistics.getStartTime();
+    }
     return getSortedTvListForQuery().getTimeValuePair(0).getTimestamp();
   }
 
@@ -263,6 +383,9 @@ public class WritableMemChunk implements IWritableMemChunk {
     if (list.rowCount() == 0) {
       return Long.MIN_VALUE;
     }
+    if (statistics != null) {
+      return statistics.getEndTime();
+    }
     return getSortedTvListForQuery()
         .getTimeValuePair(getSortedTvListForQuery().rowCount() - 1)
         .getTimestamp();
@@ -274,8 +397,17 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public int delete(long lowerBound, long upperBound) {
-    return list.delete(lowerBound, upperBound);
+  public synchronized int delete(long lowerBound, long upperBound) {
+    if (list.getReferenceCount() > 0) {
+      // the rows are deleted in place, so the list read by the queries is copied
+      list = list.clone();
+    }
+    sortedIndex = null;
+    int deletedNumber = list.delete(lowerBound, upperBound);
+    if (deletedNumber > 0) {
+      statistics = null;
+    }
+    return deletedNumber;
   }
 
   @Override
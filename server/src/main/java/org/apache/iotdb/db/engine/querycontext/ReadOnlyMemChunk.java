@@ -20,28 +20,32 @@ package org.apache.iotdb.db.engine.querycontext;
 
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkLoader;
+import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
 import org.apache.iotdb.db.utils.datastructure.TVList;
-import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
-import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 /**
  * ReadOnlyMemChunk is a snapshot of the working MemTable and flushing memtable in the memory used
- * for querying
+ * for querying. The rows of a non-aligned chunk are read from a {@link SortedTVListView} of the tv
+ * list lazily, and a TsBlock is only built if {@link #getTsBlock()} is called.
  */
 public class ReadOnlyMemChunk {
 
@@ -49,12 +53,18 @@ public class ReadOnlyMemChunk {
 
   private TSDataType dataType;
 
-  private static final Logger logger = LoggerFactory.getLogger(ReadOnlyMemChunk.class);
-
   protected IChunkMetadata cachedMetaData;
 
   protected TsBlock tsBlock;
 
+  private SortedTVListView tvListView;
+
+  private int floatPrecision;
+
+  private TSEncoding encoding;
+
+  private List<TimeRange> deletionList;
+
   protected ReadOnlyMemChunk() {}
 
   public ReadOnlyMemChunk(
@@ -65,91 +75,137 @@ public class ReadOnlyMemChunk {
       Map<String, String> props,
       List<TimeRange> deletionList)
       throws IOException, QueryProcessException {
+    this(measurementUid, dataType, encoding, new SortedTVListView(tvList), props, deletionList);
+  }
+
+  public ReadOnlyMemChunk(
+      String measurementUid,
+      TSDataType dataType,
+      TSEncoding encoding,
+      SortedTVListView tvListView,
+      Map<String, String> props,
+      List<TimeRange> deletionList)
+      throws IOException, QueryProcessException {
     this.measurementUid = measurementUid;
     this.dataType = dataType;
-    int floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
-    if (props != null && props.containsKey(Encoder.MAX_POINT_NUMBER)) {
-      try {
-        floatPrecision = Integer.parseInt(props.get(Encoder.MAX_POINT_NUMBER));
-      } catch (NumberFormatException e) {
-        logger.warn(
-            "The format of MAX_POINT_NUMBER {}  is not correct."
-                + " Using default float precision.",
-            props.get(Encoder.MAX_POINT_NUMBER));
-      }
-      if (floatPrecision < 0) {
-        logger.warn(
-            "The MAX_POINT_NUMBER shouldn't be less than 0." + " Using default float precision {}.",
-            TSFileDescriptor.getInstance().getConfig().getFloatPrecision());
-        floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
-      }
-    }
-    this.tsBlock = tvList.buildTsBlock(floatPrecision, encoding, deletionList);
-    initChunkMetaFromTsBlock();
+    this.tvListView = tvListView;
+    this.floatPrecision = MathUtils.getFloatPrecision(props);
+    this.encoding = encoding;
+    this.deletionList = deletionList;
+    initChunkMetaFromTvListView();
   }
 
-  private void initChunkMetaFromTsBlock() throws IOException, QueryProcessException {
-    Statistics statsByType = Statistics.getStatsByType(dataType);
+  private void initChunkMetaFromTvListView() {
+    Statistics<? extends Serializable> statsByType = Statistics.getStatsByType(dataType);
     IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
-    if (!isEmpty()) {
-      switch (dataType) {
-        case BOOLEAN:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getBoolean(i));
-          }
-          break;
-        case TEXT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getBinary(i));
-          }
-          break;
-        case FLOAT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getFloat(i));
-          }
-          break;
-        case INT32:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getInt(i));
-          }
-          break;
-        case INT64:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getLong(i));
-          }
-          break;
-        case DOUBLE:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getDouble(i));
-          }
-          break;
-        default:
-          throw new QueryProcessException("Unsupported data type:" + dataType);
+    Statistics<? extends Serializable> insertedStatistics =
+        tvListView.getStatistics(floatPrecision, encoding);
+    if (insertedStatistics != null && !isDeleted(insertedStatistics)) {
+      statsByType.mergeStatistics(insertedStatistics);
+    } else {
+      SortedTVListView.RowCursor cursor = getRowCursor();
+      while (cursor.next()) {
+        cursor.updateStatistics(statsByType);
       }
     }
-    statsByType.setEmpty(isEmpty());
+    statsByType.setEmpty(statsByType.getCount() == 0);
     metaData.setChunkLoader(new MemChunkLoader(this));
     metaData.setVersion(Long.MAX_VALUE);
     cachedMetaData = metaData;
   }
 
+  /** Check whether some rows of the chunk may be deleted. */
+  private boolean isDeleted(Statistics<? extends Serializable> statistics) {
+    if (deletionList != null && !statistics.isEmpty()) {
+      TimeRange chunkTimeRange = new TimeRange(statistics.getStartTime(), statistics.getEndTime());
+      for (TimeRange timeRange : deletionList) {
+        if (timeRange.overlaps(chunkTimeRange)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public TSDataType getDataType() {
     return dataType;
   }
 
   public boolean isEmpty() throws IOException {
-    return tsBlock.isEmpty();
+    return cachedMetaData.getStatistics().getCount() == 0;
   }
 
   public IChunkMetadata getChunkMetaData() {
     return cachedMetaData;
   }
 
+  /** Release the snapshot of the memtable after the query finishes. */
+  public void release() {
+    if (tvListView != null) {
+      tvListView.release();
+    }
+  }
+
+  /** @return a cursor over the valid rows of the chunk in time order */
+  public SortedTVListView.RowCursor getRowCursor() {
+    return tvListView.cursor(floatPrecision, encoding, deletionList);
+  }
+
   public IPointReader getPointReader() {
-    return tsBlock.getTsBlockSingleColumnIterator();
+    return new MemChunkPointReader(getRowCursor());
   }
 
+  /** Build a TsBlock of all the valid rows, which copies the rows of the tv list. */
   public TsBlock getTsBlock() {
+    if (tsBlock == null) {
+      TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+      TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+      ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+      SortedTVListView.RowCursor cursor = getRowCursor();
+      while (cursor.next()) {
+        timeBuilder.writeLong(cursor.getTime());
+        cursor.writeValue(valueBuilder);
+        builder.declarePosition();
+      }
+      tsBlock = builder.build();
+    }
     return tsBlock;
   }
+
+  private static class MemChunkPointReader implements IPointReader {
+
+    private final SortedTVListView.RowCursor cursor;
+
+    private TimeValuePair currentTimeValuePair;
+
+    private MemChunkPointReader(SortedTVListView.RowCursor cursor) {
+      this.cursor = cursor;
+    }
+
+    @Override
+    public boolean hasNextTimeValuePair() {
+      if (currentTimeValuePair == null && cursor.next()) {
+        currentTimeValuePair = new TimeValuePair(cursor.getTime(), cursor.getPrimitiveValue());
+      }
+      return currentTimeValuePair != null;
+    }
+
+    @Override
+    public TimeValuePair nextTimeValuePair() {
+      TimeValuePair timeValuePair = currentTimeValuePair();
+      currentTimeValuePair = null;
+      return timeValuePair;
+    }
+
+    @Override
+    public TimeValuePair currentTimeValuePair() {
+      hasNextTimeValuePair();
+      return currentTimeValuePair;
+    }
+
+    @Override
+    public void close() {
+      // do nothing
+    }
+  }
 }
@@ -41,6 +41,7 @@ import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.TsFileMetricManager;
 import org.apache.iotdb.db.engine.cache.BloomFilterCache;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.DecodedPageCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.compaction.execute.recover.CompactionRecoverManager;
 import org.apache.iotdb.db.engine.compaction.execute.task.AbstractCompactionTask;
@@ -133,6 +134,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -178,6 +180,9 @@ public class DataRegion implements IDataRegionForQuery {
   /** indicating the file to be loaded overlap with some files. */
   private static final int POS_OVERLAP = -3;
 
+  /** number of the device locks used when the concurrent memtable is enabled */
+  private static final int DEVICE_INSERT_LOCK_NUM = 64;
+
   private final boolean enableMemControl = config.isEnableMemControl();
   /**
    * a read write lock for guaranteeing concurrent safety when accessing all fields in this class
@@ -188,6 +193,21 @@ public class DataRegion implements IDataRegionForQuery {
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
   /** condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
+  /**
+   * Whether the inserts of different devices are executed in parallel. If true, an insert only
+   * holds the read lock of insertLock and the write lock of its device in deviceInsertLocks, and a
+   * query holds the read locks of all the devices to see consistent memtables, so that the queries
+   * do not block each other.
+   */
+  private final boolean enableConcurrentMemTable = config.isEnableConcurrentMemTable();
+  /** device locks striped by the hash of device path, null if the concurrent memtable is off */
+  private final ReadWriteLock[] deviceInsertLocks =
+      enableConcurrentMemTable ? createDeviceInsertLocks() : null;
+  /**
+   * serialize the creation of TsFileProcessors and the accesses to lastFlushTimeMap when the
+   * inserts are executed in parallel
+   */
+  private final Object insertCreationLock = new Object();
   /** data region has been deleted or not. */
   private volatile boolean deleted = false;
   /** closeStorageGroupCondition is used to wait for all currently closing TsFiles to be done. */
@@ -922,8 +942,9 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
+    List<TsFileProcessor> processorsToFlush = enableConcurrentMemTable ? new ArrayList<>() : null;
     long startTime = System.nanoTime();
-    writeLock("InsertRow");
+    Lock deviceLock = lockForInsert("InsertRow", insertRowNode.getDevicePath());
     PerformanceOverviewMetricsManager.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -932,22 +953,11 @@ public class DataRegion implements IDataRegionForQuery {
       // init map
       long timePartitionId = StorageEngine.getTimePartition(insertRowNode.getTime());
 
-      if (!lastFlushTimeMap.checkAndCreateFlushedTimePartition(timePartitionId)) {
-        TimePartitionManager.getInstance()
-            .registerTimePartitionInfo(
-                new TimePartitionInfo(
-                    new DataRegionId(Integer.parseInt(dataRegionId)),
-                    timePartitionId,
-                    true,
-                    Long.MAX_VALUE,
-                    0,
-                    tsFileManager.isLatestTimePartition(timePartitionId)));
-      }
+      initFlushedTimePartition(timePartitionId);
 
       boolean isSequence =
           insertRowNode.getTime()
-              > lastFlushTimeMap.getFlushedTime(
-                  timePartitionId, insertRowNode.getDevicePath().getFullPath());
+              > getFlushedTime(timePartitionId, insertRowNode.getDevicePath().getFullPath());
 
       // is unsequence and user set config to discard out of order data
       if (!isSequence
@@ -956,9 +966,10 @@ public class DataRegion implements IDataRegionForQuery {
       }
 
       // insert to sequence or unSequence file
-      insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId);
+      insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId, processorsToFlush);
     } finally {
-      writeUnlock();
+      unlockForInsert(deviceLock);
+      submitFlushTasksAfterInsert(processorsToFlush);
     }
   }
 
@@ -973,8 +984,9 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
+    List<TsFileProcessor> processorsToFlush = enableConcurrentMemTable ? new ArrayList<>() : null;
     long startTime = System.nanoTime();
-    writeLock("insertTablet");
+    Lock deviceLock = lockForInsert("insertTablet", insertTabletNode.getDevicePath());
     PerformanceOverviewMetricsManager.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1018,22 +1030,10 @@ public class DataRegion implements IDataRegionForQuery {
       long beforeTimePartition =
           StorageEngine.getTimePartition(insertTabletNode.getTimes()[before]);
       // init map
-
-      if (!lastFlushTimeMap.checkAndCreateFlushedTimePartition(beforeTimePartition)) {
-        TimePartitionManager.getInstance()
-            .registerTimePartitionInfo(
-                new TimePartitionInfo(
-                    new DataRegionId(Integer.parseInt(dataRegionId)),
-                    beforeTimePartition,
-                    true,
-                    Long.MAX_VALUE,
-                    0,
-                    tsFileManager.isLatestTimePartition(beforeTimePartition)));
-      }
+      initFlushedTimePartition(beforeTimePartition);
 
       long lastFlushTime =
-          lastFlushTimeMap.getFlushedTime(
-              beforeTimePartition, insertTabletNode.getDevicePath().getFullPath());
+          getFlushedTime(beforeTimePartition, insertTabletNode.getDevicePath().getFullPath());
 
       // if is sequence
       boolean isSequence = false;
@@ -1046,7 +1046,13 @@ public class DataRegion implements IDataRegionForQuery {
           if (!IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData()) {
             noFailure =
                 insertTabletToTsFileProcessor(
-                        insertTabletNode, before, loc, false, results, beforeTimePartition)
+                        insertTabletNode,
+                        before,
+                        loc,
+                        false,
+                        results,
+                        beforeTimePartition,
+                        processorsToFlush)
                     && noFailure;
           }
           before = loc;
@@ -1061,7 +1067,13 @@ public class DataRegion implements IDataRegionForQuery {
               || !IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData())) {
         noFailure =
             insertTabletToTsFileProcessor(
-                    insertTabletNode, before, loc, isSequence, results, beforeTimePartition)
+                    insertTabletNode,
+                    before,
+                    loc,
+                    isSequence,
+                    results,
+                    beforeTimePartition,
+                    processorsToFlush)
                 && noFailure;
       }
       long globalLatestFlushedTime =
@@ -1075,7 +1087,8 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      unlockForInsert(deviceLock);
+      submitFlushTasksAfterInsert(processorsToFlush);
     }
   }
 
@@ -1099,6 +1112,8 @@ public class DataRegion implements IDataRegionForQuery {
    * @param end end index of rows to be inserted in insertTabletPlan
    * @param results result array
    * @param timePartitionId time partition id
+   * @param processorsToFlush the processors whose memtables should be flushed after the insert
+   *     locks are released, null if the flush tasks can be submitted at once
    * @return false if any failure occurs when inserting the tablet, true otherwise
    */
   private boolean insertTabletToTsFileProcessor(
@@ -1107,7 +1122,8 @@ public class DataRegion implements IDataRegionForQuery {
       int end,
       boolean sequence,
       TSStatus[] results,
-      long timePartitionId) {
+      long timePartitionId,
+      List<TsFileProcessor> processorsToFlush) {
     // return when start >= end
     if (start >= end) {
       return true;
@@ -1136,7 +1152,11 @@ public class DataRegion implements IDataRegionForQuery {
 
     // check memtable size and may async try to flush the work memtable
     if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      if (processorsToFlush == null) {
+        fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      } else {
+        processorsToFlush.add(tsFileProcessor);
+      }
     }
     return true;
   }
@@ -1160,7 +1180,10 @@ public class DataRegion implements IDataRegionForQuery {
   }
 
   private void insertToTsFileProcessor(
-      InsertRowNode insertRowNode, boolean sequence, long timePartitionId)
+      InsertRowNode insertRowNode,
+      boolean sequence,
+      long timePartitionId,
+      List<TsFileProcessor> processorsToFlush)
       throws WriteProcessException {
     TsFileProcessor tsFileProcessor = getOrCreateTsFileProcessor(timePartitionId, sequence);
     if (tsFileProcessor == null) {
@@ -1179,7 +1202,24 @@ public class DataRegion implements IDataRegionForQuery {
 
     // check memtable size and may asyncTryToFlush the work memtable
     if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      if (processorsToFlush == null) {
+        fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      } else {
+        processorsToFlush.add(tsFileProcessor);
+      }
+    }
+  }
+
+  /**
+   * In the concurrent memtable mode, the flush policy can only be applied with the write lock, so
+   * the flush tasks are submitted after the insert locks are released.
+   */
+  private void submitFlushTasksAfterInsert(List<TsFileProcessor> processorsToFlush) {
+    if (processorsToFlush == null) {
+      return;
+    }
+    for (TsFileProcessor tsFileProcessor : processorsToFlush) {
+      submitAFlushTaskWhenShouldFlush(tsFileProcessor);
     }
   }
 
@@ -1291,20 +1331,21 @@ public class DataRegion implements IDataRegionForQuery {
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
       long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
+    synchronized (insertCreationLock) {
+      TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
 
-    TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
+      if (null == res) {
+        // build new processor, memory control module will control the number of memtables
+        TimePartitionManager.getInstance()
+            .updateAfterOpeningTsFileProcessor(
+                new DataRegionId(Integer.valueOf(dataRegionId)), timeRangeId);
+        res = newTsFileProcessor(sequence, timeRangeId);
+        tsFileProcessorTreeMap.put(timeRangeId, res);
+        tsFileManager.add(res.getTsFileResource(), sequence);
+      }
 
-    if (null == res) {
-      // build new processor, memory control module will control the number of memtables
-      TimePartitionManager.getInstance()
-          .updateAfterOpeningTsFileProcessor(
-              new DataRegionId(Integer.valueOf(dataRegionId)), timeRangeId);
-      res = newTsFileProcessor(sequence, timeRangeId);
-      tsFileProcessorTreeMap.put(timeRangeId, res);
-      tsFileManager.add(res.getTsFileResource(), sequence);
+      return res;
     }
-
-    return res;
   }
 
   private TsFileProcessor newTsFileProcessor(boolean sequence, long timePartitionId)
@@ -1735,6 +1776,12 @@ public class DataRegion implements IDataRegionForQuery {
   public void readLock() {
     // apply read lock for SG insert lock to prevent inconsistent with concurrently writing memtable
     insertLock.readLock().lock();
+    if (enableConcurrentMemTable) {
+      // the inserts also hold the read lock, so they are blocked by the device locks
+      for (ReadWriteLock deviceLock : deviceInsertLocks) {
+        deviceLock.readLock().lock();
+      }
+    }
     // apply read lock for TsFileResource list
     tsFileManager.readLock();
   }
@@ -1743,6 +1790,11 @@ public class DataRegion implements IDataRegionForQuery {
   @Override
   public void readUnlock() {
     tsFileManager.readUnlock();
+    if (enableConcurrentMemTable) {
+      for (int i = deviceInsertLocks.length - 1; i >= 0; i--) {
+        deviceInsertLocks[i].readLock().unlock();
+      }
+    }
     insertLock.readLock().unlock();
   }
 
@@ -1758,6 +1810,70 @@ public class DataRegion implements IDataRegionForQuery {
     insertLock.writeLock().unlock();
   }
 
+  /**
+   * Lock before inserting the data of a device. If the concurrent memtable is enabled, only the
+   * read lock of the insert lock and the write lock of the device are held, otherwise the write
+   * lock of the insert lock is held.
+   *
+   * @return the device lock to be passed to {@link #unlockForInsert}, null if the write lock is
+   *     held
+   */
+  private Lock lockForInsert(String holder, PartialPath devicePath) {
+    if (!enableConcurrentMemTable) {
+      writeLock(holder);
+      return null;
+    }
+    insertLock.readLock().lock();
+    Lock deviceLock =
+        deviceInsertLocks[
+                Math.floorMod(devicePath.getFullPath().hashCode(), DEVICE_INSERT_LOCK_NUM)]
+            .writeLock();
+    deviceLock.lock();
+    return deviceLock;
+  }
+
+  private void unlockForInsert(Lock deviceLock) {
+    if (deviceLock == null) {
+      writeUnlock();
+    } else {
+      deviceLock.unlock();
+      insertLock.readLock().unlock();
+    }
+  }
+
+  private static ReadWriteLock[] createDeviceInsertLocks() {
+    ReadWriteLock[] locks = new ReadWriteLock[DEVICE_INSERT_LOCK_NUM];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+    return locks;
+  }
+
+  /** create the flushed time map of the partition and register it if it does not exist */
+  private void initFlushedTimePartition(long timePartitionId) {
+    // the flushed time map is not thread-safe, while the inserts may be executed in parallel
+    synchronized (insertCreationLock) {
+      if (!lastFlushTimeMap.checkAndCreateFlushedTimePartition(timePartitionId)) {
+        TimePartitionManager.getInstance()
+            .registerTimePartitionInfo(
+                new TimePartitionInfo(
+                    new DataRegionId(Integer.parseInt(dataRegionId)),
+                    timePartitionId,
+                    true,
+                    Long.MAX_VALUE,
+                    0,
+                    tsFileManager.isLatestTimePartition(timePartitionId)));
+      }
+    }
+  }
+
+  private long getFlushedTime(long timePartitionId, String devicePath) {
+    // the flushed time of the device may be recovered and put into the map
+    synchronized (insertCreationLock) {
+      return lastFlushTimeMap.getFlushedTime(timePartitionId, devicePath);
+    }
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -2239,6 +2355,7 @@ public class DataRegion implements IDataRegionForQuery {
 
   public static void operateClearCache() {
     ChunkCache.getInstance().clear();
+    DecodedPageCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
   }
@@ -3095,8 +3212,10 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
+    List<TsFileProcessor> processorsToFlush = enableConcurrentMemTable ? new ArrayList<>() : null;
     long startTime = System.nanoTime();
-    writeLock("InsertRowsOfOneDevice");
+    Lock deviceLock =
+        lockForInsert("InsertRowsOfOneDevice", insertRowsOfOneDeviceNode.getDevicePath());
     PerformanceOverviewMetricsManager.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -3123,18 +3242,7 @@ public class DataRegion implements IDataRegionForQuery {
         }
         // init map
         long timePartitionId = StorageEngine.getTimePartition(insertRowNode.getTime());
-
-        if (!lastFlushTimeMap.checkAndCreateFlushedTimePartition(timePartitionId)) {
-          TimePartitionManager.getInstance()
-              .registerTimePartitionInfo(
-                  new TimePartitionInfo(
-                      new DataRegionId(Integer.valueOf(dataRegionId)),
-                      timePartitionId,
-                      true,
-                      Long.MAX_VALUE,
-                      0,
-                      tsFileManager.isLatestTimePartition(timePartitionId)));
-        }
+        initFlushedTimePartition(timePartitionId);
 
         // as the plans have been ordered, and we have get the write lock,
         // So, if a plan is sequenced, then all the rest plans are sequenced.
@@ -3142,8 +3250,7 @@ public class DataRegion implements IDataRegionForQuery {
         if (!isSequence) {
           isSequence =
               insertRowNode.getTime()
-                  > lastFlushTimeMap.getFlushedTime(
-                      timePartitionId, insertRowNode.getDevicePath().getFullPath());
+                  > getFlushedTime(timePartitionId, insertRowNode.getDevicePath().getFullPath());
         }
         // is unsequence and user set config to discard out of order data
         if (!isSequence
@@ -3153,7 +3260,7 @@ public class DataRegion implements IDataRegionForQuery {
 
         // insert to sequence or unSequence file
         try {
-          insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId);
+          insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId, processorsToFlush);
         } catch (WriteProcessException e) {
           insertRowsOfOneDeviceNode
               .getResults()
@@ -3161,7 +3268,8 @@ public class DataRegion implements IDataRegionForQuery {
         }
       }
     } finally {
-      writeUnlock();
+      unlockForInsert(deviceLock);
+      submitFlushTasksAfterInsert(processorsToFlush);
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException("Partial failed inserting rows of one device");
@@ -142,7 +142,7 @@ public class TsFileProcessor {
   private volatile boolean shouldClose;
 
   /** working memtable. */
-  private IMemTable workMemTable;
+  private volatile IMemTable workMemTable;
 
   /** last flush time to flush the working memtable. */
   private long lastWorkMemtableFlushTime;
@@ -278,20 +278,36 @@ public class TsFileProcessor {
     }
 
     // update start time of this memtable
-    tsFileResource.updateStartTime(
-        insertRowNode.getDeviceID().toStringID(), insertRowNode.getTime());
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertRowNode.getDeviceID().toStringID(), insertRowNode.getTime());
-    }
+    updateResourceTime(
+        insertRowNode.getDeviceID().toStringID(), insertRowNode.getTime(), insertRowNode.getTime());
     PerformanceOverviewMetricsManager.recordScheduleMemTableCost(System.nanoTime() - startTime);
   }
 
-  private void createNewWorkingMemTable() throws WriteProcessException {
-    workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-    walNode.onMemTableCreated(workMemTable, tsFileResource.getTsFilePath());
+  /**
+   * The inserts of different devices may call this method at the same time when the concurrent
+   * memtable is enabled, so only one memtable is created.
+   */
+  private synchronized void createNewWorkingMemTable() throws WriteProcessException {
+    if (workMemTable != null) {
+      return;
+    }
+    IMemTable memTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
+    walNode.onMemTableCreated(memTable, tsFileResource.getTsFilePath());
+    workMemTable = memTable;
+  }
+
+  /**
+   * Update the time index of the unsealed file, which is shared by the inserts of all the devices.
+   */
+  private void updateResourceTime(String deviceId, long startTime, long endTime) {
+    synchronized (tsFileResource) {
+      tsFileResource.updateStartTime(deviceId, startTime);
+      // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
+      // for unsequence tsfile, we have to update the endTime for each insertion.
+      if (!sequence) {
+        tsFileResource.updateEndTime(deviceId, endTime);
+      }
+    }
   }
 
   /**
@@ -384,15 +400,10 @@ public class TsFileProcessor {
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
     }
-    tsFileResource.updateStartTime(
-        insertTabletNode.getDeviceID().toStringID(), insertTabletNode.getTimes()[start]);
-
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertTabletNode.getDeviceID().toStringID(), insertTabletNode.getTimes()[end - 1]);
-    }
+    updateResourceTime(
+        insertTabletNode.getDeviceID().toStringID(),
+        insertTabletNode.getTimes()[start],
+        insertTabletNode.getTimes()[end - 1]);
     PerformanceOverviewMetricsManager.recordScheduleMemTableCost(System.nanoTime() - startTime);
   }
 
@@ -333,6 +333,18 @@ public class TsFileResource {
     return pathToReadOnlyMemChunkMap.get(seriesPath);
   }
 
+  /** Release the memtable snapshots of an unsealed TsFile for query after the query finishes. */
+  public void releaseReadOnlyMemChunks() {
+    if (pathToReadOnlyMemChunkMap == null) {
+      return;
+    }
+    for (List<ReadOnlyMemChunk> readOnlyMemChunks : pathToReadOnlyMemChunkMap.values()) {
+      if (readOnlyMemChunks != null) {
+        readOnlyMemChunks.forEach(ReadOnlyMemChunk::release);
+      }
+    }
+  }
+
   public ModificationFile getModFile() {
     if (modFile == null) {
       synchronized (this) {
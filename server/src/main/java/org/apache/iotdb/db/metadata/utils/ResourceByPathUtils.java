@@ -37,6 +37,7 @@ import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
 import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.utils.ModificationUtils;
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
@@ -349,8 +350,8 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
     }
     IWritableMemChunk memChunk =
         memTableMap.get(deviceID).getMemChunkMap().get(partialPath.getMeasurement());
-    // get sorted tv list is synchronized so different query can get right sorted list reference
-    TVList chunkCopy = memChunk.getSortedTvListForQuery();
+    // get the snapshot of tv list is synchronized so different query can get right sorted rows
+    SortedTVListView tvListView = memChunk.getSortedTvListViewForQuery();
     List<TimeRange> deletionList = null;
     if (modsToMemtable != null) {
       deletionList = constructDeletionList(memTable, modsToMemtable, timeLowerBound);
@@ -359,7 +360,7 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
         partialPath.getMeasurement(),
         partialPath.getMeasurementSchema().getType(),
         partialPath.getMeasurementSchema().getEncodingType(),
-        chunkCopy,
+        tvListView,
         partialPath.getMeasurementSchema().getProps(),
         deletionList);
   }
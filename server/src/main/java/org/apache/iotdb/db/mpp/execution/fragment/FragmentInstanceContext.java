@@ -363,6 +363,11 @@ public class FragmentInstanceContext extends QueryContext {
       FileReaderManager.getInstance().decreaseFileReaderReference(tsFile, false);
     }
     unClosedFilePaths = null;
+    if (sharedQueryDataSource != null) {
+      // the memtables read by this fragment instance can be modified in place again
+      sharedQueryDataSource.getSeqResources().forEach(TsFileResource::releaseReadOnlyMemChunks);
+      sharedQueryDataSource.getUnseqResources().forEach(TsFileResource::releaseReadOnlyMemChunks);
+    }
     dataRegion = null;
     timeFilter = null;
     sourcePaths = null;
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.mpp.execution.operator.source;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
@@ -29,27 +31,33 @@ import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.query.reader.chunk.MemPageReader;
+import org.apache.iotdb.db.query.reader.chunk.metadata.DiskChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
 import org.apache.iotdb.db.utils.FileLoaderUtils;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.controller.IChunkMetadataLoader;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IAlignedPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterUtils;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -111,6 +119,9 @@ public class SeriesScanUtil {
 
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
+  private static final int CHUNK_PREFETCH_NUM =
+      IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchNum();
+
   public SeriesScanUtil(
       PartialPath seriesPath,
       Ordering scanOrder,
@@ -289,7 +300,9 @@ public class SeriesScanUtil {
     if (firstChunkMetadata != null && !isChunkOverlapped() && !firstChunkMetadata.isModified()) {
       Filter queryFilter = scanOptions.getQueryFilter();
       if (queryFilter != null) {
-        if (!queryFilter.satisfy(firstChunkMetadata.getStatistics())) {
+        if (!queryFilter.satisfy(firstChunkMetadata.getStatistics())
+            || !ValueBloomFilterUtils.mightSatisfy(
+                queryFilter, firstChunkMetadata.getValueBloomFilter())) {
           skipCurrentChunk();
         }
         // TODO implement allSatisfied interface for filter, then we can still skip offset.
@@ -360,6 +373,38 @@ public class SeriesScanUtil {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+
+    if (CHUNK_PREFETCH_NUM > 0
+        && timeSeriesMetadata.isSeq()
+        && timeSeriesMetadata instanceof TimeseriesMetadata) {
+      IChunkMetadataLoader chunkMetadataLoader =
+          ((TimeseriesMetadata) timeSeriesMetadata).getChunkMetadataLoader();
+      // the resource is locked while prefetching, so only chunks of files on disk are prefetched
+      if (chunkMetadataLoader instanceof DiskChunkMetadataLoader) {
+        prefetchChunks(
+            ((DiskChunkMetadataLoader) chunkMetadataLoader).getResource(), chunkMetadataList);
+      }
+    }
+  }
+
+  /**
+   * Read ahead the following chunks of a sequence file into ChunkCache. The first chunk in scan
+   * order is skipped because this scan is going to read it right now.
+   */
+  private void prefetchChunks(TsFileResource resource, List<IChunkMetadata> chunkMetadataList) {
+    List<ChunkMetadata> chunksToPrefetch = new ArrayList<>(CHUNK_PREFETCH_NUM);
+    int size = chunkMetadataList.size();
+    for (int i = 1; i < size && chunksToPrefetch.size() < CHUNK_PREFETCH_NUM; i++) {
+      IChunkMetadata chunkMetadata =
+          chunkMetadataList.get(orderUtils.getAscending() ? i : size - 1 - i);
+      // aligned chunks are not cached in ChunkCache as a whole
+      if (chunkMetadata instanceof ChunkMetadata) {
+        chunksToPrefetch.add((ChunkMetadata) chunkMetadata);
+      }
+    }
+    if (!chunksToPrefetch.isEmpty()) {
+      ChunkCache.getInstance().prefetch(resource, chunksToPrefetch);
+    }
   }
 
   boolean isChunkOverlapped() throws IOException {
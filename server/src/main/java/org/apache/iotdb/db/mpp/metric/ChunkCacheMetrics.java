@@ -46,12 +46,24 @@ public class ChunkCacheMetrics implements IMetricSet {
         o -> (long) o.getHitRate(),
         Tag.NAME.toString(),
         "chunk");
+    metricService.createAutoGauge(
+        Metric.MEM.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache,
+        ChunkCache::getOffHeapUsedMemory,
+        Tag.NAME.toString(),
+        "chunk_cache_off_heap");
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), "chunk");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.MEM.toString(),
+        Tag.NAME.toString(),
+        "chunk_cache_off_heap");
   }
 
   @Override
@@ -19,16 +19,21 @@
 package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -127,8 +132,12 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
-        if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
+        tsFileReader =
+            isMmapReadEnabled(filePath)
+                ? new TsFileSequenceReader(
+                    new MmapTsFileInput(Paths.get(filePath), MmapUtil::clean))
+                : new TsFileSequenceReader(filePath);
+        if (!TSFileConfig.isSupportedVersion(tsFileReader.readVersionNumber())) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
           if (!((TsFileSequenceReaderForV2) tsFileReader)
@@ -145,6 +154,49 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  /**
+   * Get the reader of a sealed file and take a reference of it, only if the file is still
+   * referenced by some queries, so that background reads never open a reader which will not be
+   * closed. The reader is not closed until {@link #releaseReferencedReader} is called, even if the
+   * queries release the file in the meantime.
+   *
+   * @return null if the file is not referenced
+   */
+  public synchronized TsFileSequenceReader getAndReferenceIfReferenced(String filePath)
+      throws IOException {
+    AtomicInteger referenceCount = closedReferenceMap.get(filePath);
+    if (referenceCount == null) {
+      return null;
+    }
+    TsFileSequenceReader reader = get(filePath, true);
+    referenceCount.getAndIncrement();
+    return reader;
+  }
+
+  /** Release the reference taken by {@link #getAndReferenceIfReferenced}. */
+  public synchronized void releaseReferencedReader(String filePath) {
+    AtomicInteger referenceCount = closedReferenceMap.get(filePath);
+    if (referenceCount != null && referenceCount.decrementAndGet() == 0) {
+      closeUnUsedReaderAndRemoveRef(filePath, true);
+    }
+  }
+
+  /** Sealed TsFiles located in one of the mmap read data dirs are read by mapping them. */
+  private boolean isMmapReadEnabled(String filePath) {
+    String[] mmapReadDataDirs = IoTDBDescriptor.getInstance().getConfig().getMmapReadDataDirs();
+    if (mmapReadDataDirs.length == 0) {
+      return false;
+    }
+    String absolutePath = new File(filePath).getAbsolutePath();
+    for (String dir : mmapReadDataDirs) {
+      String absoluteDir = new File(dir).getAbsolutePath();
+      if (absolutePath.startsWith(absoluteDir + File.separator)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -59,16 +59,17 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
     long t1 = System.nanoTime();
     try {
       AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
-      Chunk timeChunk =
-          ChunkCache.getInstance()
-              .get((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(), debug);
-      List<Chunk> valueChunkList = new ArrayList<>();
+      // get the time chunk and value chunks together, so that the missed ones in the cache are
+      // read by as few I/Os as possible
+      List<ChunkMetadata> chunkMetadataList =
+          new ArrayList<>(alignedChunkMetadata.getValueChunkMetadataList().size() + 1);
+      chunkMetadataList.add((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
       for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-        valueChunkList.add(
-            valueChunkMetadata == null
-                ? null
-                : ChunkCache.getInstance().get((ChunkMetadata) valueChunkMetadata, debug));
+        chunkMetadataList.add((ChunkMetadata) valueChunkMetadata);
       }
+      List<Chunk> chunks = ChunkCache.getInstance().get(chunkMetadataList, debug);
+      Chunk timeChunk = chunks.get(0);
+      List<Chunk> valueChunkList = chunks.subList(1, chunks.size());
 
       long t2 = System.nanoTime();
       IChunkReader chunkReader = new AlignedChunkReader(timeChunk, valueChunkList, timeFilter);
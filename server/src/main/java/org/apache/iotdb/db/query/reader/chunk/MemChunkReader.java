@@ -43,10 +43,7 @@ public class MemChunkReader implements IChunkReader, IPointReader {
     timeValuePairIterator = readableChunk.getPointReader();
     this.filter = filter;
     // we treat one ReadOnlyMemChunk as one Page
-    this.pageReaderList =
-        Collections.singletonList(
-            new MemPageReader(
-                readableChunk.getTsBlock(), readableChunk.getChunkMetaData(), filter));
+    this.pageReaderList = Collections.singletonList(new MemPageReader(readableChunk, filter));
   }
 
   @Override
@@ -18,7 +18,8 @@
  */
 package org.apache.iotdb.db.query.reader.chunk;
 
-import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -32,7 +33,6 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
-import org.apache.iotdb.tsfile.utils.Binary;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -40,17 +40,21 @@ import java.util.List;
 
 import static org.apache.iotdb.tsfile.read.reader.series.PaginationController.UNLIMITED_PAGINATION_CONTROLLER;
 
+/**
+ * Page reader of a non-aligned {@link ReadOnlyMemChunk}, which reads the rows from the snapshot of
+ * the tv list directly into the result without building an intermediate TsBlock.
+ */
 public class MemPageReader implements IPageReader {
 
-  private final TsBlock tsBlock;
+  private final ReadOnlyMemChunk memChunk;
   private final IChunkMetadata chunkMetadata;
 
   private Filter valueFilter;
   private PaginationController paginationController = UNLIMITED_PAGINATION_CONTROLLER;
 
-  public MemPageReader(TsBlock tsBlock, IChunkMetadata chunkMetadata, Filter filter) {
-    this.tsBlock = tsBlock;
-    this.chunkMetadata = chunkMetadata;
+  public MemPageReader(ReadOnlyMemChunk memChunk, Filter filter) {
+    this.memChunk = memChunk;
+    this.chunkMetadata = memChunk.getChunkMetaData();
     this.valueFilter = filter;
   }
 
@@ -58,36 +62,12 @@ public class MemPageReader implements IPageReader {
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     TSDataType dataType = chunkMetadata.getDataType();
     BatchData batchData = BatchDataFactory.createBatchData(dataType, ascending, false);
-    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-      if (valueFilter == null
-          || valueFilter.satisfy(
-              tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getObject(i))) {
-        switch (dataType) {
-          case BOOLEAN:
-            batchData.putBoolean(
-                tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getBoolean(i));
-            break;
-          case INT32:
-            batchData.putInt(tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getInt(i));
-            break;
-          case INT64:
-            batchData.putLong(tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getLong(i));
-            break;
-          case DOUBLE:
-            batchData.putDouble(
-                tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getDouble(i));
-            break;
-          case FLOAT:
-            batchData.putFloat(
-                tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getFloat(i));
-            break;
-          case TEXT:
-            batchData.putBinary(
-                tsBlock.getTimeColumn().getLong(i), tsBlock.getColumn(0).getBinary(i));
-            break;
-          default:
-            throw new UnSupportedDataTypeException(String.valueOf(dataType));
-        }
+    SortedTVListView.RowCursor cursor = memChunk.getRowCursor();
+    while (cursor.next()) {
+      long time = cursor.getTime();
+      Object value = cursor.getValue();
+      if (valueFilter == null || valueFilter.satisfy(time, value)) {
+        batchData.putAnObject(time, value);
       }
     }
     return batchData.flip();
@@ -113,135 +93,24 @@ public class MemPageReader implements IPageReader {
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
     if (pageSatisfy()) {
-      switch (dataType) {
-        case BOOLEAN:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            boolean value = tsBlock.getColumn(0).getBoolean(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeBoolean(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
-          break;
-        case INT32:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            int value = tsBlock.getColumn(0).getInt(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeInt(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
-          break;
-        case INT64:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            long value = tsBlock.getColumn(0).getLong(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeLong(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
-          break;
-        case FLOAT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            float value = tsBlock.getColumn(0).getFloat(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeFloat(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
-          break;
-        case DOUBLE:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            double value = tsBlock.getColumn(0).getDouble(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeDouble(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
-          break;
-        case TEXT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            long time = tsBlock.getTimeColumn().getLong(i);
-            Binary value = tsBlock.getColumn(0).getBinary(i);
-            if (valueFilter != null && !valueFilter.satisfy(time, value)) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(time);
-              valueBuilder.writeBinary(value);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
-          }
+      SortedTVListView.RowCursor cursor = memChunk.getRowCursor();
+      while (cursor.next()) {
+        long time = cursor.getTime();
+        if (valueFilter != null && !valueFilter.satisfy(time, cursor.getValue())) {
+          continue;
+        }
+        if (paginationController.hasCurOffset()) {
+          paginationController.consumeOffset();
+          continue;
+        }
+        if (paginationController.hasCurLimit()) {
+          timeBuilder.writeLong(time);
+          cursor.writeValue(valueBuilder);
+          builder.declarePosition();
+          paginationController.consumeLimit();
+        } else {
           break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+        }
       }
     }
     return builder.build();
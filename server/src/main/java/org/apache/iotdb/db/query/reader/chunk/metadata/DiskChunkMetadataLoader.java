@@ -59,6 +59,10 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
     this.filter = filter;
   }
 
+  public TsFileResource getResource() {
+    return resource;
+  }
+
   @Override
   public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata) {
     long t1 = System.nanoTime();
@@ -30,9 +30,21 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
-/** Manage all primitive data lists in memory, including get and release operations. */
+/**
+ * Manage all primitive data lists in memory, including get and release operations.
+ *
+ * <p>Each thread caches a few arrays of each data type in its own magazine, which is refilled from
+ * and drained to the shared pool in batches, so that most allocations and releases don't lock the
+ * shared pool. Arrays in magazines are counted against the same limits as the shared pool.
+ */
 public class PrimitiveArrayManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PrimitiveArrayManager.class);
@@ -58,6 +70,43 @@ public class PrimitiveArrayManager {
   /** TSDataType#serialize() -> ArrayDeque<Array>, VECTOR is ignored */
   private static final ArrayDeque[] POOLED_ARRAYS = new ArrayDeque[TSDataType.values().length - 1];
 
+  /** TSDataType#serialize() -> lock of POOLED_ARRAYS[i], VECTOR is ignored */
+  private static final ReentrantLock[] POOL_LOCKS =
+      new ReentrantLock[TSDataType.values().length - 1];
+
+  /**
+   * TSDataType#serialize() -> number of arrays in POOLED_ARRAYS[i] and all magazines plus the space
+   * reserved by magazines, VECTOR is ignored
+   */
+  private static final AtomicInteger[] POOLED_ARRAYS_NUMS =
+      new AtomicInteger[TSDataType.values().length - 1];
+
+  /** max number of arrays of each data type cached by each thread, 0 means no magazine */
+  private static final int MAGAZINE_CAPACITY = CONFIG.getPrimitiveArrayMagazineCapacity();
+
+  /** number of arrays moved between a magazine and POOLED_ARRAYS at a time */
+  private static final int MAGAZINE_BATCH_SIZE = Math.max(MAGAZINE_CAPACITY / 2, 1);
+
+  private static final ThreadLocal<Magazine> LOCAL_MAGAZINE = new ThreadLocal<>();
+
+  /** magazines of all threads, the ones of dead threads are reclaimed when updating LIMITS */
+  private static final Queue<Magazine> MAGAZINES = new ConcurrentLinkedQueue<>();
+
+  /** magazines created before the last init() are dropped */
+  private static final AtomicLong MAGAZINE_GENERATION = new AtomicLong(0);
+
+  /** count of allocation requests served by magazines */
+  private static final LongAdder MAGAZINE_HIT_COUNT = new LongAdder();
+
+  /** count of allocation requests served by POOLED_ARRAYS */
+  private static final LongAdder POOL_HIT_COUNT = new LongAdder();
+
+  /** count of all allocation requests, which is never reset by updateLimits() */
+  private static final LongAdder ALLOCATION_COUNT = new LongAdder();
+
+  /** count of times that a thread has to wait for the lock of POOLED_ARRAYS[i] */
+  private static final LongAdder LOCK_CONTENTION_COUNT = new LongAdder();
+
   /** TSDataType#serialize() -> max size of ArrayDeque<Array>, VECTOR is ignored */
   private static final int[] LIMITS = new int[TSDataType.values().length - 1];
 
@@ -104,8 +153,22 @@ public class PrimitiveArrayManager {
 
     for (int i = 0; i < POOLED_ARRAYS.length; ++i) {
       POOLED_ARRAYS[i] = new ArrayDeque<>((int) limit);
+      if (POOL_LOCKS[i] == null) {
+        POOL_LOCKS[i] = new ReentrantLock();
+        POOLED_ARRAYS_NUMS[i] = new AtomicInteger(0);
+      } else {
+        POOLED_ARRAYS_NUMS[i].set(0);
+      }
     }
 
+    // arrays in the magazines of the last generation are dropped
+    MAGAZINE_GENERATION.incrementAndGet();
+    MAGAZINES.clear();
+    MAGAZINE_HIT_COUNT.reset();
+    POOL_HIT_COUNT.reset();
+    ALLOCATION_COUNT.reset();
+    LOCK_CONTENTION_COUNT.reset();
+
     for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
       allocationRequestCount.set(0);
     }
@@ -134,13 +197,16 @@ public class PrimitiveArrayManager {
     }
 
     int order = dataType.serialize();
+    ALLOCATION_COUNT.increment();
 
-    ALLOCATION_REQUEST_COUNTS[order].incrementAndGet();
-    TOTAL_ALLOCATION_REQUEST_COUNT.incrementAndGet();
-
+    Magazine magazine = getMagazine();
     Object array;
-    synchronized (POOLED_ARRAYS[order]) {
-      array = POOLED_ARRAYS[order].poll();
+    if (magazine == null) {
+      ALLOCATION_REQUEST_COUNTS[order].incrementAndGet();
+      TOTAL_ALLOCATION_REQUEST_COUNT.incrementAndGet();
+      array = pollPooledArray(order);
+    } else {
+      array = magazine.allocate(order);
     }
     if (array == null) {
       array = createPrimitiveArray(dataType);
@@ -148,6 +214,21 @@ public class PrimitiveArrayManager {
     return array;
   }
 
+  private static Object pollPooledArray(int order) {
+    Object array;
+    lockPool(order);
+    try {
+      array = POOLED_ARRAYS[order].poll();
+    } finally {
+      POOL_LOCKS[order].unlock();
+    }
+    if (array != null) {
+      POOLED_ARRAYS_NUMS[order].decrementAndGet();
+      POOL_HIT_COUNT.increment();
+    }
+    return array;
+  }
+
   private static void updateLimits() {
     // we want to update LIMITS[i] according to ratios[i]
     double[] ratios = new double[ALLOCATION_REQUEST_COUNTS.length];
@@ -209,6 +290,25 @@ public class PrimitiveArrayManager {
     }
 
     TOTAL_ALLOCATION_REQUEST_COUNT.set(0);
+
+    reclaimMagazinesOfDeadThreads();
+  }
+
+  /** Drop the arrays cached by dead threads, so that they don't occupy the limits anymore. */
+  private static void reclaimMagazinesOfDeadThreads() {
+    Iterator<Magazine> iterator = MAGAZINES.iterator();
+    while (iterator.hasNext()) {
+      Magazine magazine = iterator.next();
+      // the owner has terminated, so its writes to the magazine are visible here
+      if (!magazine.owner.isAlive()) {
+        iterator.remove();
+        if (magazine.generation == MAGAZINE_GENERATION.get()) {
+          for (int i = 0; i < POOLED_ARRAYS_NUMS.length; ++i) {
+            POOLED_ARRAYS_NUMS[i].addAndGet(-magazine.sizes[i] - magazine.permits[i]);
+          }
+        }
+      }
+    }
   }
 
   private static Object createPrimitiveArray(TSDataType dataType) {
@@ -263,14 +363,90 @@ public class PrimitiveArrayManager {
       throw new UnSupportedDataTypeException(array.getClass().toString());
     }
 
-    synchronized (POOLED_ARRAYS[order]) {
-      ArrayDeque<Object> arrays = POOLED_ARRAYS[order];
-      if (arrays.size() < LIMITS[order]) {
-        arrays.add(array);
+    Magazine magazine = getMagazine();
+    if (magazine != null) {
+      magazine.release(order, array);
+    } else if (reservePooledArrays(order, 1) == 1) {
+      lockPool(order);
+      try {
+        POOLED_ARRAYS[order].add(array);
+      } finally {
+        POOL_LOCKS[order].unlock();
       }
     }
   }
 
+  /**
+   * Reserve space for some arrays in the pool without exceeding LIMITS[order].
+   *
+   * @return number of reserved arrays, which may be less than num
+   */
+  private static int reservePooledArrays(int order, int num) {
+    AtomicInteger pooledArraysNum = POOLED_ARRAYS_NUMS[order];
+    while (true) {
+      int oldNum = pooledArraysNum.get();
+      int reservedNum = Math.min(num, LIMITS[order] - oldNum);
+      if (reservedNum <= 0) {
+        return 0;
+      }
+      if (pooledArraysNum.compareAndSet(oldNum, oldNum + reservedNum)) {
+        return reservedNum;
+      }
+    }
+  }
+
+  private static void lockPool(int order) {
+    if (!POOL_LOCKS[order].tryLock()) {
+      LOCK_CONTENTION_COUNT.increment();
+      POOL_LOCKS[order].lock();
+    }
+  }
+
+  /** @return magazine of current thread, or null if magazines are disabled */
+  private static Magazine getMagazine() {
+    if (MAGAZINE_CAPACITY <= 0) {
+      return null;
+    }
+    Magazine magazine = LOCAL_MAGAZINE.get();
+    long generation = MAGAZINE_GENERATION.get();
+    if (magazine == null || magazine.generation != generation) {
+      magazine = new Magazine(generation);
+      LOCAL_MAGAZINE.set(magazine);
+      MAGAZINES.add(magazine);
+    }
+    return magazine;
+  }
+
+  /** @return percentage of allocation requests served by the magazines */
+  public static double getMagazineHitRate() {
+    long allocationCount = ALLOCATION_COUNT.sum();
+    return allocationCount == 0 ? 0 : MAGAZINE_HIT_COUNT.sum() * 100.0 / allocationCount;
+  }
+
+  /** @return percentage of allocation requests served by the magazines or the shared pool */
+  public static double getPoolHitRate() {
+    long allocationCount = ALLOCATION_COUNT.sum();
+    return allocationCount == 0
+        ? 0
+        : (MAGAZINE_HIT_COUNT.sum() + POOL_HIT_COUNT.sum()) * 100.0 / allocationCount;
+  }
+
+  public static long getLockContentionCount() {
+    return LOCK_CONTENTION_COUNT.sum();
+  }
+
+  /**
+   * @return number of pooled arrays of all data types, including the ones in magazines and the
+   *     space reserved by magazines
+   */
+  public static long getPooledArraysNum() {
+    long num = 0;
+    for (AtomicInteger pooledArraysNum : POOLED_ARRAYS_NUMS) {
+      num += pooledArraysNum.get();
+    }
+    return num;
+  }
+
   public static void close() {
     init();
   }
@@ -329,4 +505,113 @@ public class PrimitiveArrayManager {
   public static int getArrayRowCount(int size) {
     return size / ARRAY_SIZE + (size % ARRAY_SIZE == 0 ? 0 : 1);
   }
+
+  /**
+   * Stacks of pooled arrays cached by one thread, which are only accessed by the owner thread. The
+   * magazine reserves space in POOLED_ARRAYS_NUMS in batches, and keeps the space of allocated
+   * arrays as permits to pool the released arrays, so that the shared counters are only updated in
+   * batches.
+   */
+  private static class Magazine {
+    private final Thread owner = Thread.currentThread();
+    private final long generation;
+    /** TSDataType#serialize() -> stack of arrays, VECTOR is ignored */
+    private final Object[][] arrays = new Object[LIMITS.length][MAGAZINE_CAPACITY];
+    /** TSDataType#serialize() -> number of arrays in the stack */
+    private final int[] sizes = new int[LIMITS.length];
+    /** TSDataType#serialize() -> number of reserved pool space not holding arrays */
+    private final int[] permits = new int[LIMITS.length];
+    /** allocation requests which haven't been added into ALLOCATION_REQUEST_COUNTS */
+    private final long[] requestCounts = new long[LIMITS.length];
+
+    private int totalRequestCount = 0;
+
+    private Magazine(long generation) {
+      this.generation = generation;
+    }
+
+    /** @return a pooled array, or null if there is no one in this magazine and the pool */
+    private Object allocate(int order) {
+      countRequest(order);
+      if (sizes[order] > 0) {
+        MAGAZINE_HIT_COUNT.increment();
+      } else {
+        refill(order);
+        if (sizes[order] == 0) {
+          return null;
+        }
+        POOL_HIT_COUNT.increment();
+      }
+      Object array = arrays[order][--sizes[order]];
+      arrays[order][sizes[order]] = null;
+      // keep the space of this array to pool the released ones
+      permits[order]++;
+      if (permits[order] == MAGAZINE_CAPACITY) {
+        POOLED_ARRAYS_NUMS[order].addAndGet(-MAGAZINE_BATCH_SIZE);
+        permits[order] -= MAGAZINE_BATCH_SIZE;
+      }
+      return array;
+    }
+
+    /** the array is dropped if the pool is full */
+    private void release(int order, Object array) {
+      if (sizes[order] == MAGAZINE_CAPACITY) {
+        drain(order);
+      }
+      if (permits[order] == 0) {
+        permits[order] =
+            reservePooledArrays(
+                order, Math.min(MAGAZINE_BATCH_SIZE, MAGAZINE_CAPACITY - sizes[order]));
+        if (permits[order] == 0) {
+          return;
+        }
+      }
+      permits[order]--;
+      arrays[order][sizes[order]++] = array;
+    }
+
+    /** move some arrays from the pool into this magazine, they are still counted as pooled */
+    private void refill(int order) {
+      lockPool(order);
+      try {
+        ArrayDeque<Object> pool = POOLED_ARRAYS[order];
+        int num = Math.min(MAGAZINE_BATCH_SIZE, MAGAZINE_CAPACITY - permits[order]);
+        for (int i = 0; i < num && !pool.isEmpty(); ++i) {
+          arrays[order][sizes[order]++] = pool.poll();
+        }
+      } finally {
+        POOL_LOCKS[order].unlock();
+      }
+    }
+
+    /** move some arrays from this magazine into the pool, they are still counted as pooled */
+    private void drain(int order) {
+      lockPool(order);
+      try {
+        ArrayDeque<Object> pool = POOLED_ARRAYS[order];
+        for (int i = 0; i < MAGAZINE_BATCH_SIZE && sizes[order] > 0; ++i) {
+          pool.add(arrays[order][--sizes[order]]);
+          arrays[order][sizes[order]] = null;
+        }
+      } finally {
+        POOL_LOCKS[order].unlock();
+      }
+    }
+
+    /** the request counts are added into the shared counters in batches */
+    private void countRequest(int order) {
+      requestCounts[order]++;
+      if (++totalRequestCount < MAGAZINE_BATCH_SIZE) {
+        return;
+      }
+      for (int i = 0; i < requestCounts.length; ++i) {
+        if (requestCounts[i] > 0) {
+          ALLOCATION_REQUEST_COUNTS[i].addAndGet(requestCounts[i]);
+          requestCounts[i] = 0;
+        }
+      }
+      TOTAL_ALLOCATION_REQUEST_COUNT.addAndGet(totalRequestCount);
+      totalRequestCount = 0;
+    }
+  }
 }
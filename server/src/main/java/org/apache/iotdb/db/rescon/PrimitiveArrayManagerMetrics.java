@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Arrays;
+
+public class PrimitiveArrayManagerMetrics implements IMetricSet {
+  public static final String MAGAZINE = "primitive_array_magazine";
+  public static final String POOL = "primitive_array_pool";
+  public static final String LOCK_CONTENTION_COUNT = "lock_contention_count";
+  public static final String POOLED_ARRAYS_NUM = "pooled_arrays_num";
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.CACHE_HIT.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> PrimitiveArrayManager.getMagazineHitRate(),
+        Tag.NAME.toString(),
+        MAGAZINE);
+    metricService.createAutoGauge(
+        Metric.CACHE_HIT.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> PrimitiveArrayManager.getPoolHitRate(),
+        Tag.NAME.toString(),
+        POOL);
+    metricService.createAutoGauge(
+        Metric.PRIMITIVE_ARRAY_POOL.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> PrimitiveArrayManager.getLockContentionCount(),
+        Tag.NAME.toString(),
+        LOCK_CONTENTION_COUNT);
+    metricService.createAutoGauge(
+        Metric.PRIMITIVE_ARRAY_POOL.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> PrimitiveArrayManager.getPooledArraysNum(),
+        Tag.NAME.toString(),
+        POOLED_ARRAYS_NUM);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    Arrays.asList(MAGAZINE, POOL)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), name));
+    Arrays.asList(LOCK_CONTENTION_COUNT, POOLED_ARRAYS_NUM)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.PRIMITIVE_ARRAY_POOL.toString(),
+                    Tag.NAME.toString(),
+                    name));
+  }
+}
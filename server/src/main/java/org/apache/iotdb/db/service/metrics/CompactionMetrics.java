@@ -21,6 +21,7 @@ package org.apache.iotdb.db.service.metrics;
 
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionThrottler;
 import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsManager;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
@@ -35,12 +36,14 @@ public class CompactionMetrics implements IMetricSet {
   public void bindTo(AbstractMetricService metricService) {
     bindTaskInfo(metricService);
     bindPerformanceInfo(metricService);
+    bindThroughputLimit(metricService);
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     unbindTaskInfo(metricService);
     unbindPerformanceInfo(metricService);
+    unbindThroughputLimit(metricService);
   }
 
   private void bindTaskInfo(AbstractMetricService metricService) {
@@ -229,4 +232,35 @@ public class CompactionMetrics implements IMetricSet {
         MetricType.COUNTER, "Deserialized_Chunk_Num", Tag.NAME.toString(), "compaction");
     metricService.remove(MetricType.COUNTER, "Merged_Chunk_Num", Tag.NAME.toString(), "compaction");
   }
+
+  /** the current throughput limits in MB/s chosen by {@link CompactionThrottler} */
+  private void bindThroughputLimit(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROUGHPUT_LIMIT.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getWriteThroughputMbPerSec,
+        Tag.TYPE.toString(),
+        "write");
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROUGHPUT_LIMIT.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getReadThroughputMbPerSec,
+        Tag.TYPE.toString(),
+        "read");
+  }
+
+  private void unbindThroughputLimit(AbstractMetricService metricService) {
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.COMPACTION_THROUGHPUT_LIMIT.toString(),
+        Tag.TYPE.toString(),
+        "write");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.COMPACTION_THROUGHPUT_LIMIT.toString(),
+        Tag.TYPE.toString(),
+        "read");
+  }
 }
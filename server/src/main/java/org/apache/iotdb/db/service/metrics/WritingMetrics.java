@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.wal.WALManager;
 import org.apache.iotdb.db.wal.checkpoint.CheckpointType;
+import org.apache.iotdb.db.wal.recover.WALRecoverManager;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -33,7 +34,11 @@ import java.util.Arrays;
 
 public class WritingMetrics implements IMetricSet {
   private static final WALManager WAL_MANAGER = WALManager.getInstance();
+  private static final WALRecoverManager WAL_RECOVER_MANAGER = WALRecoverManager.getInstance();
   public static final String WAL_NODES_NUM = "wal_nodes_num";
+  public static final String TOTAL_TSFILES_NUM = "total_tsfiles_num";
+  public static final String RECOVERED_TSFILES_NUM = "recovered_tsfiles_num";
+  public static final String ESTIMATED_REMAINING_TIME = "estimated_remaining_time";
   public static final String MAKE_CHECKPOINT = "make_checkpoint";
   public static final String SERIALIZE_WAL_ENTRY = "serialize_wal_entry";
   public static final String SERIALIZE_ONE_WAL_INFO_ENTRY = "serialize_one_wal_info_entry";
@@ -41,6 +46,7 @@ public class WritingMetrics implements IMetricSet {
   public static final String SYNC = "sync";
   public static final String FSYNC = "fsync";
   public static final String SYNC_WAL_BUFFER = "sync_wal_buffer";
+  public static final String ENQUEUE_TO_DURABLE = "enqueue_to_durable";
   public static final String FLUSH_STAGE_SORT = "sort";
   public static final String FLUSH_STAGE_ENCODING = "encoding";
   public static final String FLUSH_STAGE_IO = "io";
@@ -135,6 +141,27 @@ public class WritingMetrics implements IMetricSet {
         WALManager::getWALNodesNum,
         Tag.NAME.toString(),
         WAL_NODES_NUM);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        WAL_RECOVER_MANAGER,
+        WALRecoverManager::getTotalTsFilesNum,
+        Tag.NAME.toString(),
+        TOTAL_TSFILES_NUM);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        WAL_RECOVER_MANAGER,
+        WALRecoverManager::getRecoveredTsFilesNum,
+        Tag.NAME.toString(),
+        RECOVERED_TSFILES_NUM);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        WAL_RECOVER_MANAGER,
+        WALRecoverManager::getEstimatedRemainingTimeInMs,
+        Tag.NAME.toString(),
+        ESTIMATED_REMAINING_TIME);
     Arrays.asList(USED_RATIO, ENTRIES_COUNT)
         .forEach(
             name ->
@@ -148,6 +175,14 @@ public class WritingMetrics implements IMetricSet {
   private void unbindWALMetrics(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.WAL_NODE_NUM.toString(), Tag.NAME.toString(), WAL_NODES_NUM);
+    Arrays.asList(TOTAL_TSFILES_NUM, RECOVERED_TSFILES_NUM, ESTIMATED_REMAINING_TIME)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.WAL_RECOVER.toString(),
+                    Tag.NAME.toString(),
+                    name));
     Arrays.asList(USED_RATIO, ENTRIES_COUNT)
         .forEach(
             name ->
@@ -189,6 +224,13 @@ public class WritingMetrics implements IMetricSet {
                     SYNC_WAL_BUFFER,
                     Tag.TYPE.toString(),
                     type));
+    metricService.getOrCreateTimer(
+        Metric.WAL_COST.toString(),
+        MetricLevel.IMPORTANT,
+        Tag.STAGE.toString(),
+        ENQUEUE_TO_DURABLE,
+        Tag.TYPE.toString(),
+        FSYNC);
   }
 
   private void unbindWALCostMetrics(AbstractMetricService metricService) {
@@ -225,6 +267,13 @@ public class WritingMetrics implements IMetricSet {
                     SYNC_WAL_BUFFER,
                     Tag.TYPE.toString(),
                     type));
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.WAL_COST.toString(),
+        Tag.STAGE.toString(),
+        ENQUEUE_TO_DURABLE,
+        Tag.TYPE.toString(),
+        FSYNC);
   }
 
   @Override
@@ -120,6 +120,39 @@ public class CompactionMetricsManager {
             "compaction");
   }
 
+  /**
+   * Record the estimated and actual memory cost of the last cross space compaction task of the
+   * database, and the ratio in percent to correct the estimations with.
+   */
+  public void recordMemoryCost(
+      String database, long estimatedMemoryCost, long actualMemoryCost, double correctionRatio) {
+    MetricService.getInstance()
+        .gauge(
+            estimatedMemoryCost,
+            Metric.COMPACTION_MEMORY_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.DATABASE.toString(),
+            database,
+            Tag.TYPE.toString(),
+            "estimated");
+    MetricService.getInstance()
+        .gauge(
+            actualMemoryCost,
+            Metric.COMPACTION_MEMORY_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.DATABASE.toString(),
+            database,
+            Tag.TYPE.toString(),
+            "actual");
+    MetricService.getInstance()
+        .gauge(
+            Math.round(correctionRatio * 100),
+            Metric.COMPACTION_MEMORY_CORRECTION_RATIO.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.DATABASE.toString(),
+            database);
+  }
+
   public void reportAddTaskToWaitingQueue(boolean isCrossTask, boolean isSeq) {
     if (isCrossTask) {
       waitingCrossCompactionTaskNum.incrementAndGet();
@@ -325,6 +325,20 @@ public class WritingMetricsManager {
             syncType);
   }
 
+  /** Record the cost from a WALEntry entering the wal buffer to being fsynced. */
+  public void recordWALEntryEnqueueToDurableCost(long costTimeInNanos) {
+    MetricService.getInstance()
+        .timer(
+            costTimeInNanos,
+            TimeUnit.NANOSECONDS,
+            Metric.WAL_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            WritingMetrics.ENQUEUE_TO_DURABLE,
+            Tag.TYPE.toString(),
+            WritingMetrics.FSYNC);
+  }
+
   public void recordWALBufferUsedRatio(double usedRatio) {
     MetricService.getInstance()
         .histogram(
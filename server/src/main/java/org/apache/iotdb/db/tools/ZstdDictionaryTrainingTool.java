@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Train ZSTD dictionaries with the uncompressed pages of the given TsFiles. A dictionary is
+ * trained for each measurement, named as {measurementId}.dict, and a default.dict is trained with
+ * the pages of all measurements. Put the dictionaries into zstd_dictionary_dir to compress new
+ * pages with them.
+ */
+public class ZstdDictionaryTrainingTool {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZstdDictionaryTrainingTool.class);
+
+  private static final String SIZE_PARAM = "-size";
+
+  /** 16KB, small dictionaries work best for small inputs such as pages */
+  private static int dictionarySize = 16 * 1024;
+
+  /** zstd suggests about 100 times of the dictionary size of samples */
+  private static final int SAMPLE_SIZE_RATIO = 100;
+
+  private final File outputDir;
+  private final List<File> tsFiles;
+
+  private ZstdDictTrainer defaultTrainer;
+  private final Map<String, ZstdDictTrainer> measurementTrainers = new HashMap<>();
+
+  public static void main(String[] args) throws IOException {
+    checkArgs(args);
+    File outputDir = new File(args[0]);
+    List<File> tsFiles = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      if (SIZE_PARAM.equals(args[i])) {
+        i++;
+        continue;
+      }
+      collectTsFiles(new File(args[i]), tsFiles);
+    }
+    logger.info("Training ZSTD dictionaries with {} TsFiles ...", tsFiles.size());
+    new ZstdDictionaryTrainingTool(outputDir, tsFiles).run();
+  }
+
+  public ZstdDictionaryTrainingTool(File outputDir, List<File> tsFiles) {
+    this.outputDir = outputDir;
+    this.tsFiles = tsFiles;
+  }
+
+  /* entry of tool */
+  public void run() throws IOException {
+    if (!outputDir.exists() && !outputDir.mkdirs()) {
+      throw new IOException("Can not create the output dir " + outputDir);
+    }
+    defaultTrainer = newTrainer();
+    for (File tsFile : tsFiles) {
+      addSamples(tsFile);
+    }
+
+    for (Map.Entry<String, ZstdDictTrainer> entry : measurementTrainers.entrySet()) {
+      trainAndSave(entry.getKey(), entry.getValue());
+    }
+    trainAndSave(ZstdDictionaryManager.DEFAULT_DICTIONARY_NAME, defaultTrainer);
+  }
+
+  private void addSamples(File tsFile) throws IOException {
+    logger.info("Reading pages of {}", tsFile);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getAbsolutePath())) {
+      // register the dictionaries used by this file, so that its pages can be uncompressed
+      reader.readFileMetadata();
+      reader.position((long) TSFileConfig.MAGIC_STRING.getBytes().length + 1);
+      byte marker;
+      while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+        switch (marker) {
+          case MetaMarker.CHUNK_HEADER:
+          case MetaMarker.TIME_CHUNK_HEADER:
+          case MetaMarker.VALUE_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+            ChunkHeader header = reader.readChunkHeader(marker);
+            if ((header.getChunkType() & TsFileConstant.TIME_COLUMN_MASK)
+                == TsFileConstant.TIME_COLUMN_MASK) {
+              // time columns are compressed without dictionaries
+              reader.position(reader.position() + header.getDataSize());
+              break;
+            }
+            ZstdDictTrainer trainer =
+                measurementTrainers.computeIfAbsent(header.getMeasurementID(), k -> newTrainer());
+            int dataSize = header.getDataSize();
+            while (dataSize > 0) {
+              PageHeader pageHeader =
+                  reader.readPageHeader(
+                      header.getDataType(),
+                      (header.getChunkType() & 0x3F) == MetaMarker.CHUNK_HEADER);
+              ByteBuffer pageData = reader.readPage(pageHeader, header.getCompressionType());
+              byte[] sample = new byte[pageData.remaining()];
+              pageData.get(sample);
+              trainer.addSample(sample);
+              defaultTrainer.addSample(sample);
+              dataSize -= pageHeader.getSerializedPageSize();
+            }
+            break;
+          case MetaMarker.CHUNK_GROUP_HEADER:
+            reader.readChunkGroupHeader();
+            break;
+          case MetaMarker.OPERATION_INDEX_RANGE:
+            reader.readPlanIndex();
+            break;
+          default:
+            MetaMarker.handleUnexpectedMarker(marker);
+        }
+      }
+    }
+  }
+
+  private void trainAndSave(String name, ZstdDictTrainer trainer) throws IOException {
+    byte[] dictionary;
+    try {
+      dictionary = trainer.trainSamples();
+    } catch (ZstdException e) {
+      // usually there are not enough samples
+      logger.warn("Skip the dictionary of {}: {}", name, e.getMessage());
+      return;
+    }
+    File dictionaryFile = new File(outputDir, name + ZstdDictionaryManager.DICTIONARY_FILE_SUFFIX);
+    Files.write(dictionaryFile.toPath(), dictionary);
+    logger.info(
+        "Dictionary {} with id {} is saved",
+        dictionaryFile,
+        ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary));
+  }
+
+  private static ZstdDictTrainer newTrainer() {
+    return new ZstdDictTrainer(dictionarySize * SAMPLE_SIZE_RATIO, dictionarySize);
+  }
+
+  private static void collectTsFiles(File file, List<File> tsFiles) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        for (File child : children) {
+          collectTsFiles(child, tsFiles);
+        }
+      }
+    } else if (file.getName().endsWith(TsFileConstant.TSFILE_SUFFIX)) {
+      tsFiles.add(file);
+    }
+  }
+
+  public static void checkArgs(String[] args) {
+    if (args.length < 2) {
+      throw new UnsupportedOperationException(
+          "Usage: train-zstd-dictionary <output dir> <TsFile or dir>... [-size dictionarySize]");
+    }
+    for (int i = 1; i < args.length; i++) {
+      if (SIZE_PARAM.equals(args[i])) {
+        if (i + 1 >= args.length) {
+          throw new UnsupportedOperationException("Missing the value of " + SIZE_PARAM);
+        }
+        dictionarySize = Integer.parseInt(args[i + 1]);
+      }
+    }
+  }
+}
@@ -20,11 +20,18 @@
 package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 public class MathUtils {
 
+  private static final Logger logger = LoggerFactory.getLogger(MathUtils.class);
+
   private MathUtils() {
     throw new IllegalStateException("Utility class");
   }
@@ -80,6 +87,34 @@ public class MathUtils {
             / Math.pow(10, TSFileDescriptor.getInstance().getConfig().getFloatPrecision());
   }
 
+  /**
+   * Get the float precision of a series, which is used to round the float and double values
+   * encoded by RLE or TS_2DIFF.
+   *
+   * @param props props of the measurement schema, MAX_POINT_NUMBER is the float precision
+   * @return the float precision in props, or the default one if it is not set or not valid
+   */
+  public static int getFloatPrecision(Map<String, String> props) {
+    int floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
+    if (props != null && props.containsKey(Encoder.MAX_POINT_NUMBER)) {
+      try {
+        floatPrecision = Integer.parseInt(props.get(Encoder.MAX_POINT_NUMBER));
+      } catch (NumberFormatException e) {
+        logger.warn(
+            "The format of MAX_POINT_NUMBER {}  is not correct."
+                + " Using default float precision.",
+            props.get(Encoder.MAX_POINT_NUMBER));
+      }
+      if (floatPrecision < 0) {
+        logger.warn(
+            "The MAX_POINT_NUMBER shouldn't be less than 0." + " Using default float precision {}.",
+            TSFileDescriptor.getInstance().getConfig().getFloatPrecision());
+        floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
+      }
+    }
+    return floatPrecision;
+  }
+
   /**
    * calculate sum of list
    *
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.List;
+
+/**
+ * The interface makes a tim sort list able to be sorted by quick sort and backward sort too. The
+ * sorting buffers of tim sort are reused as the temporary buffers of backward sort, and the pivot
+ * is reused to swap two points. The blocks of backward sort are sorted by tim sort, so that the
+ * points of the same time keep their inserted order like tim sort.
+ */
+public interface AdaptiveSort extends TimSort, BackwardSort {
+
+  @Override
+  default void swap(int p, int q) {
+    saveAsPivot(p);
+    tim_set(q, p);
+    setPivotTo(q);
+  }
+
+  @Override
+  default void setFromTmp(int src, int dest) {
+    setFromSorted(src, dest);
+  }
+
+  @Override
+  default void setToTmp(int src, int dest) {
+    setToSorted(src, dest);
+  }
+
+  @Override
+  default void backward_set(int src, int dest) {
+    tim_set(src, dest);
+  }
+
+  /** the sorting buffers have been allocated for all the points before sorting */
+  @Override
+  default void checkTmpLength(int len) {}
+
+  /** the sorting buffers are cleared after sorting */
+  @Override
+  default void clearTmp() {}
+
+  @Override
+  default void sortBlock(int lo, int hi) {
+    sort(lo, hi + 1);
+  }
+
+  /** Sort all the points with the given algorithm, the sorting buffers should be allocated. */
+  default void sort(TVListSortAlgorithm algorithm, List<long[]> timestamps, int rowCount) {
+    switch (algorithm) {
+      case QUICK:
+        qsort(0, rowCount - 1);
+        break;
+      case BACKWARD:
+        backwardSort(timestamps, rowCount);
+        break;
+      default:
+        sort(0, rowCount);
+    }
+  }
+}
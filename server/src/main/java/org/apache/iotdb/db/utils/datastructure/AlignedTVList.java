@@ -216,8 +216,9 @@ public abstract class AlignedTVList extends TVList {
     }
     indices.get(arrayIndex)[elementIndex] = rowCount;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
       sorted = false;
+      recordInversion(maxTime - timestamp);
     }
   }
 
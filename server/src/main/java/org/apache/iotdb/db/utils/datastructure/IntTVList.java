@@ -83,8 +83,9 @@ public abstract class IntTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
       sorted = false;
+      recordInversion(maxTime - timestamp);
     }
   }
 
@@ -208,6 +209,7 @@ public abstract class IntTVList extends TVList {
       long[] time, int[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
+    long lastTime = rowCount == 0 ? Long.MIN_VALUE : getTime(rowCount - 1);
 
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
@@ -225,8 +227,9 @@ public abstract class IntTVList extends TVList {
       tIdx = tIdx - nullCnt;
       inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
       maxTime = Math.max(maxTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
+      if (time[tIdx] < (tIdx > 0 ? time[tIdx - 1] : lastTime)) {
         inputSorted = false;
+        recordInversion(maxTime - time[tIdx]);
       }
     }
 
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * An immutable snapshot of a non-aligned {@link TVList} for query. The snapshot holds the
+ * primitive arrays of the list and the row count at the time it is taken, so the rows appended
+ * later are invisible and no row is copied. If the list is not sorted, the rows are read in the
+ * order of a sorted index instead of sorting the arrays, which may be shared with other queries.
+ *
+ * <p>The list must not be modified in place while the snapshot is used, i.e. the reference count
+ * of the list must be increased before taking the snapshot, and it is decreased by {@link
+ * #release()} after the snapshot is used.
+ */
+public class SortedTVListView {
+
+  /** the list whose reference is held by this snapshot */
+  private final TVList list;
+
+  private final AtomicBoolean released = new AtomicBoolean();
+
+  private final TSDataType dataType;
+
+  private final int rowCount;
+
+  private final long[][] timestamps;
+
+  /** the value arrays, whose element type is decided by the data type */
+  private final Object[] values;
+
+  /** position in time order -> row index of the list, null if the list is sorted */
+  private final int[] sortedIndex;
+
+  /** statistics of all the rows, null if they are not maintained at insert time */
+  private final Statistics<? extends Serializable> statistics;
+
+  /** precision of the rounded values in the statistics, -1 if the values are not rounded */
+  private final int statisticsFloatPrecision;
+
+  /** Take a snapshot of a sorted list without statistics. */
+  public SortedTVListView(TVList list) {
+    this(list, null, null, -1);
+  }
+
+  /**
+   * @param sortedIndex built by {@link #buildSortedIndex(TVList)} if the list is not sorted
+   * @param statistics statistics of all the rows of the list, which are copied
+   * @param statisticsFloatPrecision precision of the rounded values in the statistics, -1 if the
+   *     values are not rounded
+   */
+  public SortedTVListView(
+      TVList list,
+      int[] sortedIndex,
+      Statistics<? extends Serializable> statistics,
+      int statisticsFloatPrecision) {
+    if (sortedIndex == null && !list.isSorted()) {
+      sortedIndex = buildSortedIndex(list);
+    }
+    this.list = list;
+    this.dataType = list.getDataType();
+    this.rowCount = list.rowCount();
+    this.timestamps = list.timestamps.toArray(new long[0][]);
+    this.values = getValueArrays(list);
+    this.sortedIndex = sortedIndex;
+    if (statistics != null && statistics.getCount() == rowCount) {
+      this.statistics = Statistics.getStatsByType(dataType);
+      this.statistics.mergeStatistics(statistics);
+    } else {
+      this.statistics = null;
+    }
+    this.statisticsFloatPrecision = statisticsFloatPrecision;
+  }
+
+  /**
+   * Release the reference of the list held by this snapshot, so that the list can be modified in
+   * place again. The snapshot must not be read after being released.
+   */
+  public void release() {
+    if (released.compareAndSet(false, true)) {
+      list.decreaseReferenceCount();
+    }
+  }
+
+  private static Object[] getValueArrays(TVList list) {
+    switch (list.getDataType()) {
+      case BOOLEAN:
+        return ((BooleanTVList) list).values.toArray(new boolean[0][]);
+      case INT32:
+        return ((IntTVList) list).values.toArray(new int[0][]);
+      case INT64:
+        return ((LongTVList) list).values.toArray(new long[0][]);
+      case FLOAT:
+        return ((FloatTVList) list).values.toArray(new float[0][]);
+      case DOUBLE:
+        return ((DoubleTVList) list).values.toArray(new double[0][]);
+      case TEXT:
+        return ((BinaryTVList) list).values.toArray(new Binary[0][]);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(list.getDataType()));
+    }
+  }
+
+  /**
+   * Build the index of the rows in time order. The sort is stable, so the rows with the same
+   * timestamp are kept in the insertion order and the last one is the latest, which is the same as
+   * {@link TVList#sort()}.
+   */
+  public static int[] buildSortedIndex(TVList list) {
+    int size = list.rowCount();
+    long[] times = new long[size];
+    int[] index = new int[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = list.getTime(i);
+      index[i] = i;
+    }
+    int[] buffer = new int[size];
+    // bottom-up merge sort, the merge of two runs is skipped if they are already in order, so that
+    // the mostly sorted lists are sorted in nearly linear time
+    for (int width = 1; width < size; width <<= 1) {
+      for (int low = 0; low < size - width; low += width << 1) {
+        int mid = low + width;
+        int high = Math.min(low + (width << 1), size);
+        if (times[index[mid - 1]] <= times[index[mid]]) {
+          continue;
+        }
+        System.arraycopy(index, low, buffer, low, high - low);
+        int left = low;
+        int right = mid;
+        for (int k = low; k < high; k++) {
+          if (right >= high || (left < mid && times[buffer[left]] <= times[buffer[right]])) {
+            index[k] = buffer[left++];
+          } else {
+            index[k] = buffer[right++];
+          }
+        }
+      }
+    }
+    return index;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int rowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return statistics of all the rows whose values are read with the float precision and encoding,
+   *     null if they are unknown
+   */
+  public Statistics<? extends Serializable> getStatistics(int floatPrecision, TSEncoding encoding) {
+    int expectedFloatPrecision = isRounded(dataType, encoding) ? floatPrecision : -1;
+    return statisticsFloatPrecision == expectedFloatPrecision ? statistics : null;
+  }
+
+  /** Check whether the values of the data type are rounded when encoded by the encoding. */
+  public static boolean isRounded(TSDataType dataType, TSEncoding encoding) {
+    return (dataType == TSDataType.FLOAT || dataType == TSDataType.DOUBLE)
+        && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF);
+  }
+
+  private int getRowIndex(int position) {
+    return sortedIndex == null ? position : sortedIndex[position];
+  }
+
+  /** @param position position of the row in time order */
+  public long getTime(int position) {
+    int index = getRowIndex(position);
+    return timestamps[index / ARRAY_SIZE][index % ARRAY_SIZE];
+  }
+
+  public boolean getBoolean(int position) {
+    int index = getRowIndex(position);
+    return ((boolean[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  public int getInt(int position) {
+    int index = getRowIndex(position);
+    return ((int[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  public long getLong(int position) {
+    int index = getRowIndex(position);
+    return ((long[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  public float getFloat(int position) {
+    int index = getRowIndex(position);
+    return ((float[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  public double getDouble(int position) {
+    int index = getRowIndex(position);
+    return ((double[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  public Binary getBinary(int position) {
+    int index = getRowIndex(position);
+    return ((Binary[]) values[index / ARRAY_SIZE])[index % ARRAY_SIZE];
+  }
+
+  /**
+   * @return a cursor over the rows in time order which are neither deleted nor overwritten by a
+   *     later row with the same timestamp, i.e. the rows of {@link TVList#buildTsBlock}
+   */
+  public RowCursor cursor(int floatPrecision, TSEncoding encoding, List<TimeRange> deletionList) {
+    return new RowCursor(floatPrecision, encoding, deletionList);
+  }
+
+  /** Forward-only cursor over the valid rows of the snapshot. */
+  public class RowCursor {
+
+    private final int floatPrecision;
+    private final boolean roundValue;
+    private final List<TimeRange> deletionList;
+    private int deleteCursor = 0;
+
+    private int position = -1;
+    private long time;
+
+    private RowCursor(int floatPrecision, TSEncoding encoding, List<TimeRange> deletionList) {
+      this.floatPrecision = floatPrecision;
+      this.roundValue = encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF;
+      this.deletionList = deletionList;
+    }
+
+    /** Move to the next valid row, return false if there is no more row. */
+    public boolean next() {
+      while (++position < rowCount) {
+        time = SortedTVListView.this.getTime(position);
+        if ((position == rowCount - 1 || time != SortedTVListView.this.getTime(position + 1))
+            && !isDeleted(time)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean isDeleted(long timestamp) {
+      while (deletionList != null && deleteCursor < deletionList.size()) {
+        if (deletionList.get(deleteCursor).contains(timestamp)) {
+          return true;
+        } else if (deletionList.get(deleteCursor).getMax() < timestamp) {
+          deleteCursor++;
+        } else {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    public long getTime() {
+      return time;
+    }
+
+    public boolean getBoolean() {
+      return SortedTVListView.this.getBoolean(position);
+    }
+
+    public int getInt() {
+      return SortedTVListView.this.getInt(position);
+    }
+
+    public long getLong() {
+      return SortedTVListView.this.getLong(position);
+    }
+
+    public float getFloat() {
+      float value = SortedTVListView.this.getFloat(position);
+      if (roundValue && !Float.isNaN(value)) {
+        return MathUtils.roundWithGivenPrecision(value, floatPrecision);
+      }
+      return value;
+    }
+
+    public double getDouble() {
+      double value = SortedTVListView.this.getDouble(position);
+      if (roundValue && !Double.isNaN(value)) {
+        return MathUtils.roundWithGivenPrecision(value, floatPrecision);
+      }
+      return value;
+    }
+
+    public Binary getBinary() {
+      return SortedTVListView.this.getBinary(position);
+    }
+
+    public Object getValue() {
+      switch (dataType) {
+        case BOOLEAN:
+          return getBoolean();
+        case INT32:
+          return getInt();
+        case INT64:
+          return getLong();
+        case FLOAT:
+          return getFloat();
+        case DOUBLE:
+          return getDouble();
+        case TEXT:
+          return getBinary();
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+
+    public TsPrimitiveType getPrimitiveValue() {
+      switch (dataType) {
+        case BOOLEAN:
+          return new TsPrimitiveType.TsBoolean(getBoolean());
+        case INT32:
+          return new TsPrimitiveType.TsInt(getInt());
+        case INT64:
+          return new TsPrimitiveType.TsLong(getLong());
+        case FLOAT:
+          return new TsPrimitiveType.TsFloat(getFloat());
+        case DOUBLE:
+          return new TsPrimitiveType.TsDouble(getDouble());
+        case TEXT:
+          return new TsPrimitiveType.TsBinary(getBinary());
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+
+    /** Write the value of the current row into the builder. */
+    public void writeValue(ColumnBuilder builder) {
+      switch (dataType) {
+        case BOOLEAN:
+          builder.writeBoolean(getBoolean());
+          break;
+        case INT32:
+          builder.writeInt(getInt());
+          break;
+        case INT64:
+          builder.writeLong(getLong());
+          break;
+        case FLOAT:
+          builder.writeFloat(getFloat());
+          break;
+        case DOUBLE:
+          builder.writeDouble(getDouble());
+          break;
+        case TEXT:
+          builder.writeBinary(getBinary());
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+
+    /** Update the statistics with the current row. */
+    public void updateStatistics(Statistics<? extends Serializable> statistics) {
+      switch (dataType) {
+        case BOOLEAN:
+          statistics.update(time, getBoolean());
+          break;
+        case INT32:
+          statistics.update(time, getInt());
+          break;
+        case INT64:
+          statistics.update(time, getLong());
+          break;
+        case FLOAT:
+          statistics.update(time, getFloat());
+          break;
+        case DOUBLE:
+          statistics.update(time, getDouble());
+          break;
+        case TEXT:
+          statistics.update(time, getBinary());
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+  }
+}
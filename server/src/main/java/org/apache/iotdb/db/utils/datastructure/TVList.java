@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
@@ -51,6 +52,8 @@ public abstract class TVList implements WALEntryValue {
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   protected static final long targetChunkSize =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
+  // backward sort is chosen if the inversion ratio multiplied by the max delay ratio is not larger
+  private static final double BACKWARD_SORT_DISORDER_THRESHOLD = 0.04;
   // list of timestamp array, add 1 when expanded -> data point timestamp array
   // index relation: arrayIndex -> elementIndex
   protected List<long[]> timestamps;
@@ -58,6 +61,12 @@ public abstract class TVList implements WALEntryValue {
 
   protected boolean sorted = true;
   protected long maxTime;
+  // whether the sort algorithm is chosen by the disorder statistics below
+  protected boolean adaptiveSort = TVLIST_SORT_ALGORITHM == TVListSortAlgorithm.ADAPTIVE;
+  // number of points earlier than their previous points
+  protected int inversionNum;
+  // max distance between the time of a point and the max time of the points before it
+  protected long maxBackwardDistance;
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
   protected AtomicInteger referenceCount;
@@ -109,10 +118,45 @@ public abstract class TVList implements WALEntryValue {
 
   public abstract void sort();
 
+  /**
+   * Choose the sort algorithm by the disorder statistics. Backward sort only merges the blocks
+   * overlapped by the out-of-order points, so it's faster than tim sort unless many points are
+   * delayed far away, and the whole list becomes one block. Quick sort isn't chosen, because it
+   * doesn't keep the inserted order of the points with the same time.
+   */
+  protected TVListSortAlgorithm chooseSortAlgorithm() {
+    long timeSpan = maxTime - getTime(0);
+    // estimate the ratio of rows that the most delayed point should be moved backward
+    double maxDelayRatio = timeSpan > 0 ? Math.min((double) maxBackwardDistance / timeSpan, 1) : 1;
+    double inversionRatio = (double) inversionNum / rowCount;
+    return inversionRatio * maxDelayRatio <= BACKWARD_SORT_DISORDER_THRESHOLD
+        ? TVListSortAlgorithm.BACKWARD
+        : TVListSortAlgorithm.TIM;
+  }
+
+  /**
+   * Record a point earlier than its previous point.
+   *
+   * @param backwardDistance distance between the time of the point and the max time before it
+   */
+  protected void recordInversion(long backwardDistance) {
+    inversionNum++;
+    maxBackwardDistance = Math.max(maxBackwardDistance, backwardDistance);
+  }
+
+  protected void clearDisorderStatistics() {
+    inversionNum = 0;
+    maxBackwardDistance = 0;
+  }
+
   public void increaseReferenceCount() {
     referenceCount.incrementAndGet();
   }
 
+  public void decreaseReferenceCount() {
+    referenceCount.decrementAndGet();
+  }
+
   public int getReferenceCount() {
     return referenceCount.get();
   }
@@ -286,12 +330,15 @@ public abstract class TVList implements WALEntryValue {
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
     cloneList.maxTime = maxTime;
+    cloneList.inversionNum = inversionNum;
+    cloneList.maxBackwardDistance = maxBackwardDistance;
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
     maxTime = Long.MIN_VALUE;
+    clearDisorderStatistics();
     clearTime();
     clearValue();
   }
@@ -328,7 +375,12 @@ public abstract class TVList implements WALEntryValue {
     int length = time.length;
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
+    long prevTime = rowCount == 0 ? Long.MIN_VALUE : getTime(rowCount - 1);
     for (int i = start; i < end; i++) {
+      if (time[i] < prevTime) {
+        recordInversion(maxTime - time[i]);
+      }
+      prevTime = time[i];
       inPutMinTime = Math.min(inPutMinTime, time[i]);
       maxTime = Math.max(maxTime, time[i]);
       if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
@@ -21,5 +21,7 @@ package org.apache.iotdb.db.utils.datastructure;
 public enum TVListSortAlgorithm {
   TIM,
   QUICK,
-  BACKWARD
+  BACKWARD,
+  /** choose one of the above for each list by its disorder statistics when sorting */
+  ADAPTIVE
 }
@@ -25,7 +25,7 @@ import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimAlignedTVList extends AlignedTVList implements TimSort {
+public class TimAlignedTVList extends AlignedTVList implements AdaptiveSort {
 
   private long[][] sortedTimestamps;
   private long pivotTime;
@@ -50,10 +50,11 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(adaptiveSort ? chooseSortAlgorithm() : TVListSortAlgorithm.TIM, timestamps, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
+    clearDisorderStatistics();
     sorted = true;
   }
 
@@ -115,6 +116,13 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
     return Long.compare(t1, t2);
   }
 
+  @Override
+  public int compareTmp(int idx, int tmpIdx) {
+    long t1 = getTime(idx);
+    long t2 = sortedTimestamps[tmpIdx / ARRAY_SIZE][tmpIdx % ARRAY_SIZE];
+    return Long.compare(t1, t2);
+  }
+
   @Override
   public void reverseRange(int lo, int hi) {
     hi--;
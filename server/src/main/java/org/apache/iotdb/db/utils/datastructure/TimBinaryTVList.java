@@ -24,7 +24,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimBinaryTVList extends BinaryTVList implements TimSort {
+public class TimBinaryTVList extends BinaryTVList implements AdaptiveSort {
 
   private long[][] sortedTimestamps;
   private long pivotTime;
@@ -44,9 +44,13 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
       sortedValues =
           (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
     }
-    sort(0, rowCount);
+    sort(
+        adaptiveSort && !sorted ? chooseSortAlgorithm() : TVListSortAlgorithm.TIM,
+        timestamps,
+        rowCount);
     clearSortedValue();
     clearSortedTime();
+    clearDisorderStatistics();
     sorted = true;
   }
 
@@ -108,6 +112,13 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
     return Long.compare(t1, t2);
   }
 
+  @Override
+  public int compareTmp(int idx, int tmpIdx) {
+    long t1 = getTime(idx);
+    long t2 = sortedTimestamps[tmpIdx / ARRAY_SIZE][tmpIdx % ARRAY_SIZE];
+    return Long.compare(t1, t2);
+  }
+
   @Override
   public void reverseRange(int lo, int hi) {
     hi--;
@@ -23,7 +23,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimFloatTVList extends FloatTVList implements TimSort {
+public class TimFloatTVList extends FloatTVList implements AdaptiveSort {
 
   private long[][] sortedTimestamps;
   private long pivotTime;
@@ -44,10 +44,11 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
           (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(adaptiveSort ? chooseSortAlgorithm() : TVListSortAlgorithm.TIM, timestamps, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
+    clearDisorderStatistics();
     sorted = true;
   }
 
@@ -109,6 +110,13 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
     return Long.compare(t1, t2);
   }
 
+  @Override
+  public int compareTmp(int idx, int tmpIdx) {
+    long t1 = getTime(idx);
+    long t2 = sortedTimestamps[tmpIdx / ARRAY_SIZE][tmpIdx % ARRAY_SIZE];
+    return Long.compare(t1, t2);
+  }
+
   @Override
   public void reverseRange(int lo, int hi) {
     hi--;
@@ -23,7 +23,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
-public class TimIntTVList extends IntTVList implements TimSort {
+public class TimIntTVList extends IntTVList implements AdaptiveSort {
 
   private long[][] sortedTimestamps;
   private int[][] sortedValues;
@@ -44,10 +44,11 @@ public class TimIntTVList extends IntTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(adaptiveSort ? chooseSortAlgorithm() : TVListSortAlgorithm.TIM, timestamps, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
+    clearDisorderStatistics();
     sorted = true;
   }
 
@@ -109,6 +110,13 @@ public class TimIntTVList extends IntTVList implements TimSort {
     return Long.compare(t1, t2);
   }
 
+  @Override
+  public int compareTmp(int idx, int tmpIdx) {
+    long t1 = getTime(idx);
+    long t2 = sortedTimestamps[tmpIdx / ARRAY_SIZE][tmpIdx % ARRAY_SIZE];
+    return Long.compare(t1, t2);
+  }
+
   @Override
   public void reverseRange(int lo, int hi) {
     hi--;
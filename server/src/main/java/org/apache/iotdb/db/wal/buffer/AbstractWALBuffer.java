@@ -20,6 +20,7 @@ package org.apache.iotdb.db.wal.buffer;
 
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.db.wal.WALManager;
+import org.apache.iotdb.db.wal.io.WALFilePool;
 import org.apache.iotdb.db.wal.io.WALWriter;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
@@ -44,6 +45,8 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
   protected volatile long currentSearchIndex;
   /** current wal file log writer */
   protected volatile WALWriter currentWALFileWriter;
+  /** preallocated .wal files */
+  protected final WALFilePool walFilePool;
 
   protected AbstractWALBuffer(
       String identifier, String logDirectory, long startFileVersion, long startSearchIndex)
@@ -55,8 +58,9 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
       logger.info("Create folder {} for wal node-{}'s buffer.", logDirectory, identifier);
     }
     currentSearchIndex = startSearchIndex;
+    walFilePool = new WALFilePool(identifier, logDirectory);
     currentWALFileWriter =
-        new WALWriter(
+        createWALWriter(
             SystemFileFactory.INSTANCE.getFile(
                 logDirectory,
                 WALFileUtils.getLogFileName(
@@ -64,6 +68,19 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
     currentWALFileVersion = startFileVersion;
   }
 
+  /** Use a preallocated file as the new .wal file if possible. */
+  private WALWriter createWALWriter(File logFile) throws FileNotFoundException {
+    if (!logFile.exists() && walFilePool.take(logFile)) {
+      return new WALWriter(logFile, true);
+    }
+    return new WALWriter(logFile);
+  }
+
+  @Override
+  public boolean recycleWALFile(File walFile) {
+    return walFilePool.recycle(walFile);
+  }
+
   @Override
   public long getCurrentWALFileVersion() {
     return currentWALFileVersion;
@@ -99,7 +116,7 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
             logDirectory,
             WALFileUtils.getLogFileName(
                 nextFileVersion, searchIndex, WALFileStatus.CONTAINS_SEARCH_INDEX));
-    currentWALFileWriter = new WALWriter(nextLogFile);
+    currentWALFileWriter = createWALWriter(nextLogFile);
     currentWALFileVersion = nextFileVersion;
     logger.debug("Open new wal file {} for wal node-{}'s buffer.", nextLogFile, identifier);
   }
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.wal.buffer;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -41,6 +42,13 @@ public interface IWALBuffer extends AutoCloseable {
   /** Get current search index */
   long getCurrentSearchIndex();
 
+  /**
+   * Recycle the outdated .wal file as a preallocated file.
+   *
+   * @return false if the file is not recycled and should be deleted
+   */
+  boolean recycleWALFile(File walFile);
+
   @Override
   void close();
 
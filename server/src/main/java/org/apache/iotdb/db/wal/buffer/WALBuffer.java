@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionThrottler;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.db.service.metrics.recorder.WritingMetricsManager;
@@ -30,6 +31,7 @@ import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.wal.exception.WALNodeClosedException;
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.db.wal.utils.WALMode;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 
 import org.slf4j.Logger;
@@ -39,12 +41,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -53,7 +57,9 @@ import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 
 /**
  * This buffer guarantees the concurrent safety and uses double buffers mechanism to accelerate
- * writes and avoid waiting for buffer syncing to disk.
+ * writes and avoid waiting for buffer syncing to disk. In SYNC mode with group commit enabled, the
+ * WALEntries arrived during an fsync are batched and fsynced right after this fsync ends, so one
+ * fsync covers all of them and no fixed delay is waited.
  */
 public class WALBuffer extends AbstractWALBuffer {
   private static final Logger logger = LoggerFactory.getLogger(WALBuffer.class);
@@ -71,6 +77,8 @@ public class WALBuffer extends AbstractWALBuffer {
   private final Lock buffersLock = new ReentrantLock();
   /** condition to guarantee correctness of switching buffers */
   private final Condition idleBufferReadyCondition = buffersLock.newCondition();
+  /** condition signaled by syncBufferThread when all the submitted SyncBufferTasks finish */
+  private final Condition syncTasksFinishedCondition = buffersLock.newCondition();
   // region these variables should be protected by buffersLock
   /** two buffers switch between three statuses (there is always 1 buffer working) */
   // buffer in working status, only updated by serializeThread
@@ -86,6 +94,8 @@ public class WALBuffer extends AbstractWALBuffer {
   private final ExecutorService serializeThread;
   /** single thread to sync syncingBuffer to disk */
   private final ExecutorService syncBufferThread;
+  /** number of SyncBufferTasks submitted but not finished, decreased with buffersLock held */
+  private final AtomicInteger unfinishedSyncTasksNum = new AtomicInteger(0);
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     this(identifier, logDirectory, 0, 0L);
@@ -127,6 +137,7 @@ public class WALBuffer extends AbstractWALBuffer {
       return;
     }
     // just add this WALEntry to queue
+    walEntry.setEnqueueTimeInNanos(System.nanoTime());
     try {
       walEntries.put(walEntry);
     } catch (InterruptedException e) {
@@ -140,6 +151,8 @@ public class WALBuffer extends AbstractWALBuffer {
   private static class SerializeInfo {
     final WALMetaData metaData = new WALMetaData();
     final List<WALFlushListener> fsyncListeners = new LinkedList<>();
+    /** enqueue time of each WALEntry in fsyncListeners */
+    final List<Long> fsyncEnqueueTimes = new ArrayList<>();
     WALFlushListener rollWALFileWriterListener = null;
   }
 
@@ -178,11 +191,16 @@ public class WALBuffer extends AbstractWALBuffer {
       }
 
       // try to get more WALEntries with blocking interface to enlarge write batch
+      boolean groupCommit = config.getWalMode() == WALMode.SYNC && config.isEnableWalGroupCommit();
       while (totalSize < HALF_WAL_BUFFER_SIZE * FSYNC_BUFFER_RATIO) {
         WALEntry walEntry = null;
         try {
-          // for better fsync performance, wait a while to enlarge write batch
-          walEntry = walEntries.poll(config.getFsyncWalDelayInMs(), TimeUnit.MILLISECONDS);
+          if (groupCommit) {
+            walEntry = pollForGroupCommit();
+          } else {
+            // for better fsync performance, wait a while to enlarge write batch
+            walEntry = walEntries.poll(config.getFsyncWalDelayInMs(), TimeUnit.MILLISECONDS);
+          }
         } catch (InterruptedException e) {
           logger.warn(
               "Interrupted when waiting for taking WALEntry from blocking queue to serialize.");
@@ -206,6 +224,30 @@ public class WALBuffer extends AbstractWALBuffer {
       }
     }
 
+    /**
+     * Keep batching while the previous sync tasks are running, because the next fsync cannot start
+     * before them anyway, and end the batch as soon as they finish and no WALEntry is waiting. The
+     * serialize thread sleeps on syncTasksFinishedCondition instead of polling the queue.
+     *
+     * @return null if the current batch should be fsynced now
+     */
+    private WALEntry pollForGroupCommit() throws InterruptedException {
+      WALEntry walEntry = walEntries.poll();
+      if (walEntry != null) {
+        return walEntry;
+      }
+      buffersLock.lock();
+      try {
+        while (unfinishedSyncTasksNum.get() > 0) {
+          syncTasksFinishedCondition.await();
+        }
+      } finally {
+        buffersLock.unlock();
+      }
+      // WALEntries arrived during the fsync join this batch
+      return walEntries.poll();
+    }
+
     /**
      * @return true if fsyncWorkingBuffer has been called, which means this serialization task
      *     should be ended.
@@ -218,6 +260,7 @@ public class WALBuffer extends AbstractWALBuffer {
       boolean success = handleInfoEntry(walEntry);
       if (success) {
         info.fsyncListeners.add(walEntry.getWalFlushListener());
+        info.fsyncEnqueueTimes.add(walEntry.getEnqueueTimeInNanos());
       }
       return false;
     }
@@ -376,6 +419,7 @@ public class WALBuffer extends AbstractWALBuffer {
   /** Notice: this method only called when buffer is exhausted by SerializeTask. */
   private void syncWorkingBuffer(long searchIndex, WALFileStatus fileStatus) {
     switchWorkingBufferToFlushing();
+    unfinishedSyncTasksNum.incrementAndGet();
     syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, false));
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
   }
@@ -383,6 +427,7 @@ public class WALBuffer extends AbstractWALBuffer {
   /** Notice: this method only called at the last of SerializeTask. */
   private void fsyncWorkingBuffer(long searchIndex, WALFileStatus fileStatus, SerializeInfo info) {
     switchWorkingBufferToFlushing();
+    unfinishedSyncTasksNum.incrementAndGet();
     syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, true, info));
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
   }
@@ -431,6 +476,21 @@ public class WALBuffer extends AbstractWALBuffer {
 
     @Override
     public void run() {
+      try {
+        sync();
+      } finally {
+        buffersLock.lock();
+        try {
+          if (unfinishedSyncTasksNum.decrementAndGet() == 0) {
+            syncTasksFinishedCondition.signalAll();
+          }
+        } finally {
+          buffersLock.unlock();
+        }
+      }
+    }
+
+    private void sync() {
       long start = System.nanoTime();
       currentWALFileWriter.updateFileStatus(fileStatus);
 
@@ -491,9 +551,17 @@ public class WALBuffer extends AbstractWALBuffer {
         for (WALFlushListener fsyncListener : info.fsyncListeners) {
           fsyncListener.succeed();
         }
+        long durableTime = System.nanoTime();
+        for (long enqueueTime : info.fsyncEnqueueTimes) {
+          WRITING_METRICS.recordWALEntryEnqueueToDurableCost(durableTime - enqueueTime);
+        }
       }
       WRITING_METRICS.recordWALBufferEntriesCount(info.fsyncListeners.size());
-      WRITING_METRICS.recordSyncWALBufferCost(System.nanoTime() - start, forceFlag);
+      long syncCost = System.nanoTime() - start;
+      WRITING_METRICS.recordSyncWALBufferCost(syncCost, forceFlag);
+      if (forceFlag) {
+        CompactionThrottler.getInstance().recordWalFsyncLatency(syncCost);
+      }
     }
   }
 
@@ -556,6 +624,7 @@ public class WALBuffer extends AbstractWALBuffer {
         logger.error("Fail to close wal node-{}'s log writer.", identifier, e);
       }
     }
+    walFilePool.close();
 
     if (workingBuffer != null) {
       MmapUtil.clean((MappedByteBuffer) workingBuffer);
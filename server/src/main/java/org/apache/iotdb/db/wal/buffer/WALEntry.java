@@ -55,6 +55,8 @@ public abstract class WALEntry implements SerializedSize {
    * deserialized from .wal file
    */
   protected final WALFlushListener walFlushListener;
+  /** the time in nanoseconds when this WALEntry enters the wal buffer */
+  protected long enqueueTimeInNanos;
 
   protected WALEntry(long memTableId, WALEntryValue value, boolean wait) {
     this.memTableId = memTableId;
@@ -169,5 +171,13 @@ public abstract class WALEntry implements SerializedSize {
     return walFlushListener;
   }
 
+  public long getEnqueueTimeInNanos() {
+    return enqueueTimeInNanos;
+  }
+
+  public void setEnqueueTimeInNanos(long enqueueTimeInNanos) {
+    this.enqueueTimeInNanos = enqueueTimeInNanos;
+  }
+
   public abstract boolean isSignal();
 }
@@ -24,10 +24,12 @@ import org.apache.iotdb.db.wal.checkpoint.Checkpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
@@ -40,14 +42,32 @@ public abstract class LogWriter implements ILogWriter {
   private static final Logger logger = LoggerFactory.getLogger(LogWriter.class);
 
   protected final File logFile;
-  protected final FileOutputStream logStream;
+  protected final Closeable logStream;
   protected final FileChannel logChannel;
+  /**
+   * true if the file is preallocated by {@link WALFilePool}, which is written from the beginning
+   * and truncated to the written size when closing
+   */
+  protected final boolean preallocated;
+
   protected long size;
 
   protected LogWriter(File logFile) throws FileNotFoundException {
+    this(logFile, false);
+  }
+
+  protected LogWriter(File logFile, boolean preallocated) throws FileNotFoundException {
     this.logFile = logFile;
-    this.logStream = new FileOutputStream(logFile, true);
-    this.logChannel = this.logStream.getChannel();
+    this.preallocated = preallocated;
+    if (preallocated) {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw");
+      this.logStream = randomAccessFile;
+      this.logChannel = randomAccessFile.getChannel();
+    } else {
+      FileOutputStream fileOutputStream = new FileOutputStream(logFile, true);
+      this.logStream = fileOutputStream;
+      this.logChannel = fileOutputStream.getChannel();
+    }
   }
 
   @Override
@@ -63,7 +83,9 @@ public abstract class LogWriter implements ILogWriter {
 
   @Override
   public void force() throws IOException {
-    force(true);
+    // the length of a preallocated file doesn't change until it's full, so flushing data is enough,
+    // and the length is still flushed with the data if it changes
+    force(!preallocated);
   }
 
   @Override
@@ -88,6 +110,10 @@ public abstract class LogWriter implements ILogWriter {
     if (logChannel != null) {
       try {
         if (logChannel.isOpen()) {
+          if (preallocated) {
+            // remove the unused preallocated space
+            logChannel.truncate(size);
+          }
           logChannel.force(true);
         }
       } finally {
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.file.SystemFileFactory;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.wal.buffer.WALEntryType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This pool keeps some preallocated files of one wal node, which are renamed to new .wal files when
+ * rolling the log writer. Outdated .wal files are recycled into this pool instead of being deleted.
+ * Files are filled in background, so that writing .wal files doesn't allocate disk space or change
+ * the file length, and fsync only flushes the data blocks. The files are filled with the code of
+ * {@link WALEntryType#WAL_FILE_INFO_END_MARKER}, so readers of a .wal file which isn't closed stop
+ * at the end of the written data by the marker, instead of reading stale entries or failing.
+ */
+public class WALFilePool implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(WALFilePool.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  public static final String PREALLOCATED_FILE_PREFIX = "preallocated-";
+  /** suffix of the files ready to be taken */
+  public static final String READY_FILE_SUFFIX = ".wal.ready";
+  /** suffix of the files being filled, which are deleted when restarting */
+  public static final String FILLING_FILE_SUFFIX = ".wal.filling";
+
+  private static final int FILL_BUFFER_SIZE = 64 * 1024;
+  private static final byte FILL_BYTE = WALEntryType.WAL_FILE_INFO_END_MARKER.getCode();
+
+  /** WALNode identifier of this pool */
+  private final String identifier;
+  /** directory to store .wal files */
+  private final File logDirectory;
+  /** max number of ready and filling files */
+  private final int capacity;
+  /** files ready to be taken */
+  private final Queue<File> readyFiles = new ConcurrentLinkedQueue<>();
+  /** number of ready and filling files */
+  private final AtomicInteger filesNum = new AtomicInteger(0);
+  /** id to generate names of the preallocated files */
+  private final AtomicLong nextFileId = new AtomicLong(0);
+  /** single thread to fill the preallocated files, null if this pool is disabled */
+  private final ExecutorService fillThread;
+
+  private volatile boolean isClosed = false;
+
+  public WALFilePool(String identifier, String logDirectory) {
+    this.identifier = identifier;
+    this.logDirectory = SystemFileFactory.INSTANCE.getFile(logDirectory);
+    this.capacity = config.getWalPreallocatedFilesNum();
+    if (capacity <= 0) {
+      fillThread = null;
+      return;
+    }
+    fillThread =
+        IoTDBThreadPoolFactory.newSingleThreadExecutor(
+            ThreadName.WAL_PREALLOCATE.getName() + "(node-" + identifier + ")");
+    reuseExistingFiles();
+    for (int i = filesNum.get(); i < capacity; i++) {
+      submitFillTask(this::preallocateNewFile);
+    }
+  }
+
+  /** Reuse the ready files left by last run and delete the files not filled completely. */
+  private void reuseExistingFiles() {
+    File[] files = logDirectory.listFiles((dir, name) -> name.startsWith(PREALLOCATED_FILE_PREFIX));
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      String name = file.getName();
+      if (name.endsWith(READY_FILE_SUFFIX) && filesNum.get() < capacity) {
+        try {
+          long fileId =
+              Long.parseLong(
+                  name.substring(
+                      PREALLOCATED_FILE_PREFIX.length(),
+                      name.length() - READY_FILE_SUFFIX.length()));
+          nextFileId.set(Math.max(nextFileId.get(), fileId + 1));
+          readyFiles.add(file);
+          filesNum.incrementAndGet();
+          continue;
+        } catch (NumberFormatException e) {
+          logger.warn("Unknown preallocated wal file {}, delete it.", file);
+        }
+      }
+      deleteFile(file);
+    }
+  }
+
+  public boolean isEnabled() {
+    return fillThread != null;
+  }
+
+  /**
+   * Rename one ready file to the target .wal file.
+   *
+   * @return false if there is no ready file, and the target file should be created by the caller
+   */
+  public boolean take(File target) {
+    File readyFile = readyFiles.poll();
+    if (readyFile == null) {
+      return false;
+    }
+    filesNum.decrementAndGet();
+    boolean success = readyFile.renameTo(target);
+    if (success) {
+      // persist the rename before any entry is acknowledged, otherwise the file may be taken as a
+      // ready file after a crash and overwritten
+      syncLogDirectory();
+    } else {
+      logger.warn("Fail to rename preallocated wal file {} to {}", readyFile, target);
+      deleteFile(readyFile);
+    }
+    // replenish this pool
+    submitFillTask(this::preallocateNewFile);
+    return success;
+  }
+
+  /**
+   * Recycle the outdated .wal file into this pool, its content will be overwritten.
+   *
+   * @return false if this pool is disabled or full, and the file should be deleted by the caller
+   */
+  public boolean recycle(File walFile) {
+    if (!isEnabled() || isClosed || !reserve()) {
+      return false;
+    }
+    File fillingFile = getFile(nextFileId.getAndIncrement(), FILLING_FILE_SUFFIX);
+    if (!walFile.renameTo(fillingFile)) {
+      filesNum.decrementAndGet();
+      return false;
+    }
+    if (!submitFillTask(() -> fill(fillingFile))) {
+      // closed concurrently, delete it like the other filling files
+      filesNum.decrementAndGet();
+      deleteFile(fillingFile);
+    }
+    return true;
+  }
+
+  /** @return false if the task is rejected because this pool is closed */
+  private boolean submitFillTask(Runnable task) {
+    if (isClosed) {
+      return false;
+    }
+    try {
+      fillThread.submit(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      // fillThread is shut down by close after the check above
+      return false;
+    }
+  }
+
+  private void preallocateNewFile() {
+    if (reserve()) {
+      fill(getFile(nextFileId.getAndIncrement(), FILLING_FILE_SUFFIX));
+    }
+  }
+
+  /** @return true if there is space for one more file */
+  private boolean reserve() {
+    while (true) {
+      int num = filesNum.get();
+      if (num >= capacity) {
+        return false;
+      }
+      if (filesNum.compareAndSet(num, num + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Fill the file up to the wal file size threshold, and then make it ready. */
+  private void fill(File fillingFile) {
+    if (isClosed) {
+      filesNum.decrementAndGet();
+      deleteFile(fillingFile);
+      return;
+    }
+    // persist the rename of the recycled file before overwriting it
+    syncLogDirectory();
+    long fileSize = config.getWalFileSizeThresholdInByte();
+    try (FileChannel channel =
+        FileChannel.open(
+            fillingFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      if (channel.size() > fileSize) {
+        channel.truncate(fileSize);
+      }
+      byte[] fillBytes = new byte[FILL_BUFFER_SIZE];
+      Arrays.fill(fillBytes, FILL_BYTE);
+      ByteBuffer fillBuffer = ByteBuffer.wrap(fillBytes);
+      long position = 0;
+      while (position < fileSize) {
+        fillBuffer.clear();
+        fillBuffer.limit((int) Math.min(FILL_BUFFER_SIZE, fileSize - position));
+        position += channel.write(fillBuffer, position);
+      }
+      channel.force(true);
+    } catch (IOException e) {
+      logger.warn("Fail to preallocate wal file {} of wal node-{}.", fillingFile, identifier, e);
+      filesNum.decrementAndGet();
+      deleteFile(fillingFile);
+      return;
+    }
+
+    String name = fillingFile.getName();
+    File readyFile =
+        SystemFileFactory.INSTANCE.getFile(
+            logDirectory,
+            name.substring(0, name.length() - FILLING_FILE_SUFFIX.length()) + READY_FILE_SUFFIX);
+    if (fillingFile.renameTo(readyFile)) {
+      readyFiles.add(readyFile);
+    } else {
+      logger.warn("Fail to rename preallocated wal file {} to {}", fillingFile, readyFile);
+      filesNum.decrementAndGet();
+      deleteFile(fillingFile);
+    }
+  }
+
+  /** Fsync the log directory, so that the renames of files in it survive a crash. */
+  private void syncLogDirectory() {
+    try (FileChannel channel = FileChannel.open(logDirectory.toPath(), StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // some platforms, e.g. Windows, can't open a directory, whose file system persists renames
+      logger.debug("Fail to fsync wal directory {} of wal node-{}.", logDirectory, identifier, e);
+    }
+  }
+
+  private File getFile(long fileId, String suffix) {
+    return SystemFileFactory.INSTANCE.getFile(
+        logDirectory, PREALLOCATED_FILE_PREFIX + fileId + suffix);
+  }
+
+  private void deleteFile(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      logger.warn("Fail to delete preallocated wal file {}", file, e);
+    }
+  }
+
+  @TestOnly
+  public int getReadyFilesNum() {
+    return readyFiles.size();
+  }
+
+  /** The ready files are kept for the next run, and the filling ones are deleted. */
+  @Override
+  public void close() {
+    isClosed = true;
+    if (fillThread == null) {
+      return;
+    }
+    fillThread.shutdown();
+    try {
+      if (!fillThread.awaitTermination(30, TimeUnit.SECONDS)) {
+        logger.warn(
+            "Waiting thread {} to be terminated is timeout", ThreadName.WAL_PREALLOCATE.getName());
+      }
+    } catch (InterruptedException e) {
+      logger.warn("Thread {} still doesn't exit after 30s", ThreadName.WAL_PREALLOCATE.getName());
+      Thread.currentThread().interrupt();
+    }
+  }
+}
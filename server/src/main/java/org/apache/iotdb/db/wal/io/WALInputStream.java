@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.apache.iotdb.db.wal.io.WALWriter.COMPRESSED_BLOCK_MARKER;
+
+/**
+ * This stream returns the uncompressed content of a .wal file. Compressed blocks written by {@link
+ * WALWriter} are uncompressed one by one. Once a byte other than {@link
+ * WALWriter#COMPRESSED_BLOCK_MARKER} is met at the start of a block, the remaining bytes are
+ * returned as they are, which is either the whole uncompressed file or the tail of a compressed
+ * file.
+ */
+public class WALInputStream extends InputStream {
+  private final DataInputStream in;
+  /** uncompressed content of the current block */
+  private byte[] block = new byte[0];
+
+  private int blockPosition = 0;
+  private int blockLimit = 0;
+  /** reused array to read compressed blocks */
+  private byte[] compressedBytes = new byte[0];
+  /** true if the remaining bytes are not compressed */
+  private boolean rawMode = false;
+
+  /** @param in stream of the .wal file, which should be buffered */
+  public WALInputStream(InputStream in) {
+    this.in = new DataInputStream(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (blockPosition < blockLimit) {
+      return block[blockPosition++] & 0xFF;
+    }
+    if (rawMode) {
+      return in.read();
+    }
+    int b = in.read();
+    if (b == -1) {
+      return -1;
+    }
+    if ((byte) b != COMPRESSED_BLOCK_MARKER) {
+      rawMode = true;
+      return b;
+    }
+    readBlock();
+    return read();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (blockPosition == blockLimit) {
+      if (rawMode) {
+        return in.read(b, off, len);
+      }
+      // load the next block or switch to raw mode
+      int first = read();
+      if (first == -1) {
+        return -1;
+      }
+      b[off] = (byte) first;
+      return 1 + Math.max(read(b, off + 1, len - 1), 0);
+    }
+    int readLen = Math.min(len, blockLimit - blockPosition);
+    System.arraycopy(block, blockPosition, b, off, readLen);
+    blockPosition += readLen;
+    return readLen;
+  }
+
+  private void readBlock() throws IOException {
+    CompressionType compressionType = CompressionType.deserialize(in.readByte());
+    int uncompressedSize = in.readInt();
+    int compressedSize = in.readInt();
+    if (uncompressedSize < 0 || compressedSize < 0) {
+      throw new IOException(
+          String.format(
+              "Broken compressed wal block, uncompressed size: %d, compressed size: %d",
+              uncompressedSize, compressedSize));
+    }
+    if (compressedBytes.length < compressedSize) {
+      compressedBytes = new byte[compressedSize];
+    }
+    in.readFully(compressedBytes, 0, compressedSize);
+    if (block.length < uncompressedSize) {
+      block = new byte[uncompressedSize];
+    }
+    int size =
+        IUnCompressor.getUnCompressor(compressionType)
+            .uncompress(compressedBytes, 0, compressedSize, block, 0);
+    if (size != uncompressedSize) {
+      throw new IOException(
+          String.format(
+              "Broken compressed wal block, expected %d uncompressed bytes but got %d",
+              uncompressedSize, size));
+    }
+    blockPosition = 0;
+    blockLimit = uncompressedSize;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return blockLimit - blockPosition + in.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -18,28 +18,91 @@
  */
 package org.apache.iotdb.db.wal.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.buffer.WALSignalEntry;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-/** WALWriter writes the binary {@link WALEntry} into .wal file. */
+/**
+ * WALWriter writes the binary {@link WALEntry} into .wal file. If wal compression is enabled, each
+ * written buffer is compressed as a block starting with {@link #COMPRESSED_BLOCK_MARKER}, which is
+ * read by {@link WALInputStream}. The tail of the file, including the metadata, is not compressed.
+ */
 public class WALWriter extends LogWriter {
   public static final String MAGIC_STRING = "WAL";
   public static final int MAGIC_STRING_BYTES = MAGIC_STRING.getBytes().length;
+  /** first byte of a compressed block, which is different from all codes of {@link WALEntryType} */
+  public static final byte COMPRESSED_BLOCK_MARKER = (byte) (Byte.MIN_VALUE + 3);
+  /** marker, compression type, uncompressed size and compressed size */
+  public static final int COMPRESSED_BLOCK_HEADER_BYTES = Byte.BYTES * 2 + Integer.BYTES * 2;
 
   private WALFileStatus walFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
 
   /** wal files' metadata */
   protected final WALMetaData metaData = new WALMetaData();
 
+  /** null if the written buffers are not compressed */
+  private final ICompressor compressor;
+  /** reused arrays to compress buffers */
+  private byte[] uncompressedBytes;
+
+  private byte[] compressedBytes;
+
   public WALWriter(File logFile) throws FileNotFoundException {
-    super(logFile);
+    this(logFile, false);
+  }
+
+  /**
+   * @param preallocated true if the file is taken from {@link WALFilePool}, which should be written
+   *     from the beginning
+   */
+  public WALWriter(File logFile, boolean preallocated) throws FileNotFoundException {
+    super(logFile, preallocated);
+    CompressionType compressionType =
+        IoTDBDescriptor.getInstance().getConfig().getWalCompressionType();
+    this.compressor =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType);
+  }
+
+  /** Writes buffer, and compresses it into one block if wal compression is enabled. */
+  @Override
+  public void write(ByteBuffer buffer) throws IOException {
+    int uncompressedSize = buffer.position();
+    if (compressor == null || uncompressedSize == 0) {
+      super.write(buffer);
+      return;
+    }
+    buffer.flip();
+    if (uncompressedBytes == null || uncompressedBytes.length < uncompressedSize) {
+      uncompressedBytes = new byte[uncompressedSize];
+    }
+    buffer.get(uncompressedBytes, 0, uncompressedSize);
+    int maxCompressedSize = compressor.getMaxBytesForCompression(uncompressedSize);
+    if (compressedBytes == null || compressedBytes.length < maxCompressedSize) {
+      compressedBytes = new byte[maxCompressedSize];
+    }
+    int compressedSize =
+        compressor.compress(uncompressedBytes, 0, uncompressedSize, compressedBytes);
+
+    ByteBuffer header = ByteBuffer.allocate(COMPRESSED_BLOCK_HEADER_BYTES);
+    header.put(COMPRESSED_BLOCK_MARKER);
+    header.put(compressor.getType().serialize());
+    header.putInt(uncompressedSize);
+    header.putInt(compressedSize);
+    super.write(header);
+    ByteBuffer block = ByteBuffer.wrap(compressedBytes);
+    block.position(compressedSize);
+    super.write(block);
   }
 
   /** Writes buffer and update its' metadata */
@@ -67,7 +130,7 @@ public class WALWriter extends LogWriter {
     buffer.putInt(metaDataSize);
     // add magic string
     buffer.put(MAGIC_STRING.getBytes());
-    write(buffer);
+    super.write(buffer);
   }
 
   @Override
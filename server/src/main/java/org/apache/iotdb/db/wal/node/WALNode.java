@@ -292,7 +292,7 @@ public class WALNode implements IWALNode {
       long deletedFilesSize = 0;
       for (int i = 0; i < endFileIndex; ++i) {
         long fileSize = filesToDelete[i].length();
-        if (filesToDelete[i].delete()) {
+        if (buffer.recycleWALFile(filesToDelete[i]) || filesToDelete[i].delete()) {
           deletedFilesNum++;
           deletedFilesSize += fileSize;
         } else {
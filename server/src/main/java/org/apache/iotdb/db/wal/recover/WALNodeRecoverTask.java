@@ -24,6 +24,7 @@ import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.memtable.AbstractMemTable;
+import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.db.wal.WALManager;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
@@ -44,9 +45,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static org.apache.iotdb.consensus.iot.wal.ConsensusReqReader.DEFAULT_SEARCH_INDEX;
 
@@ -58,16 +65,24 @@ public class WALNodeRecoverTask implements Runnable {
 
   /** this directory store one wal node's .wal and .checkpoint files */
   private final File logDirectory;
+  /** latch to collect all nodes' information of which TsFiles they will recover */
+  private final CountDownLatch allCheckpointsRecoveredLatch;
   /** latch to collect all nodes' recovery end information */
   private final CountDownLatch allNodesRecoveredLatch;
   /** version id of first valid .wal file */
   private long firstValidVersionId = Long.MAX_VALUE;
 
   private Map<Long, MemTableInfo> memTableId2Info;
-  private Map<Long, UnsealedTsFileRecoverPerformer> memTableId2RecoverPerformer;
+  private Map<Long, UnsealedTsFileRecoverPerformer> memTableId2RecoverPerformer = new HashMap<>();
+  /** number of TsFiles whose recovery has ended, used to report the recovery progress */
+  private final AtomicInteger recoveredTsFilesNum = new AtomicInteger(0);
 
-  public WALNodeRecoverTask(File logDirectory, CountDownLatch allNodesRecoveredLatch) {
+  public WALNodeRecoverTask(
+      File logDirectory,
+      CountDownLatch allCheckpointsRecoveredLatch,
+      CountDownLatch allNodesRecoveredLatch) {
     this.logDirectory = logDirectory;
+    this.allCheckpointsRecoveredLatch = allCheckpointsRecoveredLatch;
     this.allNodesRecoveredLatch = allNodesRecoveredLatch;
   }
 
@@ -75,13 +90,19 @@ public class WALNodeRecoverTask implements Runnable {
   public void run() {
     logger.info("Start recovering WAL node in the directory {}", logDirectory);
     try {
-      recoverInfoFromCheckpoints();
+      try {
+        recoverInfoFromCheckpoints();
+      } finally {
+        allCheckpointsRecoveredLatch.countDown();
+      }
       recoverTsFiles();
     } catch (Exception e) {
       for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
         recoverPerformer.getRecoverListener().fail(e);
       }
     } finally {
+      walRecoverManger.recordRecoveredTsFiles(
+          memTableId2RecoverPerformer.size() - recoveredTsFilesNum.get());
       allNodesRecoveredLatch.countDown();
       for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
         try {
@@ -211,13 +232,14 @@ public class WALNodeRecoverTask implements Runnable {
       return;
     }
     // make preparation for recovery
-    for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
-      try {
-        recoverPerformer.startRecovery();
-      } catch (Exception e) {
-        recoverPerformer.getRecoverListener().fail(e);
-      }
-    }
+    runInParallel(
+        recoverPerformer -> {
+          try {
+            recoverPerformer.startRecovery();
+          } catch (Exception e) {
+            recoverPerformer.getRecoverListener().fail(e);
+          }
+        });
     // find all valid .wal files
     File[] walFiles =
         logDirectory.listFiles(
@@ -259,12 +281,42 @@ public class WALNodeRecoverTask implements Runnable {
 
   private void endRecovery() {
     // end recovering all recover performers
+    runInParallel(
+        recoverPerformer -> {
+          try {
+            recoverPerformer.endRecovery();
+            recoverPerformer.getRecoverListener().succeed();
+          } catch (Exception e) {
+            recoverPerformer.getRecoverListener().fail(e);
+          }
+          recoveredTsFilesNum.incrementAndGet();
+          walRecoverManger.recordRecoveredTsFiles(1);
+        });
+  }
+
+  /**
+   * Apply the action to all recover performers of this node on the TsFile recover thread pool of
+   * {@link WALRecoverManager}, and wait until all of them are done. Performers are applied in the
+   * current thread when there is only one or the pool is absent.
+   */
+  private void runInParallel(Consumer<UnsealedTsFileRecoverPerformer> action) {
+    ExecutorService tsFileRecoverThreadPool = walRecoverManger.getTsFileRecoverThreadPool();
+    if (memTableId2RecoverPerformer.size() <= 1 || tsFileRecoverThreadPool == null) {
+      memTableId2RecoverPerformer.values().forEach(action);
+      return;
+    }
+    List<Future<?>> futures = new ArrayList<>();
     for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
+      futures.add(tsFileRecoverThreadPool.submit(() -> action.accept(recoverPerformer)));
+    }
+    for (Future<?> future : futures) {
       try {
-        recoverPerformer.endRecovery();
-        recoverPerformer.getRecoverListener().succeed();
-      } catch (Exception e) {
-        recoverPerformer.getRecoverListener().fail(e);
+        future.get();
+      } catch (ExecutionException e) {
+        logger.error("Fail to recover TsFiles of WAL node in the directory {}", logDirectory, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StorageEngineFailureException("StorageEngine failed to recover.", e);
       }
     }
   }
@@ -24,6 +24,8 @@ import org.apache.iotdb.commons.conf.CommonConfig;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.wal.exception.WALRecoverException;
@@ -44,11 +46,14 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** First set allVsgScannedLatch, then call recover method. */
 public class WALRecoverManager {
   private static final Logger logger = LoggerFactory.getLogger(WALRecoverManager.class);
   private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   /** true when the recover procedure has started */
   private volatile boolean hasStarted = false;
@@ -56,6 +61,15 @@ public class WALRecoverManager {
   private volatile CountDownLatch allDataRegionScannedLatch;
   /** threads to recover wal nodes */
   private ExecutorService recoverThreadPool;
+  /** threads to recover unsealed TsFiles, tasks of this pool never wait for other tasks */
+  private ExecutorService tsFileRecoverThreadPool;
+  /** number of unsealed TsFiles to recover */
+  private volatile int totalTsFilesNum = 0;
+  /** number of unsealed TsFiles whose recovery has ended, successfully or not */
+  private final AtomicInteger recoveredTsFilesNum = new AtomicInteger(0);
+
+  private volatile long recoverStartTime = 0;
+  private final AtomicLong lastLogTime = new AtomicLong(0);
   /** stores all UnsealedTsFileRecoverPerformer submitted by data region processors */
   private final Map<String, UnsealedTsFileRecoverPerformer> absolutePath2RecoverPerformer =
       new ConcurrentHashMap<>();
@@ -90,24 +104,37 @@ public class WALRecoverManager {
       }
       logger.info(
           "Data regions have submitted all unsealed TsFiles, start recovering TsFiles in each wal node.");
+      totalTsFilesNum = absolutePath2RecoverPerformer.size();
+      recoveredTsFilesNum.set(0);
+      recoverStartTime = System.currentTimeMillis();
+      lastLogTime.set(recoverStartTime);
+      int threadCount = config.getWalRecoverThreadCount();
+      recoverThreadPool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(threadCount, ThreadName.WAL_RECOVER.getName());
+      tsFileRecoverThreadPool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(
+              threadCount, ThreadName.TSFILE_RECOVER.getName());
       // recover each wal node's TsFiles
-      if (!walNodeDirs.isEmpty()) {
-        recoverThreadPool =
-            IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.WAL_RECOVER.getName());
-        CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
-        for (File walNodeDir : walNodeDirs) {
-          recoverThreadPool.submit(new WALNodeRecoverTask(walNodeDir, allNodesRecoveredLatch));
-        }
-
-        try {
-          allNodesRecoveredLatch.await();
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          throw new WALRecoverException("Fail to recover wal.", e);
-        }
+      CountDownLatch allCheckpointsRecoveredLatch = new CountDownLatch(walNodeDirs.size());
+      CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
+      for (File walNodeDir : walNodeDirs) {
+        recoverThreadPool.submit(
+            new WALNodeRecoverTask(
+                walNodeDir, allCheckpointsRecoveredLatch, allNodesRecoveredLatch));
+      }
+      List<Future<Void>> futures;
+      try {
+        // TsFiles left after all wal nodes have taken theirs don't have wal, so they can be
+        // recovered while replaying wal nodes
+        allCheckpointsRecoveredLatch.await();
+        futures = asyncRecoverLeftTsFiles();
+        allNodesRecoveredLatch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WALRecoverException("Fail to recover wal.", e);
       }
-      // deal with remaining TsFiles which don't have wal
-      asyncRecoverLeftTsFiles();
+      // wait until TsFiles which don't have wal are recovered
+      waitLeftTsFilesRecovered(futures);
     } catch (Exception e) {
       for (UnsealedTsFileRecoverPerformer recoverPerformer :
           absolutePath2RecoverPerformer.values()) {
@@ -129,15 +156,8 @@ public class WALRecoverManager {
     logger.info("Successfully recover all wal nodes.");
   }
 
-  private void asyncRecoverLeftTsFiles() {
-    if (absolutePath2RecoverPerformer.isEmpty()) {
-      return;
-    }
-
+  private List<Future<Void>> asyncRecoverLeftTsFiles() {
     List<Future<Void>> futures = new ArrayList<>();
-    ExecutorService recoverTsFilesThreadPool =
-        IoTDBThreadPoolFactory.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors(), "TsFile-Recover");
     // async recover
     for (UnsealedTsFileRecoverPerformer recoverPerformer : absolutePath2RecoverPerformer.values()) {
       Callable<Void> recoverTsFileTask =
@@ -154,11 +174,15 @@ public class WALRecoverManager {
                   e);
               recoverPerformer.getRecoverListener().fail(e);
             }
+            recordRecoveredTsFiles(1);
             return null;
           };
-      futures.add(recoverTsFilesThreadPool.submit(recoverTsFileTask));
+      futures.add(tsFileRecoverThreadPool.submit(recoverTsFileTask));
     }
-    // wait until all tasks done
+    return futures;
+  }
+
+  private void waitLeftTsFilesRecovered(List<Future<Void>> futures) {
     for (Future<Void> future : futures) {
       try {
         future.get();
@@ -169,7 +193,52 @@ public class WALRecoverManager {
         throw new StorageEngineFailureException("StorageEngine failed to recover.", e);
       }
     }
-    recoverTsFilesThreadPool.shutdown();
+  }
+
+  ExecutorService getTsFileRecoverThreadPool() {
+    return tsFileRecoverThreadPool;
+  }
+
+  /** Record that the recovery of some unsealed TsFiles has ended, and log the progress. */
+  void recordRecoveredTsFiles(int num) {
+    if (num <= 0) {
+      return;
+    }
+    int recoveredNum = recoveredTsFilesNum.addAndGet(num);
+    long currentTime = System.currentTimeMillis();
+    long prevLogTime = lastLogTime.get();
+    if ((recoveredNum >= totalTsFilesNum
+            || currentTime - prevLogTime >= config.getRecoveryLogIntervalInMs())
+        && lastLogTime.compareAndSet(prevLogTime, currentTime)) {
+      logger.info(
+          "Unsealed TsFiles have been recovered {}/{}, estimated remaining time: {}ms",
+          recoveredNum,
+          totalTsFilesNum,
+          getEstimatedRemainingTimeInMs());
+    }
+  }
+
+  public int getTotalTsFilesNum() {
+    return totalTsFilesNum;
+  }
+
+  public int getRecoveredTsFilesNum() {
+    return recoveredTsFilesNum.get();
+  }
+
+  /**
+   * Estimate the remaining time by the average recovery time of the recovered TsFiles.
+   *
+   * @return -1 if no TsFile has been recovered yet
+   */
+  public long getEstimatedRemainingTimeInMs() {
+    int recoveredNum = recoveredTsFilesNum.get();
+    if (recoveredNum <= 0) {
+      return totalTsFilesNum == 0 ? 0 : -1;
+    }
+    int remainingNum = Math.max(totalTsFilesNum - recoveredNum, 0);
+    long elapsedTime = System.currentTimeMillis() - recoverStartTime;
+    return elapsedTime * remainingNum / recoveredNum;
   }
 
   public WALRecoverListener addRecoverPerformer(UnsealedTsFileRecoverPerformer recoverPerformer) {
@@ -214,6 +283,10 @@ public class WALRecoverManager {
       recoverThreadPool.shutdown();
       recoverThreadPool = null;
     }
+    if (tsFileRecoverThreadPool != null) {
+      tsFileRecoverThreadPool.shutdown();
+      tsFileRecoverThreadPool = null;
+    }
   }
 
   @TestOnly
@@ -18,20 +18,28 @@
  */
 package org.apache.iotdb.db.wal.recover;
 
+import org.apache.iotdb.db.wal.io.WALInputStream;
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.io.WALWriter;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 
+import static org.apache.iotdb.db.wal.io.WALWriter.COMPRESSED_BLOCK_MARKER;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING_BYTES;
 
 /** Check whether the wal file is broken and recover it. */
 public class WALRecoverWriter {
+  private static final String RECOVER_FILE_SUFFIX = ".recover";
+
   private final File logFile;
 
   public WALRecoverWriter(File logFile) {
@@ -48,6 +56,10 @@ public class WALRecoverWriter {
         return;
       } else { // file with broken magic string
         truncateSize = metaData.getBuffersSize().stream().mapToInt(Integer::intValue).sum();
+        if (isCompressed()) {
+          rewriteCompressedFile(truncateSize, metaData);
+          return;
+        }
       }
     }
     // truncate broken data
@@ -60,6 +72,38 @@ public class WALRecoverWriter {
     }
   }
 
+  private boolean isCompressed() throws IOException {
+    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer firstByte = ByteBuffer.allocate(Byte.BYTES);
+      return channel.read(firstByte, 0) == Byte.BYTES
+          && firstByte.get(0) == COMPRESSED_BLOCK_MARKER;
+    }
+  }
+
+  /**
+   * The sizes in the metadata are uncompressed, so the complete WALEntries of a compressed file
+   * can't be kept by truncating. They are read out and written into a new file, which replaces the
+   * broken one.
+   */
+  private void rewriteCompressedFile(int uncompressedSize, WALMetaData metaData)
+      throws IOException {
+    byte[] content = new byte[uncompressedSize];
+    try (DataInputStream stream =
+        new DataInputStream(
+            new WALInputStream(new BufferedInputStream(Files.newInputStream(logFile.toPath()))))) {
+      stream.readFully(content);
+    }
+    File recoverFile = new File(logFile.getPath() + RECOVER_FILE_SUFFIX);
+    Files.deleteIfExists(recoverFile.toPath());
+    try (WALWriter walWriter = new WALWriter(recoverFile)) {
+      walWriter.updateMetaData(metaData);
+      ByteBuffer buffer = ByteBuffer.wrap(content);
+      buffer.position(uncompressedSize);
+      walWriter.write(buffer);
+    }
+    Files.move(recoverFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
   private String readTailMagic() throws IOException {
     try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
       ByteBuffer magicStringBytes = ByteBuffer.allocate(MAGIC_STRING_BYTES);
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.engine.cache.OffHeapBlockAllocator.BLOCK_SIZE;
+
+public class OffHeapChunkCacheTest {
+
+  private static final long CAPACITY = 16L * BLOCK_SIZE;
+
+  private final List<ChunkMetadata> removedChunks = new ArrayList<>();
+
+  private final OffHeapChunkCache cache = new OffHeapChunkCache(CAPACITY, removedChunks::add);
+
+  @Test
+  public void testPutAndGet() {
+    ChunkMetadata chunkMetadata = chunkMetadata(0);
+    // the data spans three blocks and starts at a non-zero position of the buffer
+    Chunk chunk = chunk(10000, 3, 1);
+    cache.put(chunkMetadata, chunk);
+    Assert.assertEquals(3L * BLOCK_SIZE, cache.getUsedMemory());
+    Assert.assertTrue(cache.contains(chunkMetadata));
+
+    Chunk cachedChunk = cache.getIfPresent(chunkMetadata);
+    Assert.assertNotNull(cachedChunk);
+    Assert.assertSame(chunk.getHeader(), cachedChunk.getHeader());
+    Assert.assertEquals(chunk.getData(), cachedChunk.getData());
+    Assert.assertEquals(3, chunk.getData().position());
+
+    Assert.assertNull(cache.getIfPresent(chunkMetadata(1)));
+    Assert.assertFalse(cache.putIfAbsent(chunkMetadata, chunk(100, 0, 2)));
+    Assert.assertEquals(chunk.getData(), cache.getIfPresent(chunkMetadata).getData());
+    Assert.assertEquals(3L * BLOCK_SIZE, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testEviction() {
+    // each chunk takes 5 blocks, so only 3 chunks can be cached at the same time
+    for (int i = 0; i < 10; i++) {
+      cache.put(chunkMetadata(i), chunk(5 * BLOCK_SIZE, 0, i));
+      Assert.assertTrue(cache.getUsedMemory() <= CAPACITY);
+      Assert.assertEquals(chunk(5 * BLOCK_SIZE, 0, i).getData(), getData(chunkMetadata(i)));
+    }
+    Assert.assertTrue(removedChunks.size() >= 7);
+    for (ChunkMetadata chunkMetadata : removedChunks) {
+      Assert.assertFalse(cache.contains(chunkMetadata));
+    }
+
+    // a chunk larger than the capacity is never cached
+    cache.put(chunkMetadata(10), chunk((int) CAPACITY + 1, 0, 10));
+    Assert.assertFalse(cache.contains(chunkMetadata(10)));
+
+    cache.invalidateAll();
+    Assert.assertTrue(cache.isEmpty());
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testCopyIsNotAffectedByEviction() {
+    cache.put(chunkMetadata(0), chunk(2 * BLOCK_SIZE, 0, 0));
+    Chunk cachedChunk = cache.getIfPresent(chunkMetadata(0));
+
+    // the blocks of the evicted chunk are reused by the new chunk
+    cache.invalidate(chunkMetadata(0));
+    cache.put(chunkMetadata(1), chunk(2 * BLOCK_SIZE, 0, 1));
+    Assert.assertEquals(2L * BLOCK_SIZE, cache.getUsedMemory());
+
+    Assert.assertEquals(chunk(2 * BLOCK_SIZE, 0, 0).getData(), cachedChunk.getData());
+    Assert.assertEquals(chunk(2 * BLOCK_SIZE, 0, 1).getData(), getData(chunkMetadata(1)));
+  }
+
+  private ByteBuffer getData(ChunkMetadata chunkMetadata) {
+    Chunk chunk = cache.getIfPresent(chunkMetadata);
+    return chunk == null ? null : chunk.getData();
+  }
+
+  private static ChunkMetadata chunkMetadata(long offset) {
+    ChunkMetadata chunkMetadata = new ChunkMetadata("s1", TSDataType.INT64, offset, null);
+    chunkMetadata.setFilePath(String.join(File.separator, "root.sg1", "0", "0", "1-1-0-0.tsfile"));
+    return chunkMetadata;
+  }
+
+  /**
+   * @param size size of the chunk data
+   * @param position position of the chunk data in the buffer
+   * @param seed seed of the content
+   */
+  private static Chunk chunk(int size, int position, int seed) {
+    ByteBuffer buffer = ByteBuffer.allocate(position + size);
+    for (int i = 0; i < buffer.capacity(); i++) {
+      buffer.put((byte) (i * 31 + seed));
+    }
+    buffer.position(position);
+    ChunkHeader header =
+        new ChunkHeader("s1", size, TSDataType.INT64, CompressionType.LZ4, TSEncoding.RLE, 1);
+    return new Chunk(header, buffer, null, null);
+  }
+}
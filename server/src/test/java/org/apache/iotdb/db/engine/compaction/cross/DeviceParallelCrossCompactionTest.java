@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.cross;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.AlignedPath;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.execute.task.CrossSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.execute.utils.writer.ChunkGroupBuffer;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
+
+public class DeviceParallelCrossCompactionTest extends AbstractCompactionTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private boolean prevEnableDeviceParallel;
+  private long prevBufferSize;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    prevEnableDeviceParallel = config.isEnableDeviceParallelCrossCompaction();
+    prevBufferSize = config.getDeviceParallelCompactionBufferSizeInByte();
+    config.setEnableDeviceParallelCrossCompaction(true);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    config.setEnableDeviceParallelCrossCompaction(prevEnableDeviceParallel);
+    config.setDeviceParallelCompactionBufferSizeInByte(prevBufferSize);
+    super.tearDown();
+    for (TsFileResource tsFileResource : seqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFilePath());
+    }
+    for (TsFileResource tsFileResource : unseqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFilePath());
+    }
+  }
+
+  @Test
+  public void testNonAlignedDevices() throws Exception {
+    createFiles(3, 6, 2, 100, 0, 0, 100, 100, false, true);
+    createFiles(2, 6, 2, 50, 30, 10000, 150, 150, false, false);
+
+    compactAndValidate(getPaths(0, 6, 2, false));
+  }
+
+  @Test
+  public void testAlignedDevicesWithSpilledBuffer() throws Exception {
+    config.setDeviceParallelCompactionBufferSizeInByte(1024);
+    createFiles(3, 6, 3, 100, 0, 0, 100, 100, true, true);
+    createFiles(2, 6, 3, 50, 30, 10000, 150, 150, true, false);
+
+    compactAndValidate(getPaths(10000, 6, 3, true));
+  }
+
+  @Test
+  public void testDevicesWithDifferentSeriesNum() throws Exception {
+    // d0 ~ d2 have more series than sub tasks, and d3 ~ d5 are compacted in parallel
+    createFiles(3, 6, 2, 100, 0, 0, 100, 100, false, true);
+    createFiles(2, 3, config.getSubCompactionTaskNum() + 1, 50, 30, 10000, 150, 150, false, false);
+
+    List<PartialPath> paths = getPaths(0, 3, config.getSubCompactionTaskNum() + 1, false);
+    paths.addAll(getPaths(3, 3, 2, false));
+    compactAndValidate(paths);
+  }
+
+  @Test
+  public void testDeleteSpillFiles() throws IOException {
+    File targetFile = new File(SEQ_DIRS, "1-1-0-1.cross");
+    File[] spillFiles = {
+      new File(SEQ_DIRS, "1-1-0-1.cross.0.buffer"), new File(SEQ_DIRS, "1-1-0-1.cross.12.buffer")
+    };
+    File[] otherFiles = {
+      new File(SEQ_DIRS, "1-1-0-1.cross.buffer"), new File(SEQ_DIRS, "2-2-0-1.cross.0.buffer")
+    };
+    SEQ_DIRS.mkdirs();
+    try {
+      for (File file : spillFiles) {
+        Assert.assertTrue(file.createNewFile());
+      }
+      for (File file : otherFiles) {
+        Assert.assertTrue(file.createNewFile());
+      }
+      ChunkGroupBuffer.deleteSpillFiles(targetFile);
+      for (File file : spillFiles) {
+        Assert.assertFalse(file.exists());
+      }
+      for (File file : otherFiles) {
+        Assert.assertTrue(file.exists());
+      }
+    } finally {
+      for (File file : otherFiles) {
+        Files.deleteIfExists(file.toPath());
+      }
+    }
+  }
+
+  private void compactAndValidate(List<PartialPath> paths) throws Exception {
+    List<TSDataType> dataTypes = Collections.nCopies(paths.size(), TSDataType.INT64);
+    Map<PartialPath, List<TimeValuePair>> sourceDatas = readSourceFiles(paths, dataTypes);
+
+    tsFileManager.addAll(seqResources, true);
+    tsFileManager.addAll(unseqResources, false);
+    CrossSpaceCompactionTask task =
+        new CrossSpaceCompactionTask(
+            0,
+            tsFileManager,
+            seqResources,
+            unseqResources,
+            new FastCompactionPerformer(true),
+            new AtomicInteger(0),
+            0,
+            0);
+    task.start();
+
+    validateSeqFiles(true);
+    validateTargetDatas(sourceDatas, dataTypes);
+    // the buffers of devices are deleted
+    File[] bufferFiles = SEQ_DIRS.listFiles((dir, name) -> name.endsWith(".buffer"));
+    Assert.assertEquals(0, bufferFiles == null ? 0 : bufferFiles.length);
+  }
+
+  private List<PartialPath> getPaths(
+      int firstDeviceIndex, int deviceNum, int measurementNum, boolean isAligned)
+      throws MetadataException {
+    List<PartialPath> paths = new ArrayList<>();
+    for (int i = firstDeviceIndex; i < firstDeviceIndex + deviceNum; i++) {
+      String device = COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i;
+      for (int j = 0; j < measurementNum; j++) {
+        if (isAligned) {
+          List<IMeasurementSchema> schemas =
+              Collections.singletonList(new MeasurementSchema("s" + j, TSDataType.INT64));
+          paths.add(new AlignedPath(device, Collections.singletonList("s" + j), schemas));
+        } else {
+          paths.add(new MeasurementPath(device + PATH_SEPARATOR + "s" + j, TSDataType.INT64));
+        }
+      }
+    }
+    return paths;
+  }
+}
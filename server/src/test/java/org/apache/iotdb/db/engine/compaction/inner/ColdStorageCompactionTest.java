@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.engine.compaction.execute.performer.ICompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.execute.task.subtask.FastCompactionTaskSummary;
+import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
+import static org.junit.Assert.assertEquals;
+
+public class ColdStorageCompactionTest extends AbstractCompactionTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String device = COMPACTION_TEST_SG + PATH_SEPARATOR + "d0";
+  private static final int pointNum = 100;
+
+  private Set<String> prevColdStorageDatabases;
+  private long prevColdStorageAgeInMs;
+  private int fileVersion = 0;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    prevColdStorageDatabases = config.getColdStorageDatabases();
+    prevColdStorageAgeInMs = config.getColdStorageAgeInMs();
+    config.setColdStorageDatabases(Collections.singleton(COMPACTION_TEST_SG));
+    config.setColdStorageAgeInMs(24 * 3600 * 1000L);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    config.setColdStorageDatabases(prevColdStorageDatabases);
+    config.setColdStorageAgeInMs(prevColdStorageAgeInMs);
+    super.tearDown();
+  }
+
+  @Test
+  public void testRewriteColdData() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      createFile((long) i * pointNum);
+    }
+    TsFileResource targetResource = compact();
+
+    // data written in 1970 is cold
+    checkTargetFile(targetResource, TSEncoding.GORILLA, TSEncoding.TS_2DIFF, CompressionType.ZSTD);
+  }
+
+  @Test
+  public void testKeepHotData() throws Exception {
+    config.setColdStorageAgeInMs(Long.MAX_VALUE);
+    for (int i = 0; i < 3; i++) {
+      createFile((long) i * pointNum);
+    }
+    TsFileResource targetResource = compact();
+
+    checkTargetFile(targetResource, TSEncoding.TS_2DIFF, TSEncoding.TS_2DIFF, CompressionType.LZ4);
+  }
+
+  @Test
+  public void testKeepDataOfOtherDatabases() throws Exception {
+    config.setColdStorageDatabases(Collections.singleton(COMPACTION_TEST_SG + "_other"));
+    for (int i = 0; i < 3; i++) {
+      createFile((long) i * pointNum);
+    }
+    TsFileResource targetResource = compact();
+
+    checkTargetFile(targetResource, TSEncoding.TS_2DIFF, TSEncoding.TS_2DIFF, CompressionType.LZ4);
+  }
+
+  private TsFileResource compact() throws Exception {
+    TsFileResource targetResource =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(seqResources, true);
+    ICompactionPerformer performer = new FastCompactionPerformer(false);
+    performer.setSourceFiles(seqResources);
+    performer.setTargetFiles(Collections.singletonList(targetResource));
+    performer.setSummary(new FastCompactionTaskSummary());
+    performer.perform();
+    return targetResource;
+  }
+
+  /** write a file with a DOUBLE series s0 and an INT64 series s1 in TS_2DIFF and LZ4 */
+  private void createFile(long startTime) throws IOException, WriteProcessException {
+    File file =
+        new File(
+            SEQ_DIRS.getPath()
+                + File.separator
+                + System.currentTimeMillis()
+                + FilePathUtils.FILE_NAME_SEPARATOR
+                + fileVersion++
+                + "-0-0.tsfile");
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(device),
+          new MeasurementSchema("s0", TSDataType.DOUBLE, TSEncoding.TS_2DIFF, CompressionType.LZ4));
+      writer.registerTimeseries(
+          new Path(device),
+          new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.TS_2DIFF, CompressionType.LZ4));
+      for (long time = startTime; time < startTime + pointNum; time++) {
+        writer.write(
+            new TSRecord(time, device)
+                .addTuple(new DoubleDataPoint("s0", time * 1.5))
+                .addTuple(new LongDataPoint("s1", time)));
+      }
+    }
+    TsFileResource resource = new TsFileResource(file);
+    resource.updateStartTime(device, startTime);
+    resource.updateEndTime(device, startTime + pointNum - 1);
+    resource.updatePlanIndexes(fileVersion);
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resource.serialize();
+    seqResources.add(resource);
+  }
+
+  private void checkTargetFile(
+      TsFileResource targetResource,
+      TSEncoding doubleEncoding,
+      TSEncoding longEncoding,
+      CompressionType compressionType)
+      throws IOException {
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(targetResource.getTsFile().getPath())) {
+      long doubleCount = 0;
+      for (ChunkMetadata chunkMetadata :
+          reader.getChunkMetadataList(new Path(device, "s0", true))) {
+        ChunkHeader header = reader.readMemChunk(chunkMetadata).getHeader();
+        assertEquals(doubleEncoding, header.getEncodingType());
+        assertEquals(compressionType, header.getCompressionType());
+        for (BatchData batchData : readChunk(reader, chunkMetadata)) {
+          while (batchData.hasCurrent()) {
+            assertEquals(batchData.currentTime() * 1.5, batchData.getDouble(), 0);
+            doubleCount++;
+            batchData.next();
+          }
+        }
+      }
+      assertEquals(3 * pointNum, doubleCount);
+
+      long longCount = 0;
+      for (ChunkMetadata chunkMetadata :
+          reader.getChunkMetadataList(new Path(device, "s1", true))) {
+        ChunkHeader header = reader.readMemChunk(chunkMetadata).getHeader();
+        assertEquals(longEncoding, header.getEncodingType());
+        assertEquals(compressionType, header.getCompressionType());
+        for (BatchData batchData : readChunk(reader, chunkMetadata)) {
+          while (batchData.hasCurrent()) {
+            assertEquals(batchData.currentTime(), batchData.getLong());
+            longCount++;
+            batchData.next();
+          }
+        }
+      }
+      assertEquals(3 * pointNum, longCount);
+    }
+  }
+
+  private List<BatchData> readChunk(TsFileSequenceReader reader, ChunkMetadata chunkMetadata)
+      throws IOException {
+    List<BatchData> batchDataList = new ArrayList<>();
+    ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), null);
+    while (chunkReader.hasNextSatisfiedPage()) {
+      batchDataList.add(chunkReader.nextPageData());
+    }
+    return batchDataList;
+  }
+}
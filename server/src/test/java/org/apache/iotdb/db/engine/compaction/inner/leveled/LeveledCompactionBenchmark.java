@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.leveled;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.engine.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceList;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Simulation of the inner sequence compaction selectors on a 30-day workload, where a sequence
+ * tsfile is flushed every 10 minutes and the compaction tasks are finished before the next flush.
+ * No file is written, and the sizes of the target files are the sums of the source files. It
+ * reports:
+ *
+ * <ul>
+ *   <li>write amplification: bytes written by flush and compaction / bytes written by flush;
+ *   <li>read amplification: the average number of files a query of one hour or one day of data
+ *       reads at the end, and the average and max number of files per time partition after each
+ *       flush.
+ * </ul>
+ */
+public class LeveledCompactionBenchmark {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String storageGroup = "root.compaction_bench";
+  private static final long HOUR = 3_600_000L;
+  private static final long DAY = 24 * HOUR;
+  private static final int days = 30;
+  private static final long flushInterval = 10 * 60_000L;
+  private static final long flushFileSize = 16L * 1024 * 1024;
+
+  public static void main(String[] args) throws IOException {
+    System.out.println(
+        String.format(
+            "%d days, a %d MB file every %d minutes, time partition interval: %d days",
+            days,
+            flushFileSize / 1024 / 1024,
+            flushInterval / 60_000,
+            config.getTimePartitionInterval() / DAY));
+    for (InnerSequenceCompactionSelector selector : InnerSequenceCompactionSelector.values()) {
+      run(selector);
+    }
+  }
+
+  private static void run(InnerSequenceCompactionSelector selector) throws IOException {
+    TsFileManager tsFileManager = new TsFileManager(storageGroup, "0", "");
+    long flushedBytes = 0;
+    long compactedBytes = 0;
+    long partitionFileNumSum = 0;
+    long partitionNumSum = 0;
+    int maxPartitionFileNum = 0;
+    int version = 0;
+    for (long time = flushInterval; time <= days * DAY; time += flushInterval) {
+      version++;
+      FakedTsFileResource flushedFile =
+          createResource(time - flushInterval, time - 1, version, 0, flushFileSize);
+      tsFileManager.add(flushedFile, true);
+      flushedBytes += flushFileSize;
+
+      for (long timePartition : tsFileManager.getTimePartitions()) {
+        compactedBytes += compactUntilNoTask(selector, tsFileManager, timePartition);
+        int fileNum = tsFileManager.getOrCreateSequenceListByTimePartition(timePartition).size();
+        partitionFileNumSum += fileNum;
+        partitionNumSum++;
+        maxPartitionFileNum = Math.max(maxPartitionFileNum, fileNum);
+      }
+    }
+
+    List<TsFileResource> files = tsFileManager.getTsFileList(true);
+    System.out.println(
+        String.format(
+            "%s: write amplification: %.2f, files read by a 1-hour query: %.2f, by a 1-day query:"
+                + " %.2f, files per time partition: avg %.2f, max %d, files at the end: %d",
+            selector,
+            (double) (flushedBytes + compactedBytes) / flushedBytes,
+            averageFilesToRead(files, HOUR),
+            averageFilesToRead(files, DAY),
+            (double) partitionFileNumSum / partitionNumSum,
+            maxPartitionFileNum,
+            files.size()));
+  }
+
+  /** @return the bytes written by compaction */
+  private static long compactUntilNoTask(
+      InnerSequenceCompactionSelector selector, TsFileManager tsFileManager, long timePartition)
+      throws IOException {
+    TsFileResourceList resources =
+        tsFileManager.getOrCreateSequenceListByTimePartition(timePartition);
+    long writtenBytes = 0;
+    while (true) {
+      IInnerSeqSpaceSelector innerSelector =
+          selector.createInstance(storageGroup, "0", timePartition, tsFileManager);
+      List<List<TsFileResource>> tasks = innerSelector.selectInnerSpaceTask(resources);
+      if (tasks.isEmpty()) {
+        return writtenBytes;
+      }
+      for (List<TsFileResource> task : tasks) {
+        writtenBytes += compact(resources, task);
+      }
+    }
+  }
+
+  private static long compact(TsFileResourceList resources, List<TsFileResource> sources)
+      throws IOException {
+    long size = 0;
+    long startTime = Long.MAX_VALUE;
+    long endTime = Long.MIN_VALUE;
+    int level = 0;
+    for (TsFileResource source : sources) {
+      size += source.getTsFileSize();
+      startTime = Math.min(startTime, ((FakedTsFileResource) source).timeIndex.getMinStartTime());
+      endTime = Math.max(endTime, ((FakedTsFileResource) source).timeIndex.getMaxEndTime());
+      level =
+          Math.max(
+              level,
+              TsFileNameGenerator.getTsFileName(source.getTsFile().getName())
+                  .getInnerCompactionCnt());
+    }
+    TsFileNameGenerator.TsFileName firstName =
+        TsFileNameGenerator.getTsFileName(sources.get(0).getTsFile().getName());
+    FakedTsFileResource target =
+        createResource(startTime, endTime, firstName.getVersion(), level + 1, size);
+    resources.insertBefore(sources.get(0), target);
+    for (TsFileResource source : sources) {
+      resources.remove(source);
+    }
+    return size;
+  }
+
+  /** @return the average number of files overlapping with each query range of the given length */
+  private static double averageFilesToRead(List<TsFileResource> files, long queryLength) {
+    long fileNum = 0;
+    long queryNum = 0;
+    for (long start = 0; start < days * DAY; start += queryLength) {
+      long end = start + queryLength - 1;
+      for (TsFileResource file : files) {
+        if (((FakedTsFileResource) file).timeIndex.getMinStartTime() <= end
+            && ((FakedTsFileResource) file).timeIndex.getMaxEndTime() >= start) {
+          fileNum++;
+        }
+      }
+      queryNum++;
+    }
+    return (double) fileNum / queryNum;
+  }
+
+  private static FakedTsFileResource createResource(
+      long startTime, long endTime, long version, int level, long size) {
+    FakedTsFileResource resource =
+        new FakedTsFileResource(
+            size, String.format("%d-%d-%d-0.tsfile", startTime, version, level));
+    resource.timeIndex.updateStartTime(storageGroup + ".d", startTime);
+    resource.timeIndex.updateEndTime(storageGroup + ".d", endTime);
+    resource.timePartition = startTime / config.getTimePartitionInterval();
+    return resource;
+  }
+}
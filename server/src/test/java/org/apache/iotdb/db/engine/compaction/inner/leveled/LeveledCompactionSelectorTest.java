@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.leveled;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.impl.LeveledCompactionSelector;
+import org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeveledCompactionSelectorTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MB = 1024 * 1024;
+
+  private long prevTargetCompactionFileSize;
+  private long prevBaseFileSize;
+  private int prevSizeRatio;
+  private int prevMaxFileNumPerLevel;
+  private int prevMaxCandidateFileNum;
+
+  @Before
+  public void setUp() {
+    prevTargetCompactionFileSize = config.getTargetCompactionFileSize();
+    prevBaseFileSize = config.getLeveledCompactionBaseFileSize();
+    prevSizeRatio = config.getLeveledCompactionSizeRatio();
+    prevMaxFileNumPerLevel = config.getLeveledCompactionMaxFileNumPerLevel();
+    prevMaxCandidateFileNum = config.getMaxInnerCompactionCandidateFileNum();
+    config.setTargetCompactionFileSize(1024 * MB);
+    config.setLeveledCompactionBaseFileSize(64 * MB);
+    config.setLeveledCompactionSizeRatio(4);
+    config.setLeveledCompactionMaxFileNumPerLevel(8);
+    config.setMaxInnerCompactionCandidateFileNum(30);
+  }
+
+  @After
+  public void tearDown() {
+    config.setTargetCompactionFileSize(prevTargetCompactionFileSize);
+    config.setLeveledCompactionBaseFileSize(prevBaseFileSize);
+    config.setLeveledCompactionSizeRatio(prevSizeRatio);
+    config.setLeveledCompactionMaxFileNumPerLevel(prevMaxFileNumPerLevel);
+    config.setMaxInnerCompactionCandidateFileNum(prevMaxCandidateFileNum);
+  }
+
+  @Test
+  public void testLevelTargetSize() {
+    Assert.assertEquals(64 * MB, LeveledCompactionSelector.getLevelTargetSize(1));
+    Assert.assertEquals(256 * MB, LeveledCompactionSelector.getLevelTargetSize(2));
+    Assert.assertEquals(1024 * MB, LeveledCompactionSelector.getLevelTargetSize(3));
+    Assert.assertEquals(1024 * MB, LeveledCompactionSelector.getLevelTargetSize(10));
+  }
+
+  @Test
+  public void testSelectByTargetSize() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      resources.add(createResource(i, 0, 16 * MB, 0));
+    }
+    List<List<TsFileResource>> tasks = select(resources, 0);
+    // the last 2 files are left as there are no more than 8 files after compaction
+    Assert.assertEquals(2, tasks.size());
+    Assert.assertEquals(resources.subList(0, 4), tasks.get(0));
+    Assert.assertEquals(resources.subList(4, 8), tasks.get(1));
+  }
+
+  @Test
+  public void testSelectByFileNum() {
+    List<TsFileResource> resources = new ArrayList<>();
+    // level 1 files are compacted by size
+    for (int i = 0; i < 4; i++) {
+      resources.add(createResource(i, 1, 64 * MB, 0));
+    }
+    for (int i = 4; i < 13; i++) {
+      resources.add(createResource(i, 0, MB, 0));
+    }
+    List<List<TsFileResource>> tasks = select(resources, 0);
+    Assert.assertEquals(2, tasks.size());
+    Assert.assertEquals(resources.subList(4, 13), tasks.get(0));
+    Assert.assertEquals(resources.subList(0, 4), tasks.get(1));
+
+    // no more than 8 small files
+    tasks = select(resources.subList(0, 12), 0);
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(resources.subList(0, 4), tasks.get(0));
+  }
+
+  @Test
+  public void testSelectedFilesLeaveLevel() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      resources.add(createResource(i, 0, 16 * MB, 0));
+    }
+    for (int i = 12; i < 18; i++) {
+      resources.add(createResource(i, 0, MB, 0));
+    }
+    List<List<TsFileResource>> tasks = select(resources, 0);
+    // only the 6 small files are left in level 0, which don't exceed the limit
+    Assert.assertEquals(3, tasks.size());
+    Assert.assertEquals(resources.subList(0, 4), tasks.get(0));
+    Assert.assertEquals(resources.subList(4, 8), tasks.get(1));
+    Assert.assertEquals(resources.subList(8, 12), tasks.get(2));
+  }
+
+  @Test
+  public void testSkipFiles() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      resources.add(createResource(i, 0, MB, 0));
+    }
+    // files reaching the target compaction size are not compacted
+    resources.add(createResource(9, 3, 1024 * MB, 0));
+    resources.add(createResource(10, 3, 1024 * MB, 0));
+    Assert.assertEquals(1, select(resources, 0).size());
+
+    // files not closed break the consecutive files
+    resources.get(4).setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE);
+    List<List<TsFileResource>> tasks = select(resources, 0);
+    Assert.assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  public void testSubmitWhenNextTimePartitionExists() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      resources.add(createResource(i, 0, MB, 0));
+    }
+    resources.add(createResource(3, 0, MB, 1));
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+    List<List<TsFileResource>> tasks =
+        new LeveledCompactionSelector("root.test", "0", 0, manager)
+            .selectInnerSpaceTask(manager.getOrCreateSequenceListByTimePartition(0));
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(resources.subList(0, 3), tasks.get(0));
+    Assert.assertTrue(
+        new LeveledCompactionSelector("root.test", "0", 1, manager)
+            .selectInnerSpaceTask(manager.getOrCreateSequenceListByTimePartition(1))
+            .isEmpty());
+  }
+
+  private List<List<TsFileResource>> select(List<TsFileResource> resources, long timePartition) {
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    return new LeveledCompactionSelector("root.test", "0", timePartition, manager)
+        .selectInnerSpaceTask(resources);
+  }
+
+  private FakedTsFileResource createResource(int version, int level, long size, long partition) {
+    FakedTsFileResource resource =
+        new FakedTsFileResource(
+            size, String.format("%d-%d-%d-0.tsfile", version + 1, version + 1, level));
+    resource.timePartition = partition;
+    return resource;
+  }
+}
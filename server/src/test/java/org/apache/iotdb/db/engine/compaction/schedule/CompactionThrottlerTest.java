@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.schedule;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompactionThrottlerTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final double DELTA = 1e-6;
+
+  private int prevWriteThroughput;
+  private int prevReadThroughput;
+  private boolean prevEnableAdaptive;
+  private final AtomicLong flushQueueSize = new AtomicLong(0);
+  private CompactionThrottler throttler;
+
+  @Before
+  public void setUp() {
+    prevWriteThroughput = config.getCompactionWriteThroughputMbPerSec();
+    prevReadThroughput = config.getCompactionReadThroughputMbPerSec();
+    prevEnableAdaptive = config.isEnableAdaptiveCompactionThroughput();
+    config.setCompactionWriteThroughputMbPerSec(16);
+    config.setCompactionReadThroughputMbPerSec(0);
+    throttler = new CompactionThrottler(flushQueueSize::get);
+  }
+
+  @After
+  public void tearDown() {
+    config.setCompactionWriteThroughputMbPerSec(prevWriteThroughput);
+    config.setCompactionReadThroughputMbPerSec(prevReadThroughput);
+    config.setEnableAdaptiveCompactionThroughput(prevEnableAdaptive);
+  }
+
+  @Test
+  public void testConfiguredThroughput() {
+    config.setEnableAdaptiveCompactionThroughput(false);
+    flushQueueSize.set(100);
+    throttler.adjust();
+    assertEquals(16, throttler.getWriteThroughputMbPerSec(), DELTA);
+    assertEquals(0, throttler.getReadThroughputMbPerSec(), DELTA);
+
+    config.setCompactionReadThroughputMbPerSec(32);
+    throttler.adjust();
+    assertEquals(32, throttler.getReadThroughputMbPerSec(), DELTA);
+  }
+
+  @Test
+  public void testFlushQueuePressure() {
+    config.setEnableAdaptiveCompactionThroughput(true);
+    config.setCompactionReadThroughputMbPerSec(32);
+    throttler.adjust();
+    assertEquals(16, throttler.getWriteThroughputMbPerSec(), DELTA);
+    assertEquals(32, throttler.getReadThroughputMbPerSec(), DELTA);
+
+    // halved under pressure until the lower bound
+    flushQueueSize.set(config.getCompactionThrottleFlushQueueThreshold() + 1);
+    throttler.adjust();
+    assertEquals(8, throttler.getWriteThroughputMbPerSec(), DELTA);
+    assertEquals(16, throttler.getReadThroughputMbPerSec(), DELTA);
+    for (int i = 0; i < 10; i++) {
+      throttler.adjust();
+    }
+    assertEquals(
+        16 * CompactionThrottler.MIN_THROUGHPUT_RATIO,
+        throttler.getWriteThroughputMbPerSec(),
+        DELTA);
+
+    // raised step by step until the configured throughput
+    flushQueueSize.set(0);
+    throttler.adjust();
+    assertEquals(
+        16 * (CompactionThrottler.MIN_THROUGHPUT_RATIO + CompactionThrottler.INCREASE_RATIO),
+        throttler.getWriteThroughputMbPerSec(),
+        DELTA);
+    for (int i = 0; i < 10; i++) {
+      throttler.adjust();
+    }
+    assertEquals(16, throttler.getWriteThroughputMbPerSec(), DELTA);
+    assertEquals(32, throttler.getReadThroughputMbPerSec(), DELTA);
+  }
+
+  @Test
+  public void testDerivedReadThroughput() {
+    config.setEnableAdaptiveCompactionThroughput(true);
+    throttler.adjust();
+    assertEquals(
+        16 * CompactionThrottler.READ_TO_WRITE_THROUGHPUT_RATIO,
+        throttler.getReadThroughputMbPerSec(),
+        DELTA);
+
+    flushQueueSize.set(config.getCompactionThrottleFlushQueueThreshold() + 1);
+    throttler.adjust();
+    assertEquals(
+        8 * CompactionThrottler.READ_TO_WRITE_THROUGHPUT_RATIO,
+        throttler.getReadThroughputMbPerSec(),
+        DELTA);
+
+    // nothing to derive from unlimited writing
+    config.setCompactionWriteThroughputMbPerSec(0);
+    throttler.adjust();
+    assertEquals(0, throttler.getReadThroughputMbPerSec(), DELTA);
+  }
+
+  @Test
+  public void testLatencyPressure() {
+    config.setEnableAdaptiveCompactionThroughput(true);
+    throttler.adjust();
+    long walFsyncThreshold =
+        TimeUnit.MILLISECONDS.toNanos(config.getCompactionThrottleWalFsyncLatencyInMs());
+    long queryThreshold =
+        TimeUnit.MILLISECONDS.toNanos(config.getCompactionThrottleQueryLatencyInMs());
+
+    // a single slow fsync in 100 samples doesn't exceed the p99
+    for (int i = 0; i < 99; i++) {
+      throttler.recordWalFsyncLatency(walFsyncThreshold / 2);
+    }
+    throttler.recordWalFsyncLatency(walFsyncThreshold * 2);
+    throttler.adjust();
+    assertEquals(16, throttler.getWriteThroughputMbPerSec(), DELTA);
+
+    for (int i = 0; i < 10; i++) {
+      throttler.recordWalFsyncLatency(walFsyncThreshold * 2);
+    }
+    throttler.adjust();
+    assertEquals(8, throttler.getWriteThroughputMbPerSec(), DELTA);
+
+    throttler.recordQueryLatency(queryThreshold * 2);
+    throttler.adjust();
+    assertEquals(4, throttler.getWriteThroughputMbPerSec(), DELTA);
+
+    // consumed samples don't affect the next adjustment
+    throttler.adjust();
+    assertEquals(
+        4 + 16 * CompactionThrottler.INCREASE_RATIO, throttler.getWriteThroughputMbPerSec(), DELTA);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.estimator;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompactionMemoryFeedbackTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final double DELTA = 1e-6;
+  private static final String DATABASE = "root.testsg";
+
+  private boolean prevEnableFeedback;
+  private double prevMinRatio;
+  private CompactionMemoryFeedback feedback;
+
+  @Before
+  public void setUp() {
+    prevEnableFeedback = config.isEnableCompactionMemoryFeedback();
+    prevMinRatio = config.getCompactionMemoryFeedbackMinRatio();
+    config.setEnableCompactionMemoryFeedback(true);
+    config.setCompactionMemoryFeedbackMinRatio(0.5);
+    feedback = new CompactionMemoryFeedback();
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableCompactionMemoryFeedback(prevEnableFeedback);
+    config.setCompactionMemoryFeedbackMinRatio(prevMinRatio);
+  }
+
+  @Test
+  public void testNoFeedback() {
+    assertEquals(1000, feedback.correct(DATABASE, 1000));
+    // invalid samples are ignored
+    feedback.record(DATABASE, 0, 1000);
+    feedback.record(DATABASE, 1000, 0);
+    assertEquals(1.0, feedback.getCorrectionRatio(DATABASE), DELTA);
+  }
+
+  @Test
+  public void testUnderestimationAppliedAtOnce() {
+    feedback.record(DATABASE, 1000, 2000);
+    assertEquals(2.0, feedback.getCorrectionRatio(DATABASE), DELTA);
+    assertEquals(2000, feedback.correct(DATABASE, 1000));
+    // other databases are not affected
+    assertEquals(1000, feedback.correct("root.othersg", 1000));
+  }
+
+  @Test
+  public void testOverestimationAppliedAfterEnoughSamples() {
+    for (int i = 0; i < CompactionMemoryFeedback.MIN_SAMPLE_NUM - 1; i++) {
+      feedback.record(DATABASE, 1000, 800);
+      assertEquals(1000, feedback.correct(DATABASE, 1000));
+    }
+    feedback.record(DATABASE, 1000, 800);
+    assertEquals(0.8, feedback.getCorrectionRatio(DATABASE), DELTA);
+    assertEquals(800, feedback.correct(DATABASE, 1000));
+  }
+
+  @Test
+  public void testMovingAverageAndMinRatio() {
+    for (int i = 0; i < CompactionMemoryFeedback.MIN_SAMPLE_NUM; i++) {
+      feedback.record(DATABASE, 1000, 100);
+    }
+    // the ratio 0.1 is limited by the min ratio
+    assertEquals(0.5, feedback.getCorrectionRatio(DATABASE), DELTA);
+
+    feedback.record(DATABASE, 1000, 5100);
+    double expectedRatio =
+        CompactionMemoryFeedback.SMOOTHING_FACTOR * 5.1
+            + (1 - CompactionMemoryFeedback.SMOOTHING_FACTOR) * 0.1;
+    assertEquals(expectedRatio, feedback.getCorrectionRatio(DATABASE), DELTA);
+  }
+
+  @Test
+  public void testDisabled() {
+    feedback.record(DATABASE, 1000, 2000);
+    config.setEnableCompactionMemoryFeedback(false);
+    assertEquals(1000, feedback.correct(DATABASE, 1000));
+  }
+}
@@ -19,10 +19,13 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -32,6 +35,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -105,6 +109,46 @@ public class MemTableFlushTaskTest {
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
 
+  @Test
+  public void testFlushMemTableWithParallelEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int flushEncodingThreadCount = config.getFlushEncodingThreadCount();
+    config.setFlushEncodingThreadCount(4);
+    try {
+      int deviceNum = 5;
+      int measurementNum = 6;
+      for (int i = deviceNum - 1; i >= 0; i--) {
+        for (int j = 0; j < measurementNum; j++) {
+          // the out-of-order points are sorted by the encoding sub tasks
+          MemTableTestUtils.produceData(
+              memTable, 51, endTime, "d" + i, "s" + j, MemTableTestUtils.dataType0);
+          MemTableTestUtils.produceData(
+              memTable, startTime, 50, "d" + i, "s" + j, MemTableTestUtils.dataType0);
+        }
+      }
+      new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId).syncFlushMemTable();
+
+      // the chunk groups are written in device order, and the chunks in measurement order
+      List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+      assertEquals(deviceNum, chunkGroupMetadataList.size());
+      for (int i = 0; i < deviceNum; i++) {
+        ChunkGroupMetadata chunkGroupMetadata = chunkGroupMetadataList.get(i);
+        assertEquals("d" + i, chunkGroupMetadata.getDevice());
+        assertEquals(measurementNum, chunkGroupMetadata.getChunkMetadataList().size());
+        for (int j = 0; j < measurementNum; j++) {
+          ChunkMetadata chunkMetaData = chunkGroupMetadata.getChunkMetadataList().get(j);
+          assertEquals("s" + j, chunkMetaData.getMeasurementUid());
+          assertEquals(startTime, chunkMetaData.getStartTime());
+          assertEquals(endTime, chunkMetaData.getEndTime());
+          assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
+        }
+      }
+    } finally {
+      config.setFlushEncodingThreadCount(flushEncodingThreadCount);
+    }
+  }
+
   @Test
   public void testFlushVectorMemTable()
       throws ExecutionException, InterruptedException, IllegalPathException, WriteProcessException {
@@ -31,14 +31,21 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.query.reader.chunk.MemPageReader;
 import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.datastructure.SortedTVListView;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -51,11 +58,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -114,6 +123,140 @@ public class PrimitiveMemTableTest {
         str);
   }
 
+  @Test
+  public void memSeriesViewTest() throws IOException, QueryProcessException {
+    WritableMemChunk series =
+        new WritableMemChunk(new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.PLAIN));
+    for (int i = 0; i < 100; i++) {
+      series.writeWithFlushCheck(i, (double) i);
+    }
+    SortedTVListView view = series.getSortedTvListViewForQuery();
+    // the statistics maintained at insert time are used if the rows are inserted in time order
+    Assert.assertNotNull(view.getStatistics(0, TSEncoding.PLAIN));
+    checkMemChunk(series, view, null);
+
+    // out-of-order and duplicated rows are read by a sorted index without sorting the list
+    series.writeWithFlushCheck(50, 1000.0);
+    series.writeWithFlushCheck(120, -3.0);
+    series.writeWithFlushCheck(10, -5.0);
+    series.putDoubles(new long[] {5, 200, 5, 150}, new double[] {1, 2, 3, 4}, null, 0, 4);
+    view = series.getSortedTvListViewForQuery();
+    Assert.assertNull(view.getStatistics(0, TSEncoding.PLAIN));
+    Assert.assertFalse(series.getTVList().isSorted());
+    ReadOnlyMemChunk memChunk = checkMemChunk(series, view, null);
+    checkMemChunk(
+        series,
+        series.getSortedTvListViewForQuery(),
+        Arrays.asList(new TimeRange(5, 5), new TimeRange(20, 30), new TimeRange(140, 160)));
+
+    // the list read by the query is not modified by the deletion
+    List<TimeValuePair> expected = readAll(memChunk.getPointReader());
+    Assert.assertEquals(107, series.count());
+    Assert.assertEquals(11, series.delete(60, 70));
+    Assert.assertEquals(expected, readAll(memChunk.getPointReader()));
+    Assert.assertEquals(expected.size(), memChunk.getTsBlock().getPositionCount());
+    checkMemChunk(series, series.getSortedTvListViewForQuery(), null);
+  }
+
+  @Test
+  public void memSeriesViewReleaseTest() {
+    WritableMemChunk series =
+        new WritableMemChunk(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN));
+    for (int i = 0; i < 100; i++) {
+      series.writeWithFlushCheck(i, (long) i);
+    }
+    SortedTVListView view = series.getSortedTvListViewForQuery();
+    TVList list = series.getTVList();
+    Assert.assertEquals(1, list.getReferenceCount());
+
+    // the list read by the query is copied before deleting rows
+    Assert.assertEquals(10, series.delete(0, 9));
+    Assert.assertNotSame(list, series.getTVList());
+    view.release();
+    view.release();
+    Assert.assertEquals(0, list.getReferenceCount());
+
+    // the rows of a list which is not read by any query are deleted in place
+    list = series.getTVList();
+    Assert.assertEquals(10, series.delete(10, 19));
+    Assert.assertSame(list, series.getTVList());
+    Assert.assertEquals(80, series.count());
+  }
+
+  @Test
+  public void memSeriesStatisticsTest() throws IOException, QueryProcessException {
+    Map<String, String> props = Collections.singletonMap(Encoder.MAX_POINT_NUMBER, "3");
+    WritableMemChunk series =
+        new WritableMemChunk(
+            new MeasurementSchema(
+                "s1", TSDataType.FLOAT, TSEncoding.RLE, CompressionType.UNCOMPRESSED, props));
+    series.putFloats(
+        new long[] {1, 2, 3, 4}, new float[] {1.23456f, -0.5f, 3.14159f, 7.0001f}, null, 0, 4);
+    for (int i = 5; i < 100; i++) {
+      series.writeWithFlushCheck(i, i / 7.0f);
+    }
+    Assert.assertEquals(1, series.getFirstPoint());
+    Assert.assertEquals(99, series.getLastPoint());
+
+    // the statistics of the rounded values are used by the query with the same precision
+    SortedTVListView view = series.getSortedTvListViewForQuery();
+    Assert.assertNotNull(view.getStatistics(3, TSEncoding.RLE));
+    Assert.assertNull(view.getStatistics(4, TSEncoding.RLE));
+    Assert.assertNull(view.getStatistics(3, TSEncoding.PLAIN));
+    ReadOnlyMemChunk memChunk =
+        new ReadOnlyMemChunk("s1", TSDataType.FLOAT, TSEncoding.RLE, view, props, null);
+    Statistics<? extends Serializable> expectedStatistics =
+        Statistics.getStatsByType(TSDataType.FLOAT);
+    for (TimeValuePair timeValuePair : readAll(memChunk.getPointReader())) {
+      expectedStatistics.update(timeValuePair.getTimestamp(), timeValuePair.getValue().getFloat());
+    }
+    Assert.assertEquals(100 - 1, expectedStatistics.getCount());
+    Assert.assertEquals(expectedStatistics, memChunk.getChunkMetaData().getStatistics());
+
+    // the statistics are not maintained after an out-of-order insertion
+    series.writeWithFlushCheck(50, 1.0f);
+    Assert.assertNull(series.getSortedTvListViewForQuery().getStatistics(3, TSEncoding.RLE));
+    Assert.assertEquals(1, series.getFirstPoint());
+    Assert.assertEquals(99, series.getLastPoint());
+  }
+
+  /** Check the rows and statistics of the mem chunk with the ones of a sorted copy of the list. */
+  private ReadOnlyMemChunk checkMemChunk(
+      WritableMemChunk series, SortedTVListView view, List<TimeRange> deletionList)
+      throws IOException, QueryProcessException {
+    TVList sortedList = series.getTVList().clone();
+    sortedList.sort();
+    IPointReader expectedReader =
+        sortedList.buildTsBlock(0, TSEncoding.PLAIN, deletionList).getTsBlockSingleColumnIterator();
+    List<TimeValuePair> expected = readAll(expectedReader);
+    Statistics<? extends Serializable> expectedStatistics =
+        Statistics.getStatsByType(TSDataType.DOUBLE);
+    for (TimeValuePair timeValuePair : expected) {
+      expectedStatistics.update(timeValuePair.getTimestamp(), timeValuePair.getValue().getDouble());
+    }
+
+    ReadOnlyMemChunk memChunk =
+        new ReadOnlyMemChunk("s1", TSDataType.DOUBLE, TSEncoding.PLAIN, view, null, deletionList);
+    Assert.assertEquals(expected, readAll(memChunk.getPointReader()));
+    Assert.assertEquals(expectedStatistics, memChunk.getChunkMetaData().getStatistics());
+    TsBlock tsBlock = new MemPageReader(memChunk, null).getAllSatisfiedData();
+    Assert.assertEquals(expected.size(), tsBlock.getPositionCount());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getTimestamp(), tsBlock.getTimeByIndex(i));
+      Assert.assertEquals(
+          expected.get(i).getValue().getDouble(), tsBlock.getColumn(0).getDouble(i), delta);
+    }
+    return memChunk;
+  }
+
+  private List<TimeValuePair> readAll(IPointReader reader) throws IOException {
+    List<TimeValuePair> timeValuePairs = new ArrayList<>();
+    while (reader.hasNextTimeValuePair()) {
+      timeValuePairs.add(reader.nextTimeValuePair());
+    }
+    return timeValuePairs;
+  }
+
   @Test
   public void simpleTest() throws IOException, QueryProcessException, MetadataException {
     IMemTable memTable = new PrimitiveMemTable();
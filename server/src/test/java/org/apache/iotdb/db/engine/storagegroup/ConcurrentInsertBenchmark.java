@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.wal.utils.WALMode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Insert benchmark of one data region. Each writer thread inserts tablets of its own devices, and
+ * the throughput is compared between the serialized inserts and the concurrent memtable with 1 to
+ * 32 writer threads.
+ */
+public class ConcurrentInsertBenchmark {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String storageGroup = "root.bench";
+  private static final String systemDir = TestConstant.OUTPUT_DATA_DIR.concat("info");
+  private static final int[] threadNums = {1, 2, 4, 8, 16, 32};
+  private static final int numOfDevicePerThread = 4;
+  private static final int numOfMeasurement = 10;
+  private static final int numOfTabletPerDevice = 200;
+  private static final int numOfRowPerTablet = 100;
+
+  public static void main(String[] args) throws Exception {
+    // WAL is disabled to measure the inserts into the memtables
+    config.setWalMode(WALMode.DISABLE);
+    for (int threadNum : threadNums) {
+      long serialTime = run(threadNum, false);
+      long concurrentTime = run(threadNum, true);
+      long pointNum =
+          (long) threadNum
+              * numOfDevicePerThread
+              * numOfTabletPerDevice
+              * numOfRowPerTablet
+              * numOfMeasurement;
+      System.out.println(
+          String.format(
+              "Num of writer threads: %d, "
+                  + "serialized inserts: %d ms (%d points/s), "
+                  + "concurrent memtable: %d ms (%d points/s). ",
+              threadNum,
+              serialTime,
+              pointNum * 1000 / Math.max(serialTime, 1),
+              concurrentTime,
+              pointNum * 1000 / Math.max(concurrentTime, 1)));
+    }
+  }
+
+  /** @return the time in ms to insert all the tablets */
+  private static long run(int threadNum, boolean enableConcurrentMemTable) throws Exception {
+    config.setEnableConcurrentMemTable(enableConcurrentMemTable);
+    EnvironmentUtils.envSetUp();
+    DataRegion dataRegion = new DataRegionTest.DummyDataRegion(systemDir, storageGroup);
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<List<InsertTabletNode>> tabletsOfThreads = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        tabletsOfThreads.add(generateTablets(i));
+      }
+
+      long startTime = System.currentTimeMillis();
+      List<Future<?>> futures = new ArrayList<>();
+      for (List<InsertTabletNode> tablets : tabletsOfThreads) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (InsertTabletNode tablet : tablets) {
+                    dataRegion.insertTablet(tablet);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      return System.currentTimeMillis() - startTime;
+    } finally {
+      executor.shutdownNow();
+      dataRegion.syncDeleteDataFiles();
+      EnvironmentUtils.cleanEnv();
+      EnvironmentUtils.cleanDir(TestConstant.OUTPUT_DATA_DIR);
+    }
+  }
+
+  /** the tablets of each device are generated in time order and interleaved between devices */
+  private static List<InsertTabletNode> generateTablets(int threadIndex) throws Exception {
+    String[] measurements = new String[numOfMeasurement];
+    TSDataType[] dataTypes = new TSDataType[numOfMeasurement];
+    MeasurementSchema[] measurementSchemas = new MeasurementSchema[numOfMeasurement];
+    for (int i = 0; i < numOfMeasurement; i++) {
+      measurements[i] = "s" + i;
+      dataTypes[i] = TSDataType.INT64;
+      measurementSchemas[i] = new MeasurementSchema(measurements[i], dataTypes[i], TSEncoding.RLE);
+    }
+
+    List<InsertTabletNode> tablets = new ArrayList<>();
+    for (int t = 0; t < numOfTabletPerDevice; t++) {
+      for (int d = 0; d < numOfDevicePerThread; d++) {
+        long[] times = new long[numOfRowPerTablet];
+        Object[] columns = new Object[numOfMeasurement];
+        for (int i = 0; i < numOfMeasurement; i++) {
+          columns[i] = new long[numOfRowPerTablet];
+        }
+        for (int r = 0; r < numOfRowPerTablet; r++) {
+          times[r] = (long) t * numOfRowPerTablet + r;
+          for (int i = 0; i < numOfMeasurement; i++) {
+            ((long[]) columns[i])[r] = times[r] * i;
+          }
+        }
+        InsertTabletNode tablet =
+            new InsertTabletNode(
+                new QueryId("bench_write").genPlanNodeId(),
+                new PartialPath(storageGroup + ".t" + threadIndex + "_d" + d),
+                false,
+                measurements,
+                dataTypes,
+                times,
+                null,
+                columns,
+                times.length);
+        tablet.setMeasurementSchemas(measurementSchemas);
+        tablets.add(tablet);
+      }
+    }
+    return tablets;
+  }
+}
@@ -38,6 +38,7 @@ import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.utils.CompactionConfigRestorer;
 import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.exception.DataRegionException;
@@ -71,6 +72,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DataRegionTest {
@@ -1139,6 +1144,84 @@ public class DataRegionTest {
         dataRegion.getWorkSequenceTsFileProcessors().contains(tsFileResource.getProcessor()));
   }
 
+  @Test
+  public void testConcurrentInsertOfDifferentDevices() throws Exception {
+    boolean enableConcurrentMemTable = config.isEnableConcurrentMemTable();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      // recreate the data region with the concurrent memtable
+      dataRegion.syncDeleteDataFiles();
+      StorageEngine.getInstance().deleteDataRegion(new DataRegionId(0));
+      config.setEnableConcurrentMemTable(true);
+      dataRegion = new DummyDataRegion(systemDir, storageGroup);
+      StorageEngine.getInstance().setDataRegion(new DataRegionId(0), dataRegion);
+
+      int deviceNum = 16;
+      int rowNum = 200;
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < deviceNum; i++) {
+        String device = "root.vehicle.d" + i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 1; j <= rowNum; j++) {
+                    TSRecord record = new TSRecord(j, device);
+                    record.addTuple(
+                        DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(j)));
+                    dataRegion.insert(buildInsertRowNodeByTSRecord(record));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      Assert.assertEquals(1, dataRegion.getWorkSequenceTsFileProcessors().size());
+      TsFileProcessor tsFileProcessor =
+          dataRegion.getWorkSequenceTsFileProcessors().iterator().next();
+      IMemTable memTable = tsFileProcessor.getWorkMemTable();
+      Assert.assertEquals(deviceNum, memTable.getMemTableMap().size());
+      Assert.assertEquals(deviceNum, memTable.getSeriesNumber());
+      Assert.assertEquals((long) deviceNum * rowNum, memTable.getTotalPointsNum());
+      for (int i = 0; i < deviceNum; i++) {
+        Assert.assertEquals(
+            1, tsFileProcessor.getTsFileResource().getStartTime("root.vehicle.d" + i));
+      }
+
+      dataRegion.syncCloseAllWorkingTsFileProcessors();
+      for (int i = 0; i < deviceNum; i++) {
+        String device = "root.vehicle.d" + i;
+        QueryDataSource queryDataSource =
+            dataRegion.query(
+                Collections.singletonList(new PartialPath(device, measurementId)),
+                device,
+                context,
+                null);
+        Assert.assertEquals(1, queryDataSource.getSeqResources().size());
+        Assert.assertEquals(rowNum, queryDataSource.getSeqResources().get(0).getEndTime(device));
+      }
+
+      // the queries do not block each other
+      DataRegion region = dataRegion;
+      region.readLock();
+      try {
+        executor
+            .submit(
+                () -> {
+                  region.readLock();
+                  region.readUnlock();
+                })
+            .get(10, TimeUnit.SECONDS);
+      } finally {
+        region.readUnlock();
+      }
+    } finally {
+      executor.shutdownNow();
+      config.setEnableConcurrentMemTable(enableConcurrentMemTable);
+    }
+  }
+
   static class DummyDataRegion extends DataRegion {
 
     DummyDataRegion(String systemInfoDir, String storageGroupName) throws DataRegionException {
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -31,6 +32,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import static org.junit.Assert.fail;
 
@@ -134,4 +136,28 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testReferenceOfBackgroundRead() throws IOException {
+    String filePath = TestConstant.BASE_OUTPUT_PATH.concat("background.tsfile");
+    File file = SystemFileFactory.INSTANCE.getFile(filePath);
+    new TsFileWriter(file).close();
+    TsFileResource tsFile = new TsFileResource(file);
+    FileReaderManager manager = FileReaderManager.getInstance();
+    try {
+      // the file is not referenced by any query
+      Assert.assertNull(manager.getAndReferenceIfReferenced(tsFile.getTsFilePath()));
+
+      manager.increaseFileReaderReference(tsFile, true);
+      Assert.assertNotNull(manager.getAndReferenceIfReferenced(tsFile.getTsFilePath()));
+      // the query finishes before the background read, the reader is kept for the latter
+      manager.decreaseFileReaderReference(tsFile, true);
+      Assert.assertTrue(manager.contains(tsFile, true));
+      manager.releaseReferencedReader(tsFile.getTsFilePath());
+      Assert.assertFalse(manager.contains(tsFile, true));
+    } finally {
+      manager.closeAndRemoveAllOpenedReaders();
+      Files.deleteIfExists(file.toPath());
+    }
+  }
 }
@@ -155,4 +155,49 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testAdaptiveSort() {
+    // every point is delayed by up to 10
+    Random random = new Random(0);
+    TimLongTVList tvList = new TimLongTVList();
+    tvList.adaptiveSort = true;
+    for (long i = 0; i < 10000; i++) {
+      tvList.putLong(i * 10 - random.nextInt(100), i);
+    }
+    Assert.assertTrue(tvList.inversionNum > 0);
+    Assert.assertTrue(tvList.maxBackwardDistance < 200);
+    Assert.assertEquals(TVListSortAlgorithm.BACKWARD, tvList.chooseSortAlgorithm());
+    assertSortedAndClear(tvList);
+
+    // the points are shuffled
+    long[] times = new long[10000];
+    long[] values = new long[10000];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = random.nextInt(10000);
+      values[i] = i;
+    }
+    BitMap bitMap = new BitMap(times.length);
+    bitMap.mark(6000);
+    tvList.putLongs(times, values, null, 0, 5000);
+    tvList.putLongs(times, values, bitMap, 5000, times.length);
+    Assert.assertEquals(TVListSortAlgorithm.TIM, tvList.chooseSortAlgorithm());
+    assertSortedAndClear(tvList);
+  }
+
+  private void assertSortedAndClear(LongTVList tvList) {
+    int rowCount = tvList.rowCount;
+    tvList.sort();
+    Assert.assertEquals(rowCount, tvList.rowCount);
+    Assert.assertEquals(0, tvList.inversionNum);
+    Assert.assertEquals(0, tvList.maxBackwardDistance);
+    for (int i = 1; i < tvList.rowCount; i++) {
+      Assert.assertTrue(tvList.getTime(i - 1) <= tvList.getTime(i));
+      // the points of the same time keep their inserted order
+      if (tvList.getTime(i - 1) == tvList.getTime(i)) {
+        Assert.assertTrue(tvList.getLong(i - 1) < tvList.getLong(i));
+      }
+    }
+    tvList.clear();
+  }
 }
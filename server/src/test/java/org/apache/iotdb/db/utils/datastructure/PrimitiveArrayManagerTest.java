@@ -22,13 +22,87 @@ package org.apache.iotdb.db.utils.datastructure;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class PrimitiveArrayManagerTest {
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
+  @Before
+  public void setUp() {
+    PrimitiveArrayManager.close();
+  }
+
+  @After
+  public void tearDown() {
+    PrimitiveArrayManager.close();
+  }
+
+  @Test
+  public void testReuseReleasedArray() {
+    long[] array = (long[]) PrimitiveArrayManager.allocate(TSDataType.INT64);
+    PrimitiveArrayManager.release(array);
+    Assert.assertTrue(PrimitiveArrayManager.getPooledArraysNum() > 0);
+    Assert.assertSame(array, PrimitiveArrayManager.allocate(TSDataType.INT64));
+    Assert.assertEquals(50, PrimitiveArrayManager.getPoolHitRate(), 0.001);
+    if (config.getPrimitiveArrayMagazineCapacity() > 0) {
+      Assert.assertEquals(50, PrimitiveArrayManager.getMagazineHitRate(), 0.001);
+    }
+  }
+
+  @Test
+  public void testConcurrentAllocateAndRelease() throws Exception {
+    int threadNum = 8;
+    int arrayNumPerRound = 3 * Math.max(config.getPrimitiveArrayMagazineCapacity(), 1);
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threadNum; t++) {
+        long threadIndex = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  long[][] arrays = new long[arrayNumPerRound][];
+                  for (int round = 0; round < 1000; round++) {
+                    for (int i = 0; i < arrayNumPerRound; i++) {
+                      arrays[i] = (long[]) PrimitiveArrayManager.allocate(TSDataType.INT64);
+                      arrays[i][0] = threadIndex * arrayNumPerRound + i;
+                    }
+                    // an array must not be handed out to two holders at the same time
+                    for (int i = 0; i < arrayNumPerRound; i++) {
+                      Assert.assertEquals(threadIndex * arrayNumPerRound + i, arrays[i][0]);
+                      PrimitiveArrayManager.release(arrays[i]);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    long pooledArraysNum = PrimitiveArrayManager.getPooledArraysNum();
+    Assert.assertTrue(pooledArraysNum > 0);
+    // magazines may cache some arrays and reserve some space besides the arrays in use
+    Assert.assertTrue(
+        pooledArraysNum
+            <= (long) threadNum
+                * (arrayNumPerRound + 2 * config.getPrimitiveArrayMagazineCapacity()));
+    Assert.assertTrue(PrimitiveArrayManager.getPoolHitRate() > 0);
+  }
+
   @Test
   public void testGetArrayRowCount() {
 
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark of sorting one series of a memtable with different disorder patterns. The sorting time
+ * of tim sort, quick sort, backward sort and the adaptive one is compared. All the cases are run
+ * once before measuring. As the sort methods are shared by different lists, the JIT compiles them
+ * differently when more algorithms are run in the same JVM, so it's better to run one algorithm
+ * each time by passing its name as the argument, like the forks of JMH.
+ */
+public class TVListSortBenchmark {
+
+  private static final int[] rowCounts = {10_000, 100_000};
+  private static final int passes = 2;
+  private static final int warmUpRounds = 10;
+  private static final int measureRounds = 20;
+
+  private enum Disorder {
+    /** all the points are in order */
+    SORTED,
+    /** 1% of the points are delayed by up to 1000 intervals */
+    SPARSE_DELAY,
+    /** 20% of the points are delayed by up to 100 intervals, like network jitter */
+    JITTER,
+    /** every point is delayed by up to 10 intervals */
+    SMALL_DELAY,
+    /** every 10000 points, a cached batch of 1000 points is uploaded after the next 5000 points */
+    LATE_BATCH,
+    /** 0.05% of the points are delayed by up to half of the series */
+    RARE_FAR_DELAY,
+    /** 5% of the points are delayed by up to 1/20 of the series */
+    WIDE_DELAY,
+    /** the points are shuffled */
+    RANDOM
+  }
+
+  public static void main(String[] args) {
+    TVListSortAlgorithm[] algorithms = TVListSortAlgorithm.values();
+    if (args.length > 0) {
+      algorithms = new TVListSortAlgorithm[args.length];
+      for (int i = 0; i < args.length; i++) {
+        algorithms[i] = TVListSortAlgorithm.valueOf(args[i]);
+      }
+    }
+    for (int pass = 1; pass <= passes; pass++) {
+      runAll(algorithms, pass == passes);
+    }
+  }
+
+  private static void runAll(TVListSortAlgorithm[] algorithms, boolean print) {
+    for (int rowCount : rowCounts) {
+      for (Disorder disorder : Disorder.values()) {
+        long[] times = generateTimes(disorder, rowCount, new Random(rowCount));
+        StringBuilder result =
+            new StringBuilder(String.format("%d points, %s:", rowCount, disorder));
+        for (TVListSortAlgorithm algorithm : algorithms) {
+          result.append(String.format(" %s %.2f ms,", algorithm, run(algorithm, times) / 1e6));
+        }
+        if (print) {
+          System.out.println(result.substring(0, result.length() - 1));
+        }
+      }
+    }
+  }
+
+  /** @return the min time in ns to sort a list of the given timestamps */
+  private static long run(TVListSortAlgorithm algorithm, long[] times) {
+    long minTime = Long.MAX_VALUE;
+    for (int round = 0; round < warmUpRounds + measureRounds; round++) {
+      LongTVList tvList = newList(algorithm);
+      for (int i = 0; i < times.length; i++) {
+        tvList.putLong(times[i], i);
+      }
+      long startTime = System.nanoTime();
+      tvList.sort();
+      long costTime = System.nanoTime() - startTime;
+      for (int i = 1; i < tvList.rowCount(); i++) {
+        if (tvList.getTime(i - 1) > tvList.getTime(i)) {
+          throw new IllegalStateException(algorithm + " sorts the list wrongly");
+        }
+      }
+      tvList.clear();
+      if (round >= warmUpRounds) {
+        minTime = Math.min(minTime, costTime);
+      }
+    }
+    return minTime;
+  }
+
+  private static LongTVList newList(TVListSortAlgorithm algorithm) {
+    switch (algorithm) {
+      case QUICK:
+        return new QuickLongTVList();
+      case BACKWARD:
+        return new BackLongTVList();
+      default:
+        LongTVList tvList = new TimLongTVList();
+        tvList.adaptiveSort = algorithm == TVListSortAlgorithm.ADAPTIVE;
+        return tvList;
+    }
+  }
+
+  private static long[] generateTimes(Disorder disorder, int rowCount, Random random) {
+    long[] times = new long[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = i;
+    }
+    switch (disorder) {
+      case SPARSE_DELAY:
+        delay(times, 0.01, 1000, random);
+        break;
+      case JITTER:
+        delay(times, 0.2, 100, random);
+        break;
+      case SMALL_DELAY:
+        delay(times, 1, 10, random);
+        break;
+      case LATE_BATCH:
+        for (int start = 0; start + 10_000 <= rowCount; start += 10_000) {
+          long[] batch = Arrays.copyOfRange(times, start + 4000, start + 5000);
+          System.arraycopy(times, start + 5000, times, start + 4000, 5000);
+          System.arraycopy(batch, 0, times, start + 9000, 1000);
+        }
+        break;
+      case RARE_FAR_DELAY:
+        delay(times, 0.0005, rowCount / 2, random);
+        break;
+      case WIDE_DELAY:
+        delay(times, 0.05, rowCount / 20, random);
+        break;
+      case RANDOM:
+        for (int i = rowCount - 1; i > 0; i--) {
+          int j = random.nextInt(i + 1);
+          long tmp = times[i];
+          times[i] = times[j];
+          times[j] = tmp;
+        }
+        break;
+      default:
+        break;
+    }
+    return times;
+  }
+
+  private static void delay(long[] times, double ratio, int maxDelay, Random random) {
+    for (int i = 0; i < times.length; i++) {
+      if (random.nextDouble() < ratio) {
+        times[i] -= random.nextInt(maxDelay) + 1;
+      }
+    }
+  }
+}
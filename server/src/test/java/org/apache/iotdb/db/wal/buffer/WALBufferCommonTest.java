@@ -28,6 +28,8 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.wal.io.WALReader;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.db.wal.utils.WALMode;
+import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -123,6 +125,10 @@ public abstract class WALBufferCommonTest {
 
       WALEntry walEntry = new WALInfoEntry(memTableId, insertRowNode);
       walBuffer.write(walEntry);
+      if (config.getWalMode() == WALMode.SYNC) {
+        assertEquals(
+            WALFlushListener.Status.SUCCESS, walEntry.getWalFlushListener().waitForResult());
+      }
     }
   }
 
@@ -175,4 +181,30 @@ public abstract class WALBufferCommonTest {
       config.setWalBufferSize(prevWalBufferSize);
     }
   }
+
+  @Test
+  public void testSyncWriteWithGroupCommit() throws Exception {
+    // each write waits until fsynced, and the writes of different threads are fsynced together
+    WALMode prevWalMode = config.getWalMode();
+    config.setWalMode(WALMode.SYNC);
+    try {
+      testConcurrentWrite();
+    } finally {
+      config.setWalMode(prevWalMode);
+    }
+  }
+
+  @Test
+  public void testSyncWriteWithoutGroupCommit() throws Exception {
+    WALMode prevWalMode = config.getWalMode();
+    boolean prevEnableWalGroupCommit = config.isEnableWalGroupCommit();
+    config.setWalMode(WALMode.SYNC);
+    config.setEnableWalGroupCommit(false);
+    try {
+      testConcurrentWrite();
+    } finally {
+      config.setWalMode(prevWalMode);
+      config.setEnableWalGroupCommit(prevEnableWalGroupCommit);
+    }
+  }
 }
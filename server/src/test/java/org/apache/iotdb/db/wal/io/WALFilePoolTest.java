@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
+import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.db.wal.utils.WALFileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WALFilePoolTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String identifier = String.valueOf(Integer.MAX_VALUE);
+  private static final String logDirectory = TestConstant.BASE_OUTPUT_PATH.concat("wal-pool-test");
+  private boolean prevIsCluster;
+  private int prevWalPreallocatedFilesNum;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.cleanDir(logDirectory);
+    new File(logDirectory).mkdirs();
+    prevIsCluster = config.isClusterMode();
+    config.setClusterMode(true);
+    prevWalPreallocatedFilesNum = config.getWalPreallocatedFilesNum();
+    config.setWalPreallocatedFilesNum(2);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    config.setClusterMode(prevIsCluster);
+    config.setWalPreallocatedFilesNum(prevWalPreallocatedFilesNum);
+    EnvironmentUtils.cleanDir(logDirectory);
+  }
+
+  @Test
+  public void testTakeAndRecycle() throws Exception {
+    WALFilePool pool = new WALFilePool(identifier, logDirectory);
+    try {
+      assertTrue(pool.isEnabled());
+      waitForReadyFiles(pool, 2);
+
+      // write into a preallocated file, which is truncated to the written size when closing
+      File walFile = getWALFile(0);
+      assertTrue(pool.take(walFile));
+      assertEquals(config.getWalFileSizeThresholdInByte(), walFile.length());
+      List<WALEntry> expectedWALEntries = getWALEntries();
+      WALMetaData metaData = new WALMetaData();
+      try (WALWriter walWriter = new WALWriter(walFile, true)) {
+        for (WALEntry walEntry : expectedWALEntries) {
+          metaData.add(walEntry.serializedSize(), DEFAULT_SEARCH_INDEX);
+        }
+        walWriter.write(serialize(expectedWALEntries), metaData);
+        walWriter.force();
+        assertEquals(config.getWalFileSizeThresholdInByte(), walFile.length());
+        // the entries of an unclosed file end at the filled end markers
+        assertEquals(expectedWALEntries, readWALFile(walFile));
+      }
+      assertEquals(expectedWALEntries, readWALFile(walFile));
+      try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
+        for (int i = 0; i < expectedWALEntries.size(); i++) {
+          assertTrue(reader.hasNext());
+          reader.next();
+        }
+        assertFalse(reader.hasNext());
+      }
+
+      // the pool is replenished after taking
+      waitForReadyFiles(pool, 2);
+      assertFalse(pool.recycle(walFile));
+      assertTrue(walFile.exists());
+      assertTrue(pool.take(getWALFile(1)));
+      assertTrue(pool.take(getWALFile(2)));
+
+      // the recycled file is refilled
+      assertTrue(pool.recycle(walFile));
+      assertFalse(walFile.exists());
+      waitForReadyFiles(pool, 2);
+      for (int i = 3; i < 5; i++) {
+        File file = getWALFile(i);
+        assertTrue(pool.take(file));
+        assertEquals(config.getWalFileSizeThresholdInByte(), file.length());
+        assertTrue(readWALFile(file).isEmpty());
+      }
+    } finally {
+      pool.close();
+    }
+
+    // the ready files are reused after restarting
+    WALFilePool newPool = new WALFilePool(identifier, logDirectory);
+    try {
+      waitForReadyFiles(newPool, 2);
+      File[] preallocatedFiles =
+          new File(logDirectory)
+              .listFiles((dir, name) -> name.startsWith(WALFilePool.PREALLOCATED_FILE_PREFIX));
+      assertEquals(2, preallocatedFiles.length);
+    } finally {
+      newPool.close();
+    }
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    config.setWalPreallocatedFilesNum(0);
+    WALFilePool pool = new WALFilePool(identifier, logDirectory);
+    try {
+      assertFalse(pool.isEnabled());
+      assertFalse(pool.take(getWALFile(0)));
+      File walFile = getWALFile(1);
+      assertTrue(walFile.createNewFile());
+      assertFalse(pool.recycle(walFile));
+      assertTrue(walFile.exists());
+    } finally {
+      pool.close();
+    }
+  }
+
+  private void waitForReadyFiles(WALFilePool pool, int readyFilesNum) throws InterruptedException {
+    long startTime = System.currentTimeMillis();
+    while (pool.getReadyFilesNum() < readyFilesNum) {
+      if (System.currentTimeMillis() - startTime > 60_000) {
+        throw new AssertionError("Preallocated wal files are not ready in 60s");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private File getWALFile(long versionId) {
+    return new File(
+        logDirectory,
+        WALFileUtils.getLogFileName(versionId, 0, WALFileStatus.CONTAINS_SEARCH_INDEX));
+  }
+
+  private List<WALEntry> getWALEntries() throws IllegalPathException {
+    List<WALEntry> walEntries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      walEntries.add(new WALInfoEntry(1, WALFileTest.getDeleteDataNode("root.test_sg.d" + i)));
+    }
+    return walEntries;
+  }
+
+  private ByteBuffer serialize(List<WALEntry> walEntries) {
+    int size = 0;
+    for (WALEntry walEntry : walEntries) {
+      size += walEntry.serializedSize();
+    }
+    WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size));
+    for (WALEntry walEntry : walEntries) {
+      walEntry.serialize(buffer);
+    }
+    return buffer.getBuffer();
+  }
+
+  private List<WALEntry> readWALFile(File walFile) throws IOException {
+    List<WALEntry> walEntries = new ArrayList<>();
+    try (WALReader walReader = new WALReader(walFile, true)) {
+      while (walReader.hasNext()) {
+        walEntries.add(walReader.next());
+      }
+    }
+    return walEntries;
+  }
+}
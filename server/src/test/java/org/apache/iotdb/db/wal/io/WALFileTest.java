@@ -32,6 +32,7 @@ import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
@@ -41,6 +42,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -49,7 +52,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class WALFileTest {
 
@@ -155,6 +160,64 @@ public class WALFileTest {
     assertEquals(expectedWALEntries, actualWALEntries);
   }
 
+  @Test
+  public void testReadCompressedFile() throws IOException, IllegalPathException {
+    CompressionType prevWalCompressionType =
+        IoTDBDescriptor.getInstance().getConfig().getWalCompressionType();
+    IoTDBDescriptor.getInstance().getConfig().setWalCompressionType(CompressionType.LZ4);
+    try {
+      int fakeMemTableId = 1;
+      List<WALEntry> expectedWALEntries = new ArrayList<>();
+      WALMetaData metaData = new WALMetaData();
+      int size = 0;
+      for (int i = 0; i < 100; i++) {
+        WALEntry walEntry = new WALInfoEntry(fakeMemTableId, getInsertTabletNode(devicePath));
+        expectedWALEntries.add(walEntry);
+        size += walEntry.serializedSize();
+        metaData.add(walEntry.serializedSize(), DEFAULT_SEARCH_INDEX);
+      }
+      WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size));
+      for (WALEntry walEntry : expectedWALEntries) {
+        walEntry.serialize(buffer);
+      }
+      byte[] bytes = buffer.getBuffer().array();
+      // write two compressed blocks, and one WALEntry is split into both of them
+      int splitPosition = size / 2 + 1;
+      try (WALWriter walWriter = new WALWriter(walFile)) {
+        walWriter.write(copyOf(bytes, 0, splitPosition), metaData);
+        walWriter.write(copyOf(bytes, splitPosition, size - splitPosition));
+      }
+      assertTrue(walFile.length() < size);
+      // read by WALReader
+      List<WALEntry> actualWALEntries = new ArrayList<>();
+      try (WALReader walReader = new WALReader(walFile)) {
+        while (walReader.hasNext()) {
+          actualWALEntries.add(walReader.next());
+        }
+      }
+      assertEquals(expectedWALEntries, actualWALEntries);
+      // read by WALByteBufReader
+      actualWALEntries.clear();
+      try (WALByteBufReader walByteBufReader = new WALByteBufReader(walFile)) {
+        while (walByteBufReader.hasNext()) {
+          ByteBuffer entryBuffer = walByteBufReader.next();
+          actualWALEntries.add(
+              WALEntry.deserialize(
+                  new DataInputStream(new ByteArrayInputStream(entryBuffer.array()))));
+        }
+      }
+      assertEquals(expectedWALEntries, actualWALEntries);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setWalCompressionType(prevWalCompressionType);
+    }
+  }
+
+  private ByteBuffer copyOf(byte[] bytes, int offset, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.put(bytes, offset, length);
+    return buffer;
+  }
+
   public static InsertRowNode getInsertRowNode(String devicePath) throws IllegalPathException {
     long time = 110L;
     TSDataType[] dataTypes =
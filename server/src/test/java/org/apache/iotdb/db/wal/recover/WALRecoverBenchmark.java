@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.recover;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.wal.buffer.WALBuffer;
+import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.wal.checkpoint.CheckpointManager;
+import org.apache.iotdb.db.wal.checkpoint.MemTableInfo;
+import org.apache.iotdb.db.wal.recover.file.UnsealedTsFileRecoverPerformer;
+import org.apache.iotdb.db.wal.utils.TsFileUtilsForRecoverTest;
+import org.apache.iotdb.db.wal.utils.WALMode;
+import org.apache.iotdb.db.wal.utils.listener.WALRecoverListener;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Startup benchmark of wal recovery. Each data region has its own wal node and one unsealed TsFile
+ * whose data only exists in wal, and the recovery time is compared between 1 recover thread and
+ * the default number of recover threads with 1 to 128 data regions.
+ */
+public class WALRecoverBenchmark {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String storageGroup = "root.recover_bench";
+  private static final String walDir = CommonDescriptor.getInstance().getConfig().getWalDirs()[0];
+  private static final int[] regionNums = {1, 8, 32, 128};
+  private static final int numOfDevicePerRegion = 4;
+  private static final int numOfMeasurement = 10;
+  private static final int numOfTabletPerDevice = 20;
+  private static final int numOfRowPerTablet = 100;
+
+  public static void main(String[] args) throws Exception {
+    config.setClusterMode(true);
+    config.setWalMode(WALMode.SYNC);
+    int defaultThreadCount = config.getWalRecoverThreadCount();
+    for (int regionNum : regionNums) {
+      long serialTime = run(regionNum, 1);
+      long parallelTime = run(regionNum, defaultThreadCount);
+      System.out.println(
+          String.format(
+              "Num of data regions: %d, 1 recover thread: %d ms, %d recover threads: %d ms. ",
+              regionNum, serialTime, defaultThreadCount, parallelTime));
+    }
+    config.setWalRecoverThreadCount(defaultThreadCount);
+  }
+
+  /** @return the time in ms to recover all the wal nodes and unsealed TsFiles */
+  private static long run(int regionNum, int threadCount) throws Exception {
+    config.setWalRecoverThreadCount(threadCount);
+    EnvironmentUtils.envSetUp();
+    WALRecoverManager recoverManager = WALRecoverManager.getInstance();
+    recoverManager.clear();
+    List<TsFileResource> tsFileResources = new ArrayList<>();
+    try {
+      List<WALRecoverListener> recoverListeners = new ArrayList<>();
+      for (int i = 0; i < regionNum; i++) {
+        String tsFilePath = TsFileUtilsForRecoverTest.getTestTsFilePath(storageGroup, i, 0, 1);
+        prepareWALNode(String.valueOf(i), tsFilePath);
+        TsFileResource tsFileResource = prepareCrashedTsFile(tsFilePath);
+        tsFileResources.add(tsFileResource);
+        UnsealedTsFileRecoverPerformer recoverPerformer =
+            new UnsealedTsFileRecoverPerformer(tsFileResource, true, null, performer -> {});
+        recoverListeners.add(recoverManager.addRecoverPerformer(recoverPerformer));
+      }
+
+      long startTime = System.currentTimeMillis();
+      recoverManager.setAllDataRegionScannedLatch(new CountDownLatch(0));
+      recoverManager.recover();
+      for (WALRecoverListener recoverListener : recoverListeners) {
+        if (recoverListener.waitForResult() != WALRecoverListener.Status.SUCCESS) {
+          throw new IllegalStateException(
+              "Fail to recover " + recoverListener.getFilePath(), recoverListener.getCause());
+        }
+      }
+      return System.currentTimeMillis() - startTime;
+    } finally {
+      for (TsFileResource tsFileResource : tsFileResources) {
+        tsFileResource.close();
+      }
+      recoverManager.clear();
+      EnvironmentUtils.cleanEnv();
+      for (int i = 0; i < regionNum; i++) {
+        EnvironmentUtils.cleanDir(
+            new File(TsFileUtilsForRecoverTest.getTestTsFilePath(storageGroup, i, 0, 1))
+                .getParent());
+        EnvironmentUtils.cleanDir(walDir + File.separator + i);
+      }
+    }
+  }
+
+  /** write the data of one memtable into a wal node without flushing it */
+  private static void prepareWALNode(String identifier, String tsFilePath) throws Exception {
+    String logDirectory = walDir + File.separator + identifier;
+    WALBuffer walBuffer = new WALBuffer(identifier, logDirectory);
+    CheckpointManager checkpointManager = new CheckpointManager(identifier, logDirectory);
+    try {
+      IMemTable memTable = new PrimitiveMemTable();
+      checkpointManager.makeCreateMemTableCP(
+          new MemTableInfo(memTable, tsFilePath, walBuffer.getCurrentWALFileVersion()));
+      WALEntry walEntry = null;
+      for (int t = 0; t < numOfTabletPerDevice; t++) {
+        for (int d = 0; d < numOfDevicePerRegion; d++) {
+          boolean isLast = t == numOfTabletPerDevice - 1 && d == numOfDevicePerRegion - 1;
+          walEntry =
+              new WALInfoEntry(
+                  memTable.getMemTableId(),
+                  generateTablet(identifier, d, (long) t * numOfRowPerTablet),
+                  isLast);
+          walBuffer.write(walEntry);
+        }
+      }
+      walEntry.getWalFlushListener().waitForResult();
+    } finally {
+      checkpointManager.close();
+      walBuffer.close();
+    }
+  }
+
+  /** generate a TsFile with one chunk group and without the tail metadata */
+  private static TsFileResource prepareCrashedTsFile(String tsFilePath) throws Exception {
+    File tsFile = new File(tsFilePath);
+    tsFile.getParentFile().mkdirs();
+    long truncateSize;
+    String device = storageGroup + ".crashed";
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(
+          new Path(device), new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.RLE));
+      writer.write(new TSRecord(0, device).addTuple(new LongDataPoint("s0", 0)));
+      writer.flushAllChunkGroups();
+      truncateSize = tsFile.length();
+    }
+    try (FileChannel channel = new FileOutputStream(tsFile, true).getChannel()) {
+      channel.truncate(truncateSize);
+    }
+    return new TsFileResource(tsFile);
+  }
+
+  private static InsertTabletNode generateTablet(String identifier, int deviceIndex, long startTime)
+      throws Exception {
+    String[] measurements = new String[numOfMeasurement];
+    TSDataType[] dataTypes = new TSDataType[numOfMeasurement];
+    MeasurementSchema[] measurementSchemas = new MeasurementSchema[numOfMeasurement];
+    Object[] columns = new Object[numOfMeasurement];
+    long[] times = new long[numOfRowPerTablet];
+    for (int r = 0; r < numOfRowPerTablet; r++) {
+      times[r] = startTime + r;
+    }
+    for (int i = 0; i < numOfMeasurement; i++) {
+      measurements[i] = "s" + i;
+      dataTypes[i] = TSDataType.INT64;
+      measurementSchemas[i] = new MeasurementSchema(measurements[i], dataTypes[i], TSEncoding.RLE);
+      long[] values = new long[numOfRowPerTablet];
+      for (int r = 0; r < numOfRowPerTablet; r++) {
+        values[r] = times[r] * i;
+      }
+      columns[i] = values;
+    }
+    InsertTabletNode tablet =
+        new InsertTabletNode(
+            new PlanNodeId(""),
+            new PartialPath(storageGroup + ".r" + identifier + "_d" + deviceIndex),
+            false,
+            measurements,
+            dataTypes,
+            times,
+            null,
+            columns,
+            times.length);
+    tablet.setMeasurementSchemas(measurementSchemas);
+    return tablet;
+  }
+}
@@ -272,6 +272,10 @@ public class WALRecoverManagerTest {
     } catch (NullPointerException e) {
       // ignore
     }
+    // check recover progress
+    assertEquals(2, recoverManager.getTotalTsFilesNum());
+    assertEquals(2, recoverManager.getRecoveredTsFilesNum());
+    assertEquals(0, recoverManager.getEstimatedRemainingTimeInMs());
 
     // region check file with wal
     // check file content
@@ -20,17 +20,22 @@ package org.apache.iotdb.db.wal.recover;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.wal.io.WALMetaData;
+import org.apache.iotdb.db.wal.io.WALReader;
 import org.apache.iotdb.db.wal.io.WALWriter;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -49,6 +54,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 
 public class WALRecoverWriterTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private final File logFile =
       new File(
           TestConstant.BASE_OUTPUT_PATH.concat(
@@ -152,6 +158,55 @@ public class WALRecoverWriterTest {
     }
   }
 
+  @Test
+  public void testCompressedFileWithBrokenBlock() throws IOException, IllegalPathException {
+    CompressionType prevWalCompressionType = config.getWalCompressionType();
+    config.setWalCompressionType(CompressionType.LZ4);
+    try {
+      // prepare file with two compressed blocks
+      WALEntry walEntry = new WALInfoEntry(1, getInsertRowNode());
+      int size = walEntry.serializedSize();
+      long fileSize;
+      try (WALWriter walWriter = new WALWriter(logFile)) {
+        for (int i = 0; i < 2; i++) {
+          WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size));
+          walEntry.serialize(buffer);
+          walWriter.write(buffer.getBuffer());
+        }
+        fileSize = walWriter.size();
+      }
+      // break the second block
+      try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.APPEND)) {
+        channel.truncate(fileSize - 1);
+      }
+      // the first WALEntry is the only complete one
+      WALMetaData walMetaData = new WALMetaData();
+      walMetaData.add(size, 1);
+      try (WALReader walReader = new WALReader(logFile, true)) {
+        Assert.assertTrue(walReader.hasNext());
+        walReader.next();
+        Assert.assertFalse(walReader.hasNext());
+      }
+      // recover
+      WALRecoverWriter walRecoverWriter = new WALRecoverWriter(logFile);
+      walRecoverWriter.recover(walMetaData);
+      // verify file
+      try (WALByteBufReader reader = new WALByteBufReader(logFile)) {
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals(size, reader.next().capacity());
+        Assert.assertFalse(reader.hasNext());
+        Assert.assertEquals(1, reader.getFirstSearchIndex());
+      }
+      try (WALReader walReader = new WALReader(logFile)) {
+        Assert.assertTrue(walReader.hasNext());
+        Assert.assertEquals(WALEntryType.INSERT_ROW_NODE, walReader.next().getType());
+        Assert.assertFalse(walReader.hasNext());
+      }
+    } finally {
+      config.setWalCompressionType(prevWalCompressionType);
+    }
+  }
+
   public static InsertRowNode getInsertRowNode() throws IllegalPathException {
     String devicePath = "root.test_sg.test_d";
     long time = 110L;
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.common.conf;
 
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -62,6 +63,17 @@ public class TSFileConfig implements Serializable {
   public static final String VERSION_NUMBER_V1 = "000001";
   /** version number is changed to use 1 byte to represent since version 3 */
   public static final byte VERSION_NUMBER = 0x03;
+  /**
+   * version number of the files whose chunk metadata may carry value bloom filters, which are
+   * flagged by {@link TsFileConstant#VALUE_BLOOM_FILTER_MASK}. Readers which only support {@link
+   * #VERSION_NUMBER} reject these files instead of misparsing their metadata.
+   */
+  public static final byte VERSION_NUMBER_WITH_VALUE_BLOOM_FILTER = 0x04;
+  /**
+   * version number of the files whose pages may be compressed with the ZSTD dictionaries saved in
+   * their TsFileMetadata. Their chunk metadata may carry value bloom filters as well.
+   */
+  public static final byte VERSION_NUMBER_WITH_ZSTD_DICTIONARY = 0x05;
 
   /** Bloom filter constrain */
   public static final double MIN_BLOOM_FILTER_ERROR_RATE = 0.01;
@@ -114,6 +126,11 @@ public class TSFileConfig implements Serializable {
   private int freqEncodingBlockSize = 1024;
   /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, ZSTD or LZ4. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /**
+   * Directory of trained ZSTD dictionaries, named as {measurementId}.dict or default.dict. Empty
+   * means ZSTD compresses without dictionaries.
+   */
+  private String zstdDictionaryDir = "";
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -148,6 +165,10 @@ public class TSFileConfig implements Serializable {
   private String kerberosPrincipal = "principal";
   /** The acceptable error rate of bloom filter */
   private double bloomFilterErrorRate = 0.05;
+  /** Whether to write value bloom filters of INT32, INT64 and TEXT chunks into chunk metadata */
+  private boolean enableValueBloomFilter = false;
+  /** No value bloom filter is written for a chunk with more distinct values than this */
+  private int valueBloomFilterMaxDistinctCount = 1024;
   /** The amount of data iterate each time */
   private int batchSize = 1000;
 
@@ -164,6 +185,19 @@ public class TSFileConfig implements Serializable {
 
   public TSFileConfig() {}
 
+  /** @return true if the files of this version number can be read */
+  public static boolean isSupportedVersion(byte versionNumber) {
+    return versionNumber == VERSION_NUMBER
+        || versionNumber == VERSION_NUMBER_WITH_VALUE_BLOOM_FILTER
+        || versionNumber == VERSION_NUMBER_WITH_ZSTD_DICTIONARY;
+  }
+
+  /** @return true if the chunk metadata of the files of this version can carry bloom filters */
+  public static boolean canCarryValueBloomFilter(byte versionNumber) {
+    return versionNumber == VERSION_NUMBER_WITH_VALUE_BLOOM_FILTER
+        || versionNumber == VERSION_NUMBER_WITH_ZSTD_DICTIONARY;
+  }
+
   public int getGroupSizeInByte() {
     return groupSizeInByte;
   }
@@ -300,6 +334,14 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public String getZstdDictionaryDir() {
+    return zstdDictionaryDir;
+  }
+
+  public void setZstdDictionaryDir(String zstdDictionaryDir) {
+    this.zstdDictionaryDir = zstdDictionaryDir;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -348,6 +390,22 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public boolean isEnableValueBloomFilter() {
+    return enableValueBloomFilter;
+  }
+
+  public void setEnableValueBloomFilter(boolean enableValueBloomFilter) {
+    this.enableValueBloomFilter = enableValueBloomFilter;
+  }
+
+  public int getValueBloomFilterMaxDistinctCount() {
+    return valueBloomFilterMaxDistinctCount;
+  }
+
+  public void setValueBloomFilterMaxDistinctCount(int valueBloomFilterMaxDistinctCount) {
+    this.valueBloomFilterMaxDistinctCount = valueBloomFilterMaxDistinctCount;
+  }
+
   public FSType getTSFileStorageFs() {
     return this.TSFileStorageFs;
   }
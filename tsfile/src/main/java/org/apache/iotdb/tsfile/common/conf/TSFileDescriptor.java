@@ -80,6 +80,10 @@ public class TSFileDescriptor {
     writer.setString(conf::setTimeEncoder, "time_encoder");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setString(conf::setZstdDictionaryDir, "zstd_dictionary_dir");
+    writer.setBoolean(conf::setEnableValueBloomFilter, "enable_value_bloom_filter");
+    writer.setInt(
+        conf::setValueBloomFilterMaxDistinctCount, "value_bloom_filter_max_distinct_count");
     writer.setInt(conf::setBatchSize, "batch_size");
     writer.setInt(conf::setFreqEncodingBlockSize, "freq_block_size");
     writer.setDouble(conf::setFreqEncodingSNR, "freq_snr");
@@ -104,6 +108,10 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Double::parseDouble);
     }
 
+    public void setBoolean(Consumer<Boolean> setter, String propertyKey) {
+      set(setter, propertyKey, Boolean::parseBoolean);
+    }
+
     public void setString(Consumer<String> setter, String propertyKey) {
       set(setter, propertyKey, Function.identity());
     }
@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.xerial.snappy.Snappy;
@@ -74,6 +75,25 @@ public interface ICompressor extends Serializable {
     }
   }
 
+  /**
+   * get Compressor for the pages of the given measurement. ZSTD compresses with the trained
+   * dictionary of the measurement if there is one in {@link ZstdDictionaryManager}.
+   *
+   * @param name CompressionType
+   * @param measurementId measurement whose pages are compressed
+   * @return the Compressor of specified CompressionType
+   */
+  static ICompressor getCompressor(CompressionType name, String measurementId) {
+    if (name == ZSTD) {
+      long dictionaryId =
+          ZstdDictionaryManager.getInstance().getDictionaryIdForWrite(measurementId);
+      if (dictionaryId != 0) {
+        return new ZstdCompressor(dictionaryId);
+      }
+    }
+    return getCompressor(name);
+  }
+
   byte[] compress(byte[] data) throws IOException;
 
   /**
@@ -321,13 +341,24 @@ public interface ICompressor extends Serializable {
 
     private int compressionLevel;
 
+    /** id of the dictionary in {@link ZstdDictionaryManager}, 0 means no dictionary */
+    private final long dictionaryId;
+
     public ZstdCompressor() {
+      this(0);
+    }
+
+    public ZstdCompressor(long dictionaryId) {
       super();
       compressionLevel = Zstd.maxCompressionLevel();
+      this.dictionaryId = dictionaryId;
     }
 
     @Override
     public byte[] compress(byte[] data) throws IOException {
+      if (dictionaryId != 0) {
+        return Zstd.compress(data, getDictionary());
+      }
       return Zstd.compress(data, compressionLevel);
     }
 
@@ -345,6 +376,14 @@ public interface ICompressor extends Serializable {
 
     @Override
     public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      if (dictionaryId != 0) {
+        long compressedSize =
+            Zstd.compressFastDict(compressed, 0, data, offset, length, getDictionary());
+        if (Zstd.isError(compressedSize)) {
+          throw new IOException(Zstd.getErrorName(compressedSize));
+        }
+        return (int) compressedSize;
+      }
       return (int)
           Zstd.compressByteArray(
               compressed, 0, compressed.length, data, offset, length, compressionLevel);
@@ -357,6 +396,9 @@ public interface ICompressor extends Serializable {
      */
     @Override
     public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (dictionaryId != 0) {
+        return Zstd.compress(compressed, data, getDictionary());
+      }
       return Zstd.compress(compressed, data, compressionLevel);
     }
 
@@ -369,5 +411,14 @@ public interface ICompressor extends Serializable {
     public CompressionType getType() {
       return ZSTD;
     }
+
+    public long getDictionaryId() {
+      return dictionaryId;
+    }
+
+    private ZstdDictCompress getDictionary() {
+      return ZstdDictionaryManager.getInstance()
+          .getCompressDictionary(dictionaryId, compressionLevel);
+    }
   }
 }
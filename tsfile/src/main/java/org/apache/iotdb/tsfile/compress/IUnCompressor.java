@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedExc
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -62,6 +63,20 @@ public interface IUnCompressor {
     }
   }
 
+  /**
+   * get the UnCompressor of the chunks in a TsFile.
+   *
+   * @param name CompressionType
+   * @param zstdDictionaries the ZSTD dictionaries of the TsFile, null if the TsFile is unsealed
+   * @return the UnCompressor of specified CompressionType
+   */
+  static IUnCompressor getUnCompressor(CompressionType name, ZstdDictionaries zstdDictionaries) {
+    if (name == CompressionType.ZSTD && zstdDictionaries != null) {
+      return new ZstdUnCompressor(zstdDictionaries);
+    }
+    return getUnCompressor(name);
+  }
+
   int getUncompressedLength(byte[] array, int offset, int length) throws IOException;
 
   /**
@@ -316,8 +331,30 @@ public interface IUnCompressor {
     }
   }
 
+  /**
+   * Frames compressed with a dictionary record the dictionary id in their headers, the dictionary
+   * is looked up in the {@link ZstdDictionaries} of the TsFile, or in {@link ZstdDictionaryManager}
+   * if the TsFile is unsealed.
+   */
   class ZstdUnCompressor implements IUnCompressor {
 
+    /** dictionaries of the TsFile, null to use the configured dictionaries */
+    private final ZstdDictionaries zstdDictionaries;
+
+    public ZstdUnCompressor() {
+      this(null);
+    }
+
+    public ZstdUnCompressor(ZstdDictionaries zstdDictionaries) {
+      this.zstdDictionaries = zstdDictionaries;
+    }
+
+    private ZstdDictDecompress getDecompressDictionary(long dictionaryId) throws IOException {
+      return zstdDictionaries != null
+          ? zstdDictionaries.getDecompressDictionary(dictionaryId)
+          : ZstdDictionaryManager.getInstance().getDecompressDictionary(dictionaryId);
+    }
+
     @Override
     public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
       return (int) Zstd.decompressedSize(array, offset, length);
@@ -330,12 +367,35 @@ public interface IUnCompressor {
 
     @Override
     public byte[] uncompress(byte[] byteArray) throws IOException {
+      long dictionaryId =
+          ZstdDictionaryManager.getDictionaryIdOfFrame(byteArray, 0, byteArray.length);
+      if (dictionaryId != 0) {
+        return Zstd.decompress(
+            byteArray,
+            getDecompressDictionary(dictionaryId),
+            getUncompressedLength(byteArray, 0, byteArray.length));
+      }
       return Zstd.decompress(byteArray, getUncompressedLength(byteArray, 0, byteArray.length));
     }
 
     @Override
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
+      long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfFrame(byteArray, offset, length);
+      if (dictionaryId != 0) {
+        long uncompressedSize =
+            Zstd.decompressFastDict(
+                output,
+                outOffset,
+                byteArray,
+                offset,
+                length,
+                getDecompressDictionary(dictionaryId));
+        if (Zstd.isError(uncompressedSize)) {
+          throw new IOException(Zstd.getErrorName(uncompressedSize));
+        }
+        return (int) uncompressedSize;
+      }
       return (int)
           Zstd.decompressByteArray(
               output, outOffset, output.length, byteArray, offset, byteArray.length);
@@ -348,6 +408,10 @@ public interface IUnCompressor {
      */
     @Override
     public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfFrame(compressed);
+      if (dictionaryId != 0) {
+        return Zstd.decompress(uncompressed, compressed, getDecompressDictionary(dictionaryId));
+      }
       return Zstd.decompress(uncompressed, compressed);
     }
 
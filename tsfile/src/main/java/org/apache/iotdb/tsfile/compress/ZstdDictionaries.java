@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import com.github.luben.zstd.ZstdDictDecompress;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ZSTD dictionaries stored in the metadata of one TsFile. The chunks read from a sealed TsFile
+ * are uncompressed with the dictionaries of that file, so the same dictionary id in different
+ * files may refer to different dictionaries.
+ */
+public class ZstdDictionaries {
+
+  /** dictionary id -> dictionary content */
+  private final Map<Long, byte[]> dictionaries;
+
+  private final Map<Long, ZstdDictDecompress> decompressDictionaries = new ConcurrentHashMap<>();
+
+  /**
+   * @param dictionaryList the dictionaries in the metadata of a TsFile
+   * @throws IOException if two dictionaries have the same id but different contents
+   */
+  public ZstdDictionaries(List<byte[]> dictionaryList) throws IOException {
+    Map<Long, byte[]> map = new HashMap<>();
+    for (byte[] dictionary : dictionaryList) {
+      long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary);
+      if (dictionaryId == 0) {
+        throw new IOException("ZSTD dictionary without an id is not supported");
+      }
+      put(map, dictionaryId, dictionary);
+    }
+    this.dictionaries = Collections.unmodifiableMap(map);
+  }
+
+  private ZstdDictionaries(Map<Long, byte[]> dictionaries) {
+    this.dictionaries = Collections.unmodifiableMap(dictionaries);
+  }
+
+  /**
+   * Merge the dictionaries of two chunks which will be written into the same TsFile.
+   *
+   * @return null if both are null
+   * @throws IOException if the same id refers to different dictionaries
+   */
+  public static ZstdDictionaries merge(ZstdDictionaries left, ZstdDictionaries right)
+      throws IOException {
+    if (left == null || left == right) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    Map<Long, byte[]> map = new HashMap<>(left.dictionaries);
+    for (Map.Entry<Long, byte[]> entry : right.dictionaries.entrySet()) {
+      put(map, entry.getKey(), entry.getValue());
+    }
+    return new ZstdDictionaries(map);
+  }
+
+  /**
+   * Put the dictionary into the map.
+   *
+   * @throws IOException if the map has a different dictionary with the same id
+   */
+  public static void put(Map<Long, byte[]> map, long dictionaryId, byte[] dictionary)
+      throws IOException {
+    byte[] previous = map.putIfAbsent(dictionaryId, dictionary);
+    if (previous != null && !Arrays.equals(previous, dictionary)) {
+      throw new IOException("Different ZSTD dictionaries have the same id " + dictionaryId);
+    }
+  }
+
+  public boolean isEmpty() {
+    return dictionaries.isEmpty();
+  }
+
+  /** @return the dictionary with the given id, null if it is not in this file */
+  public byte[] getDictionary(long dictionaryId) {
+    return dictionaries.get(dictionaryId);
+  }
+
+  ZstdDictDecompress getDecompressDictionary(long dictionaryId) throws IOException {
+    byte[] dictionary = dictionaries.get(dictionaryId);
+    if (dictionary == null) {
+      throw new IOException(
+          "ZSTD dictionary " + dictionaryId + " is not found in the metadata of the TsFile");
+    }
+    return decompressDictionaries.computeIfAbsent(
+        dictionaryId, k -> new ZstdDictDecompress(dictionary));
+  }
+}
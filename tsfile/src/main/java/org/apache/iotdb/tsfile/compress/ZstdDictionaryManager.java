@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class manages the ZSTD dictionaries loaded from the configured dictionary dir.
+ *
+ * <p>A dictionary is identified by the id in its header, and every ZSTD frame compressed with a
+ * dictionary records the dictionary id in the frame header. The dictionary named
+ * {measurementId}.dict compresses the pages of that measurement, and default.dict compresses the
+ * pages of the other measurements. The writer stores the dictionaries used by a TsFile in its
+ * metadata, and the chunks of a sealed TsFile are uncompressed with the {@link ZstdDictionaries} of
+ * that file. The dictionaries here are only used to uncompress the chunks of unsealed TsFiles.
+ */
+public class ZstdDictionaryManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZstdDictionaryManager.class);
+
+  public static final String DICTIONARY_FILE_SUFFIX = ".dict";
+  public static final String DEFAULT_DICTIONARY_NAME = "default";
+
+  private static final int FRAME_MAGIC_NUMBER = 0xFD2FB528;
+  private static final int DICTIONARY_MAGIC_NUMBER = 0xEC30A437;
+
+  /** dictionary id -> dictionary content */
+  private final Map<Long, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+  private final Map<Long, ZstdDictDecompress> decompressDictionaries = new ConcurrentHashMap<>();
+
+  /** dictionary id -> compression level -> prepared dictionary */
+  private final Map<Long, Map<Integer, ZstdDictCompress>> compressDictionaries =
+      new ConcurrentHashMap<>();
+
+  /** measurement id -> id of the dictionary used to compress its pages */
+  private final Map<String, Long> measurementDictionaryIds = new ConcurrentHashMap<>();
+
+  private volatile long defaultDictionaryId = 0;
+
+  private ZstdDictionaryManager() {
+    String dictionaryDir = TSFileDescriptor.getInstance().getConfig().getZstdDictionaryDir();
+    if (dictionaryDir != null && !dictionaryDir.isEmpty()) {
+      try {
+        loadDictionaries(new File(dictionaryDir));
+      } catch (IOException e) {
+        logger.error("Failed to load ZSTD dictionaries from {}", dictionaryDir, e);
+      }
+    }
+  }
+
+  public static ZstdDictionaryManager getInstance() {
+    return ZstdDictionaryManagerHolder.INSTANCE;
+  }
+
+  /**
+   * Load all the dictionaries in the given dir, and use them to compress the measurements named by
+   * their file names.
+   */
+  public void loadDictionaries(File dictionaryDir) throws IOException {
+    File[] files = dictionaryDir.listFiles((dir, name) -> name.endsWith(DICTIONARY_FILE_SUFFIX));
+    if (files == null) {
+      throw new IOException("Can not list the ZSTD dictionary dir " + dictionaryDir);
+    }
+    for (File file : files) {
+      String name =
+          file.getName().substring(0, file.getName().length() - DICTIONARY_FILE_SUFFIX.length());
+      long dictionaryId;
+      try {
+        dictionaryId = register(Files.readAllBytes(file.toPath()));
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Can not load the ZSTD dictionary " + file, e);
+      }
+      if (DEFAULT_DICTIONARY_NAME.equals(name)) {
+        defaultDictionaryId = dictionaryId;
+      } else {
+        measurementDictionaryIds.put(name, dictionaryId);
+      }
+      logger.info("Load ZSTD dictionary {} with id {}", file, dictionaryId);
+    }
+  }
+
+  /**
+   * Register a dictionary so that the frames compressed with it can be uncompressed.
+   *
+   * @return id of the dictionary
+   * @throws IllegalArgumentException if the dictionary has no id, e.g. a raw content dictionary, or
+   *     if a different dictionary with the same id is already registered
+   */
+  public long register(byte[] dictionary) {
+    long dictionaryId = getDictionaryIdOfDictionary(dictionary);
+    if (dictionaryId == 0) {
+      throw new IllegalArgumentException("Only ZSTD dictionaries with an id are supported");
+    }
+    byte[] previous = dictionaries.putIfAbsent(dictionaryId, dictionary);
+    if (previous != null && !Arrays.equals(previous, dictionary)) {
+      throw new IllegalArgumentException(
+          "A different ZSTD dictionary with the same id " + dictionaryId + " is registered");
+    }
+    return dictionaryId;
+  }
+
+  public boolean isEmpty() {
+    return dictionaries.isEmpty();
+  }
+
+  /** Unregister all the dictionaries, so that ZSTD compresses without dictionaries. */
+  public void clear() {
+    measurementDictionaryIds.clear();
+    defaultDictionaryId = 0;
+    compressDictionaries.clear();
+    decompressDictionaries.clear();
+    dictionaries.clear();
+  }
+
+  /** @return the dictionary with the given id, null if it is not registered */
+  public byte[] getDictionary(long dictionaryId) {
+    return dictionaries.get(dictionaryId);
+  }
+
+  /** @return id of the dictionary used to compress the given measurement, 0 for no dictionary */
+  public long getDictionaryIdForWrite(String measurementId) {
+    if (measurementId == null) {
+      return defaultDictionaryId;
+    }
+    return measurementDictionaryIds.getOrDefault(measurementId, defaultDictionaryId);
+  }
+
+  ZstdDictCompress getCompressDictionary(long dictionaryId, int compressionLevel) {
+    return compressDictionaries
+        .computeIfAbsent(dictionaryId, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            compressionLevel,
+            level -> new ZstdDictCompress(getRegisteredDictionary(dictionaryId), level));
+  }
+
+  ZstdDictDecompress getDecompressDictionary(long dictionaryId) throws IOException {
+    byte[] dictionary = dictionaries.get(dictionaryId);
+    if (dictionary == null) {
+      throw new IOException(
+          "ZSTD dictionary " + dictionaryId + " is not found in the configured dictionaries");
+    }
+    return decompressDictionaries.computeIfAbsent(
+        dictionaryId, k -> new ZstdDictDecompress(dictionary));
+  }
+
+  private byte[] getRegisteredDictionary(long dictionaryId) {
+    byte[] dictionary = dictionaries.get(dictionaryId);
+    if (dictionary == null) {
+      throw new IllegalStateException("ZSTD dictionary " + dictionaryId + " is not registered");
+    }
+    return dictionary;
+  }
+
+  /** @return id in the header of the dictionary, 0 if it is a raw content dictionary */
+  public static long getDictionaryIdOfDictionary(byte[] dictionary) {
+    if (dictionary.length < 2 * Integer.BYTES) {
+      return 0;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(dictionary).order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt() != DICTIONARY_MAGIC_NUMBER) {
+      return 0;
+    }
+    return buffer.getInt() & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Get the dictionary id from the header of a ZSTD frame, without changing the position of the
+   * buffer.
+   *
+   * @return 0 if the frame is not compressed with a dictionary
+   */
+  public static long getDictionaryIdOfFrame(ByteBuffer frame) {
+    ByteBuffer buffer = frame.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.remaining() < Integer.BYTES + 1 || buffer.getInt() != FRAME_MAGIC_NUMBER) {
+      return 0;
+    }
+    int descriptor = buffer.get() & 0xFF;
+    int dictionaryIdFlag = descriptor & 0x3;
+    if (dictionaryIdFlag == 0) {
+      return 0;
+    }
+    boolean singleSegment = (descriptor & 0x20) != 0;
+    if (!singleSegment && buffer.hasRemaining()) {
+      // skip the window descriptor
+      buffer.get();
+    }
+    int dictionaryIdSize = dictionaryIdFlag == 3 ? Integer.BYTES : dictionaryIdFlag;
+    if (buffer.remaining() < dictionaryIdSize) {
+      return 0;
+    }
+    long dictionaryId = 0;
+    for (int i = 0; i < dictionaryIdSize; i++) {
+      dictionaryId |= (buffer.get() & 0xFFL) << (Byte.SIZE * i);
+    }
+    return dictionaryId;
+  }
+
+  public static long getDictionaryIdOfFrame(byte[] frame, int offset, int length) {
+    return getDictionaryIdOfFrame(ByteBuffer.wrap(frame, offset, length));
+  }
+
+  private static class ZstdDictionaryManagerHolder {
+
+    private static final ZstdDictionaryManager INSTANCE = new ZstdDictionaryManager();
+
+    private ZstdDictionaryManagerHolder() {}
+  }
+}
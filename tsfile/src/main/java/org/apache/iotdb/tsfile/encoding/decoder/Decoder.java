@@ -32,6 +32,9 @@ public abstract class Decoder {
 
   private static final String ERROR_MSG = "Decoder not found: %s , DataType is : %s";
 
+  /** max number of values decoded at a time by the default implementation of skip */
+  private static final int SKIP_BATCH_SIZE = 1024;
+
   private TSEncoding type;
 
   public Decoder(TSEncoding type) {
@@ -174,6 +177,109 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most {@code max} long values into {@code dst} starting from {@code offset}. The
+   * default implementation decodes value by value, decoders which keep a decoded block in memory
+   * should override it to copy the whole block at a time.
+   *
+   * @return the number of values actually decoded, which is less than {@code max} only if there is
+   *     no value left in the buffer
+   */
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      dst[offset + count] = readLong(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /** Same as {@link #readLongs(ByteBuffer, long[], int, int)} but for int values. */
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      dst[offset + count] = readInt(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /** Same as {@link #readLongs(ByteBuffer, long[], int, int)} but for float values. */
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      dst[offset + count] = readFloat(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /** Same as {@link #readLongs(ByteBuffer, long[], int, int)} but for double values. */
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      dst[offset + count] = readDouble(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Skip at most {@code n} values of the given type. The default implementation decodes the values
+   * and drops them, decoders which can locate the next value without decoding the skipped ones
+   * should override it.
+   *
+   * @return the number of values actually skipped, which is less than {@code n} only if there is no
+   *     value left in the buffer
+   */
+  public int skip(ByteBuffer buffer, TSDataType dataType, int n) throws IOException {
+    int count = 0;
+    switch (dataType) {
+      case INT32:
+        int[] ints = new int[Math.min(n, SKIP_BATCH_SIZE)];
+        while (count < n) {
+          int readNum = readInts(buffer, ints, 0, Math.min(n - count, ints.length));
+          if (readNum == 0) {
+            break;
+          }
+          count += readNum;
+        }
+        return count;
+      case INT64:
+        long[] longs = new long[Math.min(n, SKIP_BATCH_SIZE)];
+        while (count < n) {
+          int readNum = readLongs(buffer, longs, 0, Math.min(n - count, longs.length));
+          if (readNum == 0) {
+            break;
+          }
+          count += readNum;
+        }
+        return count;
+      default:
+        while (count < n && hasNext(buffer)) {
+          switch (dataType) {
+            case BOOLEAN:
+              readBoolean(buffer);
+              break;
+            case FLOAT:
+              readFloat(buffer);
+              break;
+            case DOUBLE:
+              readDouble(buffer);
+              break;
+            case TEXT:
+              readBinary(buffer);
+              break;
+            default:
+              throw new TsFileDecodingException(
+                  String.format(ERROR_MSG, getType(), dataType.toString()));
+          }
+          count++;
+        }
+        return count;
+    }
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
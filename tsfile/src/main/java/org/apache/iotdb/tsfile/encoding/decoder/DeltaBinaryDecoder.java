@@ -20,6 +20,7 @@
 package org.apache.iotdb.tsfile.encoding.decoder;
 
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -76,6 +77,31 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     return (nextReadIndex < readIntTotalCount) || buffer.remaining() > 0;
   }
 
+  /** Skip values in the decoded pack without copying them, packs are still decoded as a whole. */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int n) throws IOException {
+    int skipped = 0;
+    while (skipped < n) {
+      if (nextReadIndex == readIntTotalCount) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        // load the next pack, whose first value is returned directly
+        if (dataType == TSDataType.INT32) {
+          readInt(buffer);
+        } else {
+          readLong(buffer);
+        }
+        skipped++;
+      } else {
+        int length = Math.min(n - skipped, readIntTotalCount - nextReadIndex);
+        nextReadIndex += length;
+        skipped += length;
+      }
+    }
+    return skipped;
+  }
+
   public static class IntDeltaDecoder extends DeltaBinaryDecoder {
 
     private int firstValue;
@@ -106,6 +132,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int offset, int max) {
+      int count = 0;
+      while (count < max) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + count] = loadIntBatch(buffer);
+          count++;
+        } else {
+          int length = Math.min(max - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        }
+      }
+      return count;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -222,6 +268,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int offset, int max) {
+      int count = 0;
+      while (count < max) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + count] = loadIntBatch(buffer);
+          count++;
+        } else {
+          int length = Math.min(max - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, offset + count, length);
+          nextReadIndex += length;
+          count += length;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
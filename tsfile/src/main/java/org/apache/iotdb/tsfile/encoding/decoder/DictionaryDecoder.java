@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.tsfile.encoding.decoder;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -67,6 +68,39 @@ public class DictionaryDecoder extends Decoder {
     return entryIndex.get(code);
   }
 
+  /**
+   * Decode at most {@code max} dictionary ids instead of the entries, so that a filter can be
+   * evaluated once for each entry.
+   *
+   * @return the number of ids actually decoded
+   */
+  public int readIds(ByteBuffer buffer, int[] dst, int offset, int max) throws IOException {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    return valueDecoder.readInts(buffer, dst, offset, max);
+  }
+
+  /** @return the number of entries in the dictionary of current page */
+  public int getEntryCount(ByteBuffer buffer) {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    return entryIndex.size();
+  }
+
+  public Binary getEntry(int id) {
+    return entryIndex.get(id);
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int n) throws IOException {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    return valueDecoder.skip(buffer, TSDataType.INT32, n);
+  }
+
   private void initMap(ByteBuffer buffer) {
     int length = ReadWriteForEncodingUtils.readVarInt(buffer);
     entryIndex = new ArrayList<>(length);
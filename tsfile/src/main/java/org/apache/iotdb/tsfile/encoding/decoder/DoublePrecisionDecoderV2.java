@@ -42,6 +42,21 @@ public class DoublePrecisionDecoderV2 extends LongGorillaDecoder {
     return Double.longBitsToDouble(readLong(in));
   }
 
+  @Override
+  public int readDoubles(ByteBuffer in, double[] dst, int offset, int max) {
+    int count = 0;
+    if (!firstValueWasRead && max > 0 && hasNext) {
+      dst[offset] = readDouble(in);
+      count++;
+    }
+    while (count < max && hasNext) {
+      dst[offset + count] = Double.longBitsToDouble(storedValue);
+      cacheNext(in);
+      count++;
+    }
+    return count;
+  }
+
   @Override
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
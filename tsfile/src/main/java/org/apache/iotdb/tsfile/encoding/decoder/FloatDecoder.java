@@ -47,6 +47,11 @@ public class FloatDecoder extends Decoder {
   /** flag that indicates whether we have read maxPointNumber and calculated maxPointValue. */
   private boolean isMaxPointNumberRead;
 
+  /** values batch-read from the inner decoder before being scaled, allocated on demand */
+  private int[] intBatch;
+
+  private long[] longBatch;
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -93,6 +98,38 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int max) throws IOException {
+    if (max <= 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (intBatch == null || intBatch.length < max) {
+      intBatch = new int[max];
+    }
+    int count = decoder.readInts(buffer, intBatch, 0, max);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = (float) (intBatch[i] / maxPointValue);
+    }
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int max) throws IOException {
+    if (max <= 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (longBatch == null || longBatch.length < max) {
+      longBatch = new long[max];
+    }
+    int count = decoder.readLongs(buffer, longBatch, 0, max);
+    for (int i = 0; i < count; i++) {
+      dst[offset + i] = longBatch[i] / maxPointValue;
+    }
+    return count;
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
@@ -79,6 +79,22 @@ public class IntChimpDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readInts(ByteBuffer in, int[] dst, int offset, int max) {
+    int count = 0;
+    if (!firstValueWasRead && max > 0 && hasNext) {
+      dst[offset] = readInt(in);
+      count++;
+    }
+    // the value to return is always stored ahead, only the next one needs to be decoded
+    while (count < max && hasNext) {
+      dst[offset + count] = storedValue;
+      cacheNext(in);
+      count++;
+    }
+    return count;
+  }
+
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == Integer.MIN_VALUE) {
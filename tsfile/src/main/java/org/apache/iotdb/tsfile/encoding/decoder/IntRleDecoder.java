@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -99,6 +100,40 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // copy the rest of current rle run or bit-packing group at a time
+      int length = Math.min(max - count, currentCount);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(dst, offset + count, offset + count + length, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(
+              currentBuffer, bitPackingNum - currentCount, dst, offset + count, length);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding IntRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= length;
+      count += length;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
@@ -79,6 +79,22 @@ public class LongChimpDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readLongs(ByteBuffer in, long[] dst, int offset, int max) {
+    int count = 0;
+    if (!firstValueWasRead && max > 0 && hasNext) {
+      dst[offset] = readLong(in);
+      count++;
+    }
+    // the value to return is always stored ahead, only the next one needs to be decoded
+    while (count < max && hasNext) {
+      dst[offset + count] = storedValue;
+      cacheNext(in);
+      count++;
+    }
+    return count;
+  }
+
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValues[current] == Long.MIN_VALUE) {
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for long value using rle or bit-packing. */
 public class LongRleDecoder extends RleDecoder {
@@ -94,6 +95,40 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // copy the rest of current rle run or bit-packing group at a time
+      int length = Math.min(max - count, currentCount);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(dst, offset + count, offset + count + length, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(
+              currentBuffer, bitPackingNum - currentCount, dst, offset + count, length);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding LongRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= length;
+      count += length;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
@@ -20,10 +20,12 @@
 package org.apache.iotdb.tsfile.encoding.decoder;
 
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 
@@ -63,6 +65,30 @@ public class PlainDecoder extends Decoder {
     return buffer.getDouble();
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int max) {
+    int count = Math.min(max, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Long.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int max) {
+    int count = Math.min(max, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Float.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int max) {
+    int count = Math.min(max, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(dst, offset, count);
+    buffer.position(buffer.position() + count * Double.BYTES);
+    return count;
+  }
+
   @Override
   public Binary readBinary(ByteBuffer buffer) {
     int length = readInt(buffer);
@@ -76,6 +102,39 @@ public class PlainDecoder extends Decoder {
     return buffer.remaining() > 0;
   }
 
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int n) throws IOException {
+    int width;
+    switch (dataType) {
+      case BOOLEAN:
+        width = Byte.BYTES;
+        break;
+      case FLOAT:
+        width = Float.BYTES;
+        break;
+      case INT64:
+        width = Long.BYTES;
+        break;
+      case DOUBLE:
+        width = Double.BYTES;
+        break;
+      case TEXT:
+        int count = 0;
+        while (count < n && buffer.hasRemaining()) {
+          int length = readInt(buffer);
+          buffer.position(buffer.position() + length);
+          count++;
+        }
+        return count;
+      default:
+        // int values are var-length
+        return super.skip(buffer, dataType, n);
+    }
+    int count = Math.min(n, buffer.remaining() / width);
+    buffer.position(buffer.position() + count * width);
+    return count;
+  }
+
   @Override
   public BigDecimal readBigDecimal(ByteBuffer buffer) {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by PlainDecoder");
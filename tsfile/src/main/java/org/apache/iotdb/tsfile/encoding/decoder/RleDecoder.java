@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -164,6 +165,31 @@ public abstract class RleDecoder extends Decoder {
     return currentCount > 0 || byteCache.remaining() > 0;
   }
 
+  /**
+   * Skip whole rle runs without filling the skipped values. Bit-packing groups are still unpacked,
+   * because they are unpacked as a whole.
+   */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int n) throws IOException {
+    int count = 0;
+    while (count < n && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      int length = Math.min(n - count, currentCount);
+      currentCount -= length;
+      count += length;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   protected abstract void initPacker();
 
   /**
@@ -39,6 +39,21 @@ public class SinglePrecisionChimpDecoder extends IntChimpDecoder {
     return Float.intBitsToFloat(readInt(in));
   }
 
+  @Override
+  public int readFloats(ByteBuffer in, float[] dst, int offset, int max) {
+    int count = 0;
+    if (!firstValueWasRead && max > 0 && hasNext) {
+      dst[offset] = readFloat(in);
+      count++;
+    }
+    while (count < max && hasNext) {
+      dst[offset + count] = Float.intBitsToFloat(storedValues[current]);
+      cacheNext(in);
+      count++;
+    }
+    return count;
+  }
+
   @Override
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
@@ -194,6 +194,21 @@ public class ChunkHeader {
         chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
   }
 
+  /**
+   * deserialize from a buffer whose position is at the chunk type marker. After deserialization,
+   * the position of the buffer is at the beginning of the chunk data.
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer) {
+    byte chunkType = buffer.get();
+    // read measurementID
+    String measurementID = ReadWriteIOUtils.readVarIntString(buffer);
+    int dataSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
+    TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
+    return new ChunkHeader(chunkType, measurementID, dataSize, dataType, type, encoding);
+  }
+
   /**
    * Used by {@link
    * TsFileSequenceReader#readTimeseriesCompressionTypeAndEncoding(TimeseriesMetadata)} to only
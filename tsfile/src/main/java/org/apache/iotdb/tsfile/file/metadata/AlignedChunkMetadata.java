@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -67,6 +68,12 @@ public class AlignedChunkMetadata implements IChunkMetadata {
     return timeChunkMetadata.getStatistics();
   }
 
+  /** Value bloom filters are only written for non-aligned chunks. */
+  @Override
+  public BloomFilter getValueBloomFilter() {
+    return null;
+  }
+
   @Override
   public boolean isModified() {
     return timeChunkMetadata.isModified();
@@ -18,14 +18,17 @@
  */
 package org.apache.iotdb.tsfile.file.metadata;
 
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -63,6 +66,9 @@ public class ChunkMetadata implements IChunkMetadata {
 
   private Statistics<? extends Serializable> statistics;
 
+  /** bloom filter of the distinct values in this chunk, null if it is not written */
+  private BloomFilter valueBloomFilter;
+
   private boolean isFromOldTsFile = false;
 
   private long ramSize;
@@ -111,6 +117,7 @@ public class ChunkMetadata implements IChunkMetadata {
     this.version = other.version;
     this.chunkLoader = other.chunkLoader;
     this.statistics = other.statistics;
+    this.valueBloomFilter = other.valueBloomFilter;
     this.isFromOldTsFile = other.isFromOldTsFile;
     this.ramSize = other.ramSize;
     this.isSeq = other.isSeq;
@@ -151,6 +158,15 @@ public class ChunkMetadata implements IChunkMetadata {
     return statistics;
   }
 
+  @Override
+  public BloomFilter getValueBloomFilter() {
+    return valueBloomFilter;
+  }
+
+  public void setValueBloomFilter(BloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
   public long getStartTime() {
     return statistics.getStartTime();
   }
@@ -171,11 +187,27 @@ public class ChunkMetadata implements IChunkMetadata {
    * @throws IOException IOException
    */
   public int serializeTo(OutputStream outputStream, boolean serializeStatistic) throws IOException {
+    return serializeTo(outputStream, serializeStatistic, false);
+  }
+
+  /**
+   * serialize to outputStream.
+   *
+   * @param serializeValueBloomFilter whether to serialize the value bloom filter, which is written
+   *     even if it is null
+   * @return length
+   */
+  public int serializeTo(
+      OutputStream outputStream, boolean serializeStatistic, boolean serializeValueBloomFilter)
+      throws IOException {
     int byteLen = 0;
     byteLen += ReadWriteIOUtils.write(offsetOfChunkHeader, outputStream);
     if (serializeStatistic) {
       byteLen += statistics.serialize(outputStream);
     }
+    if (serializeValueBloomFilter) {
+      byteLen += ValueBloomFilterUtils.serialize(valueBloomFilter, outputStream);
+    }
     return byteLen;
   }
 
@@ -194,21 +226,27 @@ public class ChunkMetadata implements IChunkMetadata {
     chunkMetaData.offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
     // if the TimeSeriesMetadataType is not 0, it means it has more than one chunk
     // and each chunk's metadata has its own statistics
-    if ((timeseriesMetadata.getTimeSeriesMetadataType() & 0x3F) != 0) {
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & 0x1F) != 0) {
       chunkMetaData.statistics = Statistics.deserialize(buffer, chunkMetaData.tsDataType);
     } else {
       // if the TimeSeriesMetadataType is 0, it means it has only one chunk
       // and that chunk's metadata has no statistic
       chunkMetaData.statistics = timeseriesMetadata.getStatistics();
     }
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & TsFileConstant.VALUE_BLOOM_FILTER_MASK)
+        != 0) {
+      chunkMetaData.valueBloomFilter = ValueBloomFilterUtils.deserialize(buffer);
+    }
     return chunkMetaData;
   }
 
+  /** deserialize the chunk metadata serialized with both statistics and value bloom filter. */
   public static ChunkMetadata deserializeFrom(ByteBuffer buffer, TSDataType dataType) {
     ChunkMetadata chunkMetadata = new ChunkMetadata();
     chunkMetadata.tsDataType = dataType;
     chunkMetadata.offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
     chunkMetadata.statistics = Statistics.deserialize(buffer, dataType);
+    chunkMetadata.valueBloomFilter = ValueBloomFilterUtils.deserialize(buffer);
     return chunkMetadata;
   }
 
@@ -313,6 +351,9 @@ public class ChunkMetadata implements IChunkMetadata {
     memSize += RamUsageEstimator.sizeOf(tsFilePrefixPath);
     memSize += RamUsageEstimator.sizeOf(measurementUid);
     memSize += statistics.calculateRamSize();
+    if (valueBloomFilter != null) {
+      memSize += valueBloomFilter.getSize() / Byte.SIZE;
+    }
     return memSize;
   }
 
@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -33,6 +34,9 @@ public interface IChunkMetadata {
 
   Statistics<? extends Serializable> getStatistics();
 
+  /** @return bloom filter of the distinct values in the chunk, null if there is none */
+  BloomFilter getValueBloomFilter();
+
   boolean isModified();
 
   void setModified(boolean modified);
@@ -28,6 +28,8 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /** TSFileMetaData collects all metadata info and saves in its data structure. */
@@ -42,6 +44,9 @@ public class TsFileMetadata {
   // offset of MetaMarker.SEPARATOR
   private long metaOffset;
 
+  // ZSTD dictionaries used by the chunks of this file, only serialized when not empty
+  private List<byte[]> zstdDictionaries = new ArrayList<>();
+
   /**
    * deserialize data from the buffer.
    *
@@ -66,6 +71,15 @@ public class TsFileMetadata {
       fileMetaData.bloomFilter = BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
     }
 
+    // read ZSTD dictionaries
+    if (buffer.hasRemaining()) {
+      int dictionaryNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      for (int i = 0; i < dictionaryNum; i++) {
+        fileMetaData.zstdDictionaries.add(
+            ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer));
+      }
+    }
+
     return fileMetaData;
   }
 
@@ -124,6 +138,27 @@ public class TsFileMetadata {
     return byteLen;
   }
 
+  /**
+   * use the given outputStream to serialize ZSTD dictionaries. It must be called after the bloom
+   * filter is serialized, and nothing is written if there is no dictionary.
+   *
+   * @param outputStream -output stream to determine byte length
+   * @return -byte length
+   */
+  public int serializeZstdDictionaries(OutputStream outputStream) throws IOException {
+    if (zstdDictionaries.isEmpty()) {
+      return 0;
+    }
+    int byteLen =
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(zstdDictionaries.size(), outputStream);
+    for (byte[] dictionary : zstdDictionaries) {
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionary.length, outputStream);
+      outputStream.write(dictionary);
+      byteLen += dictionary.length;
+    }
+    return byteLen;
+  }
+
   /**
    * build bloom filter
    *
@@ -147,6 +182,14 @@ public class TsFileMetadata {
     this.metaOffset = metaOffset;
   }
 
+  public List<byte[]> getZstdDictionaries() {
+    return zstdDictionaries;
+  }
+
+  public void setZstdDictionaries(List<byte[]> zstdDictionaries) {
+    this.zstdDictionaries = zstdDictionaries;
+  }
+
   public MetadataIndexNode getMetadataIndex() {
     return metadataIndex;
   }
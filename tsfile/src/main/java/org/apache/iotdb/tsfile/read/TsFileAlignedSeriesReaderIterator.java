@@ -27,6 +27,7 @@ import org.apache.iotdb.tsfile.read.reader.chunk.AlignedChunkReader;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -60,12 +61,18 @@ public class TsFileAlignedSeriesReaderIterator {
     IChunkMetadata timeChunkMetadata = alignedChunkMetadata.getTimeChunkMetadata();
     List<IChunkMetadata> valueChunkMetadataList = alignedChunkMetadata.getValueChunkMetadataList();
     int schemaIdx = 0;
-    Chunk timeChunk = reader.readMemChunk((ChunkMetadata) timeChunkMetadata);
+    // the time chunk and value chunks are adjacent in the chunk group, read them together
+    List<IChunkMetadata> chunkMetadataList = new ArrayList<>(valueChunkMetadataList.size() + 1);
+    chunkMetadataList.add(timeChunkMetadata);
+    chunkMetadataList.addAll(valueChunkMetadataList);
+    List<Chunk> chunks = reader.readChunks(chunkMetadataList);
+    Chunk timeChunk = chunks.get(0);
     Chunk[] valueChunks = new Chunk[schemaList.size()];
     long totalSize = 0;
     long totalPointNum = 0;
     int notNullChunkNum = 0;
-    for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+    for (int i = 0; i < valueChunkMetadataList.size(); i++) {
+      IChunkMetadata valueChunkMetadata = valueChunkMetadataList.get(i);
       if (valueChunkMetadata == null) {
         continue;
       }
@@ -74,7 +81,7 @@ public class TsFileAlignedSeriesReaderIterator {
           .equals(schemaList.get(schemaIdx).getMeasurementId())) {
         schemaIdx++;
       }
-      Chunk chunk = reader.readMemChunk((ChunkMetadata) valueChunkMetadata);
+      Chunk chunk = chunks.get(i + 1);
       valueChunks[schemaIdx++] = chunk;
       notNullChunkNum++;
       totalPointNum += ((ChunkMetadata) valueChunkMetadata).getNumOfPoints();
@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.TsFileRuntimeException;
 import org.apache.iotdb.tsfile.exception.TsFileStatisticsMistakesException;
@@ -96,12 +97,16 @@ public class TsFileSequenceReader implements AutoCloseable {
   private static final String METADATA_INDEX_NODE_DESERIALIZE_ERROR =
       "Something error happened while deserializing MetadataIndexNode of file {}";
   private static final int MAX_READ_BUFFER_SIZE = 4 * 1024 * 1024;
+  /** chunks whose headers are within this distance are read by one I/O in {@link #readChunks} */
+  public static final int DEFAULT_MAX_COALESCED_READ_SIZE = 1024 * 1024;
   protected String file;
   protected TsFileInput tsFileInput;
   protected long fileMetadataPos;
   protected int fileMetadataSize;
   private ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
   protected volatile TsFileMetadata tsFileMetaData;
+  /** ZSTD dictionaries in the file metadata, set before {@link #tsFileMetaData} */
+  private volatile ZstdDictionaries zstdDictionaries;
   // device -> measurement -> TimeseriesMetadata
   private Map<String, Map<String, TimeseriesMetadata>> cachedDeviceMetadata =
       new ConcurrentHashMap<>();
@@ -280,8 +285,10 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (tsFileMetaData == null) {
         synchronized (this) {
           if (tsFileMetaData == null) {
-            tsFileMetaData =
+            TsFileMetadata fileMetadata =
                 TsFileMetadata.deserializeFrom(readData(fileMetadataPos, fileMetadataSize));
+            zstdDictionaries = new ZstdDictionaries(fileMetadata.getZstdDictionaries());
+            tsFileMetaData = fileMetadata;
           }
         }
       }
@@ -292,6 +299,28 @@ public class TsFileSequenceReader implements AutoCloseable {
     return tsFileMetaData;
   }
 
+  /**
+   * @return the ZSTD dictionaries in the file metadata, null if the file has no file metadata, e.g.
+   *     it is unclosed, then the configured dictionaries are used
+   */
+  public ZstdDictionaries getZstdDictionaries() throws IOException {
+    if (fileMetadataSize <= 0) {
+      return null;
+    }
+    if (zstdDictionaries == null) {
+      readFileMetadata();
+    }
+    return zstdDictionaries;
+  }
+
+  /** Let the chunk be uncompressed with the ZSTD dictionaries of this file. */
+  private Chunk attachZstdDictionaries(Chunk chunk) throws IOException {
+    if (chunk.getHeader().getCompressionType() == CompressionType.ZSTD) {
+      chunk.setZstdDictionaries(getZstdDictionaries());
+    }
+    return chunk;
+  }
+
   /**
    * this function does not modify the position of the file reader.
    *
@@ -1285,13 +1314,114 @@ public class TsFileSequenceReader implements AutoCloseable {
       ByteBuffer buffer =
           readChunk(
               metaData.getOffsetOfChunkHeader() + header.getSerializedSize(), header.getDataSize());
-      return new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+      return attachZstdDictionaries(
+          new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics()));
     } catch (Throwable t) {
       logger.warn("Exception {} happened while reading chunk of {}", t.getMessage(), file);
       throw t;
     }
   }
 
+  /**
+   * read memory chunks of the given chunk metadata list. The chunks whose headers are close to each
+   * other are read by one I/O instead of one I/O per chunk, the bytes between them are skipped.
+   *
+   * @param chunkMetadataList chunk metadata in this file, sorted by the offset of chunk header
+   * @param maxCoalescedReadSize chunks are merged into one read only if the distance between the
+   *     header of the first chunk and the header of the last chunk is not larger than this size
+   * @return chunks in the same order as the given chunk metadata list
+   */
+  public List<Chunk> readMemChunks(
+      List<? extends IChunkMetadata> chunkMetadataList, int maxCoalescedReadSize)
+      throws IOException {
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    int start = 0;
+    while (start < chunkMetadataList.size()) {
+      long startOffset = chunkMetadataList.get(start).getOffsetOfChunkHeader();
+      int end = start + 1;
+      while (end < chunkMetadataList.size()) {
+        long offset = chunkMetadataList.get(end).getOffsetOfChunkHeader();
+        if (offset < startOffset) {
+          throw new IllegalArgumentException(
+              "chunk metadata should be sorted by offset of chunk header: " + chunkMetadataList);
+        }
+        if (offset - startOffset > maxCoalescedReadSize) {
+          break;
+        }
+        end++;
+      }
+      readCoalescedChunks(chunkMetadataList.subList(start, end), chunks);
+      start = end;
+    }
+    return chunks;
+  }
+
+  /**
+   * read memory chunks of the given chunk metadata list, which are usually the time chunk and value
+   * chunks of an aligned chunk. Chunks close to each other are read by one I/O, see {@link
+   * #readMemChunks(List, int)}.
+   *
+   * @param chunkMetadataList chunk metadata in this file in any order, null elements are allowed
+   * @return chunks in the same order as the given chunk metadata list, null for null metadata
+   */
+  public List<Chunk> readChunks(List<? extends IChunkMetadata> chunkMetadataList)
+      throws IOException {
+    List<IChunkMetadata> sortedChunkMetadataList = new ArrayList<>(chunkMetadataList.size());
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata != null) {
+        sortedChunkMetadataList.add(chunkMetadata);
+      }
+    }
+    sortedChunkMetadataList.sort(Comparator.comparingLong(IChunkMetadata::getOffsetOfChunkHeader));
+    List<Chunk> sortedChunks =
+        readMemChunks(sortedChunkMetadataList, DEFAULT_MAX_COALESCED_READ_SIZE);
+
+    Map<Long, Chunk> offsetToChunk = new HashMap<>();
+    for (int i = 0; i < sortedChunks.size(); i++) {
+      offsetToChunk.put(
+          sortedChunkMetadataList.get(i).getOffsetOfChunkHeader(), sortedChunks.get(i));
+    }
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      chunks.add(
+          chunkMetadata == null ? null : offsetToChunk.get(chunkMetadata.getOffsetOfChunkHeader()));
+    }
+    return chunks;
+  }
+
+  private void readCoalescedChunks(
+      List<? extends IChunkMetadata> chunkMetadataList, List<Chunk> chunks) throws IOException {
+    long startOffset = chunkMetadataList.get(0).getOffsetOfChunkHeader();
+    IChunkMetadata lastChunkMetadata = chunkMetadataList.get(chunkMetadataList.size() - 1);
+    // only the header of the last chunk is needed to know where the merged range ends
+    ChunkHeader lastHeader =
+        readChunkHeader(
+            lastChunkMetadata.getOffsetOfChunkHeader(),
+            ChunkHeader.getSerializedSize(lastChunkMetadata.getMeasurementUid()));
+    long endOffset =
+        lastChunkMetadata.getOffsetOfChunkHeader()
+            + lastHeader.getSerializedSize()
+            + lastHeader.getDataSize();
+    ByteBuffer buffer = readData(startOffset, endOffset);
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      buffer.limit(buffer.capacity());
+      buffer.position((int) (chunkMetadata.getOffsetOfChunkHeader() - startOffset));
+      ChunkHeader header = ChunkHeader.deserializeFrom(buffer);
+      // copy the data out, so that the merged buffer is not retained by the chunk
+      ByteBuffer data = ByteBuffer.allocate(header.getDataSize());
+      buffer.limit(buffer.position() + header.getDataSize());
+      data.put(buffer);
+      data.flip();
+      chunks.add(
+          attachZstdDictionaries(
+              new Chunk(
+                  header,
+                  data,
+                  chunkMetadata.getDeleteIntervalList(),
+                  chunkMetadata.getStatistics())));
+    }
+  }
+
   /**
    * read memory chunk.
    *
@@ -1305,8 +1435,9 @@ public class TsFileSequenceReader implements AutoCloseable {
         readChunk(
             chunkCacheKey.getOffsetOfChunkHeader() + header.getSerializedSize(),
             header.getDataSize());
-    return new Chunk(
-        header, buffer, chunkCacheKey.getDeleteIntervalList(), chunkCacheKey.getStatistics());
+    return attachZstdDictionaries(
+        new Chunk(
+            header, buffer, chunkCacheKey.getDeleteIntervalList(), chunkCacheKey.getStatistics()));
   }
 
   /**
@@ -1381,7 +1512,9 @@ public class TsFileSequenceReader implements AutoCloseable {
     if (header.getUncompressedSize() == 0 || type == CompressionType.UNCOMPRESSED) {
       return buffer;
     } // FIXME if the buffer is not array-implemented.
-    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+    IUnCompressor unCompressor =
+        IUnCompressor.getUnCompressor(
+            type, type == CompressionType.ZSTD ? getZstdDictionaries() : null);
     ByteBuffer uncompressedBuffer = ByteBuffer.allocate(header.getUncompressedSize());
     unCompressor.uncompress(
         buffer.array(), buffer.position(), buffer.remaining(), uncompressedBuffer.array(), 0);
@@ -1519,7 +1652,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
     if (!TSFileConfig.MAGIC_STRING.equals(readHeadMagic())
-        || (TSFileConfig.VERSION_NUMBER != readVersionNumber())) {
+        || !TSFileConfig.isSupportedVersion(readVersionNumber())) {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
 
@@ -1792,7 +1925,7 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     try {
       if (!TSFileConfig.MAGIC_STRING.equals(readHeadMagic())
-          || (TSFileConfig.VERSION_NUMBER != readVersionNumber())) {
+          || !TSFileConfig.isSupportedVersion(readVersionNumber())) {
         return TsFileCheckStatus.INCOMPATIBLE_FILE;
       }
       tsFileInput.position(headerLength);
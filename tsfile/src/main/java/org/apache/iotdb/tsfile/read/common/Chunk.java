@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.read.common;
 
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -37,6 +38,8 @@ public class Chunk {
   private boolean isFromOldFile = false;
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
+  /** ZSTD dictionaries of the TsFile the chunk is read from, null if the TsFile is unsealed */
+  private ZstdDictionaries zstdDictionaries;
 
   private long ramSize;
 
@@ -67,7 +70,28 @@ public class Chunk {
     this.deleteIntervalList = list;
   }
 
+  /**
+   * @return a chunk sharing the header, data and ZSTD dictionaries of this chunk, with its own
+   *     position of the data
+   */
+  public Chunk copy(List<TimeRange> deleteIntervalList, Statistics chunkStatistic) {
+    Chunk chunk = new Chunk(chunkHeader, chunkData.duplicate(), deleteIntervalList, chunkStatistic);
+    chunk.zstdDictionaries = zstdDictionaries;
+    return chunk;
+  }
+
+  public ZstdDictionaries getZstdDictionaries() {
+    return zstdDictionaries;
+  }
+
+  public void setZstdDictionaries(ZstdDictionaries zstdDictionaries) {
+    this.zstdDictionaries = zstdDictionaries;
+  }
+
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    // the pages of both chunks are kept compressed, so their dictionaries are needed
+    ZstdDictionaries mergedDictionaries =
+        ZstdDictionaries.merge(zstdDictionaries, chunk.zstdDictionaries);
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
@@ -145,6 +169,7 @@ public class Chunk {
       newChunkData.put(b, offset1, b.length - offset1);
     }
     chunkData = newChunkData;
+    zstdDictionaries = mergedDictionaries;
   }
 
   public Statistics getChunkStatistic() {
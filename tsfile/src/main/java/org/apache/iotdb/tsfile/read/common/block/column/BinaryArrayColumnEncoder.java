@@ -89,4 +89,35 @@ public class BinaryArrayColumnEncoder implements ColumnEncoder {
       throw new IllegalArgumentException("Invalid data type: " + dataType);
     }
   }
+
+  @Override
+  public void writeColumn(ByteBuffer output, Column column) {
+
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    int positionCount = column.getPositionCount();
+    if (TSDataType.TEXT.equals(dataType)) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          Binary binary = column.getBinary(i);
+          output.putInt(binary.getLength());
+          output.put(binary.getValues());
+        }
+      }
+    } else {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+  }
+
+  @Override
+  public int getSerializedSize(Column column) {
+    int size = ColumnEncoder.getSerializedNullIndicatorsSize(column);
+    for (int i = 0, positionCount = column.getPositionCount(); i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        size += Integer.BYTES + column.getBinary(i).getLength();
+      }
+    }
+    return size;
+  }
 }
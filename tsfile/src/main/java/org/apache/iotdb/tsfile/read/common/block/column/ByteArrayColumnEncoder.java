@@ -59,4 +59,23 @@ public class ByteArrayColumnEncoder implements ColumnEncoder {
       throw new IllegalArgumentException("Invalid data type: " + dataType);
     }
   }
+
+  @Override
+  public void writeColumn(ByteBuffer output, Column column) {
+
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    if (TSDataType.BOOLEAN.equals(dataType)) {
+      ColumnEncoder.serializeBooleanArray(output, column, Column::getBoolean);
+    } else {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+  }
+
+  @Override
+  public int getSerializedSize(Column column) {
+    return ColumnEncoder.getSerializedNullIndicatorsSize(column)
+        + ColumnEncoder.getSerializedBooleanArraySize(column);
+  }
 }
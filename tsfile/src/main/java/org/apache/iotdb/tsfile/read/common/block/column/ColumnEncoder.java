@@ -38,6 +38,15 @@ public interface ColumnEncoder {
   /** Write the specified column to the specified output */
   void writeColumn(DataOutputStream output, Column column) throws IOException;
 
+  /**
+   * Write the specified column to the specified output, which must have at least {@link
+   * #getSerializedSize(Column)} bytes remaining.
+   */
+  void writeColumn(ByteBuffer output, Column column) throws IOException;
+
+  /** @return the number of bytes written by writeColumn for the specified column */
+  int getSerializedSize(Column column);
+
   static void serializeNullIndicators(DataOutputStream output, Column column) throws IOException {
     boolean mayHaveNull = column.mayHaveNull();
     output.writeBoolean(mayHaveNull);
@@ -47,6 +56,34 @@ public interface ColumnEncoder {
     serializeBooleanArray(output, column, Column::isNull);
   }
 
+  static void serializeNullIndicators(ByteBuffer output, Column column) {
+    boolean mayHaveNull = column.mayHaveNull();
+    output.put(mayHaveNull ? (byte) 1 : (byte) 0);
+    if (!mayHaveNull) {
+      return;
+    }
+    serializeBooleanArray(output, column, Column::isNull);
+  }
+
+  static int getSerializedNullIndicatorsSize(Column column) {
+    return column.mayHaveNull() ? 1 + getSerializedBooleanArraySize(column) : 1;
+  }
+
+  /** @return the number of positions which are not null, whose values are serialized */
+  static int getNonNullPositionCount(Column column) {
+    int positionCount = column.getPositionCount();
+    if (!column.mayHaveNull()) {
+      return positionCount;
+    }
+    int nonNullPositionCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        nonNullPositionCount++;
+      }
+    }
+    return nonNullPositionCount;
+  }
+
   static boolean[] deserializeNullIndicators(ByteBuffer input, int positionCount) {
     boolean mayHaveNull = input.get() != 0;
     if (!mayHaveNull) {
@@ -62,8 +99,21 @@ public interface ColumnEncoder {
   static void serializeBooleanArray(
       DataOutputStream output, Column column, ColumnToBooleanFunction toBooleanFunction)
       throws IOException {
+    output.write(packBooleanArray(column, toBooleanFunction));
+  }
+
+  static void serializeBooleanArray(
+      ByteBuffer output, Column column, ColumnToBooleanFunction toBooleanFunction) {
+    output.put(packBooleanArray(column, toBooleanFunction));
+  }
+
+  static int getSerializedBooleanArraySize(Column column) {
+    return (column.getPositionCount() + 7) / 8;
+  }
+
+  static byte[] packBooleanArray(Column column, ColumnToBooleanFunction toBooleanFunction) {
     int positionCount = column.getPositionCount();
-    byte[] packedIsNull = new byte[((positionCount & ~0b111) + 1) / 8];
+    byte[] packedIsNull = new byte[getSerializedBooleanArraySize(column)];
     int currentByte = 0;
 
     for (int position = 0; position < (positionCount & ~0b111); position += 8, currentByte++) {
@@ -79,8 +129,6 @@ public interface ColumnEncoder {
       packedIsNull[currentByte] = value;
     }
 
-    output.write(packedIsNull);
-
     // write last null bits
     if ((positionCount & 0b111) > 0) {
       byte value = 0;
@@ -89,8 +137,9 @@ public interface ColumnEncoder {
         value |= toBooleanFunction.apply(column, position) ? mask : 0;
         mask >>>= 1;
       }
-      output.write(value);
+      packedIsNull[currentByte] = value;
     }
+    return packedIsNull;
   }
 
   static boolean[] deserializeBooleanArray(ByteBuffer input, int size) {
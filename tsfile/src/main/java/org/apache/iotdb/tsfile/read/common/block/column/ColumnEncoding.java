@@ -49,6 +49,10 @@ public enum ColumnEncoding {
     stream.writeByte(value);
   }
 
+  public void serializeTo(ByteBuffer buffer) {
+    buffer.put(value);
+  }
+
   private static ColumnEncoding getColumnEncoding(byte value) {
     switch (value) {
       case 0:
@@ -42,9 +42,9 @@ public class Int32ArrayColumnEncoder implements ColumnEncoder {
     if (TSDataType.INT32.equals(dataType)) {
       int[] values = new int[positionCount];
       if (nullIndicators == null) {
-        for (int i = 0; i < positionCount; i++) {
-          values[i] = input.getInt();
-        }
+        // bulk copy the values, which is much faster than getting them one by one
+        input.asIntBuffer().get(values);
+        input.position(input.position() + values.length * Integer.BYTES);
       } else {
         for (int i = 0; i < positionCount; i++) {
           if (!nullIndicators[i]) {
@@ -56,9 +56,8 @@ public class Int32ArrayColumnEncoder implements ColumnEncoder {
     } else if (TSDataType.FLOAT.equals(dataType)) {
       float[] values = new float[positionCount];
       if (nullIndicators == null) {
-        for (int i = 0; i < positionCount; i++) {
-          values[i] = Float.intBitsToFloat(input.getInt());
-        }
+        input.asFloatBuffer().get(values);
+        input.position(input.position() + values.length * Float.BYTES);
       } else {
         for (int i = 0; i < positionCount; i++) {
           if (!nullIndicators[i]) {
@@ -95,4 +94,34 @@ public class Int32ArrayColumnEncoder implements ColumnEncoder {
       throw new IllegalArgumentException("Invalid data type: " + dataType);
     }
   }
+
+  @Override
+  public void writeColumn(ByteBuffer output, Column column) {
+
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    int positionCount = column.getPositionCount();
+    if (TSDataType.INT32.equals(dataType)) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          output.putInt(column.getInt(i));
+        }
+      }
+    } else if (TSDataType.FLOAT.equals(dataType)) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          output.putInt(Float.floatToIntBits(column.getFloat(i)));
+        }
+      }
+    } else {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+  }
+
+  @Override
+  public int getSerializedSize(Column column) {
+    return ColumnEncoder.getSerializedNullIndicatorsSize(column)
+        + ColumnEncoder.getNonNullPositionCount(column) * Integer.BYTES;
+  }
 }
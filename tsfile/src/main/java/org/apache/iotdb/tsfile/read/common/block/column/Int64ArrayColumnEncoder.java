@@ -40,9 +40,7 @@ public class Int64ArrayColumnEncoder implements ColumnEncoder {
     boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
     long[] values = new long[positionCount];
     if (nullIndicators == null) {
-      for (int i = 0; i < positionCount; i++) {
-        values[i] = input.getLong();
-      }
+      readLongs(input, values);
       return new TimeColumn(0, positionCount, values);
     } else {
       throw new IllegalArgumentException("TimeColumn should not contain null values.");
@@ -64,9 +62,7 @@ public class Int64ArrayColumnEncoder implements ColumnEncoder {
     if (TSDataType.INT64.equals(dataType)) {
       long[] values = new long[positionCount];
       if (nullIndicators == null) {
-        for (int i = 0; i < positionCount; i++) {
-          values[i] = input.getLong();
-        }
+        readLongs(input, values);
       } else {
         for (int i = 0; i < positionCount; i++) {
           if (!nullIndicators[i]) {
@@ -78,9 +74,8 @@ public class Int64ArrayColumnEncoder implements ColumnEncoder {
     } else if (TSDataType.DOUBLE.equals(dataType)) {
       double[] values = new double[positionCount];
       if (nullIndicators == null) {
-        for (int i = 0; i < positionCount; i++) {
-          values[i] = Double.longBitsToDouble(input.getLong());
-        }
+        input.asDoubleBuffer().get(values);
+        input.position(input.position() + values.length * Double.BYTES);
       } else {
         for (int i = 0; i < positionCount; i++) {
           if (!nullIndicators[i]) {
@@ -94,6 +89,12 @@ public class Int64ArrayColumnEncoder implements ColumnEncoder {
     }
   }
 
+  /** Bulk copy the values, which is much faster than getting them one by one. */
+  private static void readLongs(ByteBuffer input, long[] values) {
+    input.asLongBuffer().get(values);
+    input.position(input.position() + values.length * Long.BYTES);
+  }
+
   @Override
   public void writeColumn(DataOutputStream output, Column column) throws IOException {
 
@@ -117,4 +118,34 @@ public class Int64ArrayColumnEncoder implements ColumnEncoder {
       throw new IllegalArgumentException("Invalid data type: " + dataType);
     }
   }
+
+  @Override
+  public void writeColumn(ByteBuffer output, Column column) {
+
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    int positionCount = column.getPositionCount();
+    if (TSDataType.INT64.equals(dataType)) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          output.putLong(column.getLong(i));
+        }
+      }
+    } else if (TSDataType.DOUBLE.equals(dataType)) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          output.putLong(Double.doubleToLongBits(column.getDouble(i)));
+        }
+      }
+    } else {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+  }
+
+  @Override
+  public int getSerializedSize(Column column) {
+    return ColumnEncoder.getSerializedNullIndicatorsSize(column)
+        + ColumnEncoder.getNonNullPositionCount(column) * Long.BYTES;
+  }
 }
@@ -51,4 +51,23 @@ public class RunLengthColumnEncoder implements ColumnEncoder {
     ColumnEncoder columnEncoder = ColumnEncoderFactory.get(innerColumn.getEncoding());
     columnEncoder.writeColumn(output, innerColumn);
   }
+
+  @Override
+  public void writeColumn(ByteBuffer output, Column column) throws IOException {
+    Column innerColumn = ((RunLengthEncodedColumn) column).getValue();
+    if (innerColumn instanceof RunLengthEncodedColumn) {
+      throw new IOException("Unable to encode a nested RLE column.");
+    }
+
+    innerColumn.getEncoding().serializeTo(output);
+    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(innerColumn.getEncoding());
+    columnEncoder.writeColumn(output, innerColumn);
+  }
+
+  @Override
+  public int getSerializedSize(Column column) {
+    Column innerColumn = ((RunLengthEncodedColumn) column).getValue();
+    return Byte.BYTES
+        + ColumnEncoderFactory.get(innerColumn.getEncoding()).getSerializedSize(innerColumn);
+  }
 }
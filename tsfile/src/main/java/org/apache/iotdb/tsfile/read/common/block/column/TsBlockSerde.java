@@ -22,8 +22,6 @@ package org.apache.iotdb.tsfile.read.common.block.column;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -81,42 +79,55 @@ public class TsBlockSerde {
   }
 
   /**
-   * Serialize a tsblock.
+   * Serialize a tsblock. The size of the serialized tsblock is calculated ahead, so that the
+   * columns are written into one buffer of the exact size without copying or expanding any
+   * buffer.
    *
    * @param tsBlock The tsblock to serialize.
    * @return Serialized tsblock.
    */
   public ByteBuffer serialize(TsBlock tsBlock) throws IOException {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+    int valueColumnCount = tsBlock.getValueColumnCount();
+    ColumnEncoder timeColumnEncoder =
+        ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding());
+    ColumnEncoder[] valueColumnEncoders = new ColumnEncoder[valueColumnCount];
+    int size =
+        Integer.BYTES * 2
+            + valueColumnCount * Byte.BYTES * 2
+            + Byte.BYTES
+            + timeColumnEncoder.getSerializedSize(tsBlock.getTimeColumn());
+    for (int i = 0; i < valueColumnCount; i++) {
+      valueColumnEncoders[i] = ColumnEncoderFactory.get(tsBlock.getColumn(i).getEncoding());
+      size += valueColumnEncoders[i].getSerializedSize(tsBlock.getColumn(i));
+    }
+    ByteBuffer byteBuffer = ByteBuffer.allocate(size);
 
     // Value column count.
-    dataOutputStream.writeInt(tsBlock.getValueColumnCount());
+    byteBuffer.putInt(valueColumnCount);
 
     // Value column data types.
-    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
-      tsBlock.getColumn(i).getDataType().serializeTo(dataOutputStream);
+    for (int i = 0; i < valueColumnCount; i++) {
+      tsBlock.getColumn(i).getDataType().serializeTo(byteBuffer);
     }
 
     // Position count.
-    dataOutputStream.writeInt(tsBlock.getPositionCount());
+    byteBuffer.putInt(tsBlock.getPositionCount());
 
     // Column encodings.
-    tsBlock.getTimeColumn().getEncoding().serializeTo(dataOutputStream);
-    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
-      tsBlock.getColumn(i).getEncoding().serializeTo(dataOutputStream);
+    tsBlock.getTimeColumn().getEncoding().serializeTo(byteBuffer);
+    for (int i = 0; i < valueColumnCount; i++) {
+      tsBlock.getColumn(i).getEncoding().serializeTo(byteBuffer);
     }
 
     // Time column.
-    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding());
-    columnEncoder.writeColumn(dataOutputStream, tsBlock.getTimeColumn());
+    timeColumnEncoder.writeColumn(byteBuffer, tsBlock.getTimeColumn());
 
-    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+    for (int i = 0; i < valueColumnCount; i++) {
       // Value column.
-      columnEncoder = ColumnEncoderFactory.get(tsBlock.getColumn(i).getEncoding());
-      columnEncoder.writeColumn(dataOutputStream, tsBlock.getColumn(i));
+      valueColumnEncoders[i].writeColumn(byteBuffer, tsBlock.getColumn(i));
     }
 
-    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+    byteBuffer.flip();
+    return byteBuffer;
   }
 }
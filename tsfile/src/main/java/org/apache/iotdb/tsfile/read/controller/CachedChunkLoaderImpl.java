@@ -68,11 +68,7 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
     Chunk chunk = chunkCache.get(new ChunkCacheKey(chunkMetaData));
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics());
+    return chunk.copy(chunkMetaData.getDeleteIntervalList(), chunkMetaData.getStatistics());
   }
 
   @Override
@@ -85,11 +81,7 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
       throws IOException {
     Chunk chunk = chunkCache.get(new ChunkCacheKey((ChunkMetadata) chunkMetaData));
     return new ChunkReader(
-        new Chunk(
-            chunk.getHeader(),
-            chunk.getData().duplicate(),
-            chunkMetaData.getDeleteIntervalList(),
-            chunkMetaData.getStatistics()),
+        chunk.copy(chunkMetaData.getDeleteIntervalList(), chunkMetaData.getStatistics()),
         timeFilter);
   }
 
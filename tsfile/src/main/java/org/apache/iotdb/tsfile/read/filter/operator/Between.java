@@ -72,6 +72,10 @@ public class Between<T extends Comparable<T>> implements Filter {
     value2 = (T) ReadWriteIOUtils.readObject(buffer);
   }
 
+  public FilterType getFilterType() {
+    return filterType;
+  }
+
   @Override
   public FilterSerializeId getSerializeId() {
     return FilterSerializeId.BETWEEN;
@@ -123,6 +123,10 @@ public class In<T extends Comparable<T>> implements Filter {
     return filterType + " < " + "reverse: " + not + ", " + valueList;
   }
 
+  public FilterType getFilterType() {
+    return filterType;
+  }
+
   @Override
   public FilterSerializeId getSerializeId() {
     return FilterSerializeId.IN;
@@ -131,4 +135,8 @@ public class In<T extends Comparable<T>> implements Filter {
   public Set<T> getValues() {
     return values;
   }
+
+  public boolean isNot() {
+    return not;
+  }
 }
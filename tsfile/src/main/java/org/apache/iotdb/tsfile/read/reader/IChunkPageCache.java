@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+/**
+ * The decoded pages of one chunk which are cached by the caller of a chunk reader, so that the
+ * cached pages are neither uncompressed nor decoded again. The cached TsBlocks contain all the rows
+ * of the pages and must not be modified.
+ */
+public interface IChunkPageCache {
+
+  /** @return all the rows of the pageIndex-th page in the chunk, null if it is not cached */
+  TsBlock get(int pageIndex);
+
+  void put(int pageIndex, TsBlock decodedPage);
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link TsFileInput} which maps the whole file into memory. It is only suitable for sealed
+ * TsFiles, whose content and size will never change after the input is opened.
+ *
+ * <p>Files larger than one segment are mapped in several segments, because a single {@link
+ * MappedByteBuffer} can address at most 2GB. Reads are served by copying from the mapped segments,
+ * so that reading a small chunk which is already in the page cache does not need any system call.
+ * The mapped regions are released by the given unmapper when this input is closed, or by GC if no
+ * unmapper is given. The reads hold the read lock of {@link #unmapLock}, so that the regions are
+ * never unmapped while being read, and any read after closing fails.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MmapTsFileInput.class);
+
+  /** 1GB, must be a power of 2 so that the segment of a position can be computed by shifting */
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long size;
+
+  private final int segmentShift;
+  private final long segmentMask;
+  private final MappedByteBuffer[] segments;
+  private final Consumer<MappedByteBuffer> unmapper;
+  private final ReadWriteLock unmapLock = new ReentrantReadWriteLock();
+
+  private long position = 0;
+  private volatile boolean closed = false;
+
+  public MmapTsFileInput(Path file) throws IOException {
+    this(file, DEFAULT_SEGMENT_SIZE, null);
+  }
+
+  public MmapTsFileInput(Path file, Consumer<MappedByteBuffer> unmapper) throws IOException {
+    this(file, DEFAULT_SEGMENT_SIZE, unmapper);
+  }
+
+  /**
+   * @param file the sealed TsFile to map
+   * @param segmentSize the max size of each mapped segment, must be a positive power of 2
+   * @param unmapper releases a mapped segment when this input is closed, null to leave it to GC
+   */
+  public MmapTsFileInput(Path file, int segmentSize, Consumer<MappedByteBuffer> unmapper)
+      throws IOException {
+    if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+      throw new IllegalArgumentException("segment size must be a power of 2: " + segmentSize);
+    }
+    this.unmapper = unmapper;
+    filePath = file.toString();
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      size = channel.size();
+      segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+      segmentMask = segmentSize - 1L;
+      int segmentNum = (int) ((size + segmentMask) >>> segmentShift);
+      segments = new MappedByteBuffer[segmentNum];
+      for (int i = 0; i < segmentNum; i++) {
+        long start = (long) i << segmentShift;
+        segments[i] =
+            channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+      }
+    } catch (IOException e) {
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    ensureOpen();
+    return size;
+  }
+
+  @Override
+  public long position() throws IOException {
+    ensureOpen();
+    return position;
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("position should not be negative: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("position should not be negative: " + position);
+    }
+    unmapLock.readLock().lock();
+    try {
+      ensureOpen();
+      if (position >= size) {
+        return -1;
+      }
+      int readSize = (int) Math.min(dst.remaining(), size - position);
+      int remaining = readSize;
+      while (remaining > 0) {
+        ByteBuffer segment = segments[(int) (position >>> segmentShift)].duplicate();
+        int offsetInSegment = (int) (position & segmentMask);
+        int length = Math.min(remaining, segment.capacity() - offsetInSegment);
+        segment.position(offsetInSegment);
+        segment.limit(offsetInSegment + length);
+        dst.put(segment);
+        position += length;
+        remaining -= length;
+      }
+      return readSize;
+    } finally {
+      unmapLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    unmapLock.readLock().lock();
+    try {
+      ensureOpen();
+      if (position >= size) {
+        return -1;
+      }
+      int b =
+          segments[(int) (position >>> segmentShift)].get((int) (position & segmentMask)) & 0xFF;
+      position++;
+      return b;
+    } finally {
+      unmapLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        return MmapTsFileInput.this.read();
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        return MmapTsFileInput.this.read(b, off, len);
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    unmapLock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (int i = 0; i < segments.length; i++) {
+        if (unmapper != null) {
+          unmapper.accept(segments[i]);
+        }
+        segments[i] = null;
+      }
+    } finally {
+      unmapLock.writeLock().unlock();
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    if (read(buffer) != Integer.BYTES) {
+      throw new BufferUnderflowException();
+    }
+    buffer.flip();
+    return buffer.getInt();
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(5);
+    read(byteBuffer, offset);
+    byteBuffer.flip();
+    int strLength = ReadWriteForEncodingUtils.readVarInt(byteBuffer);
+    if (strLength < 0) {
+      return null;
+    } else if (strLength == 0) {
+      return "";
+    }
+    ByteBuffer strBuffer = ByteBuffer.allocate(strLength);
+    read(strBuffer, offset + ReadWriteForEncodingUtils.varIntSize(strLength));
+    return new String(strBuffer.array(), 0, strBuffer.position());
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+}
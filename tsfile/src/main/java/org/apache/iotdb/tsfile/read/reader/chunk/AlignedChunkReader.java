@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
@@ -52,6 +53,8 @@ public class AlignedChunkReader implements IChunkReader {
   private final ByteBuffer timeChunkDataBuffer;
   // chunk data of all the sub sensors
   private final List<ByteBuffer> valueChunkDataBufferList = new ArrayList<>();
+  // ZSTD dictionaries of the TsFile, null if the TsFile is unsealed
+  private final ZstdDictionaries zstdDictionaries;
   private final IUnCompressor unCompressor;
   private final Decoder timeDecoder =
       Decoder.getDecoderByType(
@@ -77,7 +80,9 @@ public class AlignedChunkReader implements IChunkReader {
     this.timeChunkDataBuffer = timeChunk.getData();
     this.valueDeleteIntervalList = new ArrayList<>();
     this.timeChunkHeader = timeChunk.getHeader();
-    this.unCompressor = IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType());
+    this.zstdDictionaries = getZstdDictionaries(timeChunk, valueChunkList);
+    this.unCompressor =
+        IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType(), zstdDictionaries);
     this.currentTimestamp = Long.MIN_VALUE;
     List<Statistics> valueChunkStatisticsList = new ArrayList<>();
     valueChunkList.forEach(
@@ -101,7 +106,9 @@ public class AlignedChunkReader implements IChunkReader {
     this.timeChunkDataBuffer = timeChunk.getData();
     this.valueDeleteIntervalList = new ArrayList<>();
     this.timeChunkHeader = timeChunk.getHeader();
-    this.unCompressor = IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType());
+    this.zstdDictionaries = getZstdDictionaries(timeChunk, valueChunkList);
+    this.unCompressor =
+        IUnCompressor.getUnCompressor(timeChunkHeader.getCompressionType(), zstdDictionaries);
     this.currentTimestamp = currentTimestamp;
     List<Statistics> valueChunkStatisticsList = new ArrayList<>();
     valueChunkList.forEach(
@@ -114,6 +121,19 @@ public class AlignedChunkReader implements IChunkReader {
     initAllPageReaders(timeChunk.getChunkStatistic(), valueChunkStatisticsList);
   }
 
+  /** all the chunks of an aligned chunk are in the same TsFile and share its dictionaries */
+  private static ZstdDictionaries getZstdDictionaries(Chunk timeChunk, List<Chunk> valueChunkList) {
+    if (timeChunk.getZstdDictionaries() != null) {
+      return timeChunk.getZstdDictionaries();
+    }
+    for (Chunk valueChunk : valueChunkList) {
+      if (valueChunk != null && valueChunk.getZstdDictionaries() != null) {
+        return valueChunk.getZstdDictionaries();
+      }
+    }
+    return null;
+  }
+
   /** construct all the page readers in this chunk */
   private void initAllPageReaders(
       Statistics timeChunkStatistics, List<Statistics> valueChunkStatisticsList)
@@ -347,7 +367,8 @@ public class AlignedChunkReader implements IChunkReader {
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+      IUnCompressor unCompressor =
+          IUnCompressor.getUnCompressor(chunkHeader.getCompressionType(), zstdDictionaries);
       unCompressor.uncompress(
           compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
     } catch (Exception e) {
@@ -399,6 +420,10 @@ public class AlignedChunkReader implements IChunkReader {
     return pageReaderList.remove(0).getAllSatisfiedPageData();
   }
 
+  public ZstdDictionaries getZstdDictionaries() {
+    return zstdDictionaries;
+  }
+
   @Override
   public void close() throws IOException {}
 
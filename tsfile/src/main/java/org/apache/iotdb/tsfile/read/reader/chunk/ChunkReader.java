@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
@@ -34,7 +35,9 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.IChunkPageCache;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageReader;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.v2.file.header.PageHeaderV2;
 import org.apache.iotdb.tsfile.v2.read.reader.page.PageReaderV2;
@@ -48,6 +51,8 @@ public class ChunkReader implements IChunkReader {
 
   private ChunkHeader chunkHeader;
   private ByteBuffer chunkDataBuffer;
+  // ZSTD dictionaries of the TsFile, null if the TsFile is unsealed
+  private ZstdDictionaries zstdDictionaries;
   private IUnCompressor unCompressor;
   private final Decoder timeDecoder =
       Decoder.getDecoderByType(
@@ -62,6 +67,9 @@ public class ChunkReader implements IChunkReader {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /** decoded pages of this chunk, null if the decoded pages are not cached */
+  private IChunkPageCache pageCache;
+
   /**
    * constructor of ChunkReader.
    *
@@ -69,12 +77,25 @@ public class ChunkReader implements IChunkReader {
    * @param filter filter
    */
   public ChunkReader(Chunk chunk, Filter filter) throws IOException {
+    this(chunk, filter, (IChunkPageCache) null);
+  }
+
+  /**
+   * constructor of ChunkReader, which gets the cached decoded pages from the pageCache instead of
+   * uncompressing and decoding them, and puts the pages decoded by this reader into the pageCache.
+   *
+   * @param pageCache decoded pages of the chunk, null if the decoded pages are not cached
+   */
+  public ChunkReader(Chunk chunk, Filter filter, IChunkPageCache pageCache) throws IOException {
     this.filter = filter;
+    this.pageCache = pageCache;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
     this.currentTimestamp = Long.MIN_VALUE;
     chunkHeader = chunk.getHeader();
-    this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    this.zstdDictionaries = chunk.getZstdDictionaries();
+    this.unCompressor =
+        IUnCompressor.getUnCompressor(chunkHeader.getCompressionType(), zstdDictionaries);
     if (chunk.isFromOldFile()) {
       initAllPageReadersV2();
     } else {
@@ -92,7 +113,9 @@ public class ChunkReader implements IChunkReader {
     this.deleteIntervalList = chunk.getDeleteIntervalList();
     this.currentTimestamp = currentTimestamp;
     chunkHeader = chunk.getHeader();
-    this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    this.zstdDictionaries = chunk.getZstdDictionaries();
+    this.unCompressor =
+        IUnCompressor.getUnCompressor(chunkHeader.getCompressionType(), zstdDictionaries);
     if (chunk.isFromOldFile()) {
       initAllPageReadersV2();
     } else {
@@ -106,12 +129,15 @@ public class ChunkReader implements IChunkReader {
     this.deleteIntervalList = chunk.getDeleteIntervalList();
     this.currentTimestamp = Long.MIN_VALUE;
     chunkHeader = chunk.getHeader();
-    this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    this.zstdDictionaries = chunk.getZstdDictionaries();
+    this.unCompressor =
+        IUnCompressor.getUnCompressor(chunkHeader.getCompressionType(), zstdDictionaries);
   }
 
   private void initAllPageReaders(Statistics chunkStatistic) throws IOException {
+    int pageIndex = 0;
     // construct next satisfied page header
-    while (chunkDataBuffer.remaining() > 0) {
+    for (; chunkDataBuffer.remaining() > 0; pageIndex++) {
       // deserialize a PageHeader from chunkDataBuffer
       PageHeader pageHeader;
       if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
@@ -120,14 +146,41 @@ public class ChunkReader implements IChunkReader {
         pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
       }
       // if the current page satisfies
-      if (pageSatisfied(pageHeader)) {
-        pageReaderList.add(constructPageReaderForNextPage(pageHeader));
-      } else {
+      if (!pageSatisfied(pageHeader)) {
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
+      } else if (pageCache != null) {
+        pageReaderList.add(constructDecodedPageReaderForNextPage(pageHeader, pageIndex));
+      } else {
+        pageReaderList.add(constructPageReaderForNextPage(pageHeader));
       }
     }
   }
 
+  private DecodedPageReader constructDecodedPageReaderForNextPage(
+      PageHeader pageHeader, int pageIndex) throws IOException {
+    DecodedPageReader reader;
+    TsBlock decodedPage = pageCache.get(pageIndex);
+    if (decodedPage != null) {
+      skipBytesInStreamByLength(pageHeader.getCompressedSize());
+      reader = new DecodedPageReader(pageHeader, chunkHeader.getDataType(), decodedPage, filter);
+    } else {
+      // all the rows of the page are decoded to be cached, the filter is applied after decoding
+      PageReader pageReader =
+          new PageReader(
+              pageHeader,
+              uncompressNextPage(pageHeader),
+              chunkHeader.getDataType(),
+              Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+              timeDecoder,
+              null);
+      reader =
+          new DecodedPageReader(
+              pageHeader, chunkHeader.getDataType(), pageReader, filter, pageCache, pageIndex);
+    }
+    reader.setDeleteIntervalList(deleteIntervalList);
+    return reader;
+  }
+
   /** judge if has next page whose page header satisfies the filter. */
   @Override
   public boolean hasNextSatisfiedPage() {
@@ -171,6 +224,17 @@ public class ChunkReader implements IChunkReader {
   }
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
+    ByteBuffer pageData = uncompressNextPage(pageHeader);
+    Decoder valueDecoder =
+        Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    PageReader reader =
+        new PageReader(
+            pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
+    reader.setDeleteIntervalList(deleteIntervalList);
+    return reader;
+  }
+
+  private ByteBuffer uncompressNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
     byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
@@ -184,8 +248,6 @@ public class ChunkReader implements IChunkReader {
     }
 
     chunkDataBuffer.get(compressedPageBody);
-    Decoder valueDecoder =
-        Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
       unCompressor.uncompress(
@@ -200,13 +262,7 @@ public class ChunkReader implements IChunkReader {
               + pageHeader
               + e.getMessage());
     }
-
-    ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
-    PageReader reader =
-        new PageReader(
-            pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
-    reader.setDeleteIntervalList(deleteIntervalList);
-    return reader;
+    return ByteBuffer.wrap(uncompressedPageData);
   }
 
   /**
@@ -273,6 +329,10 @@ public class ChunkReader implements IChunkReader {
     return chunkHeader;
   }
 
+  public ZstdDictionaries getZstdDictionaries() {
+    return zstdDictionaries;
+  }
+
   @Override
   public List<IPageReader> loadPageReaderList() {
     return pageReaderList;
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader.page;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.reader.IChunkPageCache;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.iotdb.tsfile.read.reader.series.PaginationController.UNLIMITED_PAGINATION_CONTROLLER;
+
+/**
+ * Page reader over the decoded rows of a page. The rows are either got from a {@link
+ * IChunkPageCache}, or decoded by a {@link PageReader} without filter on the first read and then
+ * put into the cache. The filter, deletions and pagination are applied to the decoded rows, which
+ * are never modified since they may be shared by other queries.
+ */
+public class DecodedPageReader implements IPageReader {
+
+  private final PageHeader pageHeader;
+
+  private final TSDataType dataType;
+
+  /** all the rows of the page, null before being decoded */
+  private TsBlock decodedPage;
+
+  /** reader to decode the page, null if the page has been decoded */
+  private PageReader pageReader;
+
+  private final IChunkPageCache pageCache;
+
+  private final int pageIndex;
+
+  private Filter filter;
+
+  private PaginationController paginationController = UNLIMITED_PAGINATION_CONTROLLER;
+
+  /** A list of deleted intervals. */
+  private List<TimeRange> deleteIntervalList;
+
+  private int deleteCursor = 0;
+
+  /** Read a page whose decoded rows are cached. */
+  public DecodedPageReader(
+      PageHeader pageHeader, TSDataType dataType, TsBlock decodedPage, Filter filter) {
+    this.pageHeader = pageHeader;
+    this.dataType = dataType;
+    this.decodedPage = decodedPage;
+    this.pageReader = null;
+    this.pageCache = null;
+    this.pageIndex = -1;
+    this.filter = filter;
+  }
+
+  /**
+   * Read a page which is not cached yet.
+   *
+   * @param pageReader reader of the page without filter
+   * @param pageCache the decoded rows are put into it with the pageIndex
+   */
+  public DecodedPageReader(
+      PageHeader pageHeader,
+      TSDataType dataType,
+      PageReader pageReader,
+      Filter filter,
+      IChunkPageCache pageCache,
+      int pageIndex) {
+    this.pageHeader = pageHeader;
+    this.dataType = dataType;
+    this.pageReader = pageReader;
+    this.pageCache = pageCache;
+    this.pageIndex = pageIndex;
+    this.filter = filter;
+  }
+
+  private TsBlock getDecodedPage() throws IOException {
+    if (decodedPage == null) {
+      decodedPage = pageReader.getAllSatisfiedData();
+      pageReader = null;
+      pageCache.put(pageIndex, decodedPage);
+    }
+    return decodedPage;
+  }
+
+  @Override
+  public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+    BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    if (filter == null || filter.satisfy(getStatistics())) {
+      TsBlock page = getDecodedPage();
+      Column valueColumn = page.getColumn(0);
+      for (int i = 0, size = page.getPositionCount(); i < size; i++) {
+        long time = page.getTimeByIndex(i);
+        Object value = valueColumn.getObject(i);
+        if (!isDeleted(time) && (filter == null || filter.satisfy(time, value))) {
+          pageData.putAnObject(time, value);
+        }
+      }
+    }
+    return pageData.flip();
+  }
+
+  @Override
+  public TsBlock getAllSatisfiedData() throws IOException {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    if (!pageSatisfy()) {
+      return builder.build();
+    }
+    TsBlock page = getDecodedPage();
+    int size = page.getPositionCount();
+    if (size == 0) {
+      return builder.build();
+    }
+    if (filter == null
+        && (deleteIntervalList == null || deleteIntervalList.isEmpty())
+        && paginationController.isUnlimited()) {
+      // the returned TsBlock may be reversed in place, so the cached rows are copied
+      return new TsBlock(
+          size,
+          new TimeColumn(size, Arrays.copyOf(page.getTimeColumn().getTimes(), size)),
+          copyValueColumn(page.getColumn(0), size));
+    }
+
+    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+    Column valueColumn = page.getColumn(0);
+    for (int i = 0; i < size; i++) {
+      long time = page.getTimeByIndex(i);
+      if (isDeleted(time) || (filter != null && !filter.satisfy(time, valueColumn.getObject(i)))) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (paginationController.hasCurLimit()) {
+        timeBuilder.writeLong(time);
+        valueBuilder.write(valueColumn, i);
+        builder.declarePosition();
+        paginationController.consumeLimit();
+      } else {
+        break;
+      }
+    }
+    return builder.build();
+  }
+
+  private Column copyValueColumn(Column column, int size) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanColumn(size, Optional.empty(), Arrays.copyOf(column.getBooleans(), size));
+      case INT32:
+        return new IntColumn(size, Optional.empty(), Arrays.copyOf(column.getInts(), size));
+      case INT64:
+        return new LongColumn(size, Optional.empty(), Arrays.copyOf(column.getLongs(), size));
+      case FLOAT:
+        return new FloatColumn(size, Optional.empty(), Arrays.copyOf(column.getFloats(), size));
+      case DOUBLE:
+        return new DoubleColumn(size, Optional.empty(), Arrays.copyOf(column.getDoubles(), size));
+      case TEXT:
+        return new BinaryColumn(size, Optional.empty(), Arrays.copyOf(column.getBinaries(), size));
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private boolean pageSatisfy() {
+    if (filter != null) {
+      return filter.satisfy(getStatistics());
+    } else {
+      long rowCount = getStatistics().getCount();
+      if (paginationController.hasCurOffset(rowCount)) {
+        paginationController.consumeOffset(rowCount);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isDeleted(long timestamp) {
+    while (deleteIntervalList != null && deleteCursor < deleteIntervalList.size()) {
+      if (deleteIntervalList.get(deleteCursor).contains(timestamp)) {
+        return true;
+      } else if (deleteIntervalList.get(deleteCursor).getMax() < timestamp) {
+        deleteCursor++;
+      } else {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Statistics getStatistics() {
+    return pageHeader.getStatistics();
+  }
+
+  @Override
+  public void setFilter(Filter filter) {
+    if (this.filter == null) {
+      this.filter = filter;
+    } else {
+      this.filter = new AndFilter(this.filter, filter);
+    }
+  }
+
+  @Override
+  public void setLimitOffset(PaginationController paginationController) {
+    this.paginationController = paginationController;
+  }
+
+  public void setDeleteIntervalList(List<TimeRange> list) {
+    this.deleteIntervalList = list;
+  }
+
+  @Override
+  public boolean isModified() {
+    return pageHeader.isModified();
+  }
+
+  @Override
+  public void initTsBlockBuilder(List<TSDataType> dataTypes) {}
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader.page;
+
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Between;
+import org.apache.iotdb.tsfile.read.filter.operator.In;
+import org.apache.iotdb.tsfile.read.filter.operator.Like;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Regexp;
+
+import java.util.Arrays;
+
+/**
+ * The filter of a page split into three kinds of conjuncts, so that most rows can be filtered
+ * without being checked one by one.
+ *
+ * <ul>
+ *   <li>time conjuncts: evaluated against ranges of the ascending timestamps of the page, the
+ *       values of the rows out of the ranges can be skipped by the value decoder.
+ *   <li>value conjuncts: only depend on the value, so they are evaluated once for a run of equal
+ *       values, or once for an entry of a dictionary.
+ *   <li>other conjuncts: evaluated row by row.
+ * </ul>
+ */
+public class PageFilter {
+
+  /** time ranges with fewer rows than this are checked row by row instead of being split again */
+  private static final int MIN_SPLIT_ROW_NUM = 8;
+
+  private Filter timeFilter;
+  private Filter valueFilter;
+  private Filter otherFilter;
+
+  public PageFilter(Filter filter) {
+    split(filter);
+  }
+
+  private void split(Filter filter) {
+    if (filter instanceof AndFilter) {
+      split(((AndFilter) filter).getLeft());
+      split(((AndFilter) filter).getRight());
+    } else if (isTimeRangeFilter(filter)) {
+      timeFilter = and(timeFilter, filter);
+    } else if (isValueFilter(filter)) {
+      valueFilter = and(valueFilter, filter);
+    } else {
+      otherFilter = and(otherFilter, filter);
+    }
+  }
+
+  private static Filter and(Filter left, Filter right) {
+    return left == null ? right : new AndFilter(left, right);
+  }
+
+  /**
+   * Whether satisfyStartEndTime and containStartEndTime of the filter are exact for ranges. In and
+   * NotFilter are excluded because they do not check the time range.
+   */
+  private static boolean isTimeRangeFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof Between) {
+      return ((Between<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      return isTimeRangeFilter(((BinaryFilter) filter).getLeft())
+          && isTimeRangeFilter(((BinaryFilter) filter).getRight());
+    }
+    return false;
+  }
+
+  private static boolean isValueFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof Between) {
+      return ((Between<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof In) {
+      return ((In<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof Like) {
+      return ((Like<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof Regexp) {
+      return ((Regexp<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof NotFilter) {
+      return isValueFilter(((NotFilter) filter).getFilter());
+    } else if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      return isValueFilter(((BinaryFilter) filter).getLeft())
+          && isValueFilter(((BinaryFilter) filter).getRight());
+    }
+    return false;
+  }
+
+  /**
+   * Select the rows whose timestamps satisfy the time conjuncts.
+   *
+   * @param times timestamps of the page in ascending order
+   * @param selected selected[i] is set to true if times[i] satisfies the time conjuncts, it should
+   *     be all false before calling
+   * @return the number of selected rows
+   */
+  public int selectByTime(long[] times, int count, boolean[] selected) {
+    if (count == 0) {
+      return 0;
+    }
+    if (timeFilter == null) {
+      Arrays.fill(selected, 0, count, true);
+      return count;
+    }
+    return selectByTime(times, 0, count, selected);
+  }
+
+  private int selectByTime(long[] times, int from, int to, boolean[] selected) {
+    long startTime = times[from];
+    long endTime = times[to - 1];
+    if (!timeFilter.satisfyStartEndTime(startTime, endTime)) {
+      return 0;
+    }
+    if (timeFilter.containStartEndTime(startTime, endTime)) {
+      Arrays.fill(selected, from, to, true);
+      return to - from;
+    }
+    if (to - from < MIN_SPLIT_ROW_NUM) {
+      int selectedNum = 0;
+      for (int i = from; i < to; i++) {
+        if (timeFilter.satisfy(times[i], null)) {
+          selected[i] = true;
+          selectedNum++;
+        }
+      }
+      return selectedNum;
+    }
+    int mid = (from + to) >>> 1;
+    return selectByTime(times, from, mid, selected) + selectByTime(times, mid, to, selected);
+  }
+
+  /** The result only depends on the value, the time is only passed to the underlying filter. */
+  public boolean satisfyValue(long time, Object value) {
+    return valueFilter == null || valueFilter.satisfy(time, value);
+  }
+
+  public boolean satisfyOther(long time, Object value) {
+    return otherFilter == null || otherFilter.satisfy(time, value);
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.read.reader.page;
 
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DictionaryDecoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -29,6 +30,11 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
@@ -39,13 +45,18 @@ import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.apache.iotdb.tsfile.read.reader.series.PaginationController.UNLIMITED_PAGINATION_CONTROLLER;
 
 public class PageReader implements IPageReader {
 
+  private static final String VALUE_COUNT_MISMATCH_MSG =
+      "Only %d values are decoded, while there are %d timestamps in the page";
+
   private PageHeader pageHeader;
 
   protected TSDataType dataType;
@@ -181,6 +192,10 @@ public class PageReader implements IPageReader {
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
     if (pageSatisfy()) {
+      if (filter != null && dataType != TSDataType.BOOLEAN) {
+        decodeAndFilter(builder);
+        return builder.build();
+      }
       switch (dataType) {
         case BOOLEAN:
           while (timeDecoder.hasNext(timeBuffer)) {
@@ -204,10 +219,18 @@ public class PageReader implements IPageReader {
           }
           break;
         case INT32:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, anInt))) {
+          long[] intTimes = decodeTimes();
+          int[] intValues = decodeInts(intTimes.length);
+          if (canWrapDecodedData()) {
+            return new TsBlock(
+                intTimes.length,
+                new TimeColumn(intTimes.length, intTimes),
+                new IntColumn(intTimes.length, Optional.empty(), intValues));
+          }
+          for (int i = 0; i < intTimes.length; i++) {
+            long timestamp = intTimes[i];
+            int anInt = intValues[i];
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -225,10 +248,18 @@ public class PageReader implements IPageReader {
           }
           break;
         case INT64:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aLong))) {
+          long[] longTimes = decodeTimes();
+          long[] longValues = decodeLongs(longTimes.length);
+          if (canWrapDecodedData()) {
+            return new TsBlock(
+                longTimes.length,
+                new TimeColumn(longTimes.length, longTimes),
+                new LongColumn(longTimes.length, Optional.empty(), longValues));
+          }
+          for (int i = 0; i < longTimes.length; i++) {
+            long timestamp = longTimes[i];
+            long aLong = longValues[i];
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -246,10 +277,18 @@ public class PageReader implements IPageReader {
           }
           break;
         case FLOAT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aFloat))) {
+          long[] floatTimes = decodeTimes();
+          float[] floatValues = decodeFloats(floatTimes.length);
+          if (canWrapDecodedData()) {
+            return new TsBlock(
+                floatTimes.length,
+                new TimeColumn(floatTimes.length, floatTimes),
+                new FloatColumn(floatTimes.length, Optional.empty(), floatValues));
+          }
+          for (int i = 0; i < floatTimes.length; i++) {
+            long timestamp = floatTimes[i];
+            float aFloat = floatValues[i];
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -267,10 +306,18 @@ public class PageReader implements IPageReader {
           }
           break;
         case DOUBLE:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aDouble))) {
+          long[] doubleTimes = decodeTimes();
+          double[] doubleValues = decodeDoubles(doubleTimes.length);
+          if (canWrapDecodedData()) {
+            return new TsBlock(
+                doubleTimes.length,
+                new TimeColumn(doubleTimes.length, doubleTimes),
+                new DoubleColumn(doubleTimes.length, Optional.empty(), doubleValues));
+          }
+          for (int i = 0; i < doubleTimes.length; i++) {
+            long timestamp = doubleTimes[i];
+            double aDouble = doubleValues[i];
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -291,7 +338,7 @@ public class PageReader implements IPageReader {
           while (timeDecoder.hasNext(timeBuffer)) {
             long timestamp = timeDecoder.readLong(timeBuffer);
             Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aBinary))) {
+            if (isDeleted(timestamp)) {
               continue;
             }
             if (paginationController.hasCurOffset()) {
@@ -315,6 +362,375 @@ public class PageReader implements IPageReader {
     return builder.build();
   }
 
+  /**
+   * Page data can be wrapped as a TsBlock directly after being decoded only if none of the rows
+   * will be filtered out.
+   */
+  private boolean canWrapDecodedData() {
+    return filter == null
+        && (deleteIntervalList == null || deleteIntervalList.isEmpty())
+        && paginationController.isUnlimited();
+  }
+
+  /**
+   * Decode and filter the page at the same time. The values of the rows filtered out by the time
+   * conjuncts or deletions are skipped by the value decoder instead of being decoded, the values
+   * after the last row left are not decoded at all, and the value conjuncts are evaluated once for
+   * each run of equal values, or once for each entry of the dictionary.
+   */
+  private void decodeAndFilter(TsBlockBuilder builder) throws IOException {
+    PageFilter pageFilter = new PageFilter(filter);
+    long[] times = decodeTimes();
+    boolean[] selected = new boolean[times.length];
+    pageFilter.selectByTime(times, times.length, selected);
+    int end = 0;
+    for (int i = 0; i < times.length; i++) {
+      if (selected[i]) {
+        if (isDeleted(times[i])) {
+          selected[i] = false;
+        } else {
+          end = i + 1;
+        }
+      }
+    }
+    if (end == 0) {
+      return;
+    }
+
+    switch (dataType) {
+      case INT32:
+        filterInts(builder, pageFilter, times, selected, end);
+        break;
+      case INT64:
+        filterLongs(builder, pageFilter, times, selected, end);
+        break;
+      case FLOAT:
+        filterFloats(builder, pageFilter, times, selected, end);
+        break;
+      case DOUBLE:
+        filterDoubles(builder, pageFilter, times, selected, end);
+        break;
+      case TEXT:
+        if (valueDecoder instanceof DictionaryDecoder) {
+          filterDictionaryIds(builder, pageFilter, times, selected, end);
+        } else {
+          filterBinaries(builder, pageFilter, times, selected, end);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private void filterInts(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    int[] values = new int[end];
+    decodeSelectedValues(values, selected, end, times.length);
+    boolean evaluated = false;
+    boolean satisfied = false;
+    int lastValue = 0;
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      int value = values[i];
+      if (!evaluated || value != lastValue) {
+        satisfied = pageFilter.satisfyValue(times[i], value);
+        lastValue = value;
+        evaluated = true;
+      }
+      if (!satisfied || !pageFilter.satisfyOther(times[i], value)) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeInt(value);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  private void filterLongs(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    long[] values = new long[end];
+    decodeSelectedValues(values, selected, end, times.length);
+    boolean evaluated = false;
+    boolean satisfied = false;
+    long lastValue = 0;
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      long value = values[i];
+      if (!evaluated || value != lastValue) {
+        satisfied = pageFilter.satisfyValue(times[i], value);
+        lastValue = value;
+        evaluated = true;
+      }
+      if (!satisfied || !pageFilter.satisfyOther(times[i], value)) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeLong(value);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  private void filterFloats(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    float[] values = new float[end];
+    decodeSelectedValues(values, selected, end, times.length);
+    boolean evaluated = false;
+    boolean satisfied = false;
+    // compare the bits, because filters tell 0.0 from -0.0
+    int lastBits = 0;
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      float value = values[i];
+      int bits = Float.floatToRawIntBits(value);
+      if (!evaluated || bits != lastBits) {
+        satisfied = pageFilter.satisfyValue(times[i], value);
+        lastBits = bits;
+        evaluated = true;
+      }
+      if (!satisfied || !pageFilter.satisfyOther(times[i], value)) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeFloat(value);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  private void filterDoubles(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    double[] values = new double[end];
+    decodeSelectedValues(values, selected, end, times.length);
+    boolean evaluated = false;
+    boolean satisfied = false;
+    // compare the bits, because filters tell 0.0 from -0.0
+    long lastBits = 0;
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      double value = values[i];
+      long bits = Double.doubleToRawLongBits(value);
+      if (!evaluated || bits != lastBits) {
+        satisfied = pageFilter.satisfyValue(times[i], value);
+        lastBits = bits;
+        evaluated = true;
+      }
+      if (!satisfied || !pageFilter.satisfyOther(times[i], value)) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeDouble(value);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  private void filterBinaries(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    Binary[] values = new Binary[end];
+    decodeSelectedValues(values, selected, end, times.length);
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]
+          || !pageFilter.satisfyValue(times[i], values[i])
+          || !pageFilter.satisfyOther(times[i], values[i])) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeBinary(values[i]);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  /** Only decode the ids of the values, and evaluate the value conjuncts once for each entry. */
+  private void filterDictionaryIds(
+      TsBlockBuilder builder, PageFilter pageFilter, long[] times, boolean[] selected, int end)
+      throws IOException {
+    DictionaryDecoder dictionaryDecoder = (DictionaryDecoder) valueDecoder;
+    int[] ids = new int[end];
+    decodeSelectedValues(ids, selected, end, times.length);
+    // 0 means not evaluated yet, 1 means satisfied and -1 means not satisfied
+    byte[] entryResults = new byte[dictionaryDecoder.getEntryCount(valueBuffer)];
+    for (int i = 0; i < end; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      int id = ids[i];
+      Binary value = dictionaryDecoder.getEntry(id);
+      if (entryResults[id] == 0) {
+        entryResults[id] = pageFilter.satisfyValue(times[i], value) ? (byte) 1 : (byte) -1;
+      }
+      if (entryResults[id] < 0 || !pageFilter.satisfyOther(times[i], value)) {
+        continue;
+      }
+      if (paginationController.hasCurOffset()) {
+        paginationController.consumeOffset();
+        continue;
+      }
+      if (!paginationController.hasCurLimit()) {
+        return;
+      }
+      builder.getTimeColumnBuilder().writeLong(times[i]);
+      builder.getColumnBuilder(0).writeBinary(value);
+      builder.declarePosition();
+      paginationController.consumeLimit();
+    }
+  }
+
+  /**
+   * Decode the values of the selected rows before end into values, and skip the values of the other
+   * rows. For TEXT, the ids of a DictionaryDecoder are decoded if values is an int array.
+   */
+  private void decodeSelectedValues(Object values, boolean[] selected, int end, int rowCount)
+      throws IOException {
+    int from = 0;
+    while (from < end) {
+      int to = from + 1;
+      while (to < end && selected[to] == selected[from]) {
+        to++;
+      }
+      int length = to - from;
+      int readNum;
+      if (!selected[from]) {
+        readNum = valueDecoder.skip(valueBuffer, dataType, length);
+      } else {
+        switch (dataType) {
+          case INT32:
+            readNum = valueDecoder.readInts(valueBuffer, (int[]) values, from, length);
+            break;
+          case INT64:
+            readNum = valueDecoder.readLongs(valueBuffer, (long[]) values, from, length);
+            break;
+          case FLOAT:
+            readNum = valueDecoder.readFloats(valueBuffer, (float[]) values, from, length);
+            break;
+          case DOUBLE:
+            readNum = valueDecoder.readDoubles(valueBuffer, (double[]) values, from, length);
+            break;
+          case TEXT:
+            if (values instanceof int[]) {
+              readNum =
+                  ((DictionaryDecoder) valueDecoder)
+                      .readIds(valueBuffer, (int[]) values, from, length);
+            } else {
+              readNum = 0;
+              while (readNum < length && valueDecoder.hasNext(valueBuffer)) {
+                ((Binary[]) values)[from + readNum] = valueDecoder.readBinary(valueBuffer);
+                readNum++;
+              }
+            }
+            break;
+          default:
+            throw new UnSupportedDataTypeException(String.valueOf(dataType));
+        }
+      }
+      if (readNum != length) {
+        throw new IOException(String.format(VALUE_COUNT_MISMATCH_MSG, from + readNum, rowCount));
+      }
+      from = to;
+    }
+  }
+
+  /** decode all the timestamps in this page by batch */
+  private long[] decodeTimes() throws IOException {
+    long[] times = new long[(int) getStatistics().getCount()];
+    int count = timeDecoder.readLongs(timeBuffer, times, 0, times.length);
+    if (count < times.length) {
+      return Arrays.copyOf(times, count);
+    }
+    // in case that the count in statistics is less than the actual number of timestamps
+    while (timeDecoder.hasNext(timeBuffer)) {
+      times = Arrays.copyOf(times, Math.max(count << 1, 1));
+      count += timeDecoder.readLongs(timeBuffer, times, count, times.length - count);
+    }
+    return count < times.length ? Arrays.copyOf(times, count) : times;
+  }
+
+  private int[] decodeInts(int count) throws IOException {
+    int[] values = new int[count];
+    int readNum = valueDecoder.readInts(valueBuffer, values, 0, count);
+    if (readNum != count) {
+      throw new IOException(String.format(VALUE_COUNT_MISMATCH_MSG, readNum, count));
+    }
+    return values;
+  }
+
+  private long[] decodeLongs(int count) throws IOException {
+    long[] values = new long[count];
+    int readNum = valueDecoder.readLongs(valueBuffer, values, 0, count);
+    if (readNum != count) {
+      throw new IOException(String.format(VALUE_COUNT_MISMATCH_MSG, readNum, count));
+    }
+    return values;
+  }
+
+  private float[] decodeFloats(int count) throws IOException {
+    float[] values = new float[count];
+    int readNum = valueDecoder.readFloats(valueBuffer, values, 0, count);
+    if (readNum != count) {
+      throw new IOException(String.format(VALUE_COUNT_MISMATCH_MSG, readNum, count));
+    }
+    return values;
+  }
+
+  private double[] decodeDoubles(int count) throws IOException {
+    double[] values = new double[count];
+    int readNum = valueDecoder.readDoubles(valueBuffer, values, 0, count);
+    if (readNum != count) {
+      throw new IOException(String.format(VALUE_COUNT_MISMATCH_MSG, readNum, count));
+    }
+    return values;
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
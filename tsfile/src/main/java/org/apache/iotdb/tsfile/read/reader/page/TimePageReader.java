@@ -25,11 +25,13 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TimePageReader {
 
+  private static final int INITIAL_BATCH_SIZE = 1024;
+
   private final PageHeader pageHeader;
 
   /** decoder for time column */
@@ -62,10 +64,15 @@ public class TimePageReader {
   }
 
   public long[] nextTimeBatch() throws IOException {
-    long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
+    int count = (int) pageHeader.getStatistics().getCount();
+    long[] timeBatch = new long[count];
     int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
+    while (index < count) {
+      int readNum = timeDecoder.readLongs(timeBuffer, timeBatch, index, count - index);
+      if (readNum == 0) {
+        break;
+      }
+      index += readNum;
     }
     return timeBatch;
   }
@@ -78,11 +85,19 @@ public class TimePageReader {
     if (pageHeader.getStatistics() != null) {
       return nextTimeBatch();
     } else {
-      List<Long> timeList = new ArrayList<>();
-      while (timeDecoder.hasNext(timeBuffer)) {
-        timeList.add(timeDecoder.readLong(timeBuffer));
+      long[] timeBatch = new long[INITIAL_BATCH_SIZE];
+      int index = 0;
+      while (true) {
+        int readNum = timeDecoder.readLongs(timeBuffer, timeBatch, index, timeBatch.length - index);
+        if (readNum == 0) {
+          break;
+        }
+        index += readNum;
+        if (index == timeBatch.length) {
+          timeBatch = Arrays.copyOf(timeBatch, timeBatch.length << 1);
+        }
       }
-      return timeList.stream().mapToLong(t -> t).toArray();
+      return Arrays.copyOf(timeBatch, index);
     }
   }
 
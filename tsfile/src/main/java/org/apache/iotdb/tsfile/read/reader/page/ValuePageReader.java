@@ -32,6 +32,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
@@ -245,7 +246,8 @@ public class ValuePageReader {
       int readEndIndex,
       ColumnBuilder columnBuilder,
       boolean[] keepCurrentRow,
-      boolean[] isDeleted) {
+      boolean[] isDeleted)
+      throws IOException {
     if (valueBuffer == null) {
       for (int i = 0; i < readEndIndex; i++) {
         if (keepCurrentRow[i]) {
@@ -254,6 +256,16 @@ public class ValuePageReader {
       }
       return;
     }
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        writeColumnBuilderWithDecodedBatch(readEndIndex, columnBuilder, keepCurrentRow, isDeleted);
+        return;
+      default:
+        break;
+    }
     for (int i = 0; i < readEndIndex; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         if (keepCurrentRow[i]) {
@@ -328,6 +340,114 @@ public class ValuePageReader {
     }
   }
 
+  /** decode all the not null values before readEndIndex by batch, only for numeric types */
+  private void writeColumnBuilderWithDecodedBatch(
+      int readEndIndex,
+      ColumnBuilder columnBuilder,
+      boolean[] keepCurrentRow,
+      boolean[] isDeleted)
+      throws IOException {
+    int notNullCount = 0;
+    for (int i = 0; i < readEndIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) != 0) {
+        notNullCount++;
+      }
+    }
+    int valueIndex = 0;
+    switch (dataType) {
+      case INT32:
+        int[] intValues = new int[notNullCount];
+        readFully(valueDecoder.readInts(valueBuffer, intValues, 0, notNullCount), notNullCount);
+        for (int i = 0; i < readEndIndex; i++) {
+          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+            if (keepCurrentRow[i]) {
+              columnBuilder.appendNull();
+            }
+            continue;
+          }
+          int anInt = intValues[valueIndex++];
+          if (keepCurrentRow[i]) {
+            if (isDeleted[i]) {
+              columnBuilder.appendNull();
+            } else {
+              columnBuilder.writeInt(anInt);
+            }
+          }
+        }
+        break;
+      case INT64:
+        long[] longValues = new long[notNullCount];
+        readFully(valueDecoder.readLongs(valueBuffer, longValues, 0, notNullCount), notNullCount);
+        for (int i = 0; i < readEndIndex; i++) {
+          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+            if (keepCurrentRow[i]) {
+              columnBuilder.appendNull();
+            }
+            continue;
+          }
+          long aLong = longValues[valueIndex++];
+          if (keepCurrentRow[i]) {
+            if (isDeleted[i]) {
+              columnBuilder.appendNull();
+            } else {
+              columnBuilder.writeLong(aLong);
+            }
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = new float[notNullCount];
+        readFully(valueDecoder.readFloats(valueBuffer, floatValues, 0, notNullCount), notNullCount);
+        for (int i = 0; i < readEndIndex; i++) {
+          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+            if (keepCurrentRow[i]) {
+              columnBuilder.appendNull();
+            }
+            continue;
+          }
+          float aFloat = floatValues[valueIndex++];
+          if (keepCurrentRow[i]) {
+            if (isDeleted[i]) {
+              columnBuilder.appendNull();
+            } else {
+              columnBuilder.writeFloat(aFloat);
+            }
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = new double[notNullCount];
+        readFully(
+            valueDecoder.readDoubles(valueBuffer, doubleValues, 0, notNullCount), notNullCount);
+        for (int i = 0; i < readEndIndex; i++) {
+          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+            if (keepCurrentRow[i]) {
+              columnBuilder.appendNull();
+            }
+            continue;
+          }
+          double aDouble = doubleValues[valueIndex++];
+          if (keepCurrentRow[i]) {
+            if (isDeleted[i]) {
+              columnBuilder.appendNull();
+            } else {
+              columnBuilder.writeDouble(aDouble);
+            }
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private void readFully(int readNum, int expectedNum) throws IOException {
+    if (readNum != expectedNum) {
+      throw new IOException(
+          String.format("Only %d values are decoded, while %d are expected", readNum, expectedNum));
+    }
+  }
+
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
   }
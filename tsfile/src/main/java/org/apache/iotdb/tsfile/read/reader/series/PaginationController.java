@@ -50,6 +50,11 @@ public class PaginationController {
     return !hasLimit || curLimit > 0;
   }
 
+  /** @return true if there is neither limit nor remaining offset to apply */
+  public boolean isUnlimited() {
+    return !hasLimit && curOffset <= 0;
+  }
+
   public void consumeOffset(long rowCount) {
     curOffset -= rowCount;
   }
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Eq;
+import org.apache.iotdb.tsfile.read.filter.operator.In;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Utils of the value bloom filters in chunk metadata, which index the distinct values of INT32,
+ * INT64 and TEXT chunks, so that equality and IN predicates can skip the chunks without the values.
+ */
+public class ValueBloomFilterUtils {
+
+  private ValueBloomFilterUtils() {}
+
+  public static boolean isSupported(TSDataType dataType) {
+    return dataType == TSDataType.INT32
+        || dataType == TSDataType.INT64
+        || dataType == TSDataType.TEXT;
+  }
+
+  /** @return the key of a value in value bloom filters, null if the value can not be indexed */
+  public static String getKey(Object value) {
+    if (value instanceof Integer || value instanceof Long) {
+      return value.toString();
+    } else if (value instanceof Binary) {
+      return ((Binary) value).getStringValue();
+    }
+    return null;
+  }
+
+  /**
+   * Whether some values in a chunk may satisfy the filter according to the value bloom filter of
+   * the chunk. Only the equality and IN value predicates are checked, others are regarded as
+   * satisfied.
+   *
+   * @param bloomFilter value bloom filter of the chunk, null if the chunk has no value bloom filter
+   * @return false only if no value in the chunk satisfies the filter
+   */
+  public static boolean mightSatisfy(Filter filter, BloomFilter bloomFilter) {
+    if (filter == null || bloomFilter == null) {
+      return true;
+    }
+    if (filter instanceof AndFilter) {
+      return mightSatisfy(((AndFilter) filter).getLeft(), bloomFilter)
+          && mightSatisfy(((AndFilter) filter).getRight(), bloomFilter);
+    } else if (filter instanceof OrFilter) {
+      return mightSatisfy(((OrFilter) filter).getLeft(), bloomFilter)
+          || mightSatisfy(((OrFilter) filter).getRight(), bloomFilter);
+    } else if (filter instanceof Eq) {
+      Eq<?> eq = (Eq<?>) filter;
+      return eq.getFilterType() != FilterType.VALUE_FILTER
+          || mightContain(bloomFilter, eq.getValue());
+    } else if (filter instanceof In) {
+      In<?> in = (In<?>) filter;
+      if (in.getFilterType() != FilterType.VALUE_FILTER || in.isNot()) {
+        return true;
+      }
+      for (Object value : in.getValues()) {
+        if (mightContain(bloomFilter, value)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private static boolean mightContain(BloomFilter bloomFilter, Object value) {
+    String key = getKey(value);
+    return key == null || bloomFilter.contains(key);
+  }
+
+  /**
+   * serialize a value bloom filter, which may be null, into the output stream.
+   *
+   * @return byte length
+   */
+  public static int serialize(BloomFilter bloomFilter, OutputStream outputStream)
+      throws IOException {
+    if (bloomFilter == null) {
+      return ReadWriteForEncodingUtils.writeUnsignedVarInt(0, outputStream);
+    }
+    int byteLen = 0;
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bloomFilter.getSize(), outputStream);
+    byteLen +=
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(
+            bloomFilter.getHashFunctionSize(), outputStream);
+    byte[] bytes = bloomFilter.serialize();
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, outputStream);
+    outputStream.write(bytes);
+    byteLen += bytes.length;
+    return byteLen;
+  }
+
+  /** @return the deserialized value bloom filter, null if there is no value bloom filter */
+  public static BloomFilter deserialize(ByteBuffer buffer) {
+    int size = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    if (size == 0) {
+      return null;
+    }
+    int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    byte[] bytes = new byte[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+    buffer.get(bytes);
+    return BloomFilter.buildBloomFilter(bytes, size, hashFunctionSize);
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.write.chunk;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
@@ -27,8 +28,10 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterUtils;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
@@ -41,6 +44,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -72,6 +77,17 @@ public class ChunkWriterImpl implements IChunkWriter {
   /** statistic of this chunk. */
   private Statistics<? extends Serializable> statistics;
 
+  /** whether to write the value bloom filter of each chunk */
+  private final boolean enableValueBloomFilter;
+
+  private final int valueBloomFilterMaxDistinctCount;
+
+  /**
+   * keys of the distinct values in this chunk for its value bloom filter, null if no value bloom
+   * filter will be written for this chunk.
+   */
+  private Set<String> distinctValues;
+
   /** SDT parameters */
   private boolean isSdtEncoding;
   // When the ChunkWriter WILL write the last data point in the chunk, set it to true to tell SDT
@@ -95,7 +111,7 @@ public class ChunkWriterImpl implements IChunkWriter {
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
-    this.compressor = ICompressor.getCompressor(schema.getCompressor());
+    this.compressor = ICompressor.getCompressor(schema.getCompressor(), schema.getMeasurementId());
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -107,6 +123,13 @@ public class ChunkWriterImpl implements IChunkWriter {
     // init statistics for this chunk and page
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
 
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    this.enableValueBloomFilter =
+        config.isEnableValueBloomFilter()
+            && ValueBloomFilterUtils.isSupported(measurementSchema.getType());
+    this.valueBloomFilterMaxDistinctCount = config.getValueBloomFilterMaxDistinctCount();
+    this.distinctValues = enableValueBloomFilter ? new HashSet<>() : null;
+
     this.pageWriter = new PageWriter(measurementSchema);
 
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
@@ -146,6 +169,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, long value) {
+    if (distinctValues != null) {
+      collectDistinctValue(Long.toString(value));
+    }
     // store last point for sdtEncoding, it still needs to go through encoding process
     // in case it exceeds compdev and needs to store second last point
     if (!isSdtEncoding || sdtEncoder.encodeLong(time, value)) {
@@ -160,6 +186,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, int value) {
+    if (distinctValues != null) {
+      collectDistinctValue(Integer.toString(value));
+    }
     if (!isSdtEncoding || sdtEncoder.encodeInt(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -202,11 +231,17 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, Binary value) {
+    if (distinctValues != null) {
+      collectDistinctValue(value.getStringValue());
+    }
     pageWriter.write(time, value);
     checkPageSizeAndMayOpenANewPage();
   }
 
   public void write(long[] timestamps, int[] values, int batchSize) {
+    for (int i = 0; i < batchSize && distinctValues != null; i++) {
+      collectDistinctValue(Integer.toString(values[i]));
+    }
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
@@ -215,6 +250,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long[] timestamps, long[] values, int batchSize) {
+    for (int i = 0; i < batchSize && distinctValues != null; i++) {
+      collectDistinctValue(Long.toString(values[i]));
+    }
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
@@ -244,10 +282,35 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long[] timestamps, Binary[] values, int batchSize) {
+    for (int i = 0; i < batchSize && distinctValues != null; i++) {
+      collectDistinctValue(values[i].getStringValue());
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /**
+   * Collect a distinct value of this chunk. The values written by SDT encoding are a subset of the
+   * collected ones, which only makes the bloom filter less selective.
+   */
+  private void collectDistinctValue(String key) {
+    if (distinctValues.add(key) && distinctValues.size() > valueBloomFilterMaxDistinctCount) {
+      // the bloom filter would be too large, skip it for this chunk
+      distinctValues = null;
+    }
+  }
+
+  private BloomFilter buildValueBloomFilter() {
+    BloomFilter bloomFilter =
+        BloomFilter.getEmptyBloomFilter(
+            TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(),
+            distinctValues.size());
+    for (String key : distinctValues) {
+      bloomFilter.add(key);
+    }
+    return bloomFilter;
+  }
+
   /**
    * check occupied memory size, if it exceeds the PageSize threshold, construct a page and put it
    * to pageBuffer
@@ -317,6 +380,7 @@ public class ChunkWriterImpl implements IChunkWriter {
     sizeWithoutStatistic = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    this.distinctValues = enableValueBloomFilter ? new HashSet<>() : null;
   }
 
   @Override
@@ -380,6 +444,8 @@ public class ChunkWriterImpl implements IChunkWriter {
    */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    // the values in the page are unknown
+    distinctValues = null;
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -450,6 +516,10 @@ public class ChunkWriterImpl implements IChunkWriter {
         numOfPages,
         0);
 
+    if (distinctValues != null) {
+      writer.setCurrentChunkValueBloomFilter(buildValueBloomFilter());
+    }
+
     long dataOffset = writer.getPos();
 
     // write all pages of this column
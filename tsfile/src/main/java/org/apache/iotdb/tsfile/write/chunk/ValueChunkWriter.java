@@ -103,7 +103,8 @@ public class ValueChunkWriter {
     this.statistics = Statistics.getStatsByType(dataType);
 
     this.pageWriter =
-        new ValuePageWriter(valueEncoder, ICompressor.getCompressor(compressionType), dataType);
+        new ValuePageWriter(
+            valueEncoder, ICompressor.getCompressor(compressionType, measurementId), dataType);
   }
 
   public void write(long time, long value, boolean isNull) {
@@ -67,7 +67,9 @@ public class PageWriter {
   public PageWriter(IMeasurementSchema measurementSchema) {
     this(measurementSchema.getTimeEncoder(), measurementSchema.getValueEncoder());
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
-    this.compressor = ICompressor.getCompressor(measurementSchema.getCompressor());
+    this.compressor =
+        ICompressor.getCompressor(
+            measurementSchema.getCompressor(), measurementSchema.getMeasurementId());
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder) {
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.write.writer;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.TsFileNotCompleteException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
@@ -61,9 +62,14 @@ public class ForceAppendTsFileWriter extends TsFileIOWriter {
         throw new TsFileNotCompleteException(
             "File " + file.getPath() + " is not a complete TsFile");
       }
+      byte versionNumber = reader.readVersionNumber();
+      canWriteValueBloomFilter = TSFileConfig.canCarryValueBloomFilter(versionNumber);
+      canWriteZstdDictionary = versionNumber == TSFileConfig.VERSION_NUMBER_WITH_ZSTD_DICTIONARY;
       TsFileMetadata tsFileMetadata = reader.readFileMetadata();
       // truncate metadata and marker
       truncatePosition = tsFileMetadata.getMetaOffset();
+      // the existing chunks may be compressed with the dictionaries of this file
+      addZstdDictionaries(tsFileMetadata.getZstdDictionaries());
 
       canWrite = true;
       List<String> devices = reader.getAllDevices();
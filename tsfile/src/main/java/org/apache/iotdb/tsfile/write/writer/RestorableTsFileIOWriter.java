@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.tsfile.write.writer;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.exception.NotCompatibleTsFileException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
@@ -27,6 +30,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.TsFileCheckStatus;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -91,6 +95,15 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
   }
 
   public RestorableTsFileIOWriter(File file, boolean truncate) throws IOException {
+    this(file, truncate, null);
+  }
+
+  /**
+   * @param zstdDictionaries dictionaries in the erased metadata of the file, null if the file is
+   *     written by this process before crashing, whose chunks use the configured dictionaries
+   */
+  private RestorableTsFileIOWriter(File file, boolean truncate, ZstdDictionaries zstdDictionaries)
+      throws IOException {
     if (logger.isDebugEnabled()) {
       logger.debug("{} is opened.", file.getName());
     }
@@ -108,6 +121,9 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
     if (file.exists()) {
       try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath(), false)) {
 
+        byte versionNumber = reader.readVersionNumber();
+        canWriteValueBloomFilter = TSFileConfig.canCarryValueBloomFilter(versionNumber);
+        canWriteZstdDictionary = versionNumber == TSFileConfig.VERSION_NUMBER_WITH_ZSTD_DICTIONARY;
         truncatedSize = reader.selfCheck(knownSchemas, chunkGroupMetadataList, true);
         minPlanIndex = reader.getMinPlanIndex();
         maxPlanIndex = reader.getMaxPlanIndex();
@@ -126,6 +142,7 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
           if (truncate) {
             out.truncate(truncatedSize);
           }
+          recoverZstdDictionaries(reader, zstdDictionaries);
         }
       }
     }
@@ -143,12 +160,15 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
   public static RestorableTsFileIOWriter getWriterForAppendingDataOnCompletedTsFile(File file)
       throws IOException {
     long position = file.length();
+    ZstdDictionaries zstdDictionaries = null;
 
     try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getAbsolutePath(), false)) {
       // this tsfile is complete
       if (reader.isComplete()) {
         reader.loadMetadataSize();
         position = reader.getFileMetadataPos();
+        // the dictionaries are erased with the metadata but still used by the chunks
+        zstdDictionaries = reader.getZstdDictionaries();
       }
     }
 
@@ -159,7 +179,24 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
         channel.truncate(position - 1); // remove the last marker.
       }
     }
-    return new RestorableTsFileIOWriter(file);
+    return new RestorableTsFileIOWriter(file, true, zstdDictionaries);
+  }
+
+  /**
+   * Record the dictionaries used by the recovered chunks, so that they are saved in the metadata
+   * when the file is closed.
+   */
+  private void recoverZstdDictionaries(
+      TsFileSequenceReader reader, ZstdDictionaries zstdDictionaries) throws IOException {
+    if (zstdDictionaries == null && ZstdDictionaryManager.getInstance().isEmpty()) {
+      return;
+    }
+    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+      for (ChunkMetadata chunkMetadata : chunkGroupMetadata.getChunkMetadataList()) {
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        recordZstdDictionaries(chunk.getHeader(), chunk.getData(), zstdDictionaries);
+      }
+    }
   }
 
   long getTruncatedSize() {
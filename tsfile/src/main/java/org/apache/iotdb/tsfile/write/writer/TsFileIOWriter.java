@@ -21,9 +21,12 @@ package org.apache.iotdb.tsfile.write.writer;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaries;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -47,13 +50,16 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.write.writer.tsmiterator.TSMIterator;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -86,6 +92,10 @@ public class TsFileIOWriter implements AutoCloseable {
 
   protected TsFileOutput out;
   protected boolean canWrite = true;
+  /** whether the chunk metadata can carry value bloom filters, decided by the file version */
+  protected boolean canWriteValueBloomFilter = false;
+  /** whether the pages can be compressed with ZSTD dictionaries, decided by the file version */
+  protected boolean canWriteZstdDictionary = false;
   protected File file;
 
   // current flushed Chunk
@@ -115,6 +125,10 @@ public class TsFileIOWriter implements AutoCloseable {
   private Path lastSerializePath = null;
   protected LinkedList<Long> endPosInCMTForDevice = new LinkedList<>();
   private volatile int chunkMetadataCount = 0;
+  // header of the chunk being flushed by startFlushChunk and writeBytesToStream
+  private ChunkHeader currentChunkHeader;
+  // ZSTD dictionaries used by the written chunks, saved in TsFileMetadata
+  protected Map<Long, byte[]> zstdDictionaries = new HashMap<>();
   public static final String CHUNK_METADATA_TEMP_FILE_SUFFIX = ".meta";
 
   /** empty construct function. */
@@ -167,12 +181,25 @@ public class TsFileIOWriter implements AutoCloseable {
    * @throws IOException if an I/O error occurs.
    */
   public void writeBytesToStream(PublicBAOS bytes) throws IOException {
+    if (currentChunkHeader != null) {
+      recordZstdDictionaries(
+          currentChunkHeader, ByteBuffer.wrap(bytes.getBuf(), 0, bytes.size()), null);
+      currentChunkHeader = null;
+    }
     bytes.writeTo(out.wrapAsStream());
   }
 
   protected void startFile() throws IOException {
     out.write(MAGIC_STRING_BYTES);
-    out.write(VERSION_NUMBER_BYTE);
+    canWriteValueBloomFilter = config.isEnableValueBloomFilter();
+    canWriteZstdDictionary = !ZstdDictionaryManager.getInstance().isEmpty();
+    if (canWriteZstdDictionary) {
+      out.write(TSFileConfig.VERSION_NUMBER_WITH_ZSTD_DICTIONARY);
+    } else if (canWriteValueBloomFilter) {
+      out.write(TSFileConfig.VERSION_NUMBER_WITH_VALUE_BLOOM_FILTER);
+    } else {
+      out.write(VERSION_NUMBER_BYTE);
+    }
   }
 
   public int startChunkGroup(String deviceId) throws IOException {
@@ -245,6 +272,7 @@ public class TsFileIOWriter implements AutoCloseable {
             numOfPages,
             mask);
     header.serializeTo(out.wrapAsStream());
+    currentChunkHeader = header;
   }
 
   /** Write a whole chunk in another file into this file. Providing fast merge for IoTDB. */
@@ -256,6 +284,8 @@ public class TsFileIOWriter implements AutoCloseable {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunkMetadata.getStatistics());
+    setValueBloomFilter(currentChunkMetadata, chunkMetadata.getValueBloomFilter());
+    recordZstdDictionaries(chunkHeader, chunk.getData().duplicate(), chunk.getZstdDictionaries());
     chunkHeader.serializeTo(out.wrapAsStream());
     out.write(chunk.getData());
     endCurrentChunk();
@@ -299,11 +329,113 @@ public class TsFileIOWriter implements AutoCloseable {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunk.getChunkStatistic());
+    recordZstdDictionaries(chunkHeader, chunk.getData().duplicate(), chunk.getZstdDictionaries());
     chunkHeader.serializeTo(out.wrapAsStream());
     out.write(chunk.getData());
     endCurrentChunk();
   }
 
+  /**
+   * Write the chunks serialized by another writer into the current chunk group of this file, the
+   * chunks are copied as they are.
+   *
+   * @param chunkMetadataList metadata of the continuous chunks in the other writer
+   * @param sourceOffset the offset of the first chunk in the other writer
+   * @param chunkData the serialized chunks starting from sourceOffset
+   * @param dictionaries the ZSTD dictionaries used by the chunks
+   */
+  public void writeSerializedChunks(
+      List<ChunkMetadata> chunkMetadataList,
+      long sourceOffset,
+      InputStream chunkData,
+      Map<Long, byte[]> dictionaries)
+      throws IOException {
+    for (Map.Entry<Long, byte[]> entry : dictionaries.entrySet()) {
+      ZstdDictionaries.put(zstdDictionaries, entry.getKey(), entry.getValue());
+    }
+    long startPosition = out.getPosition();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      currentChunkMetadata =
+          new ChunkMetadata(
+              chunkMetadata.getMeasurementUid(),
+              chunkMetadata.getDataType(),
+              startPosition + chunkMetadata.getOffsetOfChunkHeader() - sourceOffset,
+              chunkMetadata.getStatistics());
+      currentChunkMetadata.setMask(chunkMetadata.getMask());
+      setValueBloomFilter(currentChunkMetadata, chunkMetadata.getValueBloomFilter());
+      endCurrentChunk();
+    }
+    IOUtils.copyLarge(chunkData, out.wrapAsStream());
+  }
+
+  /**
+   * Record the dictionaries used by the pages of a ZSTD chunk, so that they can be saved in the
+   * metadata of this file. It is skipped when the chunk is compressed by this process and no
+   * dictionary is configured, because a page can not be compressed with a dictionary in that case.
+   *
+   * @param chunkData the pages of the chunk, its position is changed by this method
+   * @param sourceDictionaries dictionaries of the sealed TsFile the chunk is copied from, null if
+   *     the pages are compressed with the configured dictionaries
+   * @throws IOException if a dictionary is not found, or another chunk of this file uses a
+   *     different dictionary with the same id
+   */
+  protected void recordZstdDictionaries(
+      ChunkHeader chunkHeader, ByteBuffer chunkData, ZstdDictionaries sourceDictionaries)
+      throws IOException {
+    if (chunkHeader.getCompressionType() != CompressionType.ZSTD
+        || (sourceDictionaries == null && ZstdDictionaryManager.getInstance().isEmpty())) {
+      return;
+    }
+    boolean onlyOnePage =
+        (chunkHeader.getChunkType() & 0x3F) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER;
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader =
+          onlyOnePage
+              ? PageHeader.deserializeFrom(chunkData, (Statistics<? extends Serializable>) null)
+              : PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      long dictionaryId =
+          ZstdDictionaryManager.getDictionaryIdOfFrame(
+              (ByteBuffer) chunkData.slice().limit(pageHeader.getCompressedSize()));
+      if (dictionaryId != 0) {
+        if (!canWriteZstdDictionary) {
+          throw new IOException(
+              "ZSTD dictionary "
+                  + dictionaryId
+                  + " of chunk "
+                  + chunkHeader.getMeasurementID()
+                  + " is not supported by the version of this TsFile");
+        }
+        byte[] dictionary =
+            sourceDictionaries != null
+                ? sourceDictionaries.getDictionary(dictionaryId)
+                : ZstdDictionaryManager.getInstance().getDictionary(dictionaryId);
+        if (dictionary == null) {
+          throw new IOException(
+              "ZSTD dictionary "
+                  + dictionaryId
+                  + " of chunk "
+                  + chunkHeader.getMeasurementID()
+                  + " is not found");
+        }
+        ZstdDictionaries.put(zstdDictionaries, dictionaryId, dictionary);
+      }
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+    }
+  }
+
+  /**
+   * Set the value bloom filter of the chunk being flushed, it should be called between
+   * startFlushChunk and endCurrentChunk.
+   */
+  public void setCurrentChunkValueBloomFilter(BloomFilter valueBloomFilter) {
+    setValueBloomFilter(currentChunkMetadata, valueBloomFilter);
+  }
+
+  /** The value bloom filter is dropped if the version of this file doesn't support it. */
+  private void setValueBloomFilter(ChunkMetadata chunkMetadata, BloomFilter valueBloomFilter) {
+    chunkMetadata.setValueBloomFilter(canWriteValueBloomFilter ? valueBloomFilter : null);
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     if (enableMemoryControl) {
@@ -441,9 +573,11 @@ public class TsFileIOWriter implements AutoCloseable {
     TsFileMetadata tsFileMetadata = new TsFileMetadata();
     tsFileMetadata.setMetadataIndex(metadataIndex);
     tsFileMetadata.setMetaOffset(metaOffset);
+    tsFileMetadata.getZstdDictionaries().addAll(zstdDictionaries.values());
 
     int size = tsFileMetadata.serializeTo(out.wrapAsStream());
     size += tsFileMetadata.serializeBloomFilter(out.wrapAsStream(), filter);
+    size += tsFileMetadata.serializeZstdDictionaries(out.wrapAsStream());
 
     // write TsFileMetaData size
     ReadWriteIOUtils.write(size, out.wrapAsStream());
@@ -459,6 +593,15 @@ public class TsFileIOWriter implements AutoCloseable {
     return out.getPosition();
   }
 
+  /**
+   * get the size of the chunk metadata in memory, which is only tracked with memory control.
+   *
+   * @return - size of the chunk metadata in memory
+   */
+  public long getCurrentChunkMetadataSize() {
+    return currentChunkMetadataSize;
+  }
+
   // device -> ChunkMetadataList
   public Map<String, List<ChunkMetadata>> getDeviceChunkMetadataMap() {
     Map<String, List<ChunkMetadata>> deviceChunkMetadataMap = new HashMap<>();
@@ -706,7 +849,7 @@ public class TsFileIOWriter implements AutoCloseable {
     PublicBAOS buffer = new PublicBAOS();
     int totalSize = 0;
     for (IChunkMetadata chunkMetadata : iChunkMetadataList) {
-      totalSize += chunkMetadata.serializeTo(buffer, true);
+      totalSize += ((ChunkMetadata) chunkMetadata).serializeTo(buffer, true, true);
     }
     ReadWriteIOUtils.write(totalSize, tempOutput.wrapAsStream());
     buffer.writeTo(tempOutput);
@@ -716,6 +859,25 @@ public class TsFileIOWriter implements AutoCloseable {
     return currentChunkGroupDeviceId;
   }
 
+  /** @return id -> content of the ZSTD dictionaries used by the chunks written by this writer */
+  public Map<Long, byte[]> getZstdDictionaries() {
+    return zstdDictionaries;
+  }
+
+  /**
+   * Keep the dictionaries of the file being appended, which are used by its existing chunks.
+   *
+   * @throws IOException if a different dictionary with the same id is already used
+   */
+  protected void addZstdDictionaries(List<byte[]> dictionaries) throws IOException {
+    for (byte[] dictionary : dictionaries) {
+      ZstdDictionaries.put(
+          zstdDictionaries,
+          ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary),
+          dictionary);
+    }
+  }
+
   public List<ChunkGroupMetadata> getChunkGroupMetadataList() {
     return chunkGroupMetadataList;
   }
@@ -23,8 +23,14 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -33,6 +39,7 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -186,4 +193,77 @@ public class TsBlockSerdeTest {
       fail();
     }
   }
+
+  @Test
+  public void testSerializeWithNullsAndRegions() throws IOException {
+    final int positionCount = 21;
+    long[] times = new long[positionCount];
+    boolean[] isNull = new boolean[positionCount];
+    int[] ints = new int[positionCount];
+    double[] doubles = new double[positionCount];
+    boolean[] booleans = new boolean[positionCount];
+    Binary[] binaries = new Binary[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      times[i] = i * 10L;
+      isNull[i] = i % 3 == 0;
+      ints[i] = i;
+      doubles[i] = i + i / 10D;
+      booleans[i] = i % 2 == 0;
+      binaries[i] = new Binary(String.valueOf(i));
+    }
+    TsBlock tsBlock =
+        new TsBlock(
+            new TimeColumn(positionCount, times),
+            new IntColumn(positionCount, Optional.of(isNull), ints),
+            new DoubleColumn(positionCount, Optional.empty(), doubles),
+            new BooleanColumn(positionCount, Optional.of(isNull), booleans),
+            new BinaryColumn(positionCount, Optional.of(isNull), binaries),
+            new RunLengthEncodedColumn(
+                new LongColumn(1, Optional.empty(), new long[] {7L}), positionCount));
+
+    TsBlockSerde tsBlockSerde = new TsBlockSerde();
+    // the columns of a region have non-zero array offsets
+    for (TsBlock expected : new TsBlock[] {tsBlock, tsBlock.getRegion(5, 11)}) {
+      ByteBuffer output = tsBlockSerde.serialize(expected);
+      assertEquals(0, output.position());
+      assertEquals(output.capacity(), output.limit());
+      assertEquals(ByteBuffer.wrap(serializeByStream(expected)), output);
+
+      TsBlock actual = tsBlockSerde.deserialize(output);
+      assertEquals(0, output.remaining());
+      assertEquals(expected.getPositionCount(), actual.getPositionCount());
+      assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+      for (int i = 0; i < expected.getPositionCount(); i++) {
+        assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+        for (int j = 0; j < expected.getValueColumnCount(); j++) {
+          assertEquals(expected.getColumn(j).isNull(i), actual.getColumn(j).isNull(i));
+          if (!expected.getColumn(j).isNull(i)) {
+            assertEquals(expected.getColumn(j).getObject(i), actual.getColumn(j).getObject(i));
+          }
+        }
+      }
+    }
+  }
+
+  /** Serialize the tsblock with the stream based column encoders. */
+  private byte[] serializeByStream(TsBlock tsBlock) throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+    dataOutputStream.writeInt(tsBlock.getValueColumnCount());
+    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+      tsBlock.getColumn(i).getDataType().serializeTo(dataOutputStream);
+    }
+    dataOutputStream.writeInt(tsBlock.getPositionCount());
+    tsBlock.getTimeColumn().getEncoding().serializeTo(dataOutputStream);
+    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+      tsBlock.getColumn(i).getEncoding().serializeTo(dataOutputStream);
+    }
+    ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding())
+        .writeColumn(dataOutputStream, tsBlock.getTimeColumn());
+    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+      ColumnEncoderFactory.get(tsBlock.getColumn(i).getEncoding())
+          .writeColumn(dataOutputStream, tsBlock.getColumn(i));
+    }
+    return byteArrayOutputStream.toByteArray();
+  }
 }
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+public class ZstdDictionaryTest {
+
+  /** a measurement name which is not used by other tests, because the manager is a singleton */
+  private static final String MEASUREMENT = "zstd_dictionary_test_sensor";
+
+  private final File dictionaryDir = new File("ZstdDictionaryTest");
+  private final File tsFile = new File("ZstdDictionaryTest.tsfile");
+
+  private byte[] dictionary;
+
+  @Before
+  public void setUp() throws IOException {
+    ZstdDictTrainer trainer = new ZstdDictTrainer(1024 * 1024, 4 * 1024);
+    for (int i = 0; i < 1000; i++) {
+      trainer.addSample(sample(i));
+    }
+    dictionary = trainer.trainSamples();
+
+    Files.createDirectories(dictionaryDir.toPath());
+    Files.write(
+        new File(dictionaryDir, MEASUREMENT + ZstdDictionaryManager.DICTIONARY_FILE_SUFFIX)
+            .toPath(),
+        dictionary);
+    ZstdDictionaryManager.getInstance().loadDictionaries(dictionaryDir);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    ZstdDictionaryManager.getInstance().clear();
+    FileUtils.deleteDirectory(dictionaryDir);
+    Files.deleteIfExists(tsFile.toPath());
+  }
+
+  @Test
+  public void testCompressWithDictionary() throws IOException {
+    long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary);
+    Assert.assertNotEquals(0, dictionaryId);
+    Assert.assertEquals(
+        dictionaryId, ZstdDictionaryManager.getInstance().getDictionaryIdForWrite(MEASUREMENT));
+
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD, MEASUREMENT);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    byte[] input = sample(1001);
+
+    // byte array
+    byte[] compressed = compressor.compress(input);
+    Assert.assertEquals(
+        dictionaryId,
+        ZstdDictionaryManager.getDictionaryIdOfFrame(compressed, 0, compressed.length));
+    Assert.assertArrayEquals(input, unCompressor.uncompress(compressed));
+
+    // byte array with offset
+    byte[] output = new byte[input.length + 1];
+    Assert.assertEquals(
+        input.length, unCompressor.uncompress(compressed, 0, compressed.length, output, 1));
+    for (int i = 0; i < input.length; i++) {
+      Assert.assertEquals(input[i], output[i + 1]);
+    }
+
+    // direct byte buffer
+    ByteBuffer source = ByteBuffer.allocateDirect(input.length);
+    source.put(input);
+    source.flip();
+    ByteBuffer compressedBuffer =
+        ByteBuffer.allocateDirect(compressor.getMaxBytesForCompression(input.length));
+    compressor.compress(source, compressedBuffer);
+    compressedBuffer.flip();
+    Assert.assertEquals(
+        dictionaryId, ZstdDictionaryManager.getDictionaryIdOfFrame(compressedBuffer));
+    ByteBuffer uncompressedBuffer = ByteBuffer.allocateDirect(input.length);
+    unCompressor.uncompress(compressedBuffer, uncompressedBuffer);
+    uncompressedBuffer.flip();
+    byte[] actual = new byte[uncompressedBuffer.remaining()];
+    uncompressedBuffer.get(actual);
+    Assert.assertArrayEquals(input, actual);
+
+    // other measurements are compressed without dictionaries
+    compressed = ICompressor.getCompressor(CompressionType.ZSTD, "s1").compress(input);
+    Assert.assertEquals(
+        0, ZstdDictionaryManager.getDictionaryIdOfFrame(compressed, 0, compressed.length));
+  }
+
+  @Test
+  public void testCompressDictionaryOfEachLevel() {
+    long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary);
+    ZstdDictionaryManager manager = ZstdDictionaryManager.getInstance();
+    Assert.assertSame(
+        manager.getCompressDictionary(dictionaryId, 3),
+        manager.getCompressDictionary(dictionaryId, 3));
+    Assert.assertNotSame(
+        manager.getCompressDictionary(dictionaryId, 3),
+        manager.getCompressDictionary(dictionaryId, 1));
+  }
+
+  @Test
+  public void testTsFileWithDictionary() throws IOException, WriteProcessException {
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writeRecords(writer);
+    }
+    checkTsFile();
+  }
+
+  @Test
+  public void testRecoverDictionaries() throws IOException, WriteProcessException {
+    // crash after flushing the chunks, so the file has no metadata
+    TsFileWriter writer = new TsFileWriter(tsFile);
+    writeRecords(writer);
+    writer.flushAllChunkGroups();
+    writer.getIOWriter().close();
+
+    RestorableTsFileIOWriter restorableWriter = new RestorableTsFileIOWriter(tsFile);
+    Assert.assertTrue(restorableWriter.hasCrashed());
+    restorableWriter.endFile();
+    checkTsFile();
+  }
+
+  @Test
+  public void testDictionaryIdCollision() {
+    long dictionaryId = ZstdDictionaryManager.getDictionaryIdOfDictionary(dictionary);
+    // same header, different content
+    byte[] otherDictionary = Arrays.copyOf(dictionary, dictionary.length);
+    otherDictionary[otherDictionary.length - 1]++;
+    Assert.assertEquals(
+        dictionaryId, ZstdDictionaryManager.getDictionaryIdOfDictionary(otherDictionary));
+
+    try {
+      ZstdDictionaryManager.getInstance().register(otherDictionary);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    Assert.assertArrayEquals(
+        dictionary, ZstdDictionaryManager.getInstance().getDictionary(dictionaryId));
+
+    try {
+      new ZstdDictionaries(Arrays.asList(dictionary, otherDictionary));
+      Assert.fail();
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  private void writeRecords(TsFileWriter writer) throws IOException, WriteProcessException {
+    writer.registerTimeseries(
+        new Path("root.sg.d1"),
+        new MeasurementSchema(
+            MEASUREMENT, TSDataType.INT64, TSEncoding.PLAIN, CompressionType.ZSTD));
+    for (long time = 0; time < 1000; time++) {
+      TSRecord record = new TSRecord(time, "root.sg.d1");
+      record.addTuple(new LongDataPoint(MEASUREMENT, time * 2));
+      writer.write(record);
+    }
+  }
+
+  private void checkTsFile() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+      Assert.assertEquals(
+          TSFileConfig.VERSION_NUMBER_WITH_ZSTD_DICTIONARY, reader.readVersionNumber());
+      List<byte[]> dictionaries = reader.readFileMetadata().getZstdDictionaries();
+      Assert.assertEquals(1, dictionaries.size());
+      Assert.assertArrayEquals(dictionary, dictionaries.get(0));
+
+      long time = 0;
+      for (ChunkMetadata chunkMetadata :
+          reader.getChunkMetadataList(new Path("root.sg.d1", MEASUREMENT, true))) {
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        // the chunks are uncompressed with the dictionaries of the file
+        Assert.assertSame(reader.getZstdDictionaries(), chunk.getZstdDictionaries());
+        ChunkReader chunkReader = new ChunkReader(chunk, null);
+        while (chunkReader.hasNextSatisfiedPage()) {
+          BatchData batchData = chunkReader.nextPageData();
+          while (batchData.hasCurrent()) {
+            Assert.assertEquals(time, batchData.currentTime());
+            Assert.assertEquals(time * 2, batchData.getLong());
+            time++;
+            batchData.next();
+          }
+        }
+      }
+      Assert.assertEquals(1000, time);
+    }
+  }
+
+  private static byte[] sample(int index) {
+    String json =
+        "{\"device\":\"root.sg.d"
+            + index % 10
+            + "\",\"status\":\"running\",\"value\":"
+            + index
+            + "}";
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
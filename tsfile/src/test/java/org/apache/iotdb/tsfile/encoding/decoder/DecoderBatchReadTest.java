@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DecoderBatchReadTest {
+
+  private static final int ROW_NUM = 10000;
+
+  /** values read one by one before switching to batch reading */
+  private static final int SINGLE_READ_NUM = 3;
+
+  @Test
+  public void testReadLongs() throws IOException {
+    long[] data = generateLongs();
+    checkLongs(new PlainEncoder(TSDataType.INT64, 0), new PlainDecoder(), data);
+    checkLongs(new LongRleEncoder(), new LongRleDecoder(), data);
+    checkLongs(
+        new DeltaBinaryEncoder.LongDeltaEncoder(), new DeltaBinaryDecoder.LongDeltaDecoder(), data);
+    checkLongs(new LongGorillaEncoder(), new LongGorillaDecoder(), data);
+    checkLongs(new LongChimpEncoder(), new LongChimpDecoder(), data);
+  }
+
+  @Test
+  public void testReadInts() throws IOException {
+    long[] longs = generateLongs();
+    int[] data = new int[longs.length];
+    for (int i = 0; i < longs.length; i++) {
+      data[i] = (int) longs[i];
+    }
+    checkInts(new PlainEncoder(TSDataType.INT32, 0), new PlainDecoder(), data);
+    checkInts(new IntRleEncoder(), new IntRleDecoder(), data);
+    checkInts(
+        new DeltaBinaryEncoder.IntDeltaEncoder(), new DeltaBinaryDecoder.IntDeltaDecoder(), data);
+    checkInts(new IntGorillaEncoder(), new IntGorillaDecoder(), data);
+    checkInts(new IntChimpEncoder(), new IntChimpDecoder(), data);
+  }
+
+  @Test
+  public void testReadFloatingPoints() throws IOException {
+    Random random = new Random(2);
+    double[] data = new double[ROW_NUM];
+    float[] floatData = new float[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      // two decimal places, which FloatEncoder keeps exactly
+      data[i] = random.nextInt(100000) / 100.0;
+      floatData[i] = random.nextInt(100000) / 100.0f;
+    }
+    checkDoubles(new DoublePrecisionEncoderV2(), new DoublePrecisionDecoderV2(), data);
+    checkDoubles(new DoublePrecisionChimpEncoder(), new DoublePrecisionChimpDecoder(), data);
+    checkDoubles(
+        new FloatEncoder(TSEncoding.RLE, TSDataType.DOUBLE, 2),
+        new FloatDecoder(TSEncoding.RLE, TSDataType.DOUBLE),
+        data);
+    checkDoubles(
+        new FloatEncoder(TSEncoding.TS_2DIFF, TSDataType.DOUBLE, 2),
+        new FloatDecoder(TSEncoding.TS_2DIFF, TSDataType.DOUBLE),
+        data);
+    checkFloats(new SinglePrecisionEncoderV2(), new SinglePrecisionDecoderV2(), floatData);
+    checkFloats(new SinglePrecisionChimpEncoder(), new SinglePrecisionChimpDecoder(), floatData);
+    checkFloats(
+        new FloatEncoder(TSEncoding.RLE, TSDataType.FLOAT, 2),
+        new FloatDecoder(TSEncoding.RLE, TSDataType.FLOAT),
+        floatData);
+    checkFloats(
+        new FloatEncoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT, 2),
+        new FloatDecoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT),
+        floatData);
+  }
+
+  @Test
+  public void testReadDoubles() throws IOException {
+    Random random = new Random(1);
+    double[] data = new double[ROW_NUM];
+    float[] floatData = new float[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      data[i] = random.nextDouble();
+      floatData[i] = random.nextFloat();
+    }
+
+    Encoder encoder = new PlainEncoder(TSDataType.DOUBLE, 0);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    double[] actual = new double[ROW_NUM];
+    assertEquals(
+        ROW_NUM,
+        new PlainDecoder().readDoubles(ByteBuffer.wrap(out.toByteArray()), actual, 0, ROW_NUM + 1));
+    assertArrayEquals(data, actual, 0);
+
+    encoder = new PlainEncoder(TSDataType.FLOAT, 0);
+    out = new ByteArrayOutputStream();
+    for (float value : floatData) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    float[] floatActual = new float[ROW_NUM];
+    assertEquals(
+        ROW_NUM,
+        new PlainDecoder()
+            .readFloats(ByteBuffer.wrap(out.toByteArray()), floatActual, 0, ROW_NUM + 1));
+    assertArrayEquals(floatData, floatActual, 0);
+  }
+
+  /** runs of repeated values mixed with random values, to cover both rle and bit-packing */
+  private long[] generateLongs() {
+    Random random = new Random(0);
+    long[] data = new long[ROW_NUM];
+    int i = 0;
+    while (i < ROW_NUM) {
+      int runLength = random.nextInt(50);
+      long value = random.nextInt(100000);
+      for (int j = 0; j < runLength && i < ROW_NUM; j++) {
+        data[i++] = value;
+      }
+      for (int j = 0; j < 20 && i < ROW_NUM; j++) {
+        data[i++] = random.nextInt(100000);
+      }
+    }
+    return data;
+  }
+
+  private void checkLongs(Encoder encoder, Decoder decoder, long[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    long[] actual = new long[data.length + 1];
+    int count = 0;
+    while (count < SINGLE_READ_NUM) {
+      actual[count++] = decoder.readLong(buffer);
+    }
+    // batch sizes which are not aligned with the size of encoded blocks
+    int batchSize = 1;
+    int readNum;
+    while ((readNum = decoder.readLongs(buffer, actual, count, batchSize)) > 0) {
+      count += readNum;
+      batchSize = Math.min(batchSize * 2 + 1, actual.length - count);
+    }
+    assertEquals(decoder.getClass().getName(), data.length, count);
+    assertArrayEquals(data, Arrays.copyOf(actual, count));
+  }
+
+  private void checkDoubles(Encoder encoder, Decoder decoder, double[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    double[] actual = new double[data.length + 1];
+    int count = 0;
+    while (count < SINGLE_READ_NUM) {
+      actual[count++] = decoder.readDouble(buffer);
+    }
+    int batchSize = 1;
+    int readNum;
+    while ((readNum = decoder.readDoubles(buffer, actual, count, batchSize)) > 0) {
+      count += readNum;
+      batchSize = Math.min(batchSize * 2 + 1, actual.length - count);
+    }
+    assertEquals(decoder.getClass().getName(), data.length, count);
+    assertArrayEquals(data, Arrays.copyOf(actual, count), 0);
+  }
+
+  private void checkFloats(Encoder encoder, Decoder decoder, float[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (float value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    float[] actual = new float[data.length + 1];
+    int count = 0;
+    while (count < SINGLE_READ_NUM) {
+      actual[count++] = decoder.readFloat(buffer);
+    }
+    int batchSize = 1;
+    int readNum;
+    while ((readNum = decoder.readFloats(buffer, actual, count, batchSize)) > 0) {
+      count += readNum;
+      batchSize = Math.min(batchSize * 2 + 1, actual.length - count);
+    }
+    assertEquals(decoder.getClass().getName(), data.length, count);
+    assertArrayEquals(data, Arrays.copyOf(actual, count), 0);
+  }
+
+  private void checkInts(Encoder encoder, Decoder decoder, int[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    int[] actual = new int[data.length + 1];
+    int count = 0;
+    while (count < SINGLE_READ_NUM) {
+      actual[count++] = decoder.readInt(buffer);
+    }
+    int batchSize = 1;
+    int readNum;
+    while ((readNum = decoder.readInts(buffer, actual, count, batchSize)) > 0) {
+      count += readNum;
+      batchSize = Math.min(batchSize * 2 + 1, actual.length - count);
+    }
+    assertEquals(decoder.getClass().getName(), data.length, count);
+    assertArrayEquals(data, Arrays.copyOf(actual, count));
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -45,6 +46,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +137,61 @@ public class TsFileSequenceReaderTest {
     reader.close();
   }
 
+  @Test
+  public void testReadMemChunks() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (Path path : reader.getAllPaths()) {
+        chunkMetadataList.addAll(reader.getChunkMetadataList(path));
+      }
+      chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+
+      // no merged read, some merged reads, and one read for all chunks
+      for (int maxCoalescedReadSize : new int[] {0, 512, Integer.MAX_VALUE}) {
+        List<Chunk> chunks = reader.readMemChunks(chunkMetadataList, maxCoalescedReadSize);
+        Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+          Chunk expected = reader.readMemChunk(chunkMetadataList.get(i));
+          Chunk actual = chunks.get(i);
+          Assert.assertEquals(
+              expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+          Assert.assertEquals(
+              expected.getHeader().getSerializedSize(), actual.getHeader().getSerializedSize());
+          Assert.assertEquals(expected.getData(), actual.getData());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadChunks() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (Path path : reader.getAllPaths()) {
+        chunkMetadataList.addAll(reader.getChunkMetadataList(path));
+      }
+      // not sorted by offset, with null elements
+      chunkMetadataList.sort(
+          Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader).reversed());
+      chunkMetadataList.add(0, null);
+      chunkMetadataList.add(chunkMetadataList.size() / 2, null);
+
+      List<Chunk> chunks = reader.readChunks(chunkMetadataList);
+      Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+      for (int i = 0; i < chunks.size(); i++) {
+        if (chunkMetadataList.get(i) == null) {
+          Assert.assertNull(chunks.get(i));
+        } else {
+          Chunk expected = reader.readMemChunk(chunkMetadataList.get(i));
+          Chunk actual = chunks.get(i);
+          Assert.assertEquals(
+              expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+          Assert.assertEquals(expected.getData(), actual.getData());
+        }
+      }
+    }
+  }
+
   @Test
   public void testReadEmptyPageInSelfCheck() throws IOException, WriteProcessException {
     int oldMaxPagePointNum =
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterUtils;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class ValueBloomFilterTest {
+
+  private static final String DEVICE = "root.sg.d1";
+
+  private final File file = new File("ValueBloomFilterTest.tsfile");
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private boolean enableValueBloomFilter;
+  private int valueBloomFilterMaxDistinctCount;
+
+  @Before
+  public void setUp() {
+    enableValueBloomFilter = config.isEnableValueBloomFilter();
+    valueBloomFilterMaxDistinctCount = config.getValueBloomFilterMaxDistinctCount();
+    config.setEnableValueBloomFilter(true);
+    config.setValueBloomFilterMaxDistinctCount(100);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setEnableValueBloomFilter(enableValueBloomFilter);
+    config.setValueBloomFilterMaxDistinctCount(valueBloomFilterMaxDistinctCount);
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testValueBloomFilter() throws IOException {
+    writeFile(new TsFileIOWriter(file));
+    checkFile();
+  }
+
+  @Test
+  public void testValueBloomFilterWithMemoryControl() throws IOException {
+    // flush all the chunk metadata into the temp file before ending the file
+    writeFile(new TsFileIOWriter(file, true, 0));
+    checkFile();
+  }
+
+  @Test
+  public void testVersionNumber() throws IOException {
+    writeFile(new TsFileIOWriter(file));
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      Assert.assertEquals(
+          TSFileConfig.VERSION_NUMBER_WITH_VALUE_BLOOM_FILTER, reader.readVersionNumber());
+    }
+
+    config.setEnableValueBloomFilter(false);
+    writeFile(new TsFileIOWriter(file));
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      Assert.assertEquals(TSFileConfig.VERSION_NUMBER, reader.readVersionNumber());
+      for (String measurement : new String[] {"s1", "s2"}) {
+        for (ChunkMetadata chunkMetadata :
+            reader.getChunkMetadataList(new Path(DEVICE, measurement, true))) {
+          Assert.assertNull(chunkMetadata.getValueBloomFilter());
+        }
+      }
+    }
+  }
+
+  private void writeFile(TsFileIOWriter writer) throws IOException {
+    MeasurementSchema longSchema = new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE);
+    MeasurementSchema textSchema = new MeasurementSchema("s2", TSDataType.TEXT, TSEncoding.PLAIN);
+    MeasurementSchema intSchema = new MeasurementSchema("s3", TSDataType.INT32, TSEncoding.RLE);
+    MeasurementSchema doubleSchema =
+        new MeasurementSchema("s4", TSDataType.DOUBLE, TSEncoding.GORILLA);
+    try {
+      // three chunks of s1 with the values of [0, 10), [10, 20) and [20, 30)
+      for (int chunk = 0; chunk < 3; chunk++) {
+        writer.startChunkGroup(DEVICE);
+        ChunkWriterImpl longWriter = new ChunkWriterImpl(longSchema);
+        for (int i = 0; i < 100; i++) {
+          longWriter.write(chunk * 100L + i, chunk * 10L + i % 10);
+        }
+        longWriter.writeToFileWriter(writer);
+        writer.endChunkGroup();
+      }
+
+      writer.startChunkGroup(DEVICE);
+      ChunkWriterImpl textWriter = new ChunkWriterImpl(textSchema);
+      ChunkWriterImpl intWriter = new ChunkWriterImpl(intSchema);
+      ChunkWriterImpl doubleWriter = new ChunkWriterImpl(doubleSchema);
+      for (int i = 0; i < 1000; i++) {
+        textWriter.write(i, new Binary(i % 3 == 0 ? "FAULT" : "RUNNING"));
+        // too many distinct values
+        intWriter.write(i, i);
+        doubleWriter.write(i, (double) i);
+      }
+      textWriter.writeToFileWriter(writer);
+      intWriter.writeToFileWriter(writer);
+      doubleWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      writer.checkMetadataSizeAndMayFlush();
+      writer.endFile();
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void checkFile() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      List<ChunkMetadata> longChunks = reader.getChunkMetadataList(new Path(DEVICE, "s1", true));
+      Assert.assertEquals(3, longChunks.size());
+      for (int chunk = 0; chunk < 3; chunk++) {
+        ChunkMetadata chunkMetadata = longChunks.get(chunk);
+        Assert.assertEquals(100, chunkMetadata.getStatistics().getCount());
+        BloomFilter bloomFilter = chunkMetadata.getValueBloomFilter();
+        Assert.assertNotNull(bloomFilter);
+        for (long value = chunk * 10L; value < chunk * 10L + 10; value++) {
+          Assert.assertTrue(ValueBloomFilterUtils.mightSatisfy(ValueFilter.eq(value), bloomFilter));
+        }
+      }
+      // 15 is only in the second chunk, and 25 is only in the third chunk
+      BloomFilter firstBloomFilter = longChunks.get(0).getValueBloomFilter();
+      Assert.assertFalse(ValueBloomFilterUtils.mightSatisfy(ValueFilter.eq(15L), firstBloomFilter));
+      Assert.assertFalse(
+          ValueBloomFilterUtils.mightSatisfy(
+              ValueFilter.in(new HashSet<>(Arrays.asList(15L, 25L)), false), firstBloomFilter));
+      Assert.assertTrue(
+          ValueBloomFilterUtils.mightSatisfy(
+              ValueFilter.in(new HashSet<>(Arrays.asList(15L, 25L)), true), firstBloomFilter));
+      Assert.assertFalse(
+          ValueBloomFilterUtils.mightSatisfy(
+              FilterFactory.and(TimeFilter.gt(10), ValueFilter.eq(15L)), firstBloomFilter));
+      Assert.assertTrue(
+          ValueBloomFilterUtils.mightSatisfy(
+              FilterFactory.or(TimeFilter.gt(10), ValueFilter.eq(15L)), firstBloomFilter));
+      Assert.assertTrue(ValueBloomFilterUtils.mightSatisfy(ValueFilter.gt(15L), firstBloomFilter));
+
+      // a series with only one chunk
+      List<ChunkMetadata> textChunks = reader.getChunkMetadataList(new Path(DEVICE, "s2", true));
+      Assert.assertEquals(1, textChunks.size());
+      Assert.assertEquals(1000, textChunks.get(0).getStatistics().getCount());
+      BloomFilter textBloomFilter = textChunks.get(0).getValueBloomFilter();
+      Assert.assertTrue(
+          ValueBloomFilterUtils.mightSatisfy(
+              ValueFilter.eq(new Binary("FAULT")), textBloomFilter));
+      Assert.assertFalse(
+          ValueBloomFilterUtils.mightSatisfy(
+              ValueFilter.eq(new Binary("STOPPED")), textBloomFilter));
+
+      List<ChunkMetadata> intChunks = reader.getChunkMetadataList(new Path(DEVICE, "s3", true));
+      Assert.assertEquals(1000, intChunks.get(0).getStatistics().getCount());
+      Assert.assertNull(intChunks.get(0).getValueBloomFilter());
+      List<ChunkMetadata> doubleChunks = reader.getChunkMetadataList(new Path(DEVICE, "s4", true));
+      Assert.assertEquals(1000, doubleChunks.get(0).getStatistics().getCount());
+      Assert.assertNull(doubleChunks.get(0).getValueBloomFilter());
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageReader;
+import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DecodedPageReaderTest {
+
+  private static final String DEVICE = "root.sg.d1";
+
+  private final File file = new File("DecodedPageReaderTest.tsfile");
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private int maxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() throws IOException {
+    maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setMaxNumberOfPointsInPage(100);
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    try {
+      writer.startChunkGroup(DEVICE);
+      ChunkWriterImpl longWriter =
+          new ChunkWriterImpl(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE));
+      ChunkWriterImpl textWriter =
+          new ChunkWriterImpl(new MeasurementSchema("s2", TSDataType.TEXT, TSEncoding.PLAIN));
+      for (int i = 0; i < 1000; i++) {
+        longWriter.write(i, i % 30L);
+        textWriter.write(i, new Binary(String.valueOf(i % 30)));
+      }
+      longWriter.writeToFileWriter(writer);
+      textWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      writer.endFile();
+    } finally {
+      writer.close();
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testCachedPages() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      for (String measurement : Arrays.asList("s1", "s2")) {
+        ChunkMetadata chunkMetadata =
+            reader.getChunkMetadataList(new Path(DEVICE, measurement, true)).get(0);
+        Map<Integer, TsBlock> pages = new HashMap<>();
+        IChunkPageCache pageCache =
+            new IChunkPageCache() {
+              @Override
+              public TsBlock get(int pageIndex) {
+                return pages.get(pageIndex);
+              }
+
+              @Override
+              public void put(int pageIndex, TsBlock decodedPage) {
+                pages.put(pageIndex, decodedPage);
+              }
+            };
+
+        Filter valueFilter =
+            measurement.equals("s1")
+                ? ValueFilter.gtEq(20L)
+                : ValueFilter.gtEq(new Binary("20"));
+
+        // only the pages satisfying the filter are decoded and cached
+        Filter timeFilter = TimeFilter.gtEq(550L);
+        checkChunk(reader, chunkMetadata, timeFilter, null, 0, 0, pageCache);
+        Assert.assertEquals(5, pages.size());
+        Assert.assertFalse(pages.containsKey(4));
+        Assert.assertEquals(100, pages.get(5).getPositionCount());
+
+        // the pages are read from the cache by the following queries
+        checkChunk(reader, chunkMetadata, null, null, 0, 0, pageCache);
+        Assert.assertEquals(10, pages.size());
+        Map<Integer, TsBlock> cachedPages = new HashMap<>(pages);
+        checkChunk(reader, chunkMetadata, timeFilter, null, 0, 0, pageCache);
+        checkChunk(
+            reader,
+            chunkMetadata,
+            FilterFactory.and(TimeFilter.lt(720L), valueFilter),
+            null,
+            0,
+            0,
+            pageCache);
+        checkChunk(
+            reader,
+            chunkMetadata,
+            null,
+            Arrays.asList(new TimeRange(10, 120), new TimeRange(500, 899)),
+            0,
+            0,
+            pageCache);
+        checkChunk(
+            reader,
+            chunkMetadata,
+            TimeFilter.gt(150L),
+            Collections.singletonList(new TimeRange(180, 220)),
+            30,
+            20,
+            pageCache);
+        checkChunk(reader, chunkMetadata, null, null, 50, 230, pageCache);
+        for (Map.Entry<Integer, TsBlock> entry : cachedPages.entrySet()) {
+          Assert.assertSame(entry.getValue(), pages.get(entry.getKey()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Read the chunk with and without the page cache, and check that the results are the same. The
+   * results read with the page cache are reversed like a descending query, which should not modify
+   * the cached pages.
+   */
+  private void checkChunk(
+      TsFileSequenceReader reader,
+      ChunkMetadata chunkMetadata,
+      Filter filter,
+      List<TimeRange> deleteIntervalList,
+      long limit,
+      long offset,
+      IChunkPageCache pageCache)
+      throws IOException {
+    List<IPageReader> expectedPageReaders =
+        getPageReaders(reader, chunkMetadata, filter, deleteIntervalList, null);
+    List<IPageReader> actualPageReaders =
+        getPageReaders(reader, chunkMetadata, filter, deleteIntervalList, pageCache);
+    Assert.assertEquals(expectedPageReaders.size(), actualPageReaders.size());
+    boolean paginated = limit > 0 || offset > 0;
+    PaginationController expectedPaginationController = new PaginationController(limit, offset);
+    PaginationController actualPaginationController = new PaginationController(limit, offset);
+    for (int i = 0; i < expectedPageReaders.size(); i++) {
+      IPageReader expectedPageReader = expectedPageReaders.get(i);
+      IPageReader actualPageReader = actualPageReaders.get(i);
+      Assert.assertTrue(actualPageReader instanceof DecodedPageReader);
+      if (paginated) {
+        expectedPageReader.setLimitOffset(expectedPaginationController);
+        actualPageReader.setLimitOffset(actualPaginationController);
+      }
+      TsBlock expected = expectedPageReader.getAllSatisfiedData();
+      TsBlock actual = actualPageReader.getAllSatisfiedData();
+      assertTsBlockEquals(expected, actual);
+      actual.reverse();
+    }
+
+    if (!paginated) {
+      actualPageReaders =
+          getPageReaders(reader, chunkMetadata, filter, deleteIntervalList, pageCache);
+      for (int i = 0; i < expectedPageReaders.size(); i++) {
+        BatchData expected =
+            getPageReaders(reader, chunkMetadata, filter, deleteIntervalList, null)
+                .get(i)
+                .getAllSatisfiedPageData(true);
+        BatchData actual = actualPageReaders.get(i).getAllSatisfiedPageData(true);
+        while (expected.hasCurrent()) {
+          Assert.assertTrue(actual.hasCurrent());
+          Assert.assertEquals(expected.currentTime(), actual.currentTime());
+          Assert.assertEquals(expected.currentValue(), actual.currentValue());
+          expected.next();
+          actual.next();
+        }
+        Assert.assertFalse(actual.hasCurrent());
+      }
+    }
+  }
+
+  private List<IPageReader> getPageReaders(
+      TsFileSequenceReader reader,
+      ChunkMetadata chunkMetadata,
+      Filter filter,
+      List<TimeRange> deleteIntervalList,
+      IChunkPageCache pageCache)
+      throws IOException {
+    Chunk chunk = reader.readMemChunk(chunkMetadata);
+    chunk.setDeleteIntervalList(deleteIntervalList);
+    return new ArrayList<>(new ChunkReader(chunk, filter, pageCache).loadPageReaderList());
+  }
+
+  private void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      Assert.assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+      Assert.assertEquals(expected.getColumn(0).getObject(i), actual.getColumn(0).getObject(i));
+    }
+  }
+}
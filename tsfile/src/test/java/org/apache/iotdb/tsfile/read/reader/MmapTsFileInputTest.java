@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.FileGenerator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MmapTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+
+  @Before
+  public void before() throws IOException {
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testReadAcrossSegments() throws IOException {
+    TsFileInput localInput = new LocalTsFileInput(Paths.get(FILE_PATH));
+    // use tiny segments so that most reads cross the boundaries of segments
+    TsFileInput mmapInput = new MmapTsFileInput(Paths.get(FILE_PATH), 64, null);
+    try {
+      Assert.assertEquals(localInput.size(), mmapInput.size());
+      long size = localInput.size();
+      for (long position = 0; position < size; position += 37) {
+        ByteBuffer expected = ByteBuffer.allocate(100);
+        ByteBuffer actual = ByteBuffer.allocate(100);
+        Assert.assertEquals(localInput.read(expected, position), mmapInput.read(actual, position));
+        expected.flip();
+        actual.flip();
+        Assert.assertEquals(expected, actual);
+      }
+      Assert.assertEquals(-1, mmapInput.read(ByteBuffer.allocate(1), size));
+
+      mmapInput.position(0);
+      ByteBuffer whole = ByteBuffer.allocate((int) size);
+      Assert.assertEquals(size, mmapInput.read(whole));
+      Assert.assertEquals(size, mmapInput.position());
+      Assert.assertEquals(-1, mmapInput.read());
+    } finally {
+      localInput.close();
+      mmapInput.close();
+    }
+  }
+
+  @Test
+  public void testReadAfterClose() throws IOException {
+    List<MappedByteBuffer> unmappedSegments = new ArrayList<>();
+    TsFileInput mmapInput = new MmapTsFileInput(Paths.get(FILE_PATH), 64, unmappedSegments::add);
+    long size = mmapInput.size();
+    Assert.assertEquals(1, mmapInput.read(ByteBuffer.allocate(1), 0));
+    mmapInput.close();
+    Assert.assertEquals((size + 63) / 64, unmappedSegments.size());
+    // closing twice doesn't unmap the segments again
+    mmapInput.close();
+    Assert.assertEquals((size + 63) / 64, unmappedSegments.size());
+
+    try {
+      mmapInput.read(ByteBuffer.allocate(1), 0);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+    try {
+      mmapInput.read();
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testReadChunks() throws IOException {
+    try (TsFileSequenceReader localReader = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(new MmapTsFileInput(Paths.get(FILE_PATH), 256, null))) {
+      Assert.assertEquals(localReader.getAllDevices(), mmapReader.getAllDevices());
+      for (Path path : localReader.getAllPaths()) {
+        for (ChunkMetadata chunkMetadata : localReader.getChunkMetadataList(path)) {
+          Chunk expected = localReader.readMemChunk(chunkMetadata);
+          Chunk actual = mmapReader.readMemChunk(chunkMetadata);
+          Assert.assertEquals(expected.getHeader().getDataSize(), actual.getHeader().getDataSize());
+          Assert.assertEquals(expected.getData(), actual.getData());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DeltaBinaryDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DictionaryDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DoublePrecisionDecoderV2;
+import org.apache.iotdb.tsfile.encoding.decoder.IntRleDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.LongRleDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.PlainDecoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/** Check that decoding and filtering at the same time returns the same rows as row by row. */
+public class PageReaderFilterTest {
+
+  private static final int POINTS_COUNT_IN_ONE_PAGE = 10000;
+
+  private static final List<TimeRange> DELETE_INTERVALS =
+      Arrays.asList(new TimeRange(100, 300), new TimeRange(9000, 9100));
+
+  @Test
+  public void testIntRle() throws IOException {
+    check(
+        TSDataType.INT32,
+        IntRleEncoder::new,
+        IntRleDecoder::new,
+        i -> i / 100,
+        ValueFilter.gt(20),
+        ValueFilter.in(new HashSet<>(Arrays.asList(3, 30, 60)), false));
+  }
+
+  @Test
+  public void testIntTs2Diff() throws IOException {
+    check(
+        TSDataType.INT32,
+        DeltaBinaryEncoder.IntDeltaEncoder::new,
+        DeltaBinaryDecoder.IntDeltaDecoder::new,
+        i -> i * 3 % 1000,
+        ValueFilter.ltEq(500),
+        ValueFilter.notEq(99));
+  }
+
+  @Test
+  public void testLongRle() throws IOException {
+    check(
+        TSDataType.INT64,
+        LongRleEncoder::new,
+        LongRleDecoder::new,
+        i -> (long) (i % 7),
+        ValueFilter.eq(3L),
+        ValueFilter.in(new HashSet<>(Arrays.asList(1L, 5L)), true));
+  }
+
+  @Test
+  public void testLongTs2Diff() throws IOException {
+    check(
+        TSDataType.INT64,
+        DeltaBinaryEncoder.LongDeltaEncoder::new,
+        DeltaBinaryDecoder.LongDeltaDecoder::new,
+        i -> Long.MAX_VALUE - i,
+        ValueFilter.gtEq(Long.MAX_VALUE - 5000),
+        ValueFilter.lt(Long.MAX_VALUE - 8000));
+  }
+
+  @Test
+  public void testFloatPlain() throws IOException {
+    check(
+        TSDataType.FLOAT,
+        () -> new PlainEncoder(TSDataType.FLOAT, 0),
+        PlainDecoder::new,
+        i -> i % 3 == 0 ? -0.0f : (float) i / 10,
+        ValueFilter.gt(100.5f),
+        ValueFilter.eq(0.0f));
+  }
+
+  @Test
+  public void testDoubleGorilla() throws IOException {
+    check(
+        TSDataType.DOUBLE,
+        DoublePrecisionEncoderV2::new,
+        DoublePrecisionDecoderV2::new,
+        i -> (double) (i / 10) / 3,
+        ValueFilter.lt(200.0),
+        ValueFilter.gt(300.0));
+  }
+
+  @Test
+  public void testTextPlain() throws IOException {
+    check(
+        TSDataType.TEXT,
+        () -> new PlainEncoder(TSDataType.TEXT, 0),
+        PlainDecoder::new,
+        i -> new Binary("s" + i % 50),
+        ValueFilter.like("s1%"),
+        ValueFilter.eq(new Binary("s42")));
+  }
+
+  @Test
+  public void testTextDictionary() throws IOException {
+    check(
+        TSDataType.TEXT,
+        DictionaryEncoder::new,
+        DictionaryDecoder::new,
+        i -> new Binary("s" + i % 50),
+        ValueFilter.regexp("s[0-2]"),
+        ValueFilter.notEq(new Binary("s7")));
+  }
+
+  private void check(
+      TSDataType dataType,
+      Supplier<Encoder> encoder,
+      Supplier<Decoder> decoder,
+      ValueGenerator generator,
+      Filter valueFilter,
+      Filter otherValueFilter)
+      throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(encoder.get());
+    pageWriter.initStatistics(dataType);
+    for (int i = 0; i < POINTS_COUNT_IN_ONE_PAGE; i++) {
+      // timestamps are not continuous
+      long time = i * 2L;
+      Object value = generator.generate(i);
+      switch (dataType) {
+        case INT32:
+          pageWriter.write(time, (int) value);
+          break;
+        case INT64:
+          pageWriter.write(time, (long) value);
+          break;
+        case FLOAT:
+          pageWriter.write(time, (float) value);
+          break;
+        case DOUBLE:
+          pageWriter.write(time, (double) value);
+          break;
+        case TEXT:
+          pageWriter.write(time, (Binary) value);
+          break;
+        default:
+          Assert.fail();
+      }
+    }
+    byte[] page = pageWriter.getUncompressedBytes().array();
+    PageHeader pageHeader = new PageHeader(page.length, page.length, pageWriter.getStatistics());
+
+    Filter timeFilter =
+        FilterFactory.or(TimeFilter.between(1000, 4000, false), TimeFilter.gt(15000));
+    Filter[] filters = {
+      timeFilter,
+      valueFilter,
+      FilterFactory.and(timeFilter, valueFilter),
+      FilterFactory.and(FilterFactory.and(TimeFilter.ltEq(12000), valueFilter), otherValueFilter),
+      FilterFactory.and(
+          TimeFilter.in(new HashSet<>(Arrays.asList(0L, 2L, 2000L, 2002L, 19998L)), false),
+          FilterFactory.or(valueFilter, otherValueFilter)),
+      FilterFactory.or(TimeFilter.lt(1000), valueFilter),
+      FilterFactory.and(TimeFilter.notEq(2000), otherValueFilter),
+      TimeFilter.gt(100000)
+    };
+    // {limit, offset}
+    long[][] paginations = {{0, 0}, {50, 20}, {0, 500}};
+    for (Filter filter : filters) {
+      for (long[] pagination : paginations) {
+        for (boolean withDeletion : new boolean[] {false, true}) {
+          PageReader pageReader =
+              new PageReader(
+                  pageHeader,
+                  ByteBuffer.wrap(page),
+                  dataType,
+                  decoder.get(),
+                  new DeltaBinaryDecoder.LongDeltaDecoder(),
+                  filter);
+          pageReader.setLimitOffset(new PaginationController(pagination[0], pagination[1]));
+          if (withDeletion) {
+            pageReader.setDeleteIntervalList(new ArrayList<>(DELETE_INTERVALS));
+          }
+          TsBlock tsBlock = pageReader.getAllSatisfiedData();
+
+          long limit = pagination[0];
+          long offset = pagination[1];
+          String message = filter + ", limit " + limit + ", offset " + offset;
+          int index = 0;
+          for (int i = 0; i < POINTS_COUNT_IN_ONE_PAGE; i++) {
+            long time = i * 2L;
+            Object value = generator.generate(i);
+            if (!filter.satisfy(time, value) || (withDeletion && isDeleted(time))) {
+              continue;
+            }
+            if (offset > 0) {
+              offset--;
+              continue;
+            }
+            if (pagination[0] > 0) {
+              if (limit == 0) {
+                break;
+              }
+              limit--;
+            }
+            Assert.assertTrue(message, index < tsBlock.getPositionCount());
+            Assert.assertEquals(message, time, tsBlock.getTimeByIndex(index));
+            Assert.assertEquals(message, value, tsBlock.getColumn(0).getObject(index));
+            index++;
+          }
+          Assert.assertEquals(message, index, tsBlock.getPositionCount());
+        }
+      }
+    }
+  }
+
+  private static boolean isDeleted(long time) {
+    for (TimeRange range : DELETE_INTERVALS) {
+      if (range.contains(time)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private interface ValueGenerator {
+
+    Object generate(int i);
+  }
+}